@@ -0,0 +1,80 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Deterministic contracts and payloads shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final UUID CLIENT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    static final OffsetDateTime NOW = OffsetDateTime.of(2025, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private BenchmarkFixtures() {
+    }
+
+    static InstrumentContract contract(int measurementCount) {
+        List<ContractMeasurement> rows = new ArrayList<>(measurementCount);
+        for (int i = 0; i < measurementCount; i++) {
+            rows.add(new ContractMeasurement((long) i + 1, code(i), "Measurement " + i, "mg/L", i + 1));
+        }
+        return InstrumentContract.of(1L, "BENCH-01", rows);
+    }
+
+    static Map<String, BigDecimal> valuesByCode(int measurementCount) {
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (int i = 0; i < measurementCount; i++) {
+            values.put(code(i), BigDecimal.valueOf(1000L + i, 3));
+        }
+        return values;
+    }
+
+    static Map<Long, BigDecimal> valuesByDefinitionId(int measurementCount) {
+        Map<Long, BigDecimal> values = new LinkedHashMap<>();
+        for (int i = 0; i < measurementCount; i++) {
+            values.put((long) i + 1, BigDecimal.valueOf(1000L + i, 3));
+        }
+        return values;
+    }
+
+    static InstrumentRunDetails details(List<RequiredMeasurement> requiredMeasurements) {
+        return new InstrumentRunDetails(
+                42L,
+                "BENCH-01",
+                "Benchmark Analyzer",
+                CLIENT_ID,
+                "bench-ref-42",
+                InstrumentRunStatus.SUCCEEDED,
+                NOW,
+                CLIENT_ID,
+                SpecStatus.IN_SPEC,
+                NOW.plusSeconds(1),
+                NOW.plusSeconds(2),
+                null,
+                null,
+                new ProcessResult("PASS"),
+                NOW,
+                NOW.plusSeconds(2),
+                requiredMeasurements
+        );
+    }
+
+    private static String code(int i) {
+        return "M" + i;
+    }
+}
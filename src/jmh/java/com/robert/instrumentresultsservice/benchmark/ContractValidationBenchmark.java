@@ -0,0 +1,56 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submit-path validation: check codes/values against the contract, then resolve each code to its definition id
+ * (what the service does before building Measurement rows).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContractValidationBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    int measurementCount;
+
+    private InstrumentContract contract;
+    private Map<String, BigDecimal> measurementsByCode;
+
+    @Setup
+    public void setUp() {
+        contract = BenchmarkFixtures.contract(measurementCount);
+        measurementsByCode = BenchmarkFixtures.valuesByCode(measurementCount);
+    }
+
+    @Benchmark
+    public MeasurementValues validate() {
+        // validate() is toValues() without the result; returning it keeps the work from being eliminated
+        return contract.toValues(measurementsByCode);
+    }
+
+    @Benchmark
+    public void validateAndResolveDefinitions(Blackhole bh) {
+        contract.validate(measurementsByCode);
+        for (Map.Entry<String, BigDecimal> entry : measurementsByCode.entrySet()) {
+            ContractMeasurement cm = contract.measurement(entry.getKey());
+            bh.consume(cm.definitionId());
+            bh.consume(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robert.instrumentresultsservice.api.InstrumentRunResponseMapper;
+import com.robert.instrumentresultsservice.api.dto.GetInstrumentRunResponse;
+import com.robert.instrumentresultsservice.config.JacksonConfig;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the application's ObjectMapper (as configured by JacksonConfig).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    int measurementCount;
+
+    private ObjectMapper objectMapper;
+    private GetInstrumentRunResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        InstrumentContract contract = BenchmarkFixtures.contract(measurementCount);
+        response = InstrumentRunResponseMapper.toGetInstrumentRunResponse(
+                BenchmarkFixtures.details(
+                        contract.toRequiredMeasurements(BenchmarkFixtures.valuesByDefinitionId(measurementCount))
+                )
+        );
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,90 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal vs scaled-long (micro-unit) measurement values. Run with the gc profiler (the default
+ * in build.gradle) to compare gc.alloc.rate.norm (bytes/op) next to the timings.
+ *
+ * Submit side: validate a submission and hold the resolved values per definition id.
+ * Processing side: the sum/min/max kind of arithmetic a processing stage does over a run's values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeasurementValuesBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    int measurementCount;
+
+    private InstrumentContract contract;
+    private Map<String, BigDecimal> measurementsByCode;
+
+    private Map<Long, BigDecimal> bigDecimalValues;
+    private MeasurementValues compactValues;
+
+    @Setup
+    public void setUp() {
+        contract = BenchmarkFixtures.contract(measurementCount);
+        measurementsByCode = BenchmarkFixtures.valuesByCode(measurementCount);
+
+        bigDecimalValues = resolveBigDecimal();
+        compactValues = contract.toValues(measurementsByCode);
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> submitBigDecimal() {
+        return resolveBigDecimal();
+    }
+
+    @Benchmark
+    public MeasurementValues submitCompact() {
+        return contract.toValues(measurementsByCode);
+    }
+
+    @Benchmark
+    public BigDecimal[] aggregateBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal min = null;
+        BigDecimal max = null;
+        for (BigDecimal value : bigDecimalValues.values()) {
+            sum = sum.add(value);
+            min = min == null || value.compareTo(min) < 0 ? value : min;
+            max = max == null || value.compareTo(max) > 0 ? value : max;
+        }
+        return new BigDecimal[]{sum, min, max};
+    }
+
+    @Benchmark
+    public long[] aggregateCompact() {
+        return new long[]{compactValues.sumMicros(), compactValues.minMicros(), compactValues.maxMicros()};
+    }
+
+    // The pre-compact submit path: check each code/value and keep the BigDecimal per definition id
+    private Map<Long, BigDecimal> resolveBigDecimal() {
+        Map<Long, BigDecimal> values = new HashMap<>();
+        for (Map.Entry<String, BigDecimal> entry : measurementsByCode.entrySet()) {
+            ContractMeasurement cm = contract.measurement(entry.getKey());
+            if (cm == null || entry.getValue() == null) {
+                throw new IllegalArgumentException(entry.getKey());
+            }
+            values.put(cm.definitionId(), entry.getValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.robert.instrumentresultsservice.api.InstrumentRunResponseMapper;
+import com.robert.instrumentresultsservice.api.dto.GetInstrumentRunResponse;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-path mapping: contract + submitted values into InstrumentRunDetails, then into the API response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RunDetailsMappingBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    int measurementCount;
+
+    private InstrumentContract contract;
+    private Map<Long, BigDecimal> submittedValues;
+    private InstrumentRunDetails details;
+
+    @Setup
+    public void setUp() {
+        contract = BenchmarkFixtures.contract(measurementCount);
+        submittedValues = BenchmarkFixtures.valuesByDefinitionId(measurementCount);
+        details = BenchmarkFixtures.details(contract.toRequiredMeasurements(submittedValues));
+    }
+
+    @Benchmark
+    public InstrumentRunDetails buildDetails() {
+        List<RequiredMeasurement> requiredMeasurements = contract.toRequiredMeasurements(submittedValues);
+        return BenchmarkFixtures.details(requiredMeasurements);
+    }
+
+    @Benchmark
+    public GetInstrumentRunResponse toResponse() {
+        return InstrumentRunResponseMapper.toGetInstrumentRunResponse(details);
+    }
+
+    @Benchmark
+    public GetInstrumentRunResponse buildDetailsAndResponse() {
+        return InstrumentRunResponseMapper.toGetInstrumentRunResponse(buildDetails());
+    }
+}
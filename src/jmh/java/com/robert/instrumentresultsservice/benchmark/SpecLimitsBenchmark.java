@@ -0,0 +1,119 @@
+package com.robert.instrumentresultsservice.benchmark;
+
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.MeasurementSpec;
+import com.robert.instrumentresultsservice.service.contract.SpecLimitBatch;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.robert.instrumentresultsservice.service.measurement.MicroUnits.ONE;
+
+/**
+ * Spec limit evaluation for a bulk submission of runCount runs with 20 bounded values each:
+ * BigDecimal compares against limits held as BigDecimal (what a straightforward check over the
+ * entity columns would do; built once in setUp, so only the compares are measured), the per-run
+ * primitive lookup, and the columnar batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpecLimitsBenchmark {
+
+    private static final int VALUES_PER_RUN = 20;
+
+    @Param({"100", "1000", "10000"})
+    int runCount;
+
+    private InstrumentContract contract;
+    private Map<Long, BigDecimal[]> bigDecimalLimitsByDefinitionId;
+    private List<MeasurementValues> runs;
+
+    @Setup
+    public void setUp() {
+        List<ContractMeasurement> rows = new ArrayList<>(VALUES_PER_RUN);
+        for (int i = 0; i < VALUES_PER_RUN; i++) {
+            rows.add(new ContractMeasurement((long) i + 1, "M" + i, "Measurement " + i, "mg/L", i + 1,
+                    new MeasurementSpec(0, 1000 * ONE, 10 * ONE, 900 * ONE)));
+        }
+        contract = InstrumentContract.of(1L, "BENCH-01", rows);
+
+        // specLow, specHigh, warnLow, warnHigh
+        bigDecimalLimitsByDefinitionId = new HashMap<>();
+        for (ContractMeasurement cm : rows) {
+            MeasurementSpec spec = cm.spec();
+            bigDecimalLimitsByDefinitionId.put(cm.definitionId(), new BigDecimal[] {
+                    BigDecimal.valueOf(spec.specLowMicros(), 6),
+                    BigDecimal.valueOf(spec.specHighMicros(), 6),
+                    BigDecimal.valueOf(spec.warnLowMicros(), 6),
+                    BigDecimal.valueOf(spec.warnHighMicros(), 6)
+            });
+        }
+
+        runs = new ArrayList<>(runCount);
+        for (int r = 0; r < runCount; r++) {
+            MeasurementValues.Builder values = MeasurementValues.builder(VALUES_PER_RUN);
+            for (int i = 0; i < VALUES_PER_RUN; i++) {
+                // Mostly in spec; every 97th value warns, every 997th is out of spec
+                int n = r * VALUES_PER_RUN + i;
+                long micros = n % 997 == 0 ? 1001 * ONE : n % 97 == 0 ? 950 * ONE : (n % 800 + 50) * ONE;
+                values.add(i + 1, micros);
+            }
+            runs.add(values.build());
+        }
+    }
+
+    @Benchmark
+    public SpecStatus[] bigDecimal() {
+        SpecStatus[] statuses = new SpecStatus[runs.size()];
+        for (int r = 0; r < runs.size(); r++) {
+            MeasurementValues values = runs.get(r);
+            SpecStatus worst = SpecStatus.IN_SPEC;
+            for (int i = 0; i < values.size(); i++) {
+                BigDecimal[] limits = bigDecimalLimitsByDefinitionId.get(values.definitionId(i));
+                BigDecimal value = values.value(i);
+                if (value.compareTo(limits[0]) < 0 || value.compareTo(limits[1]) > 0) {
+                    worst = SpecStatus.OUT_OF_SPEC;
+                } else if (worst == SpecStatus.IN_SPEC
+                        && (value.compareTo(limits[2]) < 0 || value.compareTo(limits[3]) > 0)) {
+                    worst = SpecStatus.WARNING;
+                }
+            }
+            statuses[r] = worst;
+        }
+        return statuses;
+    }
+
+    @Benchmark
+    public SpecStatus[] perRun() {
+        SpecStatus[] statuses = new SpecStatus[runs.size()];
+        for (int r = 0; r < runs.size(); r++) {
+            statuses[r] = contract.specStatus(runs.get(r));
+        }
+        return statuses;
+    }
+
+    @Benchmark
+    public SpecStatus[] batch() {
+        SpecLimitBatch batch = new SpecLimitBatch(runs.size() * VALUES_PER_RUN);
+        for (MeasurementValues values : runs) {
+            batch.add(contract.specLimits(), values);
+        }
+        return batch.evaluate();
+    }
+}
@@ -2,14 +2,36 @@ package com.robert.instrumentresultsservice.api;
 
 import com.robert.instrumentresultsservice.api.dto.*;
 import com.robert.instrumentresultsservice.service.InstrumentRunQueryService;
+import com.robert.instrumentresultsservice.service.MeasurementStreamIngestionService;
+import com.robert.instrumentresultsservice.service.RunStatusNotifier;
 import com.robert.instrumentresultsservice.service.InstrumentRunService;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.service.command.NewInstrumentRun;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.query.InstrumentRunFilter;
+import com.robert.instrumentresultsservice.service.result.BulkRunCreateResult;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunCreated;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
-import com.robert.instrumentresultsservice.service.result.InstrumentRunListItem;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunPage;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
+import com.robert.instrumentresultsservice.service.result.MeasurementStreamSummary;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 import static com.robert.instrumentresultsservice.api.ApiConstants.CLIENT_ID_HEADER;
@@ -20,13 +42,22 @@ public class InstrumentRunController {
 
     private final InstrumentRunService instrumentRunService;
     private final InstrumentRunQueryService instrumentRunQueryService;
+    private final MeasurementStreamIngestionService measurementStreamIngestionService;
+    private final RunStatusNotifier runStatusNotifier;
+    private final Duration finalRunMaxAge;
 
     public InstrumentRunController(
             InstrumentRunService instrumentRunService,
-            InstrumentRunQueryService instrumentRunQueryService
+            InstrumentRunQueryService instrumentRunQueryService,
+            MeasurementStreamIngestionService measurementStreamIngestionService,
+            RunStatusNotifier runStatusNotifier,
+            @Value("${run-status.cache.final-max-age-seconds:300}") long finalRunMaxAgeSeconds
     ) {
         this.instrumentRunService = instrumentRunService;
         this.instrumentRunQueryService = instrumentRunQueryService;
+        this.measurementStreamIngestionService = measurementStreamIngestionService;
+        this.runStatusNotifier = runStatusNotifier;
+        this.finalRunMaxAge = Duration.ofSeconds(finalRunMaxAgeSeconds);
     }
 
     /**
@@ -41,7 +72,8 @@ public class InstrumentRunController {
                 instrumentRunService.createRun(
                         request.instrumentCode(),
                         clientId,
-                        request.externalReference()
+                        request.externalReference(),
+                        request.priority()
                 );
 
         return new CreateInstrumentRunResponse(
@@ -52,6 +84,40 @@ public class InstrumentRunController {
         );
     }
 
+    /**
+     * Create many instrument runs in one transaction.
+     * Returns one result per requested run (in request order); failed items carry an error.
+     */
+    @PostMapping("/bulk")
+    public BulkCreateInstrumentRunsResponse createRuns(
+            @RequestBody @Valid BulkCreateInstrumentRunsRequest request,
+            @RequestHeader(CLIENT_ID_HEADER) UUID clientId
+    ) {
+        List<NewInstrumentRun> runs = request.runs()
+                .stream()
+                .map(r -> r == null ? null : new NewInstrumentRun(r.instrumentCode(), r.externalReference(), r.priority()))
+                .toList();
+
+        List<BulkRunCreateResult> results = instrumentRunService.createRuns(runs, clientId);
+
+        int created = (int) results.stream().filter(BulkRunCreateResult::succeeded).count();
+
+        return new BulkCreateInstrumentRunsResponse(
+                created,
+                results.size() - created,
+                results.stream()
+                        .map(r -> new BulkCreateInstrumentRunResult(
+                                r.index(),
+                                r.runId(),
+                                r.instrumentCode(),
+                                r.status(),
+                                r.createdAt(),
+                                r.error()
+                        ))
+                        .toList()
+        );
+    }
+
     /**
      * Submit measurements for an instrument run.
      */
@@ -68,52 +134,139 @@ public class InstrumentRunController {
                         clientId
                 );
 
-        return toGetInstrumentRunResponse(result);
+        return InstrumentRunResponseMapper.toGetInstrumentRunResponse(result);
     }
 
     /**
-     * Get an instrument run by ID.
+     * Submit measurements for many runs in one call.
+     * Returns a compact ack per run (in request order); rejected runs carry an error and are unchanged.
+     */
+    @PostMapping("/bulk/measurements")
+    public BulkSubmitMeasurementsResponse submitMeasurementsForRuns(
+            @RequestBody @Valid BulkSubmitMeasurementsRequest request,
+            @RequestHeader(CLIENT_ID_HEADER) UUID clientId
+    ) {
+        List<RunMeasurementSubmission> submissions = request.runs()
+                .stream()
+                .map(r -> r == null
+                        ? new RunMeasurementSubmission(null, null)
+                        : new RunMeasurementSubmission(r.runId(), r.measurements()))
+                .toList();
+
+        List<MeasurementSubmissionAck> acks =
+                instrumentRunService.submitMeasurementsForRuns(submissions, clientId);
+
+        int accepted = (int) acks.stream().filter(MeasurementSubmissionAck::isAccepted).count();
+
+        return new BulkSubmitMeasurementsResponse(
+                accepted,
+                acks.size() - accepted,
+                acks.stream()
+                        .map(a -> new RunMeasurementsAck(
+                                a.runId(),
+                                a.status(),
+                                a.measurementCount(),
+                                a.specStatus(),
+                                a.measurementsSubmittedAt(),
+                                a.error()
+                        ))
+                        .toList()
+        );
+    }
+
+    /**
+     * Stream measurements for many runs as newline-delimited JSON, one record per line:
+     * {"runId": 1, "code": "WBC", "value": 6.1}
+     * The body is read incrementally and submitted in micro-batches; see MeasurementStreamIngestionServiceImpl.
+     */
+    @PostMapping(value = "/measurements/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public MeasurementStreamSummary streamMeasurements(
+            InputStream body,
+            @RequestHeader(CLIENT_ID_HEADER) UUID clientId
+    ) {
+        return measurementStreamIngestionService.ingest(body, clientId);
+    }
+
+    /**
+     * Re-drive dead-lettered runs: each goes back to the processing queue with a fresh set of attempts.
+     * List candidates with GET ?status=DEAD_LETTERED.
+     */
+    @PostMapping("/dead-lettered/redrive")
+    public RedriveRunsResponse redriveDeadLettered(@RequestBody @Valid RedriveRunsRequest request) {
+        List<Long> redriven = instrumentRunService.redriveDeadLettered(request.runIds());
+
+        int requested = (int) request.runIds().stream().filter(Objects::nonNull).distinct().count();
+        return new RedriveRunsResponse(redriven.size(), requested - redriven.size(), redriven);
+    }
+
+    /**
+     * Get a run. Responses carry an ETag; a request whose If-None-Match still matches gets 304 from
+     * a single-row version lookup and the cached contract, without reading measurements. There is no
+     * Last-Modified: at one-second precision it could not tell apart transitions within a second.
+     *
+     * SUCCEEDED and FAILED runs no longer change state, so they may be cached for
+     * run-status.cache.final-max-age-seconds. That is kept short because their contract-derived fields
+     * (names, units, order) can still change. Anything else must be revalidated.
      */
     @GetMapping("/{runId}")
-    public GetInstrumentRunResponse getRunById(@PathVariable Long runId) {
+    public ResponseEntity<GetInstrumentRunResponse> getRunById(@PathVariable Long runId, WebRequest request) {
+        // 1) Cheap version check first
+        InstrumentRunVersion version = instrumentRunService.getRunVersion(runId);
+        if (request.checkNotModified(version.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl(version))
+                    .build();
+        }
+
+        // 2) Full read; tagged with the version it was built from, in case the run moved in between
         InstrumentRunDetails result = instrumentRunService.getRunById(runId);
-        return toGetInstrumentRunResponse(result);
+        InstrumentRunVersion current = InstrumentRunVersion.of(result);
+        return ResponseEntity.ok()
+                .eTag(current.etag())
+                .cacheControl(cacheControl(current))
+                .body(InstrumentRunResponseMapper.toGetInstrumentRunResponse(result));
     }
 
-    private GetInstrumentRunResponse toGetInstrumentRunResponse(InstrumentRunDetails result) {
-        List<RequiredMeasurementDto> requiredMeasurements = result.requiredMeasurements()
-                .stream()
-                .map(rm -> new RequiredMeasurementDto(
-                        rm.code(),
-                        rm.name(),
-                        rm.unit(),
-                        rm.displayOrder(),
-                        rm.submittedValue()
-                ))
-                .toList();
+    /**
+     * Stream status changes for a run as Server-Sent Events ("status" events).
+     * Sends the current status first and completes once the run has SUCCEEDED, FAILED or DEAD_LETTERED.
+     * Use this instead of polling GET /{runId}.
+     */
+    @GetMapping(value = "/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable Long runId) {
+        return runStatusNotifier.subscribe(runId);
+    }
 
-        return new GetInstrumentRunResponse(
-                result.id(),
-                result.instrumentCode(),
-                result.instrumentName(),
-                result.createdByClientId(),
-                result.externalReference(),
-                result.status(),
-                result.measurementsSubmittedAt(),
-                result.measurementsSubmittedByClientId(),
-                result.processingStartedAt(),
-                result.processingCompletedAt(),
-                result.errorCode(),
-                result.errorMessage(),
-                result.processResult(),
-                result.createdAt(),
-                result.updatedAt(),
-                requiredMeasurements
+    /**
+     * List runs newest first, one page at a time.
+     * Pass the returned nextPageToken as pageToken to fetch the following page.
+     */
+    @GetMapping
+    public InstrumentRunPage listRuns(
+            @RequestParam(required = false) InstrumentRunStatus status,
+            @RequestParam(required = false) String instrumentCode,
+            @RequestParam(required = false) UUID createdByClientId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String pageToken
+    ) {
+        InstrumentRunFilter filter = new InstrumentRunFilter(
+                status,
+                instrumentCode,
+                createdByClientId,
+                createdFrom,
+                createdTo
         );
+
+        return instrumentRunQueryService.listRuns(filter, limit, pageToken);
     }
 
-    @GetMapping
-    public List<InstrumentRunListItem> getAllRuns() {
-        return instrumentRunQueryService.getAllRuns();
+    private CacheControl cacheControl(InstrumentRunVersion version) {
+        return version.isFinal()
+                ? CacheControl.maxAge(finalRunMaxAge)
+                : CacheControl.noCache();
     }
 }
@@ -0,0 +1,49 @@
+package com.robert.instrumentresultsservice.api;
+
+import com.robert.instrumentresultsservice.api.dto.GetInstrumentRunResponse;
+import com.robert.instrumentresultsservice.api.dto.RequiredMeasurementDto;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+
+import java.util.List;
+
+/**
+ * Maps service results to API responses for instrument runs.
+ */
+public final class InstrumentRunResponseMapper {
+
+    private InstrumentRunResponseMapper() {
+    }
+
+    public static GetInstrumentRunResponse toGetInstrumentRunResponse(InstrumentRunDetails result) {
+        List<RequiredMeasurementDto> requiredMeasurements = result.requiredMeasurements()
+                .stream()
+                .map(rm -> new RequiredMeasurementDto(
+                        rm.code(),
+                        rm.name(),
+                        rm.unit(),
+                        rm.displayOrder(),
+                        rm.submittedValue()
+                ))
+                .toList();
+
+        return new GetInstrumentRunResponse(
+                result.id(),
+                result.instrumentCode(),
+                result.instrumentName(),
+                result.createdByClientId(),
+                result.externalReference(),
+                result.status(),
+                result.measurementsSubmittedAt(),
+                result.measurementsSubmittedByClientId(),
+                result.specStatus(),
+                result.processingStartedAt(),
+                result.processingCompletedAt(),
+                result.errorCode(),
+                result.errorMessage(),
+                result.processResult(),
+                result.createdAt(),
+                result.updatedAt(),
+                requiredMeasurements
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Result of one item in a bulk create; error is set when the item was not created.
+ */
+public record BulkCreateInstrumentRunResult(
+
+        int index,
+        Long id,
+        String instrumentCode,
+        InstrumentRunStatus status,
+        OffsetDateTime createdAt,
+        String error
+
+) {}
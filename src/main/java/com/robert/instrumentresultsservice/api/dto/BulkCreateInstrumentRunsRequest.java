@@ -0,0 +1,18 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to create many instrument runs at once.
+ * Items are validated individually; an invalid item fails on its own and does not reject the request.
+ */
+public record BulkCreateInstrumentRunsRequest(
+
+        @NotEmpty
+        @Size(max = 10_000)
+        List<CreateInstrumentRunRequest> runs
+
+) {}
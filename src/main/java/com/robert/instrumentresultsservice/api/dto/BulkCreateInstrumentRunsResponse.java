@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import java.util.List;
+
+/**
+ * Response returned after a bulk create, with one result per requested run in request order.
+ */
+public record BulkCreateInstrumentRunsResponse(
+
+        int created,
+        int failed,
+        List<BulkCreateInstrumentRunResult> results
+
+) {}
@@ -0,0 +1,17 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to submit measurements for many runs at once.
+ */
+public record BulkSubmitMeasurementsRequest(
+
+        @NotEmpty
+        @Size(max = 1_000)
+        List<RunMeasurementsRequest> runs
+
+) {}
@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import java.util.List;
+
+/**
+ * Response returned after a bulk measurement submission, one ack per run in request order.
+ */
+public record BulkSubmitMeasurementsResponse(
+
+        int accepted,
+        int rejected,
+        List<RunMeasurementsAck> results
+
+) {}
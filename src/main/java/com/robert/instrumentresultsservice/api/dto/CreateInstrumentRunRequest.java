@@ -1,15 +1,19 @@
 package com.robert.instrumentresultsservice.api.dto;
 
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
 import jakarta.validation.constraints.NotBlank;
 
 /**
  * Request to create a new instrument run.
+ * priority is optional; without it the run gets its instrument's priority class.
  */
 public record CreateInstrumentRunRequest(
 
         @NotBlank
         String instrumentCode,
 
-        String externalReference
+        String externalReference,
+
+        ProcessingPriority priority
 
 ) {}
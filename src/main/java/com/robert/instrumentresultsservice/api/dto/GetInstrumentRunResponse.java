@@ -1,6 +1,7 @@
 package com.robert.instrumentresultsservice.api.dto;
 
 import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
 import com.robert.instrumentresultsservice.service.result.ProcessResult;
 
 import java.time.OffsetDateTime;
@@ -19,6 +20,7 @@ public record GetInstrumentRunResponse(
         InstrumentRunStatus status,
         OffsetDateTime measurementsSubmittedAt,
         UUID measurementsSubmittedByClientId,
+        SpecStatus specStatus,
         OffsetDateTime processingStartedAt,
         OffsetDateTime processingCompletedAt,
         String errorCode,
@@ -0,0 +1,17 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to put dead-lettered runs back in the processing queue.
+ */
+public record RedriveRunsRequest(
+
+        @NotEmpty
+        @Size(max = 1_000)
+        List<Long> runIds
+
+) {}
@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import java.util.List;
+
+/**
+ * Response returned after a re-drive. Requested runs that were not DEAD_LETTERED are skipped.
+ */
+public record RedriveRunsResponse(
+
+        int redriven,
+        int skipped,
+        List<Long> redrivenRunIds
+
+) {}
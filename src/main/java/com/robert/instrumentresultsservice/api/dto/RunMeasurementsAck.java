@@ -0,0 +1,20 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Acknowledgement for one run in a bulk submission; error is set when the run was rejected.
+ */
+public record RunMeasurementsAck(
+
+        Long runId,
+        InstrumentRunStatus status,
+        int measurementCount,
+        SpecStatus specStatus,
+        OffsetDateTime measurementsSubmittedAt,
+        String error
+
+) {}
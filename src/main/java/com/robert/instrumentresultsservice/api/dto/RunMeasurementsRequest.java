@@ -0,0 +1,15 @@
+package com.robert.instrumentresultsservice.api.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Measurements for one run inside a bulk submission.
+ * Validated per run by the service so one bad run does not reject the others.
+ */
+public record RunMeasurementsRequest(
+
+        Long runId,
+        Map<String, BigDecimal> measurements
+
+) {}
@@ -1,18 +1,35 @@
 package com.robert.instrumentresultsservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
 @EnableAsync
 @Configuration
 public class AsyncConfig {
 
+    /**
+     * Executor for run processing.
+     * - platform (default): bounded pool of platform threads
+     * - virtual: one virtual thread per run, capped at processing.executor.max-concurrency;
+     *   blocking waits park the virtual thread instead of pinning a pool thread
+     */
     @Bean(name = "runProcessingExecutor")
-    public Executor runProcessingExecutor() {
+    public AsyncTaskExecutor runProcessingExecutor(
+            @Value("${processing.executor.mode:platform}") String mode,
+            @Value("${processing.executor.max-concurrency:1000}") int maxConcurrency
+    ) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("run-processor-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
         executor.setMaxPoolSize(8);
@@ -21,4 +38,19 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor that writes run status pushes to SSE subscribers.
+     * Keeps socket writes off the committing thread; subscribers themselves hold no thread.
+     */
+    @Bean(name = "runStatusPushExecutor")
+    public AsyncTaskExecutor runStatusPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("run-status-push-");
+        executor.initialize();
+        return executor;
+    }
 }
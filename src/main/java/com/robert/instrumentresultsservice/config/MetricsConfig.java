@@ -0,0 +1,41 @@
+package com.robert.instrumentresultsservice.config;
+
+import com.robert.instrumentresultsservice.service.ProcessingQueueWorker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Gauges for the run processing executor.
+     * - instrument.runs.processing.in_flight: runs dispatched by the queue worker and not finished (both modes)
+     * - instrument.runs.processing.executor.active / queued: pool threads busy / tasks waiting (platform mode only;
+     *   virtual mode has no pool or queue, in-flight is the equivalent)
+     */
+    @Bean
+    public MeterBinder runProcessingExecutorMetrics(
+            @Qualifier("runProcessingExecutor") AsyncTaskExecutor runProcessingExecutor,
+            ProcessingQueueWorker processingQueueWorker
+    ) {
+        return registry -> {
+            Gauge.builder("instrument.runs.processing.in_flight", processingQueueWorker, ProcessingQueueWorker::inFlight)
+                    .description("Runs being processed on this node")
+                    .register(registry);
+
+            if (runProcessingExecutor instanceof ThreadPoolTaskExecutor pool) {
+                Gauge.builder("instrument.runs.processing.executor.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+                        .description("Processing threads currently running a task")
+                        .register(registry);
+                Gauge.builder("instrument.runs.processing.executor.queued", pool, ThreadPoolTaskExecutor::getQueueSize)
+                        .description("Processing tasks waiting for a thread")
+                        .register(registry);
+            }
+        };
+    }
+}
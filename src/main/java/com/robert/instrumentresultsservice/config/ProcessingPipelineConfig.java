@@ -0,0 +1,63 @@
+package com.robert.instrumentresultsservice.config;
+
+import com.robert.instrumentresultsservice.service.processing.ProcessingPipeline;
+import com.robert.instrumentresultsservice.service.processing.stage.DerivedValuesStage;
+import com.robert.instrumentresultsservice.service.processing.stage.DerivedValuesStage.Formula;
+import com.robert.instrumentresultsservice.service.processing.stage.DerivedValuesStage.Operator;
+import com.robert.instrumentresultsservice.service.processing.stage.LimitCheckStage;
+import com.robert.instrumentresultsservice.service.processing.stage.LimitCheckStage.Limits;
+import com.robert.instrumentresultsservice.service.processing.stage.SpecLimitCheckStage;
+import com.robert.instrumentresultsservice.service.processing.stage.UnitNormalizationStage;
+import com.robert.instrumentresultsservice.service.processing.stage.VerdictStage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.robert.instrumentresultsservice.service.measurement.MicroUnits.ONE;
+
+/**
+ * Processing pipelines, one bean per pipeline. Add a pipeline by declaring another
+ * ProcessingPipeline bean that claims its instrument codes; everything else uses "default".
+ */
+@Configuration
+public class ProcessingPipelineConfig {
+
+    /**
+     * Instruments without a pipeline of their own: contract spec limits, normalize units, verdict.
+     */
+    @Bean
+    public ProcessingPipeline defaultProcessingPipeline() {
+        return new ProcessingPipeline(
+                "default",
+                Set.of(),
+                List.of(new SpecLimitCheckStage(), new UnitNormalizationStage(), new VerdictStage())
+        );
+    }
+
+    /**
+     * Demo instrument 001 (seeded in V3): A/B ratio and sum. Inputs are checked against their
+     * contract spec limits (V15); the ratio has a limit of its own.
+     */
+    @Bean
+    public ProcessingPipeline demoInstrument001Pipeline() {
+        return new ProcessingPipeline(
+                "demo-001",
+                Set.of("INSTR_DEMO_001"),
+                List.of(
+                        new SpecLimitCheckStage(),
+                        new UnitNormalizationStage(),
+                        new DerivedValuesStage(List.of(
+                                new Formula("ratio_a_b", "meas_demo_a", Operator.DIVIDE, "meas_demo_b", null),
+                                new Formula("sum_a_b", "meas_demo_a", Operator.ADD, "meas_demo_b", null)
+                        )),
+                        new LimitCheckStage(Map.of(
+                                "ratio_a_b", Limits.atMost(10 * ONE)
+                        )),
+                        new VerdictStage()
+                )
+        );
+    }
+}
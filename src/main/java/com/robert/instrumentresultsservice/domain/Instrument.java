@@ -2,6 +2,8 @@ package com.robert.instrumentresultsservice.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -56,6 +58,20 @@ public class Instrument {
     @Column(name = "is_active", nullable = false)
     private boolean isActive = true;
 
+    /**
+     * Processing attempts a run of this instrument gets before it is dead-lettered.
+     * Null means the processing.retry.max-attempts default.
+     */
+    @Column(name = "max_processing_attempts")
+    private Integer maxProcessingAttempts;
+
+    /**
+     * Priority class of this instrument's runs unless the create request names one.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_priority", nullable = false, length = 16)
+    private ProcessingPriority processingPriority = ProcessingPriority.NORMAL;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -95,6 +111,22 @@ public class Instrument {
         isActive = active;
     }
 
+    public Integer getMaxProcessingAttempts() {
+        return maxProcessingAttempts;
+    }
+
+    public void setMaxProcessingAttempts(Integer maxProcessingAttempts) {
+        this.maxProcessingAttempts = maxProcessingAttempts;
+    }
+
+    public ProcessingPriority getProcessingPriority() {
+        return processingPriority;
+    }
+
+    public void setProcessingPriority(ProcessingPriority processingPriority) {
+        this.processingPriority = processingPriority;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -14,6 +14,7 @@ import jakarta.persistence.UniqueConstraint;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 /**
@@ -58,6 +59,21 @@ public class InstrumentMeasurement {
     @Column(name = "display_order", nullable = false)
     private int displayOrder;
 
+    /**
+     * Per-instrument spec limit overrides; null keeps the definition's bound.
+     */
+    @Column(name = "spec_low", precision = 19, scale = 6)
+    private BigDecimal specLow;
+
+    @Column(name = "spec_high", precision = 19, scale = 6)
+    private BigDecimal specHigh;
+
+    @Column(name = "warn_low", precision = 19, scale = 6)
+    private BigDecimal warnLow;
+
+    @Column(name = "warn_high", precision = 19, scale = 6)
+    private BigDecimal warnHigh;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -84,6 +100,18 @@ public class InstrumentMeasurement {
     public int getDisplayOrder() { return displayOrder; }
     public void setDisplayOrder(int displayOrder) { this.displayOrder = displayOrder; }
 
+    public BigDecimal getSpecLow() { return specLow; }
+    public void setSpecLow(BigDecimal specLow) { this.specLow = specLow; }
+
+    public BigDecimal getSpecHigh() { return specHigh; }
+    public void setSpecHigh(BigDecimal specHigh) { this.specHigh = specHigh; }
+
+    public BigDecimal getWarnLow() { return warnLow; }
+    public void setWarnLow(BigDecimal warnLow) { this.warnLow = warnLow; }
+
+    public BigDecimal getWarnHigh() { return warnHigh; }
+    public void setWarnHigh(BigDecimal warnHigh) { this.warnHigh = warnHigh; }
+
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
 }
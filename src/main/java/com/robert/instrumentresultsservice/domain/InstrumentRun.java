@@ -11,8 +11,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.robert.instrumentresultsservice.service.result.ProcessResult;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -20,20 +22,30 @@ import org.hibernate.type.SqlTypes;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+// Status changes go through conditional updates in InstrumentRunRepository; any remaining entity
+// update only writes the columns that changed
 @Entity
+@DynamicUpdate
 @Table(
         name = "instrument_run",
         indexes = {
                 @Index(name = "ix_instrument_run_instrument", columnList = "instrument_id"),
                 @Index(name = "ix_instrument_run_status", columnList = "status"),
                 @Index(name = "ix_instrument_run_created_at", columnList = "created_at"),
-                @Index(name = "ix_instrument_run_external_ref", columnList = "external_reference")
+                @Index(name = "ix_instrument_run_external_ref", columnList = "external_reference"),
+                // Partial (external_reference IS NOT NULL) in V12
+                @Index(
+                        name = "ux_instrument_run_client_external_ref",
+                        columnList = "created_by_client_id, external_reference",
+                        unique = true
+                )
         }
 )
 public class InstrumentRun {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instrument_run_id_seq")
+    @SequenceGenerator(name = "instrument_run_id_seq", sequenceName = "instrument_run_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -50,7 +62,7 @@ public class InstrumentRun {
     private UUID createdByClientId;
 
     /**
-     * Optional external reference (idempotency key, correlation id, etc).
+     * Optional external reference; unique per client, so it doubles as the idempotency key for creates.
      */
     @Column(name = "external_reference", length = 128)
     private String externalReference;
@@ -62,6 +74,13 @@ public class InstrumentRun {
     @Column(nullable = false, length = 32)
     private InstrumentRunStatus status = InstrumentRunStatus.CREATED;
 
+    /**
+     * Processing priority class: the create request's, else the instrument's.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16, updatable = false)
+    private ProcessingPriority priority = ProcessingPriority.NORMAL;
+
     /**
      * Domain timestamps.
      */
@@ -71,12 +90,42 @@ public class InstrumentRun {
     @Column(name = "measurements_submitted_by_client_id")
     private UUID measurementsSubmittedByClientId;
 
+    /**
+     * Submitted values against the contract's spec limits; set with MEASUREMENTS_SUBMITTED.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "spec_status", length = 16)
+    private SpecStatus specStatus;
+
     @Column(name = "processing_started_at")
     private OffsetDateTime processingStartedAt;
 
     @Column(name = "processing_completed_at")
     private OffsetDateTime processingCompletedAt;
 
+    /**
+     * Processing ownership while PROCESSING: the node holding the run, and until when. The owner
+     * renews the lease while it works; once it expires the run is requeued (or failed after
+     * too many attempts). Cleared when processing completes.
+     */
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
+    /**
+     * Times the run was claimed for processing, including the current claim.
+     */
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts;
+
+    /**
+     * Earliest time the queue may claim the run again after a retryable failure; null = now.
+     */
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
     /**
      * Error fields when FAILED.
      */
@@ -125,6 +174,9 @@ public class InstrumentRun {
     public InstrumentRunStatus getStatus() { return status; }
     public void setStatus(InstrumentRunStatus status) { this.status = status; }
 
+    public ProcessingPriority getPriority() { return priority; }
+    public void setPriority(ProcessingPriority priority) { this.priority = priority; }
+
     public OffsetDateTime getMeasurementsSubmittedAt() { return measurementsSubmittedAt; }
     public void setMeasurementsSubmittedAt(OffsetDateTime measurementsSubmittedAt) {
         this.measurementsSubmittedAt = measurementsSubmittedAt;
@@ -138,6 +190,9 @@ public class InstrumentRun {
         this.measurementsSubmittedByClientId = measurementsSubmittedByClientId;
     }
 
+    public SpecStatus getSpecStatus() { return specStatus; }
+    public void setSpecStatus(SpecStatus specStatus) { this.specStatus = specStatus; }
+
     public OffsetDateTime getProcessingStartedAt() { return processingStartedAt; }
     public void setProcessingStartedAt(OffsetDateTime processingStartedAt) {
         this.processingStartedAt = processingStartedAt;
@@ -148,6 +203,11 @@ public class InstrumentRun {
         this.processingCompletedAt = processingCompletedAt;
     }
 
+    public String getLeaseOwner() { return leaseOwner; }
+    public OffsetDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public int getProcessingAttempts() { return processingAttempts; }
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
+
     public String getErrorCode() { return errorCode; }
     public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
 
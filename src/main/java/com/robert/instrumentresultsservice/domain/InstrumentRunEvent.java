@@ -12,12 +12,15 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.DomainEvents;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Entity
 @Table(
@@ -31,7 +34,8 @@ import java.time.OffsetDateTime;
 public class InstrumentRunEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instrument_run_event_id_seq")
+    @SequenceGenerator(name = "instrument_run_event_id_seq", sequenceName = "instrument_run_event_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -50,6 +54,9 @@ public class InstrumentRunEvent {
     @Column(columnDefinition = "jsonb")
     private JsonNode details;
 
+    /**
+     * Partition key (monthly range partitions, see V14); the id alone is unique but not the primary key.
+     */
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -77,4 +84,18 @@ public class InstrumentRunEvent {
     }
 
     public OffsetDateTime getCreatedAt() { return createdAt; }
+
+    /**
+     * Published by Spring Data on save/saveAll, so every place that records a run event
+     * also announces the transition. getId() on a lazy run proxy does not initialize it.
+     */
+    @DomainEvents
+    List<InstrumentRunTransitioned> domainEvents() {
+        return List.of(new InstrumentRunTransitioned(
+                instrumentRun.getId(),
+                eventType,
+                eventType.resultingStatus(),
+                OffsetDateTime.now()
+        ));
+    }
 }
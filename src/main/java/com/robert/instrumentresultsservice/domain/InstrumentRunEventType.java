@@ -1,9 +1,29 @@
 package com.robert.instrumentresultsservice.domain;
 
 public enum InstrumentRunEventType {
-    CREATED,
-    MEASUREMENTS_SUBMITTED,
-    PROCESSING_STARTED,
-    PROCESSING_COMPLETED,
-    PROCESSING_FAILED
+    CREATED(InstrumentRunStatus.CREATED),
+    MEASUREMENTS_SUBMITTED(InstrumentRunStatus.MEASUREMENTS_SUBMITTED),
+    PROCESSING_STARTED(InstrumentRunStatus.PROCESSING),
+    // Lease expired while PROCESSING; back in the queue
+    PROCESSING_REQUEUED(InstrumentRunStatus.MEASUREMENTS_SUBMITTED),
+    // Attempt failed with a retryable error; queued again once the backoff has passed
+    PROCESSING_RETRY_SCHEDULED(InstrumentRunStatus.MEASUREMENTS_SUBMITTED),
+    PROCESSING_COMPLETED(InstrumentRunStatus.SUCCEEDED),
+    PROCESSING_FAILED(InstrumentRunStatus.FAILED),
+    PROCESSING_DEAD_LETTERED(InstrumentRunStatus.DEAD_LETTERED),
+    // Operator re-drive of a dead-lettered run, with a fresh set of attempts
+    PROCESSING_REDRIVEN(InstrumentRunStatus.MEASUREMENTS_SUBMITTED);
+
+    private final InstrumentRunStatus resultingStatus;
+
+    InstrumentRunEventType(InstrumentRunStatus resultingStatus) {
+        this.resultingStatus = resultingStatus;
+    }
+
+    /**
+     * Status the run is in once this event has been recorded.
+     */
+    public InstrumentRunStatus resultingStatus() {
+        return resultingStatus;
+    }
 }
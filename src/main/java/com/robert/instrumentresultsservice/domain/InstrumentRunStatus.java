@@ -5,5 +5,7 @@ public enum InstrumentRunStatus {
     MEASUREMENTS_SUBMITTED,
     PROCESSING,
     SUCCEEDED,
-    FAILED
+    FAILED,
+    // Retryable failures used up the instrument's attempts; waits for an operator re-drive
+    DEAD_LETTERED
 }
@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Application event published whenever an InstrumentRunEvent is saved
+ * (see InstrumentRunEvent#domainEvents), i.e. whenever a run changes status.
+ */
+public record InstrumentRunTransitioned(
+        Long runId,
+        InstrumentRunEventType eventType,
+        InstrumentRunStatus status,
+        OffsetDateTime occurredAt
+) {}
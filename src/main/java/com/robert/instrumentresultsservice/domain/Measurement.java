@@ -9,8 +9,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -25,8 +25,13 @@ import java.time.OffsetDateTime;
 )
 public class Measurement {
 
+    /**
+     * Sequence-backed (pooled, 50 ids per round trip) rather than IDENTITY,
+     * so Hibernate can batch measurement inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "measurement_id_seq")
+    @SequenceGenerator(name = "measurement_id_seq", sequenceName = "measurement_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -49,7 +54,12 @@ public class Measurement {
     @Column(nullable = false, precision = 19, scale = 6)
     private BigDecimal value;
 
-    @CreationTimestamp
+    /**
+     * Partition key (monthly range partitions, see V14); the id alone is unique but not the primary key.
+     * Set to the run's measurementsSubmittedAt, so all measurements of one submission share it and
+     * uq_measurement_run_definition (V19) rejects a definition written twice in one submission
+     * (a second submission is already stopped by the CREATED -> MEASUREMENTS_SUBMITTED compare-and-set).
+     */
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
@@ -84,4 +94,8 @@ public class Measurement {
     public void setValue(BigDecimal value) {
         this.value = value;
     }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -11,6 +11,7 @@ import jakarta.persistence.UniqueConstraint;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 /**
@@ -63,6 +64,23 @@ public class MeasurementDefinition {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    /**
+     * Default spec limits, inclusive, in this definition's unit; null when unbounded.
+     * Values outside spec_low..spec_high are out of spec; outside warn_low..warn_high, a warning.
+     * An instrument can override each bound on its contract row.
+     */
+    @Column(name = "spec_low", precision = 19, scale = 6)
+    private BigDecimal specLow;
+
+    @Column(name = "spec_high", precision = 19, scale = 6)
+    private BigDecimal specHigh;
+
+    @Column(name = "warn_low", precision = 19, scale = 6)
+    private BigDecimal warnLow;
+
+    @Column(name = "warn_high", precision = 19, scale = 6)
+    private BigDecimal warnHigh;
+
     /**
      * Indicates whether this measurement definition is active.
      * Historical measurements remain valid if set to false.
@@ -119,6 +137,38 @@ public class MeasurementDefinition {
         this.description = description;
     }
 
+    public BigDecimal getSpecLow() {
+        return specLow;
+    }
+
+    public void setSpecLow(BigDecimal specLow) {
+        this.specLow = specLow;
+    }
+
+    public BigDecimal getSpecHigh() {
+        return specHigh;
+    }
+
+    public void setSpecHigh(BigDecimal specHigh) {
+        this.specHigh = specHigh;
+    }
+
+    public BigDecimal getWarnLow() {
+        return warnLow;
+    }
+
+    public void setWarnLow(BigDecimal warnLow) {
+        this.warnLow = warnLow;
+    }
+
+    public BigDecimal getWarnHigh() {
+        return warnHigh;
+    }
+
+    public void setWarnHigh(BigDecimal warnHigh) {
+        this.warnHigh = warnHigh;
+    }
+
     public boolean isActive() {
         return isActive;
     }
@@ -0,0 +1,13 @@
+package com.robert.instrumentresultsservice.domain;
+
+/**
+ * Processing priority class of a run. The queue claims runs by weighted fair queuing over
+ * (client, class), so a class's weight sets its share of processing when classes compete.
+ */
+public enum ProcessingPriority {
+    // Lab work someone is waiting on
+    INTERACTIVE,
+    NORMAL,
+    // Backfills and re-processing
+    BULK
+}
@@ -0,0 +1,10 @@
+package com.robert.instrumentresultsservice.domain;
+
+/**
+ * How a run's submitted values compare to the spec limits of its contract, in increasing severity.
+ */
+public enum SpecStatus {
+    IN_SPEC,
+    WARNING,
+    OUT_OF_SPEC
+}
@@ -1,5 +1,7 @@
 package com.robert.instrumentresultsservice.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -89,6 +91,38 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    /**
+     * Handle constraint violations (e.g., concurrent creates racing on the same externalReference)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("Conflicting concurrent request; retry"));
+    }
+
+    /**
+     * Handle admission control rejections: 429 while the queue drains slower than submissions
+     * arrive, 503 when it is not draining at all. Retry-After is in whole seconds.
+     */
+    @ExceptionHandler(ProcessingOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleProcessingOverloaded(ProcessingOverloadedException ex) {
+        return ResponseEntity
+                .status(ex.isStalled() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
+    /**
+     * Handle status stream subscriptions beyond this node's capacity: 503, the client should poll instead
+     */
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriberLimitExceeded(SubscriberLimitExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     /**
      * Handle generic exceptions (fallback)
      */
@@ -0,0 +1,30 @@
+package com.robert.instrumentresultsservice.exception;
+
+import java.time.Duration;
+
+/**
+ * A submission was turned away because the processing queue is full.
+ * Nothing was written; the client should retry after retryAfter.
+ *
+ * stalled means the queue is not draining at all (e.g. processing is down), as opposed to
+ * draining slower than runs arrive.
+ */
+public class ProcessingOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+    private final boolean stalled;
+
+    public ProcessingOverloadedException(String message, Duration retryAfter, boolean stalled) {
+        super(message);
+        this.retryAfter = retryAfter;
+        this.stalled = stalled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public boolean isStalled() {
+        return stalled;
+    }
+}
@@ -0,0 +1,12 @@
+package com.robert.instrumentresultsservice.exception;
+
+/**
+ * A status stream was refused because this node already holds run-status.push.max-subscribers.
+ * Nothing is wrong with the request; the client should poll, or subscribe again later.
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
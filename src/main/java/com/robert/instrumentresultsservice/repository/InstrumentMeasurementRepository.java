@@ -26,4 +26,36 @@ public interface InstrumentMeasurementRepository extends JpaRepository<Instrumen
         order by im.displayOrder asc
     """)
     List<InstrumentMeasurement> findRequiredByInstrumentCode(@Param("instrumentCode") String instrumentCode);
+
+    /**
+     * Every contract row with its instrument and definition, for (re)building the contract cache.
+     */
+    @Query("""
+        select im
+        from InstrumentMeasurement im
+        join fetch im.instrument i
+        join fetch im.measurementDefinition md
+        order by i.id asc, im.displayOrder asc
+    """)
+    List<InstrumentMeasurement> findAllContracts();
+
+    @Query("""
+        select im
+        from InstrumentMeasurement im
+        join fetch im.instrument i
+        join fetch im.measurementDefinition md
+        where i.id = :instrumentId
+        order by im.displayOrder asc
+    """)
+    List<InstrumentMeasurement> findContractByInstrumentId(@Param("instrumentId") Long instrumentId);
+
+    @Query("""
+        select im
+        from InstrumentMeasurement im
+        join fetch im.instrument i
+        join fetch im.measurementDefinition md
+        where i.code = :instrumentCode
+        order by im.displayOrder asc
+    """)
+    List<InstrumentMeasurement> findContractByInstrumentCode(@Param("instrumentCode") String instrumentCode);
 }
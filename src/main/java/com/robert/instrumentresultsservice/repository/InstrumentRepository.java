@@ -3,6 +3,7 @@ package com.robert.instrumentresultsservice.repository;
 import com.robert.instrumentresultsservice.domain.Instrument;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,8 @@ public interface InstrumentRepository extends JpaRepository<Instrument, Long> {
 
     Optional<Instrument> findByCode(String code);
 
+    List<Instrument> findByCodeIn(Collection<String> codes);
+
     List<Instrument> findAllByIsActiveTrueOrderByNameAsc();
 
     // Useful if you prefer code list for dropdowns
@@ -2,13 +2,595 @@ package com.robert.instrumentresultsservice.repository;
 
 import com.robert.instrumentresultsservice.domain.InstrumentRun;
 import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import com.robert.instrumentresultsservice.repository.projection.ClaimedRunView;
+import com.robert.instrumentresultsservice.repository.projection.ExpiredLeaseView;
+import com.robert.instrumentresultsservice.repository.projection.ProcessingInputRow;
+import com.robert.instrumentresultsservice.repository.projection.QueueDepthRow;
+import com.robert.instrumentresultsservice.repository.projection.RetryStateRow;
+import com.robert.instrumentresultsservice.repository.projection.RunDetailsRow;
+import com.robert.instrumentresultsservice.repository.projection.RunKeyView;
+import com.robert.instrumentresultsservice.repository.projection.RunStatusView;
+import com.robert.instrumentresultsservice.repository.projection.RunVersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
-public interface InstrumentRunRepository extends JpaRepository<InstrumentRun, Long> {
+public interface InstrumentRunRepository extends JpaRepository<InstrumentRun, Long>,
+        JpaSpecificationExecutor<InstrumentRun> {
 
     List<InstrumentRun> findByInstrumentIdOrderByCreatedAtDesc(Long instrumentId);
 
     List<InstrumentRun> findByStatusOrderByCreatedAtDesc(InstrumentRunStatus status);
+
+    /**
+     * Everything getRunById needs except the contract, in one statement and without
+     * managed entities. Empty when the run does not exist.
+     *
+     * measurement is partitioned by month on created_at; the bounds let Postgres skip every
+     * partition outside [run created, measurements submitted] at execution time. Measurements are
+     * stamped with the run's measurementsSubmittedAt (rows written before V19, a moment later);
+     * the day of slack on either side covers clock skew between nodes.
+     */
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.RunDetailsRow(
+            r.id,
+            i.id,
+            i.code,
+            i.name,
+            r.createdByClientId,
+            r.externalReference,
+            r.status,
+            r.measurementsSubmittedAt,
+            r.measurementsSubmittedByClientId,
+            r.specStatus,
+            r.processingStartedAt,
+            r.processingCompletedAt,
+            r.errorCode,
+            r.errorMessage,
+            r.processResult,
+            r.createdAt,
+            r.updatedAt,
+            m.measurementDefinition.id,
+            m.value
+        )
+        from InstrumentRun r
+        join r.instrument i
+        left join Measurement m on m.instrumentRun.id = r.id
+            and m.createdAt >= r.createdAt - 1 day
+            and m.createdAt <= coalesce(r.measurementsSubmittedAt, r.createdAt) + 1 day
+        where r.id = :id
+    """)
+    List<RunDetailsRow> findDetailsRowsById(@Param("id") Long id);
+
+    /**
+     * Processing inputs for a run in one statement (same partition pruning as findDetailsRowsById).
+     * Empty when the run does not exist.
+     */
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.ProcessingInputRow(
+            i.id,
+            i.code,
+            m.measurementDefinition.id,
+            m.value
+        )
+        from InstrumentRun r
+        join r.instrument i
+        left join Measurement m on m.instrumentRun.id = r.id
+            and m.createdAt >= r.createdAt - 1 day
+            and m.createdAt <= coalesce(r.measurementsSubmittedAt, r.createdAt) + 1 day
+        where r.id = :id
+    """)
+    List<ProcessingInputRow> findProcessingInputRowsById(@Param("id") Long id);
+
+    /**
+     * Insert a CREATED run, or return the run that already holds (clientId, externalReference), in one statement.
+     * inserted tells which one happened. created_at / updated_at come from column defaults.
+     *
+     * Empty only when a concurrent transaction committed the same key after this statement's snapshot was taken;
+     * {@link #findRunKey} (a new statement) will then see it.
+     */
+    @Query(value = """
+        with inserted as (
+            insert into instrument_run (instrument_id, created_by_client_id, external_reference, status, priority)
+            values (:instrumentId, :clientId, :externalReference, 'CREATED', :priority)
+            on conflict (created_by_client_id, external_reference) where external_reference is not null
+            do nothing
+            returning id, instrument_id, created_at
+        )
+        select id as "id", instrument_id as "instrumentId", created_at as "createdAt", true as "inserted"
+        from inserted
+        union all
+        select id, instrument_id, created_at, false
+        from instrument_run
+        where created_by_client_id = :clientId
+          and external_reference = :externalReference
+          and not exists (select 1 from inserted)
+    """, nativeQuery = true)
+    Optional<RunKeyView> insertOrFindByExternalReference(
+            @Param("instrumentId") Long instrumentId,
+            @Param("clientId") UUID clientId,
+            @Param("externalReference") String externalReference,
+            @Param("priority") String priority
+    );
+
+    @Query(value = """
+        select id as "id", instrument_id as "instrumentId", created_at as "createdAt", false as "inserted"
+        from instrument_run
+        where created_by_client_id = :clientId
+          and external_reference = :externalReference
+    """, nativeQuery = true)
+    Optional<RunKeyView> findRunKey(
+            @Param("clientId") UUID clientId,
+            @Param("externalReference") String externalReference
+    );
+
+    /**
+     * Runs already holding one of the given references for this client (bulk create deduplication).
+     */
+    @Query("""
+        select r from InstrumentRun r
+        join fetch r.instrument
+        where r.createdByClientId = :clientId
+          and r.externalReference in :externalReferences
+    """)
+    List<InstrumentRun> findByClientAndExternalReferenceIn(
+            @Param("clientId") UUID clientId,
+            @Param("externalReferences") Collection<String> externalReferences
+    );
+
+    /**
+     * Version of a run's details for conditional GETs: a primary key lookup on instrument_run and its
+     * instrument, without measurements.
+     */
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.RunVersionRow(
+            r.id, i.id, i.name, r.status, r.updatedAt, r.measurementsSubmittedAt
+        )
+        from InstrumentRun r
+        join r.instrument i
+        where r.id = :id
+    """)
+    Optional<RunVersionRow> findVersionById(@Param("id") Long id);
+
+    @Query("select r.status from InstrumentRun r where r.id = :id")
+    Optional<InstrumentRunStatus> findStatusById(@Param("id") Long id);
+
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.RunStatusView(r.id, r.status)
+        from InstrumentRun r
+        where r.id in :ids
+    """)
+    List<RunStatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lock up to batchSize runs waiting for processing, chosen by weighted fair queuing.
+     *
+     * Every (client, priority class) pair is a flow. Each queued run is tagged with its rank in its
+     * flow (oldest submission first) divided by the class weight, and the lowest tags win: flows are
+     * served round-robin, a class with twice the weight gets twice the turns, and a client with a
+     * huge backlog gets one turn per round like everyone else. Ranks restart at every claim, so a
+     * client arriving during a backfill is served on the next claim.
+     *
+     * Rows are locked while the candidates are picked: the flows are enumerated with one index probe
+     * each (a loose scan of ix_instrument_run_processing_queue), and each flow contributes its oldest
+     * claimable runs with FOR UPDATE SKIP LOCKED, so runs another worker is claiming are passed over
+     * and concurrent workers get disjoint batches. A flow locks no more than its weighted share of
+     * the batch, ceil(batchSize * weight / (minWeight * flows)) plus one: when every flow has that many
+     * runs, no flow's cut can go deeper, so only a few rows beyond the batch are locked in all. When
+     * some flows have fewer, the batch can come back short while others still have runs; the caller
+     * tops it up with another call once these runs left MEASUREMENTS_SUBMITTED. Candidates that do not
+     * make the cut stay locked only until the claiming transaction commits. Runs backing off after a
+     * retryable failure are skipped until their next_attempt_at. Must be called inside a transaction;
+     * the locks are held until it ends.
+     */
+    @Query(value = """
+        with recursive flows (created_by_client_id, priority) as (
+            (
+                select created_by_client_id, priority
+                from instrument_run
+                where status = 'MEASUREMENTS_SUBMITTED'
+                order by created_by_client_id, priority
+                limit 1
+            )
+            union all
+            select next_flow.created_by_client_id, next_flow.priority
+            from flows
+            cross join lateral (
+                select r.created_by_client_id, r.priority
+                from instrument_run r
+                where r.status = 'MEASUREMENTS_SUBMITTED'
+                  and (r.created_by_client_id, r.priority) > (flows.created_by_client_id, flows.priority)
+                order by r.created_by_client_id, r.priority
+                limit 1
+            ) next_flow
+        ),
+        weighted_flows as (
+            select created_by_client_id,
+                   priority,
+                   case priority
+                       when 'INTERACTIVE' then :interactiveWeight
+                       when 'BULK' then :bulkWeight
+                       else :normalWeight
+                   end as weight
+            from flows
+        ),
+        shares as (
+            select created_by_client_id,
+                   priority,
+                   weight,
+                   least(
+                       :batchSize,
+                       ceil(:batchSize::float8 * weight / (min(weight) over () * count(*) over ()))::int + 1
+                   ) as flow_limit
+            from weighted_flows
+        )
+        select id as "id", measurements_submitted_at as "measurementsSubmittedAt", priority as "priority"
+        from (
+            select head.id,
+                   head.measurements_submitted_at,
+                   shares.priority,
+                   shares.weight,
+                   row_number() over (
+                       partition by shares.created_by_client_id, shares.priority
+                       order by head.measurements_submitted_at, head.id
+                   ) as flow_rank
+            from shares
+            cross join lateral (
+                select r.id, r.measurements_submitted_at
+                from instrument_run r
+                where r.created_by_client_id = shares.created_by_client_id
+                  and r.priority = shares.priority
+                  and r.status = 'MEASUREMENTS_SUBMITTED'
+                  and (r.next_attempt_at is null or r.next_attempt_at <= now())
+                order by r.measurements_submitted_at, r.id
+                limit shares.flow_limit
+                for update skip locked
+            ) head
+        ) locked
+        order by flow_rank::float8 / weight,
+                 measurements_submitted_at,
+                 id
+        limit :batchSize
+    """, nativeQuery = true)
+    List<ClaimedRunView> lockNextSubmittedRuns(
+            @Param("batchSize") int batchSize,
+            @Param("interactiveWeight") int interactiveWeight,
+            @Param("normalWeight") int normalWeight,
+            @Param("bulkWeight") int bulkWeight
+    );
+
+    /**
+     * Queue depth and oldest submission per priority class (runs in MEASUREMENTS_SUBMITTED, backing off included).
+     */
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.QueueDepthRow(
+            r.priority,
+            count(r),
+            min(r.measurementsSubmittedAt)
+        )
+        from InstrumentRun r
+        where r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED
+        group by r.priority
+    """)
+    List<QueueDepthRow> countQueuedByPriority();
+
+    /**
+     * Add claimed runs to the cluster-wide claim counter (V20). Not transactional, and never blocks
+     * another node's claim.
+     */
+    @Query(value = """
+        select count(nextval('processing_claim_count'))
+        from generate_series(1, :runs)
+    """, nativeQuery = true)
+    long addClaims(@Param("runs") int runs);
+
+    /**
+     * Runs claimed by all nodes so far (V20); only differences between two reads are meaningful.
+     */
+    @Query(value = """
+        select case when is_called then last_value else 0 end
+        from processing_claim_count
+    """, nativeQuery = true)
+    long countClaims();
+
+    /**
+     * Move claimed runs from MEASUREMENTS_SUBMITTED to PROCESSING in one statement, leased to owner.
+     * Bulk updates bypass @UpdateTimestamp, so updatedAt is set explicitly.
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING,
+            r.processingStartedAt = :now,
+            r.processingCompletedAt = null,
+            r.errorCode = null,
+            r.errorMessage = null,
+            r.leaseOwner = :owner,
+            r.leaseExpiresAt = :leaseExpiresAt,
+            r.processingAttempts = r.processingAttempts + 1,
+            r.nextAttemptAt = null,
+            r.updatedAt = :now
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED
+    """)
+    int markProcessingStarted(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") OffsetDateTime now,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") OffsetDateTime leaseExpiresAt
+    );
+
+    /**
+     * Renew the leases this node still holds. Runs that completed, or were reclaimed after their
+     * lease expired, no longer match; a result lower than ids.size() is expected in both cases.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.leaseExpiresAt = :leaseExpiresAt
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+    """)
+    int extendLeases(
+            @Param("ids") Collection<Long> ids,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") OffsetDateTime leaseExpiresAt
+    );
+
+    /**
+     * Lock up to batchSize PROCESSING runs whose lease expired before now, oldest expiry first
+     * (backed by ix_instrument_run_processing_lease). SKIP LOCKED, so concurrent sweepers split the work.
+     * Must be called inside a transaction.
+     */
+    @Query(value = """
+        select r.id as "id",
+               r.lease_owner as "leaseOwner",
+               r.processing_attempts as "processingAttempts",
+               i.max_processing_attempts as "maxProcessingAttempts"
+        from instrument_run r
+        join instrument i on i.id = r.instrument_id
+        where r.status = 'PROCESSING'
+          and r.lease_expires_at < :now
+        order by r.lease_expires_at, r.id
+        limit :batchSize
+        for update of r skip locked
+    """, nativeQuery = true)
+    List<ExpiredLeaseView> lockExpiredLeases(@Param("now") OffsetDateTime now, @Param("batchSize") int batchSize);
+
+    /**
+     * PROCESSING -> MEASUREMENTS_SUBMITTED for runs whose lease expired, so the queue claims them again.
+     * measurementsSubmittedAt is kept, so they go back to the front of the queue.
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseExpiresAt < :now
+    """)
+    int requeueExpiredLeases(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    /**
+     * PROCESSING -> DEAD_LETTERED for runs whose lease expired once too often.
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.DEAD_LETTERED,
+            r.processingCompletedAt = :now,
+            r.errorCode = :errorCode,
+            r.errorMessage = :errorMessage,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseExpiresAt < :now
+    """)
+    int deadLetterExpiredLeases(
+            @Param("ids") Collection<Long> ids,
+            @Param("errorCode") String errorCode,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Lock the given runs that are DEAD_LETTERED, so a re-drive reports exactly the runs it moved.
+     * Must be called inside a transaction.
+     */
+    @Query(value = """
+        select id
+        from instrument_run
+        where id in (:ids)
+          and status = 'DEAD_LETTERED'
+        order by id
+        for update
+    """, nativeQuery = true)
+    List<Long> lockDeadLetteredRuns(@Param("ids") Collection<Long> ids);
+
+    /**
+     * DEAD_LETTERED -> MEASUREMENTS_SUBMITTED with a fresh set of attempts. The last error is kept
+     * until the next claim clears it.
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED,
+            r.processingCompletedAt = null,
+            r.processingAttempts = 0,
+            r.nextAttemptAt = null,
+            r.updatedAt = :now
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.DEAD_LETTERED
+    """)
+    int redriveDeadLettered(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    /**
+     * Attempts used by a PROCESSING run and its instrument's cap (null = default). Empty when the
+     * run is not PROCESSING under this owner's lease.
+     *
+     * This is a plain read; scheduleRetry and deadLetter re-check the attempt it returned, so a run
+     * reclaimed in between is left alone rather than retried or dead-lettered on a stale count.
+     */
+    @Query("""
+        select new com.robert.instrumentresultsservice.repository.projection.RetryStateRow(
+            r.processingAttempts,
+            i.maxProcessingAttempts
+        )
+        from InstrumentRun r
+        join r.instrument i
+        where r.id = :id
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+    """)
+    Optional<RetryStateRow> findRetryStateById(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Move runs from CREATED to MEASUREMENTS_SUBMITTED in one statement.
+     * Only rows still in CREATED are updated, so a result lower than ids.size()
+     * means another request submitted one of the runs first.
+     *
+     * All ids get the same specStatus; callers with mixed results issue one update per status.
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED,
+            r.measurementsSubmittedAt = :now,
+            r.measurementsSubmittedByClientId = :clientId,
+            r.specStatus = :specStatus,
+            r.updatedAt = :now
+        where r.id in :ids
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.CREATED
+    """)
+    int markMeasurementsSubmitted(
+            @Param("ids") Collection<Long> ids,
+            @Param("clientId") UUID clientId,
+            @Param("specStatus") SpecStatus specStatus,
+            @Param("now") OffsetDateTime now
+    );
+
+    /*
+     * Single-run transitions are compare-and-set: the expected current status is part of the WHERE clause,
+     * so a result of 0 means the run does not exist or another transition got there first.
+     * Only the changed columns are written, and no prior SELECT is needed.
+     *
+     * Transitions out of PROCESSING are also fenced by the lease owner: once a lapsed lease was reclaimed
+     * (and possibly claimed by another node), the original node can no longer complete, fail or requeue it.
+     */
+
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.SUCCEEDED,
+            r.processingCompletedAt = :now,
+            r.processResult = :result,
+            r.errorCode = null,
+            r.errorMessage = null,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id = :id
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+    """)
+    int markSucceeded(
+            @Param("id") Long id,
+            @Param("result") ProcessResult result,
+            @Param("now") OffsetDateTime now,
+            @Param("owner") String owner
+    );
+
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.FAILED,
+            r.processingCompletedAt = :now,
+            r.errorCode = :errorCode,
+            r.errorMessage = :errorMessage,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id = :id
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+    """)
+    int markFailed(
+            @Param("id") Long id,
+            @Param("errorCode") String errorCode,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") OffsetDateTime now,
+            @Param("owner") String owner
+    );
+
+    /**
+     * PROCESSING -> MEASUREMENTS_SUBMITTED after a retryable failure; the queue claims the run again
+     * from nextAttemptAt. The error is kept so the run shows why it is waiting. Only applies to the
+     * attempt the decision was made for (see findRetryStateById).
+     */
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.MEASUREMENTS_SUBMITTED,
+            r.errorCode = :errorCode,
+            r.errorMessage = :errorMessage,
+            r.nextAttemptAt = :nextAttemptAt,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id = :id
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+          and r.processingAttempts = :attempt
+    """)
+    int scheduleRetry(
+            @Param("id") Long id,
+            @Param("errorCode") String errorCode,
+            @Param("errorMessage") String errorMessage,
+            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+            @Param("now") OffsetDateTime now,
+            @Param("owner") String owner,
+            @Param("attempt") int attempt
+    );
+
+    @Modifying
+    @Query("""
+        update InstrumentRun r
+        set r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.DEAD_LETTERED,
+            r.processingCompletedAt = :now,
+            r.errorCode = :errorCode,
+            r.errorMessage = :errorMessage,
+            r.leaseOwner = null,
+            r.leaseExpiresAt = null,
+            r.updatedAt = :now
+        where r.id = :id
+          and r.status = com.robert.instrumentresultsservice.domain.InstrumentRunStatus.PROCESSING
+          and r.leaseOwner = :owner
+          and r.processingAttempts = :attempt
+    """)
+    int deadLetter(
+            @Param("id") Long id,
+            @Param("errorCode") String errorCode,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") OffsetDateTime now,
+            @Param("owner") String owner,
+            @Param("attempt") int attempt
+    );
 }
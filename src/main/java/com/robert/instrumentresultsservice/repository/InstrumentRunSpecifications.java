@@ -0,0 +1,62 @@
+package com.robert.instrumentresultsservice.repository;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRun;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Composable predicates for listing instrument runs.
+ * Each factory returns null for a null argument so it can be chained with Specification.where/and.
+ */
+public final class InstrumentRunSpecifications {
+
+    private InstrumentRunSpecifications() {
+        // Prevent instantiation
+    }
+
+    public static Specification<InstrumentRun> hasStatus(InstrumentRunStatus status) {
+        if (status == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Filters on the instrument_id FK column (no join to instrument).
+     */
+    public static Specification<InstrumentRun> hasInstrumentId(Long instrumentId) {
+        if (instrumentId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("instrument").get("id"), instrumentId);
+    }
+
+    public static Specification<InstrumentRun> createdByClient(UUID clientId) {
+        if (clientId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("createdByClientId"), clientId);
+    }
+
+    public static Specification<InstrumentRun> createdAtOrAfter(OffsetDateTime from) {
+        if (from == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<OffsetDateTime>get("createdAt"), from);
+    }
+
+    public static Specification<InstrumentRun> createdBefore(OffsetDateTime to) {
+        if (to == null) return null;
+        return (root, query, cb) -> cb.lessThan(root.<OffsetDateTime>get("createdAt"), to);
+    }
+
+    /**
+     * Keyset predicate for (created_at DESC, id DESC) ordering: rows strictly after the given position.
+     * The leading "created_at <= ?" keeps the predicate sargable on the created_at indexes.
+     */
+    public static Specification<InstrumentRun> after(OffsetDateTime createdAt, Long id) {
+        if (createdAt == null || id == null) return null;
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<OffsetDateTime>get("createdAt"), createdAt),
+                cb.or(
+                        cb.lessThan(root.<OffsetDateTime>get("createdAt"), createdAt),
+                        cb.lessThan(root.<Long>get("id"), id)
+                )
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Run locked by the processing queue claim. An interface because it is filled from a native query.
+ */
+public interface ClaimedRunView {
+
+    Long getId();
+
+    Instant getMeasurementsSubmittedAt();
+
+    /**
+     * ProcessingPriority name.
+     */
+    String getPriority();
+}
@@ -0,0 +1,19 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+/**
+ * PROCESSING run whose lease expired, locked by the sweeper. An interface because it is filled
+ * from a native query.
+ */
+public interface ExpiredLeaseView {
+
+    Long getId();
+
+    String getLeaseOwner();
+
+    Integer getProcessingAttempts();
+
+    /**
+     * The instrument's cap on attempts; null = the configured default.
+     */
+    Integer getMaxProcessingAttempts();
+}
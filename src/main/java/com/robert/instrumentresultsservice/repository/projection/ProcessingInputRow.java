@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * What processing needs from the database for one run: the instrument, plus one row per
+ * submitted measurement (measurementDefinitionId / value are null when there are none).
+ */
+public record ProcessingInputRow(
+        Long instrumentId,
+        String instrumentCode,
+        Long measurementDefinitionId,
+        BigDecimal measurementValue
+) {}
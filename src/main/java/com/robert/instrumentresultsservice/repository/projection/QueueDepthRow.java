@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Runs waiting in the processing queue for one priority class, and the oldest submission among them.
+ */
+public record QueueDepthRow(
+        ProcessingPriority priority,
+        Long queued,
+        OffsetDateTime oldestSubmittedAt
+) {}
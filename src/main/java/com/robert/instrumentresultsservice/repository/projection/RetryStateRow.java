@@ -0,0 +1,9 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+/**
+ * Attempts a PROCESSING run has used, and its instrument's cap on them (null = the configured default).
+ */
+public record RetryStateRow(
+        int processingAttempts,
+        Integer maxProcessingAttempts
+) {}
@@ -0,0 +1,35 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One row of the getRunById projection: run + instrument columns, repeated once per
+ * submitted measurement (measurementDefinitionId / value are null when there are none).
+ */
+public record RunDetailsRow(
+        Long id,
+        Long instrumentId,
+        String instrumentCode,
+        String instrumentName,
+        UUID createdByClientId,
+        String externalReference,
+        InstrumentRunStatus status,
+        OffsetDateTime measurementsSubmittedAt,
+        UUID measurementsSubmittedByClientId,
+        SpecStatus specStatus,
+        OffsetDateTime processingStartedAt,
+        OffsetDateTime processingCompletedAt,
+        String errorCode,
+        String errorMessage,
+        ProcessResult processResult,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        Long measurementDefinitionId,
+        BigDecimal measurementValue
+) {}
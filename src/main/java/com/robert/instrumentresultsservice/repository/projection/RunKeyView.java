@@ -0,0 +1,19 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Run identified by its idempotency key. An interface because it is filled from a native query.
+ *
+ * inserted is true when the row was created by the statement that returned it.
+ */
+public interface RunKeyView {
+
+    Long getId();
+
+    Long getInstrumentId();
+
+    Instant getCreatedAt();
+
+    boolean isInserted();
+}
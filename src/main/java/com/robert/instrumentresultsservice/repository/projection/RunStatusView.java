@@ -0,0 +1,11 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+/**
+ * Id and status of a run, without loading the entity.
+ */
+public record RunStatusView(
+        Long id,
+        InstrumentRunStatus status
+) {}
@@ -0,0 +1,18 @@
+package com.robert.instrumentresultsservice.repository.projection;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * What a run's representation version is derived from, without loading the entity or its measurements.
+ * The instrument's contract comes from the cache, by instrumentId.
+ */
+public record RunVersionRow(
+        Long id,
+        Long instrumentId,
+        String instrumentName,
+        InstrumentRunStatus status,
+        OffsetDateTime updatedAt,
+        OffsetDateTime measurementsSubmittedAt
+) {}
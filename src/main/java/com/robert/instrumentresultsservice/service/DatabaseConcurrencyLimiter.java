@@ -0,0 +1,45 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many processing tasks touch the database at once.
+ *
+ * With virtual threads thousands of runs can be in flight; without a cap they would all queue
+ * on the Hikari pool and time out. Permits should stay below the pool size so request
+ * handling keeps some connections.
+ */
+@Component
+public class DatabaseConcurrencyLimiter {
+
+    private final Semaphore permits;
+
+    public DatabaseConcurrencyLimiter(@Value("${processing.db.max-concurrency:8}") int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public <T> T call(Supplier<T> work) {
+        // Permits are held only for single DB calls, so an uninterruptible wait stays short
+        permits.acquireUninterruptibly();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
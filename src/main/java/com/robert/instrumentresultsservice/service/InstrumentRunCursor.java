@@ -0,0 +1,41 @@
+package com.robert.instrumentresultsservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position (created_at, id) of the last run on a page.
+ * Encoded as an opaque, URL-safe continuation token.
+ */
+record InstrumentRunCursor(OffsetDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static InstrumentRunCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx < 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+
+            Instant createdAt = Instant.parse(raw.substring(0, idx));
+            long id = Long.parseLong(raw.substring(idx + 1));
+
+            return new InstrumentRunCursor(OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            // Base64, Instant and Long parse failures all mean the same thing to the caller
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
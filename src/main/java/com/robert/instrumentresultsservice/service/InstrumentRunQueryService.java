@@ -1,10 +1,15 @@
 package com.robert.instrumentresultsservice.service;
 
-import com.robert.instrumentresultsservice.service.result.InstrumentRunListItem;
-
-import java.util.List;
+import com.robert.instrumentresultsservice.service.query.InstrumentRunFilter;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunPage;
 
 public interface InstrumentRunQueryService {
 
-    List<InstrumentRunListItem> getAllRuns();
+    /**
+     * List runs newest first using keyset pagination on (createdAt, id).
+     *
+     * @param limit     page size; null uses the default, larger values are capped
+     * @param pageToken token from a previous page, or null for the first page
+     */
+    InstrumentRunPage listRuns(InstrumentRunFilter filter, Integer limit, String pageToken);
 }
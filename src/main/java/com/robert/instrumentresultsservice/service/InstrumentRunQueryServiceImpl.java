@@ -1,28 +1,84 @@
 package com.robert.instrumentresultsservice.service;
 
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentRun;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.query.InstrumentRunFilter;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunListItem;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunPage;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static com.robert.instrumentresultsservice.repository.InstrumentRunSpecifications.*;
+
 @Service
 public class InstrumentRunQueryServiceImpl implements InstrumentRunQueryService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final Sort NEWEST_FIRST = Sort.by(
+            Sort.Order.desc("createdAt"),
+            Sort.Order.desc("id")
+    );
+
     private final InstrumentRunRepository instrumentRunRepository;
+    private final InstrumentRepository instrumentRepository;
 
-    public InstrumentRunQueryServiceImpl(InstrumentRunRepository instrumentRunRepository) {
+    public InstrumentRunQueryServiceImpl(
+            InstrumentRunRepository instrumentRunRepository,
+            InstrumentRepository instrumentRepository
+    ) {
         this.instrumentRunRepository = instrumentRunRepository;
+        this.instrumentRepository = instrumentRepository;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<InstrumentRunListItem> getAllRuns() {
-        return instrumentRunRepository
-                .findAll(Sort.by(Sort.Direction.DESC, "createdAt"))
-                .stream()
+    public InstrumentRunPage listRuns(InstrumentRunFilter filter, Integer limit, String pageToken) {
+        int pageSize = resolvePageSize(limit);
+        InstrumentRunCursor cursor = pageToken == null || pageToken.isBlank()
+                ? null
+                : InstrumentRunCursor.decode(pageToken);
+
+        // 1) Resolve instrument code to id so the run query filters on the FK column only
+        Long instrumentId = null;
+        if (filter.instrumentCode() != null) {
+            instrumentId = instrumentRepository.findByCode(filter.instrumentCode())
+                    .map(Instrument::getId)
+                    .orElseThrow(() ->
+                            new IllegalArgumentException(
+                                    "Instrument not found: " + filter.instrumentCode()
+                            )
+                    );
+        }
+
+        Specification<InstrumentRun> spec = Specification
+                .where(hasStatus(filter.status()))
+                .and(hasInstrumentId(instrumentId))
+                .and(createdByClient(filter.createdByClientId()))
+                .and(createdAtOrAfter(filter.createdFrom()))
+                .and(createdBefore(filter.createdTo()));
+
+        if (cursor != null) {
+            spec = spec.and(after(cursor.createdAt(), cursor.id()));
+        }
+
+        // 2) Fetch one extra row to know whether another page exists (no count query)
+        List<InstrumentRun> rows = instrumentRunRepository.findBy(
+                spec,
+                q -> q.sortBy(NEWEST_FIRST).limit(pageSize + 1).all()
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<InstrumentRun> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<InstrumentRunListItem> items = page.stream()
                 .map(r -> new InstrumentRunListItem(
                         r.getId(),
                         r.getExternalReference(),
@@ -30,5 +86,23 @@ public class InstrumentRunQueryServiceImpl implements InstrumentRunQueryService
                         r.getCreatedAt()
                 ))
                 .toList();
+
+        String nextPageToken = null;
+        if (hasMore) {
+            InstrumentRun last = page.get(page.size() - 1);
+            nextPageToken = new InstrumentRunCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new InstrumentRunPage(items, nextPageToken);
+    }
+
+    private static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 }
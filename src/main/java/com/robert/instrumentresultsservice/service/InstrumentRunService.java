@@ -1,25 +1,88 @@
 package com.robert.instrumentresultsservice.service;
 
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+import com.robert.instrumentresultsservice.service.command.NewInstrumentRun;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.result.BulkRunCreateResult;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunCreated;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public interface InstrumentRunService {
 
+    /**
+     * Create a run. A non-null externalReference is an idempotency key per client: creating
+     * again with the same key returns the run created the first time instead of a new one.
+     *
+     * @param priority processing priority class; null = the instrument's
+     */
     InstrumentRunCreated createRun(
+            String instrumentCode,
+            UUID createdByClientId,
+            String externalReference,
+            ProcessingPriority priority
+    );
+
+    /**
+     * Create a run in its instrument's priority class.
+     */
+    default InstrumentRunCreated createRun(
             String instrumentCode,
             UUID createdByClientId,
             String externalReference
+    ) {
+        return createRun(instrumentCode, createdByClientId, externalReference, null);
+    }
+
+    /**
+     * Create many runs in one transaction. Items that fail validation (e.g. unknown instrument)
+     * are reported individually; the rest are created. Items whose externalReference already
+     * belongs to a run (or repeats an earlier item) return that run.
+     */
+    List<BulkRunCreateResult> createRuns(
+            List<NewInstrumentRun> runs,
+            UUID createdByClientId
     );
 
+    /**
+     * Submit a run's measurements, queueing it for processing. Throws
+     * ProcessingOverloadedException, before writing anything, while the processing queue is full.
+     */
     InstrumentRunDetails submitMeasurements(
             Long instrumentRunId,
             Map<String, BigDecimal> measurementsByCode,
             UUID submittedByClientId
     );
 
+    /**
+     * Submit measurements for many runs in one transaction. Each run is validated with the
+     * same all-or-nothing rules as a single submission; rejected runs are acknowledged with
+     * an error and left untouched. Admission control applies to the batch as a whole.
+     */
+    List<MeasurementSubmissionAck> submitMeasurementsForRuns(
+            List<RunMeasurementSubmission> submissions,
+            UUID submittedByClientId
+    );
+
     InstrumentRunDetails getRunById(Long instrumentRunId);
+
+    /**
+     * Current version of a run's details, without reading its measurements (the contract comes from
+     * the cache). Lets a conditional GET answer 304 before paying for getRunById.
+     */
+    InstrumentRunVersion getRunVersion(Long instrumentRunId);
+
+    /**
+     * Put DEAD_LETTERED runs back in the processing queue with a fresh set of attempts, each with a
+     * PROCESSING_REDRIVEN event. Ids that do not exist or are not DEAD_LETTERED are skipped.
+     *
+     * @return ids of the runs that were re-driven, ascending
+     */
+    List<Long> redriveDeadLettered(List<Long> instrumentRunIds);
 }
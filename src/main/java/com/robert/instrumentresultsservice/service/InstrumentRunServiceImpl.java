@@ -2,30 +2,59 @@ package com.robert.instrumentresultsservice.service;
 
 import com.robert.instrumentresultsservice.domain.*;
 import com.robert.instrumentresultsservice.repository.*;
+import com.robert.instrumentresultsservice.repository.projection.RunDetailsRow;
+import com.robert.instrumentresultsservice.repository.projection.RunKeyView;
+import com.robert.instrumentresultsservice.repository.projection.RunVersionRow;
+import com.robert.instrumentresultsservice.service.command.NewInstrumentRun;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
+import com.robert.instrumentresultsservice.service.contract.SpecLimitBatch;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import com.robert.instrumentresultsservice.service.result.BulkRunCreateResult;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunCreated;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
 import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class InstrumentRunServiceImpl implements InstrumentRunService {
 
+    /**
+     * Bulk create flushes and clears the persistence context every this many runs,
+     * so memory stays flat and inserts go out as full JDBC batches (multiple of batch_size).
+     */
+    private static final int BULK_FLUSH_SIZE = 1_000;
+
     private final InstrumentRepository instrumentRepository;
     private final InstrumentRunRepository instrumentRunRepository;
     private final InstrumentRunEventRepository instrumentRunEventRepository;
     private final MeasurementRepository measurementRepository;
     private final MeasurementDefinitionRepository measurementDefinitionRepository;
-    private final InstrumentMeasurementRepository instrumentMeasurementRepository;
-    private final ProcessingService processingService;
+    private final InstrumentContractCache instrumentContractCache;
+    private final RecentRunKeyCache recentRunKeyCache;
+    private final ProcessingQueueWorker processingQueueWorker;
+    private final ProcessingAdmissionControl processingAdmissionControl;
+    private final EntityManager entityManager;
+    private final RunMetrics runMetrics;
 
 
     public InstrumentRunServiceImpl(
@@ -34,27 +63,46 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
             MeasurementDefinitionRepository measurementDefinitionRepository,
             MeasurementRepository measurementRepository,
             InstrumentRunEventRepository instrumentRunEventRepository,
-            InstrumentMeasurementRepository instrumentMeasurementRepository,
-            ProcessingService processingService
+            InstrumentContractCache instrumentContractCache,
+            RecentRunKeyCache recentRunKeyCache,
+            ProcessingQueueWorker processingQueueWorker,
+            ProcessingAdmissionControl processingAdmissionControl,
+            EntityManager entityManager,
+            RunMetrics runMetrics
     ) {
         this.instrumentRepository = instrumentRepository;
         this.instrumentRunRepository = instrumentRunRepository;
         this.measurementDefinitionRepository = measurementDefinitionRepository;
         this.measurementRepository = measurementRepository;
         this.instrumentRunEventRepository = instrumentRunEventRepository;
-        this.instrumentMeasurementRepository = instrumentMeasurementRepository;
-        this.processingService = processingService;
+        this.instrumentContractCache = instrumentContractCache;
+        this.recentRunKeyCache = recentRunKeyCache;
+        this.processingQueueWorker = processingQueueWorker;
+        this.processingAdmissionControl = processingAdmissionControl;
+        this.entityManager = entityManager;
+        this.runMetrics = runMetrics;
     }
 
-
-
     @Override
     @Transactional
     public InstrumentRunCreated createRun(
             String instrumentCode,
             UUID createdByClientId,
-            String externalReference
+            String externalReference,
+            ProcessingPriority priority
     ) {
+        long startNanos = System.nanoTime();
+
+        // 0) Retry of a key this instance created recently: no database work at all
+        if (externalReference != null) {
+            InstrumentRunCreated recent = recentRunKeyCache.get(createdByClientId, externalReference);
+            if (recent != null) {
+                requireSameInstrument(recent.runId(), recent.instrumentCode(), instrumentCode, externalReference);
+                runMetrics.recordCreate(System.nanoTime() - startNanos);
+                return recent;
+            }
+        }
+
         // 1) Validate instrument exists
         Instrument instrument = instrumentRepository
                 .findByCode(instrumentCode)
@@ -64,12 +112,22 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
                         )
                 );
 
+        ProcessingPriority resolvedPriority = priority != null ? priority : instrument.getProcessingPriority();
+
+        if (externalReference != null) {
+            InstrumentRunCreated created =
+                    createOrReplay(instrument, createdByClientId, externalReference, resolvedPriority);
+            runMetrics.recordCreate(System.nanoTime() - startNanos);
+            return created;
+        }
+
         // 2) Create run
         InstrumentRun run = new InstrumentRun();
         run.setInstrument(instrument);
         run.setCreatedByClientId(createdByClientId);
         run.setExternalReference(externalReference);
         run.setStatus(InstrumentRunStatus.CREATED);
+        run.setPriority(resolvedPriority);
 
         run = instrumentRunRepository.save(run);
 
@@ -80,6 +138,8 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
 
         instrumentRunEventRepository.save(event);
 
+        runMetrics.recordCreate(System.nanoTime() - startNanos);
+
         // 4) Return domain result
         return new InstrumentRunCreated(
                 run.getId(),
@@ -89,6 +149,252 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
         );
     }
 
+    /**
+     * Idempotent create: (client, externalReference) maps to exactly one run.
+     * A retry gets the original run back as it was created (status CREATED, original priority);
+     * poll the run for its current state.
+     */
+    private InstrumentRunCreated createOrReplay(
+            Instrument instrument,
+            UUID createdByClientId,
+            String externalReference,
+            ProcessingPriority priority
+    ) {
+        // 2) Insert, or find the run already holding the key, in one statement
+        RunKeyView key = instrumentRunRepository
+                .insertOrFindByExternalReference(instrument.getId(), createdByClientId, externalReference, priority.name())
+                .or(() -> instrumentRunRepository.findRunKey(createdByClientId, externalReference))
+                .orElseThrow(() ->
+                        new IllegalStateException(
+                                "Concurrent create for externalReference: " + externalReference
+                        )
+                );
+
+        if (!key.getInstrumentId().equals(instrument.getId())) {
+            throw new IllegalStateException(
+                    "externalReference " + externalReference
+                            + " is already used by run " + key.getId() + " for another instrument"
+            );
+        }
+
+        // 3) Emit CREATED audit event, only for a new run
+        if (key.isInserted()) {
+            InstrumentRunEvent event = new InstrumentRunEvent();
+            event.setInstrumentRun(instrumentRunRepository.getReferenceById(key.getId()));
+            event.setEventType(InstrumentRunEventType.CREATED);
+
+            instrumentRunEventRepository.save(event);
+        }
+
+        InstrumentRunCreated created = new InstrumentRunCreated(
+                key.getId(),
+                instrument.getCode(),
+                InstrumentRunStatus.CREATED,
+                key.getCreatedAt().atOffset(ZoneOffset.UTC)
+        );
+
+        // 4) Remember the key once the run is durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentRunKeyCache.put(createdByClientId, externalReference, created);
+            }
+        });
+
+        return created;
+    }
+
+    private static void requireSameInstrument(
+            Long runId,
+            String existingInstrumentCode,
+            String requestedInstrumentCode,
+            String externalReference
+    ) {
+        if (!existingInstrumentCode.equals(requestedInstrumentCode)) {
+            throw new IllegalStateException(
+                    "externalReference " + externalReference
+                            + " is already used by run " + runId + " for another instrument"
+            );
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<BulkRunCreateResult> createRuns(
+            List<NewInstrumentRun> runs,
+            UUID createdByClientId
+    ) {
+        // 1) Resolve every distinct instrument code with one query
+        List<String> codes = runs.stream()
+                .filter(r -> r != null && r.instrumentCode() != null)
+                .map(NewInstrumentRun::instrumentCode)
+                .distinct()
+                .toList();
+
+        Map<String, Instrument> instrumentsByCode = codes.isEmpty()
+                ? Map.of()
+                : instrumentRepository.findByCodeIn(codes)
+                        .stream()
+                        .collect(Collectors.toMap(Instrument::getCode, i -> i));
+
+        // 2) Runs that already hold one of the requested references are returned, not created again
+        Map<String, InstrumentRunCreated> existingByReference = findExistingByReference(runs, createdByClientId);
+
+        // 3) Validate items; invalid ones fail on their own
+        BulkRunCreateResult[] results = new BulkRunCreateResult[runs.size()];
+        List<Integer> pendingIndexes = new ArrayList<>(BULK_FLUSH_SIZE);
+        List<InstrumentRun> pendingRuns = new ArrayList<>(BULK_FLUSH_SIZE);
+        Map<String, Integer> firstIndexByReference = new HashMap<>();
+        Map<Integer, Integer> repeatedIndexes = new LinkedHashMap<>();
+
+        for (int index = 0; index < runs.size(); index++) {
+            NewInstrumentRun request = runs.get(index);
+
+            if (request == null || request.instrumentCode() == null || request.instrumentCode().isBlank()) {
+                results[index] = BulkRunCreateResult.failed(index, null, "instrumentCode is required");
+                continue;
+            }
+
+            Instrument instrument = instrumentsByCode.get(request.instrumentCode());
+            if (instrument == null) {
+                results[index] = BulkRunCreateResult.failed(
+                        index,
+                        request.instrumentCode(),
+                        "Instrument not found: " + request.instrumentCode()
+                );
+                continue;
+            }
+
+            String externalReference = request.externalReference();
+            if (externalReference != null) {
+                InstrumentRunCreated existing = existingByReference.get(externalReference);
+                if (existing != null) {
+                    results[index] = replayed(index, existing, request.instrumentCode(), externalReference);
+                    continue;
+                }
+
+                // Same reference twice in one request: the later item resolves to the earlier one's run
+                Integer firstIndex = firstIndexByReference.putIfAbsent(externalReference, index);
+                if (firstIndex != null) {
+                    repeatedIndexes.put(index, firstIndex);
+                    continue;
+                }
+            }
+
+            InstrumentRun run = new InstrumentRun();
+            run.setInstrument(instrument);
+            run.setCreatedByClientId(createdByClientId);
+            run.setExternalReference(externalReference);
+            run.setStatus(InstrumentRunStatus.CREATED);
+            run.setPriority(request.priority() != null ? request.priority() : instrument.getProcessingPriority());
+
+            pendingIndexes.add(index);
+            pendingRuns.add(run);
+
+            // 4) Persist runs + CREATED events in chunks of batched inserts
+            if (pendingRuns.size() == BULK_FLUSH_SIZE) {
+                flushCreatedRuns(pendingIndexes, pendingRuns, results);
+            }
+        }
+
+        if (!pendingRuns.isEmpty()) {
+            flushCreatedRuns(pendingIndexes, pendingRuns, results);
+        }
+
+        for (Map.Entry<Integer, Integer> repeated : repeatedIndexes.entrySet()) {
+            int index = repeated.getKey();
+            BulkRunCreateResult first = results[repeated.getValue()];
+            NewInstrumentRun request = runs.get(index);
+            results[index] = replayed(
+                    index,
+                    new InstrumentRunCreated(first.runId(), first.instrumentCode(), first.status(), first.createdAt()),
+                    request.instrumentCode(),
+                    request.externalReference()
+            );
+        }
+
+        return List.of(results);
+    }
+
+    private Map<String, InstrumentRunCreated> findExistingByReference(
+            List<NewInstrumentRun> runs,
+            UUID createdByClientId
+    ) {
+        List<String> references = runs.stream()
+                .filter(r -> r != null && r.externalReference() != null)
+                .map(NewInstrumentRun::externalReference)
+                .distinct()
+                .toList();
+
+        Map<String, InstrumentRunCreated> existing = new HashMap<>();
+        for (int from = 0; from < references.size(); from += BULK_FLUSH_SIZE) {
+            List<String> chunk = references.subList(from, Math.min(from + BULK_FLUSH_SIZE, references.size()));
+            for (InstrumentRun run : instrumentRunRepository.findByClientAndExternalReferenceIn(createdByClientId, chunk)) {
+                existing.put(run.getExternalReference(), new InstrumentRunCreated(
+                        run.getId(),
+                        run.getInstrument().getCode(),
+                        InstrumentRunStatus.CREATED,
+                        run.getCreatedAt()
+                ));
+            }
+        }
+        return existing;
+    }
+
+    private static BulkRunCreateResult replayed(
+            int index,
+            InstrumentRunCreated existing,
+            String requestedInstrumentCode,
+            String externalReference
+    ) {
+        if (!existing.instrumentCode().equals(requestedInstrumentCode)) {
+            return BulkRunCreateResult.failed(
+                    index,
+                    requestedInstrumentCode,
+                    "externalReference " + externalReference
+                            + " is already used by run " + existing.runId() + " for another instrument"
+            );
+        }
+        return BulkRunCreateResult.created(index, existing);
+    }
+
+    private void flushCreatedRuns(
+            List<Integer> indexes,
+            List<InstrumentRun> runs,
+            BulkRunCreateResult[] results
+    ) {
+        instrumentRunRepository.saveAll(runs);
+
+        List<InstrumentRunEvent> events = new ArrayList<>(runs.size());
+        for (InstrumentRun run : runs) {
+            InstrumentRunEvent event = new InstrumentRunEvent();
+            event.setInstrumentRun(run);
+            event.setEventType(InstrumentRunEventType.CREATED);
+            events.add(event);
+        }
+        instrumentRunEventRepository.saveAll(events);
+
+        entityManager.flush();
+
+        for (int i = 0; i < runs.size(); i++) {
+            InstrumentRun run = runs.get(i);
+            results[indexes.get(i)] = BulkRunCreateResult.created(
+                    indexes.get(i),
+                    new InstrumentRunCreated(
+                            run.getId(),
+                            run.getInstrument().getCode(),
+                            run.getStatus(),
+                            run.getCreatedAt()
+                    )
+            );
+        }
+
+        // Instruments are detached too; later chunks only need them as FK references
+        entityManager.clear();
+        indexes.clear();
+        runs.clear();
+    }
+
     @Override
     @Transactional
     public InstrumentRunDetails submitMeasurements(
@@ -96,6 +402,11 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
             Map<String, BigDecimal> measurementsByCode,
             UUID submittedByClientId
     ) {
+        long startNanos = System.nanoTime();
+
+        // 0) Turn the submission away up front if the processing queue is full (nothing written yet)
+        processingAdmissionControl.admit(1);
+
         // 1) Load run
         InstrumentRun run = instrumentRunRepository.findById(instrumentRunId)
                 .orElseThrow(() ->
@@ -104,7 +415,7 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
                         )
                 );
 
-        // 2) Enforce state
+        // 2) Enforce state (fast path; the conditional update in step 5 is what actually guards it)
         if (run.getStatus() != InstrumentRunStatus.CREATED) {
             throw new IllegalStateException(
                     "Measurements already submitted for run: " + instrumentRunId
@@ -116,49 +427,52 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
             throw new IllegalArgumentException("No measurements submitted for run: " + instrumentRunId);
         }
 
-        // 3) Load measurement definitions for this instrument
-        Map<String, MeasurementDefinition> definitionsByCode =
-                measurementDefinitionRepository
-                        .findByInstrumentId(run.getInstrument().getId())
-                        .stream()
-                        .collect(Collectors.toMap(
-                                MeasurementDefinition::getCode,
-                                d -> d
-                        ));
+        // 3) Resolve the instrument contract (cached reference data, no query on a hit).
+        // getInstrument().getId() reads the FK from the proxy without loading the instrument.
+        InstrumentContract contract = instrumentContractCache.getByInstrumentId(run.getInstrument().getId());
 
-        // 4) Validate ALL codes (and values) before persisting anything
-        for (Map.Entry<String, BigDecimal> entry : measurementsByCode.entrySet()) {
-            String code = entry.getKey();
+        // 4) Validate ALL codes (and values) before persisting anything; values become micro-units.
+        // Spec limits are checked against the cached contract too: flagged, never rejected.
+        MeasurementValues values = contract.toValues(measurementsByCode);
+        SpecStatus specStatus = contract.specStatus(values);
 
-            if (!definitionsByCode.containsKey(code)) {
-                throw new IllegalArgumentException("Unknown measurement code: " + code);
-            }
+        long validatedNanos = System.nanoTime();
+        runMetrics.recordSubmitPhase(RunMetrics.SubmitPhase.VALIDATION, validatedNanos - startNanos);
 
-            // Optional: reject null values (BigDecimal should be present)
-            if (entry.getValue() == null) {
-                throw new IllegalArgumentException("Measurement value is required for code: " + code);
-            }
+        // 5) CREATED -> MEASUREMENTS_SUBMITTED as compare-and-set, before writing any measurements.
+        // A concurrent submission blocks on the row lock and then matches 0 rows, so exactly one wins;
+        // the loser gets a 409 and its transaction rolls back.
+        OffsetDateTime now = OffsetDateTime.now();
+        int updated = instrumentRunRepository.markMeasurementsSubmitted(
+                List.of(instrumentRunId), submittedByClientId, specStatus, now
+        );
+        if (updated == 0) {
+            throw new IllegalStateException(
+                    "Measurements already submitted for run: " + instrumentRunId
+            );
         }
+        // The managed copy still says CREATED; detach it so nothing in this persistence context reads
+        // (or flushes) the stale state. It is only used as an FK reference from here on.
+        entityManager.detach(run);
 
-        // 5) Persist measurements (now safe)
-        for (Map.Entry<String, BigDecimal> entry : measurementsByCode.entrySet()) {
-            MeasurementDefinition definition = definitionsByCode.get(entry.getKey());
-
+        // 6) Persist measurements.
+        // Ids come from a pooled sequence, so these inserts are queued and sent as JDBC batches at flush.
+        for (int i = 0; i < values.size(); i++) {
             Measurement measurement = new Measurement();
             measurement.setInstrumentRun(run);
-            measurement.setMeasurementDefinition(definition);
-            measurement.setValue(entry.getValue());
+            measurement.setMeasurementDefinition(
+                    measurementDefinitionRepository.getReferenceById(values.definitionId(i))
+            );
+            measurement.setValue(values.value(i));
+            measurement.setCreatedAt(now);
 
             measurementRepository.save(measurement);
         }
 
-        // 6) Update run
-        OffsetDateTime now = OffsetDateTime.now();
-        run.setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED);
-        run.setMeasurementsSubmittedAt(now);
-        run.setMeasurementsSubmittedByClientId(submittedByClientId);
-
-        instrumentRunRepository.save(run);
+        // Flush per phase so the phase timers include the (batched) statements, not just queuing them
+        entityManager.flush();
+        long persistedNanos = System.nanoTime();
+        runMetrics.recordSubmitPhase(RunMetrics.SubmitPhase.PERSISTENCE, persistedNanos - validatedNanos);
 
         // 7) Emit audit event
         InstrumentRunEvent event = new InstrumentRunEvent();
@@ -166,74 +480,288 @@ public class InstrumentRunServiceImpl implements InstrumentRunService {
         event.setEventType(InstrumentRunEventType.MEASUREMENTS_SUBMITTED);
         instrumentRunEventRepository.save(event);
 
-        // 8) Kick off async processing AFTER COMMIT
-        Long runId = run.getId();
+        entityManager.flush();
+        long finishedNanos = System.nanoTime();
+        runMetrics.recordSubmitPhase(RunMetrics.SubmitPhase.EVENT, finishedNanos - persistedNanos);
+        runMetrics.recordSubmit(finishedNanos - startNanos, measurementsByCode.size());
+
+        // 8) The run is now durably queued (status MEASUREMENTS_SUBMITTED);
+        // wake the queue worker AFTER COMMIT so it doesn't wait for the next poll
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override
             public void afterCommit() {
-                processingService.processRunAsync(runId);
+                runMetrics.recordSpecStatus(specStatus);
+                processingAdmissionControl.recordAdmitted(1);
+                processingQueueWorker.signal();
             }
         });
 
         return getRunById(run.getId());
     }
 
+    @Override
+    @Transactional
+    public List<MeasurementSubmissionAck> submitMeasurementsForRuns(
+            List<RunMeasurementSubmission> submissions,
+            UUID submittedByClientId
+    ) {
+        // 0) Admission control, for the whole batch at once
+        processingAdmissionControl.admit(submissions.size());
+
+        // 1) Load every run with one query
+        List<Long> runIds = submissions.stream()
+                .map(RunMeasurementSubmission::runId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, InstrumentRun> runsById = new HashMap<>();
+        for (InstrumentRun run : instrumentRunRepository.findAllById(runIds)) {
+            runsById.put(run.getId(), run);
+        }
+
+        // 2) Validate each run with the single-submission rules; nothing is written yet
+        MeasurementSubmissionAck[] acks = new MeasurementSubmissionAck[submissions.size()];
+        Map<Integer, MeasurementValues> acceptedValues = new LinkedHashMap<>();
+        Map<Long, Integer> seenRunIds = new HashMap<>();
+        // Spec limits of every accepted run, evaluated together below (same order as acceptedValues)
+        SpecLimitBatch specBatch = new SpecLimitBatch(submissions.size() * 8);
+
+        for (int i = 0; i < submissions.size(); i++) {
+            RunMeasurementSubmission submission = submissions.get(i);
+            Long runId = submission.runId();
+            try {
+                if (runId == null) {
+                    throw new IllegalArgumentException("runId is required");
+                }
+                if (seenRunIds.putIfAbsent(runId, i) != null) {
+                    throw new IllegalArgumentException("Duplicate run in request: " + runId);
+                }
+
+                InstrumentRun run = runsById.get(runId);
+                if (run == null) {
+                    throw new IllegalArgumentException("Instrument run not found: " + runId);
+                }
+                if (run.getStatus() != InstrumentRunStatus.CREATED) {
+                    throw new IllegalStateException("Measurements already submitted for run: " + runId);
+                }
+
+                Map<String, BigDecimal> measurements = submission.measurementsByCode();
+                if (measurements == null || measurements.isEmpty()) {
+                    throw new IllegalArgumentException("No measurements submitted for run: " + runId);
+                }
+
+                InstrumentContract contract = instrumentContractCache.getByInstrumentId(run.getInstrument().getId());
+
+                MeasurementValues values = contract.toValues(measurements);
+                acceptedValues.put(i, values);
+                specBatch.add(contract.specLimits(), values);
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                acks[i] = MeasurementSubmissionAck.rejected(runId, ex.getMessage());
+            }
+        }
+
+        if (acceptedValues.isEmpty()) {
+            return List.of(acks);
+        }
+
+        // 3) Spec status of every accepted run in one pass over primitive arrays
+        SpecStatus[] specStatuses = specBatch.evaluate();
+
+        // 4) Move all accepted runs out of CREATED with one guarded update per spec status (at most three).
+        // A concurrent submission for any of them fails the whole call (409) and nothing is written.
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> acceptedRunIds = new ArrayList<>(acceptedValues.size());
+        Map<SpecStatus, List<Long>> runIdsBySpecStatus = new EnumMap<>(SpecStatus.class);
+        int accepted = 0;
+        for (Integer index : acceptedValues.keySet()) {
+            Long runId = submissions.get(index).runId();
+            acceptedRunIds.add(runId);
+            runIdsBySpecStatus.computeIfAbsent(specStatuses[accepted++], s -> new ArrayList<>()).add(runId);
+        }
+
+        int updated = 0;
+        for (Map.Entry<SpecStatus, List<Long>> group : runIdsBySpecStatus.entrySet()) {
+            updated += instrumentRunRepository.markMeasurementsSubmitted(
+                    group.getValue(), submittedByClientId, group.getKey(), now
+            );
+        }
+        if (updated != acceptedRunIds.size()) {
+            throw new IllegalStateException("Measurements were submitted concurrently for one or more runs; retry the request");
+        }
+
+        // 5) Persist measurements and MEASUREMENTS_SUBMITTED events (batched inserts at flush)
+        List<Measurement> measurements = new ArrayList<>();
+        List<InstrumentRunEvent> events = new ArrayList<>(acceptedRunIds.size());
+
+        int position = 0;
+        for (Map.Entry<Integer, MeasurementValues> entry : acceptedValues.entrySet()) {
+            RunMeasurementSubmission submission = submissions.get(entry.getKey());
+            InstrumentRun run = runsById.get(submission.runId());
+            MeasurementValues values = entry.getValue();
+            SpecStatus specStatus = specStatuses[position++];
+
+            for (int i = 0; i < values.size(); i++) {
+                Measurement measurement = new Measurement();
+                measurement.setInstrumentRun(run);
+                measurement.setMeasurementDefinition(
+                        measurementDefinitionRepository.getReferenceById(values.definitionId(i))
+                );
+                measurement.setValue(values.value(i));
+                measurement.setCreatedAt(now);
+                measurements.add(measurement);
+            }
+
+            InstrumentRunEvent event = new InstrumentRunEvent();
+            event.setInstrumentRun(run);
+            event.setEventType(InstrumentRunEventType.MEASUREMENTS_SUBMITTED);
+            events.add(event);
+
+            runMetrics.recordSubmittedMeasurements(values.size());
+            acks[entry.getKey()] = MeasurementSubmissionAck.accepted(
+                    run.getId(),
+                    values.size(),
+                    specStatus,
+                    now
+            );
+        }
+
+        measurementRepository.saveAll(measurements);
+        instrumentRunEventRepository.saveAll(events);
+
+        // 6) Wake the queue worker once, after commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (SpecStatus specStatus : specStatuses) {
+                    runMetrics.recordSpecStatus(specStatus);
+                }
+                processingAdmissionControl.recordAdmitted(specStatuses.length);
+                processingQueueWorker.signal();
+            }
+        });
+
+        return List.of(acks);
+    }
 
     @Override
     @Transactional(readOnly = true)
     public InstrumentRunDetails getRunById(Long instrumentRunId) {
-        // 1) Load run with instrument
-        InstrumentRun run = instrumentRunRepository.findById(instrumentRunId)
+        long startNanos = System.nanoTime();
+
+        // 1) Load run, instrument and submitted values in one statement (flat projection, no entities)
+        List<RunDetailsRow> rows = instrumentRunRepository.findDetailsRowsById(instrumentRunId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Instrument run not found: " + instrumentRunId
+            );
+        }
+        RunDetailsRow run = rows.get(0);
+
+        // 2) Resolve the instrument contract (cached, already ordered by displayOrder)
+        InstrumentContract contract = instrumentContractCache.getByInstrumentId(run.instrumentId());
+
+        // 3) Submitted values by definition id (one row per measurement; null when none)
+        Map<Long, BigDecimal> submittedValuesByDefinitionId = new HashMap<>();
+        for (RunDetailsRow row : rows) {
+            if (row.measurementDefinitionId() != null) {
+                submittedValuesByDefinitionId.put(row.measurementDefinitionId(), normalize(row.measurementValue()));
+            }
+        }
+
+        List<RequiredMeasurement> requiredMeasurements = contract.toRequiredMeasurements(submittedValuesByDefinitionId);
+
+        runMetrics.recordGet(System.nanoTime() - startNanos);
+
+        // 4) Build result
+        return new InstrumentRunDetails(
+                run.id(),
+                run.instrumentCode(),
+                run.instrumentName(),
+                run.createdByClientId(),
+                run.externalReference(),
+                run.status(),
+                run.measurementsSubmittedAt(),
+                run.measurementsSubmittedByClientId(),
+                run.specStatus(),
+                run.processingStartedAt(),
+                run.processingCompletedAt(),
+                run.errorCode(),
+                run.errorMessage(),
+                run.processResult(),
+                run.createdAt(),
+                run.updatedAt(),
+                requiredMeasurements
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InstrumentRunVersion getRunVersion(Long instrumentRunId) {
+        RunVersionRow row = instrumentRunRepository.findVersionById(instrumentRunId)
                 .orElseThrow(() ->
                         new IllegalArgumentException(
                                 "Instrument run not found: " + instrumentRunId
                         )
                 );
+        // Contract rows without values: only their names, units and order are part of the representation
+        InstrumentContract contract = instrumentContractCache.getByInstrumentId(row.instrumentId());
+        return new InstrumentRunVersion(
+                row.id(),
+                row.status(),
+                row.updatedAt(),
+                row.measurementsSubmittedAt(),
+                InstrumentRunVersion.contractTag(row.instrumentName(), contract.toRequiredMeasurements(Map.of()))
+        );
+    }
 
-        // Force instrument fetch
-        Instrument instrument = run.getInstrument();
+    @Override
+    @Transactional
+    public List<Long> redriveDeadLettered(List<Long> instrumentRunIds) {
+        List<Long> requested = instrumentRunIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (requested.isEmpty()) {
+            return List.of();
+        }
 
-        // 2) Load submitted measurements (if any)
-        Map<String, BigDecimal> submittedValuesByCode =
-                measurementRepository.findByInstrumentRunId(instrumentRunId)
-                        .stream()
-                        .collect(Collectors.toMap(
-                                m -> m.getMeasurementDefinition().getCode(),
-                                Measurement::getValue
-                        ));
-
-        // 3) Load required measurements for this instrument (already ordered by displayOrder)
-        List<RequiredMeasurement> requiredMeasurements =
-                instrumentMeasurementRepository
-                        .findRequiredByInstrumentId(instrument.getId())
-                        .stream()
-                        .map(im -> new RequiredMeasurement(
-                                im.getMeasurementDefinition().getCode(),
-                                im.getMeasurementDefinition().getName(),
-                                im.getMeasurementDefinition().getUnit(),
-                                im.getDisplayOrder(),
-                                submittedValuesByCode.get(im.getMeasurementDefinition().getCode())
-                        ))
-                        .toList();
+        // 1) Lock the ones actually dead-lettered, so the result is exactly what moved
+        List<Long> redriven = instrumentRunRepository.lockDeadLetteredRuns(requested);
+        if (redriven.isEmpty()) {
+            return List.of();
+        }
 
-        // 4) Build result
-        return new InstrumentRunDetails(
-                run.getId(),
-                instrument.getCode(),
-                instrument.getName(),
-                run.getCreatedByClientId(),
-                run.getExternalReference(),
-                run.getStatus(),
-                run.getMeasurementsSubmittedAt(),
-                run.getMeasurementsSubmittedByClientId(),
-                run.getProcessingStartedAt(),
-                run.getProcessingCompletedAt(),
-                run.getErrorCode(),
-                run.getErrorMessage(),
-                run.getProcessResult(),
-                run.getCreatedAt(),
-                run.getUpdatedAt(),
-                requiredMeasurements
-        );
+        // 2) Back to the queue, attempts reset
+        OffsetDateTime now = OffsetDateTime.now();
+        instrumentRunRepository.redriveDeadLettered(redriven, now);
+
+        // 3) Audit events (reference only, as in the other bulk paths)
+        List<InstrumentRunEvent> events = new ArrayList<>(redriven.size());
+        for (Long runId : redriven) {
+            InstrumentRunEvent event = new InstrumentRunEvent();
+            event.setInstrumentRun(instrumentRunRepository.getReferenceById(runId));
+            event.setEventType(InstrumentRunEventType.PROCESSING_REDRIVEN);
+            events.add(event);
+        }
+        instrumentRunEventRepository.saveAll(events);
+
+        // 4) Wake the queue worker after commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                processingQueueWorker.signal();
+            }
+        });
+
+        return redriven;
+    }
+
+    /**
+     * NUMERIC(19,6) comes back padded (1.230000); drop the padding (1.23).
+     */
+    private static BigDecimal normalize(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        BigDecimal stripped = value.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
     }
 }
@@ -0,0 +1,15 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.MeasurementStreamSummary;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface MeasurementStreamIngestionService {
+
+    /**
+     * Read newline-delimited measurement records from the stream and submit them per run
+     * in bounded micro-batches. Each micro-batch commits on its own.
+     */
+    MeasurementStreamSummary ingest(InputStream ndjson, UUID submittedByClientId);
+}
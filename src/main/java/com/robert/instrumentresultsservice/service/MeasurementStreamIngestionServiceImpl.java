@@ -0,0 +1,274 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.robert.instrumentresultsservice.exception.ProcessingOverloadedException;
+import com.robert.instrumentresultsservice.service.command.MeasurementRecord;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.result.MeasurementStreamSummary;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Streams an NDJSON measurement feed into the bulk submission path.
+ *
+ * Records are read one at a time with Jackson's streaming parser and grouped per run.
+ * At most max-open-runs groups are kept; when another run arrives, the least recently
+ * fed run is considered complete and queued. Queued runs are submitted as one micro-batch
+ * (one transaction) once batch-runs are waiting, and everything left is submitted at the
+ * end of the stream. Memory therefore depends on these limits, not on the upload size.
+ *
+ * The request body is read on the calling thread and nothing is read while a batch is
+ * written, so a slow database slows the upload down (TCP backpressure) instead of
+ * buffering it. Records for a run should arrive close together: records for a run that is
+ * queued but not yet submitted are merged into it, but once a run has been submitted, later
+ * records for it are reported as rejected (the run was submitted without them). Only the ids of
+ * submitted runs are kept for that.
+ *
+ * Each micro-batch passes admission control and is written in one transaction. A micro-batch
+ * turned away as a whole (the processing queue is full, or a run in it was submitted concurrently)
+ * is reported run by run and the upload carries on; a retry of the upload skips the runs that
+ * were committed as already submitted.
+ */
+@Service
+public class MeasurementStreamIngestionServiceImpl implements MeasurementStreamIngestionService {
+
+    private final InstrumentRunService instrumentRunService;
+    private final ObjectReader recordReader;
+    private final int maxOpenRuns;
+    private final int batchRuns;
+    private final int maxMeasurementsPerRun;
+    private final int maxReportedRejections;
+
+    public MeasurementStreamIngestionServiceImpl(
+            InstrumentRunService instrumentRunService,
+            ObjectMapper objectMapper,
+            @Value("${ingestion.stream.max-open-runs:1000}") int maxOpenRuns,
+            @Value("${ingestion.stream.batch-runs:200}") int batchRuns,
+            @Value("${ingestion.stream.max-measurements-per-run:1000}") int maxMeasurementsPerRun,
+            @Value("${ingestion.stream.max-reported-rejections:100}") int maxReportedRejections
+    ) {
+        this.instrumentRunService = instrumentRunService;
+        this.recordReader = objectMapper.readerFor(MeasurementRecord.class);
+        this.maxOpenRuns = maxOpenRuns;
+        this.batchRuns = batchRuns;
+        this.maxMeasurementsPerRun = maxMeasurementsPerRun;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    @Override
+    public MeasurementStreamSummary ingest(InputStream ndjson, UUID submittedByClientId) {
+        Ingestion ingestion = new Ingestion(submittedByClientId);
+
+        try (MappingIterator<MeasurementRecord> records = recordReader.readValues(ndjson)) {
+            while (true) {
+                MeasurementRecord record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record = records.nextValue();
+                } catch (JsonProcessingException ex) {
+                    // Earlier micro-batches stay committed; runs still open are dropped
+                    throw new IllegalArgumentException(
+                            "Malformed measurement record #" + (ingestion.records + 1) + ": " + ex.getOriginalMessage()
+                    );
+                }
+                ingestion.accept(record);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read measurement stream", ex);
+        }
+
+        ingestion.finish();
+        return ingestion.summary();
+    }
+
+    /**
+     * State for one upload.
+     */
+    private final class Ingestion {
+
+        private final UUID clientId;
+
+        // Access order: iteration starts at the least recently fed run
+        private final LinkedHashMap<Long, RunGroup> open = new LinkedHashMap<>(16, 0.75f, true);
+        // Evicted runs waiting for the next micro-batch, in eviction order
+        private final LinkedHashMap<Long, RunGroup> ready = new LinkedHashMap<>();
+        // Runs handed to a micro-batch, and those already reported as rejected
+        private final Set<Long> closed = new HashSet<>();
+        private final Set<Long> reported = new HashSet<>();
+
+        private final List<MeasurementSubmissionAck> rejected = new ArrayList<>();
+        private long records;
+        private int batches;
+        private int acceptedRuns;
+        private int rejectedRuns;
+
+        Ingestion(UUID clientId) {
+            this.clientId = clientId;
+        }
+
+        void accept(MeasurementRecord record) {
+            records++;
+
+            if (record == null || record.runId() == null) {
+                reject(MeasurementSubmissionAck.rejected(null, "runId is required (record #" + records + ")"));
+                return;
+            }
+
+            Long runId = record.runId();
+            RunGroup group = open.get(runId);
+            if (group == null) {
+                // Evicted but not submitted yet: still one submission
+                group = ready.get(runId);
+            }
+            if (group == null) {
+                if (closed.contains(runId)) {
+                    if (reported.add(runId)) {
+                        reject(MeasurementSubmissionAck.rejected(runId, String.format(
+                                "Records for run %d arrived after it was submitted (record #%d); the run was submitted without them",
+                                runId, records
+                        )));
+                    }
+                    return;
+                }
+
+                group = new RunGroup(runId);
+                open.put(runId, group);
+
+                if (open.size() > maxOpenRuns) {
+                    Iterator<RunGroup> eldest = open.values().iterator();
+                    RunGroup evicted = eldest.next();
+                    eldest.remove();
+                    ready.put(evicted.runId, evicted);
+                }
+            }
+            group.add(record, maxMeasurementsPerRun);
+
+            if (ready.size() >= batchRuns) {
+                submitReady();
+            }
+        }
+
+        void finish() {
+            open.values().forEach(group -> ready.put(group.runId, group));
+            open.clear();
+            while (!ready.isEmpty()) {
+                submitReady();
+            }
+        }
+
+        private void submitReady() {
+            List<RunMeasurementSubmission> submissions = new ArrayList<>(Math.min(batchRuns, ready.size()));
+            Iterator<RunGroup> queued = ready.values().iterator();
+            for (int i = 0; i < batchRuns && queued.hasNext(); i++) {
+                RunGroup group = queued.next();
+                queued.remove();
+                closed.add(group.runId);
+
+                if (group.error != null) {
+                    rejectRun(MeasurementSubmissionAck.rejected(group.runId, group.error));
+                } else {
+                    submissions.add(new RunMeasurementSubmission(group.runId, group.measurements));
+                }
+            }
+            if (submissions.isEmpty()) {
+                return;
+            }
+
+            batches++;
+            List<MeasurementSubmissionAck> acks;
+            try {
+                acks = instrumentRunService.submitMeasurementsForRuns(submissions, clientId);
+            } catch (IllegalStateException | ProcessingOverloadedException ex) {
+                // Turned away as a whole; nothing of this micro-batch was written
+                submissions.forEach(s -> rejectRun(MeasurementSubmissionAck.rejected(s.runId(), ex.getMessage())));
+                return;
+            }
+            for (MeasurementSubmissionAck ack : acks) {
+                if (ack.isAccepted()) {
+                    acceptedRuns++;
+                } else {
+                    rejectRun(ack);
+                }
+            }
+        }
+
+        /**
+         * A rejected run; records arriving for it later are dropped without being reported again.
+         */
+        private void rejectRun(MeasurementSubmissionAck ack) {
+            reported.add(ack.runId());
+            reject(ack);
+        }
+
+        private void reject(MeasurementSubmissionAck ack) {
+            rejectedRuns++;
+            if (rejected.size() < maxReportedRejections) {
+                rejected.add(ack);
+            }
+        }
+
+        MeasurementStreamSummary summary() {
+            return new MeasurementStreamSummary(
+                    records,
+                    batches,
+                    acceptedRuns,
+                    rejectedRuns,
+                    List.copyOf(rejected),
+                    rejectedRuns > rejected.size()
+            );
+        }
+    }
+
+    /**
+     * Measurements buffered for one run.
+     */
+    private static final class RunGroup {
+
+        private final Long runId;
+        private final Map<String, BigDecimal> measurements = new LinkedHashMap<>();
+        private String error;
+
+        RunGroup(Long runId) {
+            this.runId = runId;
+        }
+
+        void add(MeasurementRecord record, int maxMeasurements) {
+            if (error != null) {
+                return;
+            }
+            if (record.code() == null) {
+                fail("Measurement code is required for run: " + runId);
+                return;
+            }
+            measurements.put(record.code(), record.value());
+            if (measurements.size() > maxMeasurements) {
+                fail("Too many measurements for run: " + runId + " (max " + maxMeasurements + ")");
+            }
+        }
+
+        private void fail(String message) {
+            error = message;
+            // The run is rejected as a whole; stop holding its values
+            measurements.clear();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.PartitionMaintenanceSummary;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of measurement and instrument_run_event (V14) in shape.
+ *
+ * Each pass creates the partitions for the current month and partitions.premake-months ahead,
+ * so inserts never hit a missing range. With retention enabled, partitions whose whole month is
+ * older than partitions.retention.months are detached (CONCURRENTLY, so writers are not blocked)
+ * and dropped; this replaces mass DELETEs and leaves nothing to vacuum.
+ *
+ * Runs at startup and on partitions.maintenance.cron, on its own thread: DETACH CONCURRENTLY
+ * waits for transactions that can still see the partition, which must not stall the shared
+ * scheduler. A session advisory lock keeps concurrent nodes from doing the same DDL.
+ */
+@Component
+public class PartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    static final List<String> PARTITIONED_TABLES = List.of("measurement", "instrument_run_event");
+
+    // Arbitrary application-wide key for pg_try_advisory_lock ("partmt" in ASCII)
+    private static final long MAINTENANCE_LOCK_KEY = 0x706172746d74L;
+
+    private static final String PARTITIONS_SQL = """
+            select c.relname, i.inhdetachpending
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            join pg_class p on p.oid = i.inhparent
+            where p.relname = ?
+              and p.relnamespace = current_schema()::regnamespace
+            order by c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String cron;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    private ScheduledExecutorService maintenanceThread;
+
+    public PartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            @Value("${partitions.maintenance.enabled:true}") boolean enabled,
+            @Value("${partitions.maintenance.cron:0 17 3 * * *}") String cron,
+            @Value("${partitions.premake-months:3}") int premakeMonths,
+            @Value("${partitions.retention.months:0}") int retentionMonths,
+            @Value("${partitions.retention.action:drop}") String retentionAction
+    ) {
+        if (!"drop".equals(retentionAction) && !"detach".equals(retentionAction)) {
+            throw new IllegalArgumentException(
+                    "partitions.retention.action must be drop or detach: " + retentionAction
+            );
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.cron = cron;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = "drop".equals(retentionAction);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        maintenanceThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Once now (the node may have been down past a month boundary), then on the cron
+        maintenanceThread.execute(this::maintainSafely);
+        new ConcurrentTaskScheduler(maintenanceThread)
+                .schedule(this::maintainSafely, new CronTrigger(cron, ZoneOffset.UTC));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (maintenanceThread != null) {
+            maintenanceThread.shutdownNow();
+        }
+    }
+
+    void maintainSafely() {
+        try {
+            maintain(YearMonth.now(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed; will retry on next schedule", e);
+        }
+    }
+
+    /**
+     * One maintenance pass as of the given (UTC) month.
+     */
+    public PartitionMaintenanceSummary maintain(YearMonth currentMonth) {
+        return jdbcTemplate.execute((ConnectionCallback<PartitionMaintenanceSummary>) connection -> {
+            // Autocommit: DETACH ... CONCURRENTLY cannot run inside a transaction block
+            if (!tryLock(connection)) {
+                log.info("Partition maintenance skipped; another node holds the lock");
+                return new PartitionMaintenanceSummary(List.of(), List.of(), true);
+            }
+            try {
+                List<String> ensured = new ArrayList<>();
+                List<String> expired = new ArrayList<>();
+                for (String table : PARTITIONED_TABLES) {
+                    ensured.addAll(ensurePartitions(connection, table, currentMonth));
+                    if (retentionMonths > 0) {
+                        expired.addAll(expirePartitions(connection, table, currentMonth.minusMonths(retentionMonths)));
+                    }
+                }
+
+                log.info("Partition maintenance done: {} partitions ensured, {} expired {}",
+                        ensured.size(), expired.size(), expired);
+                return new PartitionMaintenanceSummary(ensured, expired, false);
+            } finally {
+                unlock(connection);
+            }
+        });
+    }
+
+    private List<String> ensurePartitions(Connection connection, String table, YearMonth currentMonth)
+            throws SQLException {
+        List<String> ensured = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("select create_monthly_partition(?, ?)")) {
+            for (int i = 0; i <= premakeMonths; i++) {
+                ps.setString(1, table);
+                ps.setDate(2, Date.valueOf(currentMonth.plusMonths(i).atDay(1)));
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    ensured.add(rs.getString(1));
+                }
+            }
+        }
+        return ensured;
+    }
+
+    /**
+     * Detach (and drop) partitions of months before oldestKept.
+     */
+    private List<String> expirePartitions(Connection connection, String table, YearMonth oldestKept)
+            throws SQLException {
+        Pattern monthly = Pattern.compile(Pattern.quote(table) + "_p(\\d{4})_(\\d{2})");
+
+        List<String> expired = new ArrayList<>();
+        for (PartitionRow partition : partitions(connection, table)) {
+            Matcher matcher = monthly.matcher(partition.name());
+            if (!matcher.matches()) {
+                continue; // not one of ours
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                // A detach interrupted by a crash leaves the partition pending; it must be finalized instead
+                statement.execute("alter table " + quote(table) + " detach partition " + quote(partition.name())
+                        + (partition.detachPending() ? " finalize" : " concurrently"));
+                if (dropExpired) {
+                    statement.execute("drop table " + quote(partition.name()));
+                }
+            }
+            expired.add(partition.name());
+        }
+        return expired;
+    }
+
+    private static List<PartitionRow> partitions(Connection connection, String table) throws SQLException {
+        List<PartitionRow> partitions = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(PARTITIONS_SQL)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(new PartitionRow(rs.getString(1), rs.getBoolean(2)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+            ps.setLong(1, MAINTENANCE_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            ps.setLong(1, MAINTENANCE_LOCK_KEY);
+            ps.execute();
+        }
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    private record PartitionRow(String name, boolean detachPending) {
+    }
+}
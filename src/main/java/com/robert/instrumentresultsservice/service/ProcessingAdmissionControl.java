@@ -0,0 +1,181 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.exception.ProcessingOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for measurement submissions: while the processing queue holds
+ * processing.admission.max-backlog runs or more, submissions are turned away before anything
+ * is written, instead of being accepted into a queue that would take arbitrarily long to drain.
+ *
+ * The backlog is the last sample taken by {@link ProcessingQueueMonitor}, adjusted by what this
+ * node admitted and claimed since, so the check itself never queries the database. Only submissions
+ * that committed count as admitted; one turned away by validation or a conflict adds nothing.
+ *
+ * The drain rate is an exponentially weighted moving average of the cluster-wide claim counter
+ * (V20) between samples, so a node that serves submissions but claims nothing itself still sees
+ * the queue draining. Retry-After is the time that rate needs to bring the backlog back under the limit.
+ */
+@Component
+public class ProcessingAdmissionControl {
+
+    public enum State { ACCEPTING, THROTTLING, STALLED }
+
+    // Below this the queue is considered not to be draining at all
+    private static final double MIN_DRAIN_RATE = 0.01;
+
+    private final RunMetrics runMetrics;
+    private final boolean enabled;
+    private final long maxBacklog;
+    private final double smoothing;
+    private final long minRetryAfterSeconds;
+    private final long maxRetryAfterSeconds;
+
+    private final AtomicLong sampledBacklog = new AtomicLong();
+    private final AtomicLong admittedSinceSample = new AtomicLong();
+    private final AtomicLong drainedSinceSample = new AtomicLong();
+
+    // Runs claimed per second by all nodes; NaN until two samples have been taken
+    private volatile double drainRatePerSecond = Double.NaN;
+    private volatile boolean sampled;
+    private long lastSampleNanos;
+    private long lastClaimCount;
+
+    public ProcessingAdmissionControl(
+            RunMetrics runMetrics,
+            @Value("${processing.admission.enabled:true}") boolean enabled,
+            @Value("${processing.admission.max-backlog:10000}") long maxBacklog,
+            @Value("${processing.admission.drain-rate-smoothing:0.3}") double smoothing,
+            @Value("${processing.admission.retry-after.min-seconds:1}") long minRetryAfterSeconds,
+            @Value("${processing.admission.retry-after.max-seconds:120}") long maxRetryAfterSeconds
+    ) {
+        if (maxBacklog <= 0) {
+            throw new IllegalArgumentException("processing.admission.max-backlog must be positive: " + maxBacklog);
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException(
+                    "processing.admission.drain-rate-smoothing must be in (0, 1]: " + smoothing
+            );
+        }
+        if (minRetryAfterSeconds <= 0 || maxRetryAfterSeconds < minRetryAfterSeconds) {
+            throw new IllegalArgumentException(
+                    "processing.admission.retry-after must satisfy 0 < min-seconds <= max-seconds: "
+                            + minRetryAfterSeconds + ", " + maxRetryAfterSeconds
+            );
+        }
+        this.runMetrics = runMetrics;
+        this.enabled = enabled;
+        this.maxBacklog = maxBacklog;
+        this.smoothing = smoothing;
+        this.minRetryAfterSeconds = minRetryAfterSeconds;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+    }
+
+    /**
+     * Admit a submission of the given number of runs, or throw {@link ProcessingOverloadedException}
+     * if the queue is full. A submission is admitted whole as long as the queue is below the limit,
+     * so large batches are not starved by small ones. Nothing is counted until {@link #recordAdmitted}.
+     */
+    public void admit(int runs) {
+        if (!enabled || runs <= 0) {
+            return;
+        }
+
+        long backlog = backlog();
+        if (backlog < maxBacklog) {
+            return;
+        }
+
+        double rate = drainRatePerSecond;
+        boolean stalled = isStalled(rate);
+        Duration retryAfter = retryAfter(backlog - maxBacklog + 1, rate);
+        runMetrics.recordAdmissionRejected(stalled ? State.STALLED : State.THROTTLING);
+
+        throw new ProcessingOverloadedException(
+                String.format(
+                        "Processing queue is full (%d runs waiting); retry after %d s",
+                        backlog, retryAfter.toSeconds()
+                ),
+                retryAfter,
+                stalled
+        );
+    }
+
+    /**
+     * Runs this node queued, once their submission committed.
+     */
+    public void recordAdmitted(int runs) {
+        admittedSinceSample.addAndGet(runs);
+    }
+
+    /**
+     * Runs this node claimed from the queue; they leave the backlog before the next sample.
+     */
+    public void recordDrained(int runs) {
+        drainedSinceSample.addAndGet(runs);
+    }
+
+    /**
+     * A fresh count of the runs waiting in the queue, and the claim counter read with it (all nodes).
+     */
+    public void recordBacklog(long queued, long claimCount) {
+        recordBacklog(queued, claimCount, System.nanoTime());
+    }
+
+    synchronized void recordBacklog(long queued, long claimCount, long nowNanos) {
+        drainedSinceSample.set(0);
+        admittedSinceSample.set(0);
+        sampledBacklog.set(queued);
+
+        if (sampled) {
+            double seconds = (nowNanos - lastSampleNanos) / 1e9;
+            long claimed = claimCount - lastClaimCount;
+            // A counter that went backwards was recreated; skip that interval
+            if (seconds > 0 && claimed >= 0) {
+                double rate = claimed / seconds;
+                double previous = drainRatePerSecond;
+                drainRatePerSecond = Double.isNaN(previous) ? rate : smoothing * rate + (1 - smoothing) * previous;
+            }
+        }
+        lastSampleNanos = nowNanos;
+        lastClaimCount = claimCount;
+        sampled = true;
+
+        runMetrics.recordAdmissionState(state(), Double.isNaN(drainRatePerSecond) ? 0 : drainRatePerSecond);
+    }
+
+    public State state() {
+        if (!enabled || backlog() < maxBacklog) {
+            return State.ACCEPTING;
+        }
+        return isStalled(drainRatePerSecond) ? State.STALLED : State.THROTTLING;
+    }
+
+    /**
+     * Stalled only once a drain rate is known and it is (close to) zero; until the second sample
+     * the rate is unknown, and a full queue is throttled rather than reported as not draining.
+     */
+    private static boolean isStalled(double rate) {
+        return !Double.isNaN(rate) && rate < MIN_DRAIN_RATE;
+    }
+
+    private long backlog() {
+        if (!sampled) {
+            return 0; // unknown until the first sample; admit
+        }
+        return Math.max(0, sampledBacklog.get() + admittedSinceSample.get() - drainedSinceSample.get());
+    }
+
+    private Duration retryAfter(long excess, double rate) {
+        if (!(rate >= MIN_DRAIN_RATE)) {
+            // Not draining, or no rate yet: back off as far as allowed
+            return Duration.ofSeconds(maxRetryAfterSeconds);
+        }
+        long seconds = (long) Math.ceil(excess / rate);
+        return Duration.ofSeconds(Math.min(Math.max(seconds, minRetryAfterSeconds), maxRetryAfterSeconds));
+    }
+}
@@ -0,0 +1,150 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This node's processing leases (V16). A run moved to PROCESSING is leased to {@link #owner()}
+ * until lease_expires_at; while it is being worked on here, the heartbeat keeps pushing that out.
+ *
+ * A node that dies (or a run whose dispatch was lost) stops renewing, and once the lease lapses
+ * {@link StuckRunSweeper} takes the run back. Every transition out of PROCESSING is fenced by
+ * owner, so a node that lost its lease cannot complete, fail or requeue a run another node now holds.
+ *
+ * The heartbeat runs on its own thread rather than the shared @Scheduled pool, so a slow drain,
+ * sweep or reconcile can never delay renewals past the lease duration.
+ */
+@Component
+public class ProcessingLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingLeases.class);
+
+    // lease_owner is VARCHAR(64)
+    private static final int MAX_OWNER_LENGTH = 64;
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final Duration leaseDuration;
+    private final long heartbeatIntervalMs;
+    private final String owner;
+
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService heartbeatThread;
+
+    public ProcessingLeases(
+            InstrumentRunRepository instrumentRunRepository,
+            @Value("${processing.lease.duration-ms:60000}") long leaseDurationMs,
+            @Value("${processing.lease.heartbeat-interval-ms:20000}") long heartbeatIntervalMs
+    ) {
+        if (leaseDurationMs <= 0) {
+            throw new IllegalArgumentException("processing.lease.duration-ms must be positive: " + leaseDurationMs);
+        }
+        if (heartbeatIntervalMs <= 0 || heartbeatIntervalMs >= leaseDurationMs) {
+            throw new IllegalArgumentException(
+                    "processing.lease.heartbeat-interval-ms must be positive and below processing.lease.duration-ms: "
+                            + heartbeatIntervalMs
+            );
+        }
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.leaseDuration = Duration.ofMillis(leaseDurationMs);
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.owner = nodeOwner();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        heartbeatThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "processing-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatThread.scheduleWithFixedDelay(
+                this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeatThread != null) {
+            heartbeatThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Identifies this process (host plus a per-start suffix, so a restarted node is a new owner).
+     */
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * When a lease taken or renewed at now runs out.
+     */
+    public OffsetDateTime expiresAt(OffsetDateTime now) {
+        return now.plus(leaseDuration);
+    }
+
+    /**
+     * Start renewing the run's lease; call once this node is actually working on it.
+     */
+    public void hold(Long runId) {
+        held.add(runId);
+    }
+
+    public void release(Long runId) {
+        held.remove(runId);
+    }
+
+    public int heldCount() {
+        return held.size();
+    }
+
+    /**
+     * Renew every lease held here. The interval must stay well below the lease duration.
+     */
+    public void heartbeat() {
+        List<Long> runIds = List.copyOf(held);
+        if (runIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            int renewed = instrumentRunRepository.extendLeases(runIds, owner, expiresAt(OffsetDateTime.now()));
+            if (renewed < runIds.size()) {
+                // Finished between the copy and the update, or already reclaimed by the sweeper
+                log.debug("Renewed {} of {} processing leases", renewed, runIds.size());
+            }
+        } catch (Exception e) {
+            log.error("Failed to renew {} processing leases; will retry on next heartbeat", runIds.size(), e);
+        }
+    }
+
+    private static String nodeOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String suffix = "-" + UUID.randomUUID().toString().substring(0, 8);
+        return host.substring(0, Math.min(host.length(), MAX_OWNER_LENGTH - suffix.length())) + suffix;
+    }
+}
@@ -0,0 +1,65 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.QueueDepthRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Samples the processing queue per priority class into the instrument.runs.queue.depth and
+ * instrument.runs.queue.oldest.wait gauges, and the total (with the cluster-wide claim count) into
+ * {@link ProcessingAdmissionControl}.
+ * Sampled on a schedule rather than on scrape or submit, so neither queries the database.
+ */
+@Component
+public class ProcessingQueueMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingQueueMonitor.class);
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final ProcessingAdmissionControl processingAdmissionControl;
+    private final RunMetrics runMetrics;
+
+    public ProcessingQueueMonitor(
+            InstrumentRunRepository instrumentRunRepository,
+            ProcessingAdmissionControl processingAdmissionControl,
+            RunMetrics runMetrics
+    ) {
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.processingAdmissionControl = processingAdmissionControl;
+        this.runMetrics = runMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${processing.queue.monitor-interval-ms:15000}")
+    public void sample() {
+        try {
+            Map<ProcessingPriority, QueueDepthRow> byPriority = new EnumMap<>(ProcessingPriority.class);
+            long total = 0;
+            for (QueueDepthRow row : instrumentRunRepository.countQueuedByPriority()) {
+                byPriority.put(row.priority(), row);
+                total += row.queued();
+            }
+            processingAdmissionControl.recordBacklog(total, instrumentRunRepository.countClaims());
+
+            OffsetDateTime now = OffsetDateTime.now();
+            for (ProcessingPriority priority : ProcessingPriority.values()) {
+                QueueDepthRow row = byPriority.get(priority);
+                if (row == null || row.oldestSubmittedAt() == null) {
+                    runMetrics.recordQueueDepth(priority, row == null ? 0 : row.queued(), Duration.ZERO);
+                } else {
+                    runMetrics.recordQueueDepth(priority, row.queued(), Duration.between(row.oldestSubmittedAt(), now));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sample processing queue depth; will retry on next schedule", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.ReclaimedRuns;
+
+import java.util.List;
+
+public interface ProcessingQueueService {
+
+    /**
+     * Claim up to maxRuns submitted runs for processing on this node, by weighted fair queuing
+     * across clients and priority classes (see InstrumentRunRepository#lockNextSubmittedRuns).
+     * Claimed runs are moved to PROCESSING (with a PROCESSING_STARTED event) in the same transaction,
+     * so no other node can pick them up.
+     *
+     * @return ids of the claimed runs (empty when the queue is drained)
+     */
+    List<Long> claimNextBatch(int maxRuns);
+
+    /**
+     * Take back up to maxRuns PROCESSING runs whose lease expired (their node died or lost them).
+     * A run with attempts left (per its instrument's cap) goes back to MEASUREMENTS_SUBMITTED with a
+     * PROCESSING_REQUEUED event; otherwise it is DEAD_LETTERED with errorCode LEASE_EXPIRED.
+     */
+    ReclaimedRuns reclaimExpiredLeases(int maxRuns);
+}
@@ -0,0 +1,185 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.ClaimedRunView;
+import com.robert.instrumentresultsservice.repository.projection.ExpiredLeaseView;
+import com.robert.instrumentresultsservice.service.result.ReclaimedRuns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ProcessingQueueServiceImpl implements ProcessingQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingQueueServiceImpl.class);
+
+    static final String LEASE_EXPIRED = "LEASE_EXPIRED";
+    private static final String LEASE_EXPIRED_MESSAGE = "Processing lease expired on the last allowed attempt";
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final InstrumentRunEventRepository instrumentRunEventRepository;
+    private final ProcessingLeases processingLeases;
+    private final ProcessingRetryPolicy processingRetryPolicy;
+    private final RunMetrics runMetrics;
+    private final ObjectMapper objectMapper;
+    private final int interactiveWeight;
+    private final int normalWeight;
+    private final int bulkWeight;
+
+    public ProcessingQueueServiceImpl(
+            InstrumentRunRepository instrumentRunRepository,
+            InstrumentRunEventRepository instrumentRunEventRepository,
+            ProcessingLeases processingLeases,
+            ProcessingRetryPolicy processingRetryPolicy,
+            RunMetrics runMetrics,
+            ObjectMapper objectMapper,
+            @Value("${processing.priority.weights.interactive:16}") int interactiveWeight,
+            @Value("${processing.priority.weights.normal:4}") int normalWeight,
+            @Value("${processing.priority.weights.bulk:1}") int bulkWeight
+    ) {
+        if (interactiveWeight <= 0 || normalWeight <= 0 || bulkWeight <= 0) {
+            throw new IllegalArgumentException("processing.priority.weights must be positive: "
+                    + interactiveWeight + ", " + normalWeight + ", " + bulkWeight);
+        }
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.instrumentRunEventRepository = instrumentRunEventRepository;
+        this.processingLeases = processingLeases;
+        this.processingRetryPolicy = processingRetryPolicy;
+        this.runMetrics = runMetrics;
+        this.objectMapper = objectMapper;
+        this.interactiveWeight = interactiveWeight;
+        this.normalWeight = normalWeight;
+        this.bulkWeight = bulkWeight;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> claimNextBatch(int maxRuns) {
+        if (maxRuns <= 0) {
+            return List.of();
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<ClaimedRunView> claimed = new ArrayList<>();
+        List<Long> runIds = new ArrayList<>();
+        while (runIds.size() < maxRuns) {
+            // 1) Lock the next batch, fair across clients and weighted by class
+            //    (SKIP LOCKED: rows another node is claiming are ignored)
+            List<ClaimedRunView> locked = instrumentRunRepository.lockNextSubmittedRuns(
+                    maxRuns - runIds.size(), interactiveWeight, normalWeight, bulkWeight
+            );
+            if (locked.isEmpty()) {
+                break;
+            }
+            List<Long> lockedIds = locked.stream().map(ClaimedRunView::getId).toList();
+
+            // 2) Mark them PROCESSING, leased to this node, while we still hold the locks. Each flow
+            //    locks at most its share, so a batch cut short by small flows is topped up by the next
+            //    round; the runs taken here are no longer MEASUREMENTS_SUBMITTED and are not seen again.
+            instrumentRunRepository.markProcessingStarted(
+                    lockedIds, now, processingLeases.owner(), processingLeases.expiresAt(now)
+            );
+            claimed.addAll(locked);
+            runIds.addAll(lockedIds);
+        }
+        if (runIds.isEmpty()) {
+            return List.of();
+        }
+        // Cluster-wide drain rate for admission control (ProcessingQueueMonitor samples it)
+        instrumentRunRepository.addClaims(runIds.size());
+
+        // Queue wait is known here, so processing never has to read the run back
+        for (ClaimedRunView run : claimed) {
+            if (run.getMeasurementsSubmittedAt() != null) {
+                runMetrics.recordQueueWait(
+                        ProcessingPriority.valueOf(run.getPriority()),
+                        run.getMeasurementsSubmittedAt().atOffset(ZoneOffset.UTC),
+                        now
+                );
+            }
+        }
+
+        // 3) Emit PROCESSING_STARTED audit events
+        List<InstrumentRunEvent> events = runIds.stream()
+                .map(runId -> event(runId, InstrumentRunEventType.PROCESSING_STARTED, null))
+                .toList();
+        instrumentRunEventRepository.saveAll(events);
+
+        return runIds;
+    }
+
+    @Override
+    @Transactional
+    public ReclaimedRuns reclaimExpiredLeases(int maxRuns) {
+        if (maxRuns <= 0) {
+            return ReclaimedRuns.NONE;
+        }
+
+        // 1) Lock expired leases (SKIP LOCKED: another sweeper may be on the same rows)
+        OffsetDateTime now = OffsetDateTime.now();
+        List<ExpiredLeaseView> expired = instrumentRunRepository.lockExpiredLeases(now, maxRuns);
+        if (expired.isEmpty()) {
+            return ReclaimedRuns.NONE;
+        }
+
+        // 2) Split by attempts used against the instrument's cap; the counter survives the requeue,
+        //    so a run that keeps killing its node ends up dead-lettered instead of cycling forever
+        List<Long> requeue = new ArrayList<>();
+        List<Long> deadLetter = new ArrayList<>();
+        List<InstrumentRunEvent> events = new ArrayList<>(expired.size());
+        for (ExpiredLeaseView run : expired) {
+            int maxAttempts = processingRetryPolicy.maxAttempts(run.getMaxProcessingAttempts());
+            boolean retry = run.getProcessingAttempts() < maxAttempts;
+            log.warn("Processing lease of run {} held by {} expired on attempt {} of {}",
+                    run.getId(), run.getLeaseOwner(), run.getProcessingAttempts(), maxAttempts);
+
+            ObjectNode details = objectMapper.createObjectNode();
+            details.put("attempt", run.getProcessingAttempts());
+            details.put("leaseOwner", run.getLeaseOwner());
+            if (retry) {
+                requeue.add(run.getId());
+                events.add(event(run.getId(), InstrumentRunEventType.PROCESSING_REQUEUED, details));
+            } else {
+                details.put("errorCode", LEASE_EXPIRED);
+                details.put("errorMessage", LEASE_EXPIRED_MESSAGE);
+                details.put("maxAttempts", maxAttempts);
+                deadLetter.add(run.getId());
+                events.add(event(run.getId(), InstrumentRunEventType.PROCESSING_DEAD_LETTERED, details));
+            }
+        }
+
+        // 3) Transition while we still hold the locks, with audit events
+        if (!requeue.isEmpty()) {
+            instrumentRunRepository.requeueExpiredLeases(requeue, now);
+        }
+        if (!deadLetter.isEmpty()) {
+            instrumentRunRepository.deadLetterExpiredLeases(deadLetter, LEASE_EXPIRED, LEASE_EXPIRED_MESSAGE, now);
+        }
+        instrumentRunEventRepository.saveAll(events);
+
+        runMetrics.recordLeasesReclaimed(requeue.size(), deadLetter.size());
+        return new ReclaimedRuns(List.copyOf(requeue), List.copyOf(deadLetter));
+    }
+
+    private InstrumentRunEvent event(Long runId, InstrumentRunEventType type, ObjectNode details) {
+        // Reference only: the event needs the FK, not the run's state
+        InstrumentRunEvent event = new InstrumentRunEvent();
+        event.setInstrumentRun(instrumentRunRepository.getReferenceById(runId));
+        event.setEventType(type);
+        event.setDetails(details);
+        return event;
+    }
+}
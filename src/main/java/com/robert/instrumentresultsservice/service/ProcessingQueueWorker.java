@@ -0,0 +1,149 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the durable processing queue (runs in MEASUREMENTS_SUBMITTED) into the processing executor.
+ *
+ * Runs are claimed in batches with SELECT ... FOR UPDATE SKIP LOCKED, so any number of nodes can drain
+ * the same queue without double-processing. Nothing is held only in memory: after a restart,
+ * submitted runs are simply picked up by the next poll, and runs a dead node left in PROCESSING are
+ * handed back by {@link StuckRunSweeper} once their lease expires.
+ */
+@Component
+public class ProcessingQueueWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingQueueWorker.class);
+
+    private final ProcessingQueueService processingQueueService;
+    private final ProcessingService processingService;
+    private final ProcessingLeases processingLeases;
+    private final ProcessingAdmissionControl processingAdmissionControl;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    public ProcessingQueueWorker(
+            ProcessingQueueService processingQueueService,
+            ProcessingService processingService,
+            ProcessingLeases processingLeases,
+            ProcessingAdmissionControl processingAdmissionControl,
+            TaskScheduler taskScheduler,
+            @Value("${processing.queue.enabled:true}") boolean enabled,
+            @Value("${processing.queue.batch-size:50}") int batchSize,
+            @Value("${processing.queue.max-in-flight:100}") int maxInFlight
+    ) {
+        this.processingQueueService = processingQueueService;
+        this.processingService = processingService;
+        this.processingLeases = processingLeases;
+        this.processingAdmissionControl = processingAdmissionControl;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Hint that work was enqueued or capacity was freed.
+     * Schedules an immediate drain instead of waiting for the next poll; repeated calls coalesce.
+     */
+    public void signal() {
+        if (enabled && wakeUpPending.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::drain, Instant.now());
+        }
+    }
+
+    /**
+     * Safety-net poll; picks up runs submitted on other nodes or left over from a restart.
+     */
+    @Scheduled(fixedDelayString = "${processing.queue.poll-interval-ms:1000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Claim and dispatch runs until the queue is empty or this node is at max in-flight.
+     * The scheduler has several threads, so the poll and a signalled drain can fire at once; only one
+     * drains at a time, and a drain requested meanwhile is run by the active one when it finishes.
+     */
+    void drain() {
+        wakeUpPending.set(false);
+        if (!enabled) {
+            return;
+        }
+
+        drainRequested.set(true);
+        while (drainRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                drainRequested.set(false);
+                claimAndDispatch();
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void claimAndDispatch() {
+        try {
+            while (true) {
+                int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+                if (capacity <= 0) {
+                    return;
+                }
+
+                List<Long> claimed = processingQueueService.claimNextBatch(capacity);
+                processingAdmissionControl.recordDrained(claimed.size());
+                claimed.forEach(this::dispatch);
+
+                if (claimed.size() < capacity) {
+                    return; // queue drained
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to drain processing queue; will retry on next poll", e);
+        }
+    }
+
+    /**
+     * Runs dispatched to the processing executor and not finished yet.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void dispatch(Long runId) {
+        inFlight.incrementAndGet();
+        // Renewed while queued on the executor too, so a long executor queue does not look like a dead node
+        processingLeases.hold(runId);
+        try {
+            processingService.processClaimedRunAsync(runId)
+                    .whenComplete((ignored, ex) -> {
+                        processingLeases.release(runId);
+                        inFlight.decrementAndGet();
+                        signal();
+                    });
+        } catch (TaskRejectedException e) {
+            // max-in-flight should stay below executor capacity, so this indicates misconfiguration
+            processingLeases.release(runId);
+            inFlight.decrementAndGet();
+            log.error("Processing executor rejected claimed run {}; it is requeued once its lease expires", runId, e);
+        }
+    }
+}
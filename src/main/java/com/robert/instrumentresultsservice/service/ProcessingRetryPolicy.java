@@ -0,0 +1,86 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Which processing failures are worth another attempt, and when.
+ *
+ * Retryable: transient database trouble (lock and deadlock timeouts, serialization failures,
+ * query timeouts, no connection available). Such an attempt goes back to the queue with
+ * exponential backoff and jitter; the queue simply does not claim it before next_attempt_at,
+ * so no thread waits out the delay. Anything else (a stage throwing, bad data) fails the run
+ * for good, since running the same deterministic pipeline again would fail the same way.
+ */
+@Component
+public class ProcessingRetryPolicy {
+
+    private final int defaultMaxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public ProcessingRetryPolicy(
+            @Value("${processing.retry.max-attempts:5}") int defaultMaxAttempts,
+            @Value("${processing.retry.base-delay-ms:1000}") long baseDelayMs,
+            @Value("${processing.retry.max-delay-ms:300000}") long maxDelayMs
+    ) {
+        if (defaultMaxAttempts <= 0) {
+            throw new IllegalArgumentException("processing.retry.max-attempts must be positive: " + defaultMaxAttempts);
+        }
+        if (baseDelayMs <= 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException(
+                    "processing.retry delays must satisfy 0 < base-delay-ms <= max-delay-ms: "
+                            + baseDelayMs + ", " + maxDelayMs
+            );
+        }
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public boolean isRetryable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Attempts a run gets in total, given its instrument's setting (null = the default).
+     */
+    public int maxAttempts(Integer instrumentMaxAttempts) {
+        return instrumentMaxAttempts != null ? instrumentMaxAttempts : defaultMaxAttempts;
+    }
+
+    /**
+     * Delay before the attempt after failedAttempt (1-based): base * 2^(failedAttempt - 1), capped at
+     * max-delay-ms, with "equal jitter" (a uniformly random upper half) so runs that failed together,
+     * e.g. on the same lock, do not all come back at the same instant.
+     */
+    public Duration backoff(int failedAttempt) {
+        int exponent = Math.min(Math.max(failedAttempt - 1, 0), 30);
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << exponent);
+        if (ceiling <= 0) {
+            ceiling = maxDelayMs; // shift overflowed
+        }
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(ceiling - half + 1));
+    }
+}
@@ -1,9 +1,12 @@
 package com.robert.instrumentresultsservice.service;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ProcessingService {
 
     /**
-     * Kick off async processing for a run.
+     * Process a run already claimed (moved to PROCESSING) by the processing queue.
+     * The returned future completes when processing has finished, successfully or not.
      */
-    void processRunAsync(Long runId);
+    CompletableFuture<Void> processClaimedRunAsync(Long runId);
 }
@@ -1,115 +1,137 @@
 package com.robert.instrumentresultsservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.robert.instrumentresultsservice.domain.InstrumentRun;
-import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
-import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
-import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
-import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
-import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.processing.ProcessingEngine;
+import com.robert.instrumentresultsservice.service.processing.ProcessingInputLoader;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
 import com.robert.instrumentresultsservice.service.result.ProcessResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the processing step for a run claimed by the queue: load inputs (DB), run the instrument's
+ * pipeline on the compute pool (CPU), record the result (DB). Only the two DB steps take a limiter permit.
+ *
+ * Every status change goes through {@link RunTransitionService} as a compare-and-set update,
+ * so the run entity is never loaded: a transition that finds the run in an unexpected status
+ * (already finished, or moved by someone else) is simply not applied.
+ *
+ * While a run is being worked on, {@link ProcessingQueueWorker} holds its processing lease (renewed by
+ * {@link ProcessingLeases}), so the sweeper only reclaims runs whose node stopped making progress.
+ *
+ * Failures classified as transient by {@link ProcessingRetryPolicy} end only the attempt: the run
+ * is requeued with backoff, or dead-lettered once its attempts are used up. Anything else fails it.
+ * An attempt cut short by shutdown (interrupt, or the compute pool cancelling the pipeline) is not a
+ * failure of the run: it stays PROCESSING and its lease expiry hands it back to the queue.
+ */
 @Service
 public class ProcessingServiceImpl implements ProcessingService {
 
     private static final Logger log = LoggerFactory.getLogger(ProcessingServiceImpl.class);
 
-    private final InstrumentRunRepository instrumentRunRepository;
-    private final InstrumentRunEventRepository instrumentRunEventRepository;
-    private final ObjectMapper objectMapper;
-    private final long processingDelayMs;
+    private final RunTransitionService runTransitionService;
+    private final ProcessingInputLoader processingInputLoader;
+    private final ProcessingEngine processingEngine;
+    private final DatabaseConcurrencyLimiter databaseConcurrencyLimiter;
+    private final ProcessingRetryPolicy processingRetryPolicy;
+    private final RunMetrics runMetrics;
 
     public ProcessingServiceImpl(
-            InstrumentRunRepository instrumentRunRepository,
-            InstrumentRunEventRepository instrumentRunEventRepository,
-            ObjectMapper objectMapper,
-            @Value("${processing.delay.ms:3000}") long processingDelayMs
+            RunTransitionService runTransitionService,
+            ProcessingInputLoader processingInputLoader,
+            ProcessingEngine processingEngine,
+            DatabaseConcurrencyLimiter databaseConcurrencyLimiter,
+            ProcessingRetryPolicy processingRetryPolicy,
+            RunMetrics runMetrics
     ) {
-        this.instrumentRunRepository = instrumentRunRepository;
-        this.instrumentRunEventRepository = instrumentRunEventRepository;
-        this.objectMapper = objectMapper;
-        this.processingDelayMs = processingDelayMs;
+        this.runTransitionService = runTransitionService;
+        this.processingInputLoader = processingInputLoader;
+        this.processingEngine = processingEngine;
+        this.databaseConcurrencyLimiter = databaseConcurrencyLimiter;
+        this.processingRetryPolicy = processingRetryPolicy;
+        this.runMetrics = runMetrics;
     }
 
     @Override
     @Async("runProcessingExecutor")
-    public void processRunAsync(Long runId) {
-        log.info("Starting async processing for run {}", runId);
-
-        InstrumentRun run = instrumentRunRepository.findById(runId).orElse(null);
-        if (run == null) {
-            log.warn("Run {} not found; cannot process", runId);
-            return;
-        }
-
-        OffsetDateTime now = OffsetDateTime.now();
-        run.setStatus(InstrumentRunStatus.PROCESSING);
-        run.setProcessingStartedAt(now);
-        run.setProcessingCompletedAt(null);
-        run.setErrorCode(null);
-        run.setErrorMessage(null);
+    public CompletableFuture<Void> processClaimedRunAsync(Long runId) {
+        log.info("Starting queued processing for run {}", runId);
 
-        instrumentRunRepository.save(run);
-        saveEvent(run, InstrumentRunEventType.PROCESSING_STARTED, null);
+        // The queue already moved the run to PROCESSING and emitted PROCESSING_STARTED;
+        // the worker holds the lease until this future completes
+        execute(runId, OffsetDateTime.now());
+        return CompletableFuture.completedFuture(null);
+    }
 
+    private void execute(Long runId, OffsetDateTime startedAt) {
         try {
-            Thread.sleep(processingDelayMs);
-
-            OffsetDateTime done = OffsetDateTime.now();
-            run.setStatus(InstrumentRunStatus.SUCCEEDED);
-            run.setProcessingCompletedAt(done);
-            run.setProcessResult(new ProcessResult("stub-result"));
-            run.setErrorCode(null);
-            run.setErrorMessage(null);
+            // 1) Inputs (DB)
+            RunComputation computation = databaseConcurrencyLimiter.call(() -> processingInputLoader.load(runId));
+            if (computation == null) {
+                log.warn("Run {} disappeared before processing", runId);
+                return;
+            }
 
-            instrumentRunRepository.save(run);
-            saveEvent(run, InstrumentRunEventType.PROCESSING_COMPLETED, null);
+            // 2) Pipeline (CPU, on the compute pool; this thread just waits)
+            ProcessResult result = processingEngine.compute(computation);
 
-            log.info("Completed async processing for run {}", runId);
+            // 3) Result (DB)
+            OffsetDateTime done = OffsetDateTime.now();
+            boolean completed = databaseConcurrencyLimiter.call(
+                    () -> runTransitionService.markSucceeded(runId, result, done)
+            );
+            if (!completed) {
+                log.warn("Run {} is no longer PROCESSING; result discarded", runId);
+                return;
+            }
+            runMetrics.recordProcessing(startedAt, done, true);
+
+            log.info("Completed async processing for run {}: {}", runId, result.result());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            markFailed(run, "INTERRUPTED", "Processing thread interrupted");
-            log.error("Processing interrupted for run {}", runId, e);
+            log.warn("Processing interrupted for run {}; leaving it to lease expiry", runId);
+        } catch (CancellationException e) {
+            log.warn("Pipeline cancelled for run {}; leaving it to lease expiry", runId);
         } catch (Exception e) {
-            markFailed(run, "UNEXPECTED_ERROR", e.getMessage());
-            log.error("Processing failed for run {}", runId, e);
+            if (processingRetryPolicy.isRetryable(e)) {
+                markAttemptFailed(runId, startedAt, "TRANSIENT_ERROR", e.getMessage());
+                log.warn("Processing attempt failed for run {} with a retryable error", runId, e);
+            } else {
+                markFailed(runId, startedAt, "UNEXPECTED_ERROR", e.getMessage());
+                log.error("Processing failed for run {}", runId, e);
+            }
         }
     }
 
-    private void markFailed(InstrumentRun run, String errorCode, String errorMessage) {
+    private void markAttemptFailed(Long runId, OffsetDateTime startedAt, String errorCode, String errorMessage) {
         OffsetDateTime done = OffsetDateTime.now();
 
-        run.setStatus(InstrumentRunStatus.FAILED);
-        run.setProcessingCompletedAt(done);
-        run.setErrorCode(errorCode);
-        run.setErrorMessage(errorMessage);
-
-        instrumentRunRepository.save(run);
-
-        ObjectNode details = objectMapper.createObjectNode();
-        details.put("errorCode", errorCode);
-        details.put("errorMessage", errorMessage);
-
-        saveEvent(run, InstrumentRunEventType.PROCESSING_FAILED, details);
+        // If this write fails too (database down), the run stays PROCESSING and its lease expiry requeues it
+        boolean recorded = databaseConcurrencyLimiter.call(
+                () -> runTransitionService.markAttemptFailed(runId, errorCode, errorMessage, done)
+        );
+        if (recorded) {
+            runMetrics.recordProcessing(startedAt, done, false);
+        } else {
+            log.warn("Run {} is no longer PROCESSING; failed attempt not recorded", runId);
+        }
     }
 
-    private void saveEvent(
-            InstrumentRun run,
-            InstrumentRunEventType type,
-            ObjectNode details
-    ) {
-        InstrumentRunEvent event = new InstrumentRunEvent();
-        event.setInstrumentRun(run);
-        event.setEventType(type);
-        event.setDetails(details);
-        instrumentRunEventRepository.save(event);
+    private void markFailed(Long runId, OffsetDateTime startedAt, String errorCode, String errorMessage) {
+        OffsetDateTime done = OffsetDateTime.now();
+
+        boolean failed = databaseConcurrencyLimiter.call(
+                () -> runTransitionService.markFailed(runId, errorCode, errorMessage, done)
+        );
+        if (failed) {
+            runMetrics.recordProcessing(startedAt, done, false);
+        } else {
+            log.warn("Run {} is no longer PROCESSING; failure not recorded", runId);
+        }
     }
 }
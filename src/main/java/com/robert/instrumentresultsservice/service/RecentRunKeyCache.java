@@ -0,0 +1,83 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.InstrumentRunCreated;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded LRU of recently created runs by idempotency key (client id + external reference).
+ *
+ * A key never moves to another run once committed, so entries need no invalidation; callers
+ * must only add them after the creating transaction commits. A miss just falls through to the
+ * insert-or-return statement, so the cache is purely an optimization for retries hitting the
+ * same instance.
+ */
+@Component
+public class RecentRunKeyCache {
+
+    private final int maxEntries;
+    private final Map<RunKey, InstrumentRunCreated> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecentRunKeyCache(
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.cache.max-entries:100000}") int maxEntries
+    ) {
+        this.maxEntries = maxEntries;
+        // Access order: the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RunKey, InstrumentRunCreated> eldest) {
+                return size() > RecentRunKeyCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("instrument.runs.idempotency.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("instrument.runs.idempotency.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("instrument.runs.idempotency.cache.size", this, RecentRunKeyCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The run created for this key, or null if it is not cached.
+     */
+    public InstrumentRunCreated get(UUID clientId, String externalReference) {
+        InstrumentRunCreated created;
+        synchronized (entries) {
+            created = entries.get(new RunKey(clientId, externalReference));
+        }
+        (created != null ? hits : misses).increment();
+        return created;
+    }
+
+    public void put(UUID clientId, String externalReference, InstrumentRunCreated created) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(new RunKey(clientId, externalReference), created);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record RunKey(UUID clientId, String externalReference) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.InstrumentRunTransitioned;
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for the run lifecycle and request hot paths (exported via /actuator/prometheus).
+ *
+ * Callers measure with System.nanoTime() and hand over the elapsed time, which keeps the
+ * services free of Micrometer types and easy to mock in unit tests.
+ * Only successful calls are timed; failures show up as 4xx/5xx in http.server.requests.
+ */
+@Component
+public class RunMetrics {
+
+    public enum SubmitPhase { VALIDATION, PERSISTENCE, EVENT }
+
+    private final Timer createTimer;
+    private final Timer getTimer;
+    private final Timer submitTimer;
+    private final Map<SubmitPhase, Timer> submitPhaseTimers = new EnumMap<>(SubmitPhase.class);
+    private final DistributionSummary measurementsPerSubmission;
+    private final Map<InstrumentRunStatus, Counter> transitionCounters = new EnumMap<>(InstrumentRunStatus.class);
+    private final Map<SpecStatus, Counter> specStatusCounters = new EnumMap<>(SpecStatus.class);
+    private final Map<ProcessingPriority, Timer> queueWaitTimers = new EnumMap<>(ProcessingPriority.class);
+    private final Map<ProcessingPriority, AtomicLong> queueDepths = new EnumMap<>(ProcessingPriority.class);
+    private final Map<ProcessingPriority, AtomicLong> queueOldestWaitMillis = new EnumMap<>(ProcessingPriority.class);
+    private final Timer processingSucceededTimer;
+    private final Timer processingFailedTimer;
+    private final Counter leasesRequeued;
+    private final Counter leasesDeadLettered;
+    private final Map<ProcessingAdmissionControl.State, AtomicLong> admissionStates =
+            new EnumMap<>(ProcessingAdmissionControl.State.class);
+    private final Map<ProcessingAdmissionControl.State, Counter> admissionRejections =
+            new EnumMap<>(ProcessingAdmissionControl.State.class);
+    private volatile double queueDrainRate;
+
+    public RunMetrics(MeterRegistry meterRegistry) {
+        this.createTimer = Timer.builder("instrument.runs.create")
+                .description("createRun latency")
+                .register(meterRegistry);
+        this.getTimer = Timer.builder("instrument.runs.get")
+                .description("getRunById latency")
+                .register(meterRegistry);
+        this.submitTimer = Timer.builder("instrument.runs.submit")
+                .description("submitMeasurements latency")
+                .register(meterRegistry);
+        for (SubmitPhase phase : SubmitPhase.values()) {
+            submitPhaseTimers.put(phase, Timer.builder("instrument.runs.submit.phase")
+                    .description("submitMeasurements latency by phase")
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.measurementsPerSubmission = DistributionSummary.builder("instrument.runs.submit.measurements")
+                .description("Measurements per run submission")
+                .baseUnit("measurements")
+                .register(meterRegistry);
+        for (InstrumentRunStatus status : InstrumentRunStatus.values()) {
+            transitionCounters.put(status, Counter.builder("instrument.runs.transitions")
+                    .description("Committed run status transitions, by resulting status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (SpecStatus status : SpecStatus.values()) {
+            specStatusCounters.put(status, Counter.builder("instrument.runs.spec")
+                    .description("Submitted runs by spec status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (ProcessingPriority priority : ProcessingPriority.values()) {
+            String tag = priority.name();
+            queueWaitTimers.put(priority, Timer.builder("instrument.runs.queue.wait")
+                    .description("Time from measurements submitted to processing started")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+
+            AtomicLong depth = new AtomicLong();
+            queueDepths.put(priority, depth);
+            Gauge.builder("instrument.runs.queue.depth", depth, AtomicLong::get)
+                    .description("Runs waiting in the processing queue (sampled)")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+
+            AtomicLong oldestWait = new AtomicLong();
+            queueOldestWaitMillis.put(priority, oldestWait);
+            Gauge.builder("instrument.runs.queue.oldest.wait", oldestWait, AtomicLong::get)
+                    .description("How long the oldest run in the processing queue has waited (sampled)")
+                    .tag("priority", tag)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        this.processingSucceededTimer = Timer.builder("instrument.runs.processing")
+                .description("Time from processing started to completed")
+                .tag("outcome", "succeeded")
+                .register(meterRegistry);
+        this.processingFailedTimer = Timer.builder("instrument.runs.processing")
+                .description("Time from processing started to completed")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.leasesRequeued = Counter.builder("instrument.runs.lease.reclaimed")
+                .description("PROCESSING runs taken back after their lease expired")
+                .tag("outcome", "requeued")
+                .register(meterRegistry);
+        this.leasesDeadLettered = Counter.builder("instrument.runs.lease.reclaimed")
+                .description("PROCESSING runs taken back after their lease expired")
+                .tag("outcome", "dead_lettered")
+                .register(meterRegistry);
+        for (ProcessingAdmissionControl.State state : ProcessingAdmissionControl.State.values()) {
+            AtomicLong current = new AtomicLong(state == ProcessingAdmissionControl.State.ACCEPTING ? 1 : 0);
+            admissionStates.put(state, current);
+            Gauge.builder("instrument.runs.admission.state", current, AtomicLong::get)
+                    .description("1 for the submit path's current admission state, 0 otherwise")
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+            if (state != ProcessingAdmissionControl.State.ACCEPTING) {
+                admissionRejections.put(state, Counter.builder("instrument.runs.admission.rejected")
+                        .description("Submissions turned away by admission control")
+                        .tag("state", state.name())
+                        .register(meterRegistry));
+            }
+        }
+        Gauge.builder("instrument.runs.queue.drain.rate", this, m -> m.queueDrainRate)
+                .description("Runs claimed from the processing queue per second on this node (smoothed)")
+                .register(meterRegistry);
+    }
+
+    public void recordCreate(long nanos) {
+        createTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGet(long nanos) {
+        getTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSubmit(long nanos, int measurementCount) {
+        submitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        measurementsPerSubmission.record(measurementCount);
+    }
+
+    /**
+     * Measurements in one run's submission when it is part of a bulk or streamed submit.
+     */
+    public void recordSubmittedMeasurements(int measurementCount) {
+        measurementsPerSubmission.record(measurementCount);
+    }
+
+    public void recordSubmitPhase(SubmitPhase phase, long nanos) {
+        submitPhaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Call after commit, like the transition counters.
+     */
+    public void recordSpecStatus(SpecStatus status) {
+        specStatusCounters.get(status).increment();
+    }
+
+    public void recordQueueWait(ProcessingPriority priority, OffsetDateTime submittedAt, OffsetDateTime startedAt) {
+        if (submittedAt != null && startedAt != null) {
+            queueWaitTimers.get(priority).record(Duration.between(submittedAt, startedAt));
+        }
+    }
+
+    /**
+     * Latest sample of one class's queue; oldestWait is zero when the queue is empty.
+     */
+    public void recordQueueDepth(ProcessingPriority priority, long depth, Duration oldestWait) {
+        queueDepths.get(priority).set(depth);
+        queueOldestWaitMillis.get(priority).set(Math.max(oldestWait.toMillis(), 0));
+    }
+
+    public void recordProcessing(OffsetDateTime startedAt, OffsetDateTime completedAt, boolean succeeded) {
+        if (startedAt != null && completedAt != null) {
+            (succeeded ? processingSucceededTimer : processingFailedTimer)
+                    .record(Duration.between(startedAt, completedAt));
+        }
+    }
+
+    public void recordLeasesReclaimed(int requeued, int deadLettered) {
+        leasesRequeued.increment(requeued);
+        leasesDeadLettered.increment(deadLettered);
+    }
+
+    public void recordAdmissionState(ProcessingAdmissionControl.State state, double drainRatePerSecond) {
+        admissionStates.forEach((s, current) -> current.set(s == state ? 1 : 0));
+        queueDrainRate = drainRatePerSecond;
+    }
+
+    public void recordAdmissionRejected(ProcessingAdmissionControl.State state) {
+        admissionRejections.get(state).increment();
+        admissionStates.forEach((s, current) -> current.set(s == state ? 1 : 0));
+    }
+
+    /**
+     * Counted after commit, so rolled-back transitions are not reported.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(InstrumentRunTransitioned transition) {
+        transitionCounters.get(transition.status()).increment();
+    }
+}
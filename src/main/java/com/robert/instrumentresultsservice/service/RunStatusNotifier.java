@@ -0,0 +1,268 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.InstrumentRunTransitioned;
+import com.robert.instrumentresultsservice.exception.SubscriberLimitExceededException;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.RunStatusView;
+import com.robert.instrumentresultsservice.service.result.RunStatusUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes run status changes to Server-Sent Events subscribers.
+ *
+ * Subscribers are async responses (SseEmitter), so they hold a connection but no thread.
+ * Transitions made on this node arrive as InstrumentRunTransitioned after commit and are
+ * pushed right away. Transitions made on other nodes are caught by a periodic set-based
+ * status check over the subscribed run ids. Each subscriber has its own queue, drained by one
+ * thread at a time, so statuses arrive in the order they were observed even though pushes run
+ * on a pool. A status read from the database is dropped if a local transition was queued after
+ * the read began, since it may predate that transition.
+ *
+ * Each subscriber only receives actual changes, and the stream completes once the run reaches
+ * SUCCEEDED, FAILED or DEAD_LETTERED (a re-drive is an operator action; clients subscribe again
+ * if they care).
+ */
+@Component
+public class RunStatusNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(RunStatusNotifier.class);
+
+    private static final int RECONCILE_CHUNK_SIZE = 1_000;
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final TaskExecutor pushExecutor;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+
+    private final Map<Long, Set<Subscription>> subscriptionsByRunId = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Bumped by every local transition; status reads remember where it stood when they began
+    private final AtomicLong transitionSequence = new AtomicLong();
+
+    public RunStatusNotifier(
+            InstrumentRunRepository instrumentRunRepository,
+            @Qualifier("runStatusPushExecutor") TaskExecutor pushExecutor,
+            @Value("${run-status.push.timeout-ms:300000}") long timeoutMs,
+            @Value("${run-status.push.max-subscribers:10000}") int maxSubscribers
+    ) {
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.pushExecutor = pushExecutor;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Open a status stream for a run. The current status is sent immediately.
+     */
+    public SseEmitter subscribe(Long runId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException(
+                    "Too many status subscribers; poll GET /api/v1/instrument-runs/" + runId
+            );
+        }
+
+        // 1) Register before reading the status, so no transition can slip in between
+        SseEmitter emitter = newEmitter();
+        Subscription subscription = new Subscription(runId, emitter);
+        subscriptionsByRunId.computeIfAbsent(runId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        // 2) Read the current status (cheap single-column lookup); unknown runs fail here
+        long readFrom = transitionSequence.get();
+        Optional<InstrumentRunStatus> status = instrumentRunRepository.findStatusById(runId);
+        if (status.isEmpty()) {
+            remove(subscription);
+            throw new IllegalArgumentException("Instrument run not found: " + runId);
+        }
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(ex -> remove(subscription));
+
+        // 3) Send it, unless a transition already overtook the read
+        subscription.enqueueRead(status.get(), readFrom);
+        subscription.drain();
+
+        return emitter;
+    }
+
+    /**
+     * Runs after the transaction that saved the run event commits
+     * (or immediately when there is no transaction).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(InstrumentRunTransitioned transition) {
+        Set<Subscription> subscriptions = subscriptionsByRunId.get(transition.runId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+
+        // Queue in transition order here; the pushes themselves may run concurrently on the executor
+        long sequence = transitionSequence.incrementAndGet();
+        subscriptions.forEach(s -> s.enqueueTransition(transition.status(), sequence));
+        try {
+            pushExecutor.execute(() -> subscriptions.forEach(Subscription::drain));
+        } catch (TaskRejectedException ex) {
+            // The periodic reconcile will deliver it
+            log.debug("Status push for run {} deferred to reconcile", transition.runId());
+        }
+    }
+
+    /**
+     * Catch transitions committed on other nodes (and any push that was dropped).
+     */
+    @Scheduled(fixedDelayString = "${run-status.push.reconcile-interval-ms:2000}")
+    public void reconcile() {
+        List<Long> runIds = new ArrayList<>(subscriptionsByRunId.keySet());
+        for (int from = 0; from < runIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = runIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, runIds.size()));
+            long readFrom = transitionSequence.get();
+            for (RunStatusView view : instrumentRunRepository.findStatusesByIdIn(chunk)) {
+                Set<Subscription> subscriptions = subscriptionsByRunId.get(view.id());
+                if (subscriptions != null) {
+                    subscriptions.forEach(s -> {
+                        s.enqueueRead(view.status(), readFrom);
+                        s.drain();
+                    });
+                }
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void remove(Subscription subscription) {
+        Set<Subscription> subscriptions = subscriptionsByRunId.get(subscription.runId);
+        if (subscriptions != null && subscriptions.remove(subscription)) {
+            subscriberCount.decrementAndGet();
+            if (subscriptions.isEmpty()) {
+                subscriptionsByRunId.remove(subscription.runId, subscriptions);
+            }
+        }
+    }
+
+    private static boolean isTerminal(InstrumentRunStatus status) {
+        return status == InstrumentRunStatus.SUCCEEDED
+                || status == InstrumentRunStatus.FAILED
+                || status == InstrumentRunStatus.DEAD_LETTERED;
+    }
+
+    private final class Subscription {
+
+        private final Long runId;
+        private final SseEmitter emitter;
+
+        // Statuses in the order they were observed, sent by one drain at a time
+        private final Queue<InstrumentRunStatus> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private InstrumentRunStatus lastSent;
+        private boolean closed;
+
+        // transitionSequence of the last local transition queued here
+        private long lastTransition;
+
+        Subscription(Long runId, SseEmitter emitter) {
+            this.runId = runId;
+            this.emitter = emitter;
+        }
+
+        synchronized void enqueueTransition(InstrumentRunStatus status, long sequence) {
+            lastTransition = sequence;
+            pending.add(status);
+        }
+
+        /**
+         * Queue a status read from the database, unless a local transition was queued after the
+         * read began: the read may have seen the run before it, and would send the stream back.
+         * Status order cannot tell (a retry goes back to MEASUREMENTS_SUBMITTED).
+         */
+        synchronized void enqueueRead(InstrumentRunStatus status, long readFrom) {
+            if (lastTransition > readFrom) {
+                return;
+            }
+            pending.add(status);
+        }
+
+        /**
+         * Send everything queued so far, in order. If another thread is already draining, it
+         * picks up what was queued; statuses are never sent out of order or concurrently
+         * (SseEmitter is not safe for concurrent sends).
+         */
+        void drain() {
+            do {
+                if (!draining.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    InstrumentRunStatus status;
+                    while ((status = pending.poll()) != null) {
+                        deliver(status);
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            } while (!pending.isEmpty());
+        }
+
+        /**
+         * Send the status if it changed.
+         */
+        private void deliver(InstrumentRunStatus status) {
+            if (closed || status == lastSent) {
+                return;
+            }
+
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("status")
+                        .data(new RunStatusUpdate(runId, status, OffsetDateTime.now())));
+                lastSent = status;
+
+                if (isTerminal(status)) {
+                    closed = true;
+                    pending.clear();
+                    emitter.complete();
+                    remove(this);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away
+                closed = true;
+                pending.clear();
+                emitter.completeWithError(ex);
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Processing state machine as compare-and-set updates, for runs claimed by the queue
+ * (MEASUREMENTS_SUBMITTED -> PROCESSING happens in ProcessingQueueService#claimNextBatch).
+ *
+ * Each transition is one conditional UPDATE (expected status and this node's lease in the WHERE
+ * clause) plus its audit event, in one transaction. false means the run was not in the expected
+ * status, is no longer leased to this node (or does not exist); nothing is written in that case.
+ */
+public interface RunTransitionService {
+
+    /**
+     * PROCESSING -> SUCCEEDED, with a PROCESSING_COMPLETED event.
+     */
+    boolean markSucceeded(Long runId, ProcessResult result, OffsetDateTime now);
+
+    /**
+     * PROCESSING -> FAILED, with a PROCESSING_FAILED event carrying the error.
+     */
+    boolean markFailed(Long runId, String errorCode, String errorMessage, OffsetDateTime now);
+
+    /**
+     * A retryable failure of the current attempt. With attempts left (per the instrument's cap):
+     * PROCESSING -> MEASUREMENTS_SUBMITTED, claimable again after a backoff, with a
+     * PROCESSING_RETRY_SCHEDULED event. Otherwise PROCESSING -> DEAD_LETTERED, with a
+     * PROCESSING_DEAD_LETTERED event. Both events carry the attempt number and the error.
+     */
+    boolean markAttemptFailed(Long runId, String errorCode, String errorMessage, OffsetDateTime now);
+}
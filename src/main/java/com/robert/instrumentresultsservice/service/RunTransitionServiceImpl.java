@@ -0,0 +1,110 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.RetryStateRow;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Service
+public class RunTransitionServiceImpl implements RunTransitionService {
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final InstrumentRunEventRepository instrumentRunEventRepository;
+    private final ProcessingLeases processingLeases;
+    private final ProcessingRetryPolicy processingRetryPolicy;
+    private final ObjectMapper objectMapper;
+
+    public RunTransitionServiceImpl(
+            InstrumentRunRepository instrumentRunRepository,
+            InstrumentRunEventRepository instrumentRunEventRepository,
+            ProcessingLeases processingLeases,
+            ProcessingRetryPolicy processingRetryPolicy,
+            ObjectMapper objectMapper
+    ) {
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.instrumentRunEventRepository = instrumentRunEventRepository;
+        this.processingLeases = processingLeases;
+        this.processingRetryPolicy = processingRetryPolicy;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public boolean markSucceeded(Long runId, ProcessResult result, OffsetDateTime now) {
+        if (instrumentRunRepository.markSucceeded(runId, result, now, processingLeases.owner()) == 0) {
+            return false;
+        }
+        saveEvent(runId, InstrumentRunEventType.PROCESSING_COMPLETED, null);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean markFailed(Long runId, String errorCode, String errorMessage, OffsetDateTime now) {
+        if (instrumentRunRepository.markFailed(runId, errorCode, errorMessage, now, processingLeases.owner()) == 0) {
+            return false;
+        }
+
+        ObjectNode details = objectMapper.createObjectNode();
+        details.put("errorCode", errorCode);
+        details.put("errorMessage", errorMessage);
+
+        saveEvent(runId, InstrumentRunEventType.PROCESSING_FAILED, details);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean markAttemptFailed(Long runId, String errorCode, String errorMessage, OffsetDateTime now) {
+        String owner = processingLeases.owner();
+        RetryStateRow state = instrumentRunRepository.findRetryStateById(runId, owner).orElse(null);
+        if (state == null) {
+            return false;
+        }
+
+        ObjectNode details = objectMapper.createObjectNode();
+        details.put("attempt", state.processingAttempts());
+        details.put("errorCode", errorCode);
+        details.put("errorMessage", errorMessage);
+
+        int maxAttempts = processingRetryPolicy.maxAttempts(state.maxProcessingAttempts());
+        if (state.processingAttempts() < maxAttempts) {
+            OffsetDateTime nextAttemptAt = now.plus(processingRetryPolicy.backoff(state.processingAttempts()));
+            int scheduled = instrumentRunRepository.scheduleRetry(
+                    runId, errorCode, errorMessage, nextAttemptAt, now, owner, state.processingAttempts()
+            );
+            if (scheduled == 0) {
+                return false;
+            }
+            details.put("nextAttemptAt", nextAttemptAt.toString());
+            saveEvent(runId, InstrumentRunEventType.PROCESSING_RETRY_SCHEDULED, details);
+        } else {
+            int deadLettered = instrumentRunRepository.deadLetter(
+                    runId, errorCode, errorMessage, now, owner, state.processingAttempts()
+            );
+            if (deadLettered == 0) {
+                return false;
+            }
+            details.put("maxAttempts", maxAttempts);
+            saveEvent(runId, InstrumentRunEventType.PROCESSING_DEAD_LETTERED, details);
+        }
+        return true;
+    }
+
+    private void saveEvent(Long runId, InstrumentRunEventType type, ObjectNode details) {
+        // Reference only: the event needs the FK, not the run's state
+        InstrumentRunEvent event = new InstrumentRunEvent();
+        event.setInstrumentRun(instrumentRunRepository.getReferenceById(runId));
+        event.setEventType(type);
+        event.setDetails(details);
+        instrumentRunEventRepository.save(event);
+    }
+}
@@ -0,0 +1,68 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.service.result.ReclaimedRuns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recovers runs stuck in PROCESSING: a node that crashed (or lost a dispatch) mid-run stops
+ * renewing its leases, and once a lease lapses this sweeper hands the run back to the queue,
+ * or dead-letters it once its processing attempts are used up (see {@link ProcessingRetryPolicy}).
+ *
+ * Runs still in MEASUREMENTS_SUBMITTED need no recovery; the queue itself is durable.
+ * Safe on every node at once: expired rows are locked with SKIP LOCKED and the transitions are
+ * conditional on the lease still being expired.
+ */
+@Component
+public class StuckRunSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(StuckRunSweeper.class);
+
+    private final ProcessingQueueService processingQueueService;
+    private final ProcessingQueueWorker processingQueueWorker;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public StuckRunSweeper(
+            ProcessingQueueService processingQueueService,
+            ProcessingQueueWorker processingQueueWorker,
+            @Value("${processing.lease.sweeper.enabled:true}") boolean enabled,
+            @Value("${processing.lease.sweeper.batch-size:500}") int batchSize
+    ) {
+        this.processingQueueService = processingQueueService;
+        this.processingQueueWorker = processingQueueWorker;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${processing.lease.sweeper.interval-ms:30000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int requeued = 0;
+            int deadLettered = 0;
+            ReclaimedRuns batch;
+            do {
+                // One transaction per batch, so row locks are not held across the whole sweep
+                batch = processingQueueService.reclaimExpiredLeases(batchSize);
+                requeued += batch.requeued().size();
+                deadLettered += batch.deadLettered().size();
+            } while (batch.size() == batchSize);
+
+            if (requeued + deadLettered > 0) {
+                log.warn("Reclaimed stuck runs: {} requeued, {} dead-lettered", requeued, deadLettered);
+            }
+            if (requeued > 0) {
+                processingQueueWorker.signal();
+            }
+        } catch (Exception e) {
+            log.error("Stuck run sweep failed; will retry on next schedule", e);
+        }
+    }
+}
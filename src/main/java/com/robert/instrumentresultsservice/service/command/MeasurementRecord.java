@@ -0,0 +1,12 @@
+package com.robert.instrumentresultsservice.service.command;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of an NDJSON measurement feed: {"runId": 1, "code": "WBC", "value": 6.1}
+ */
+public record MeasurementRecord(
+        Long runId,
+        String code,
+        BigDecimal value
+) {}
@@ -0,0 +1,17 @@
+package com.robert.instrumentresultsservice.service.command;
+
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+
+/**
+ * One run to create in a bulk request. A null priority means the instrument's.
+ */
+public record NewInstrumentRun(
+        String instrumentCode,
+        String externalReference,
+        ProcessingPriority priority
+) {
+
+    public NewInstrumentRun(String instrumentCode, String externalReference) {
+        this(instrumentCode, externalReference, null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.robert.instrumentresultsservice.service.command;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Measurements for one run in a bulk submission.
+ */
+public record RunMeasurementSubmission(
+        Long runId,
+        Map<String, BigDecimal> measurementsByCode
+) {}
@@ -0,0 +1,29 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+/**
+ * One measurement an instrument produces, as defined by its contract (instrument_measurement row).
+ *
+ * @param spec limits with the instrument's overrides applied; {@link MeasurementSpec#NONE} when unbounded
+ */
+public record ContractMeasurement(
+        Long definitionId,
+        String code,
+        String name,
+        String unit,
+        int displayOrder,
+        MeasurementSpec spec
+) {
+
+    public ContractMeasurement {
+        if (spec == null) {
+            spec = MeasurementSpec.NONE;
+        }
+    }
+
+    /**
+     * A measurement without spec limits.
+     */
+    public ContractMeasurement(Long definitionId, String code, String name, String unit, int displayOrder) {
+        this(definitionId, code, name, unit, displayOrder, MeasurementSpec.NONE);
+    }
+}
@@ -0,0 +1,134 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of an instrument's measurement contract.
+ *
+ * @param requiredMeasurements contract rows in display order; the lookup maps are unordered
+ * @param specLimits           the rows' spec limits as primitive arrays
+ */
+public record InstrumentContract(
+        Long instrumentId,
+        String instrumentCode,
+        List<ContractMeasurement> requiredMeasurements,
+        Map<String, ContractMeasurement> measurementsByCode,
+        Map<Long, ContractMeasurement> measurementsByDefinitionId,
+        SpecLimits specLimits
+) {
+
+    public InstrumentContract {
+        requiredMeasurements = List.copyOf(requiredMeasurements);
+        measurementsByCode = Map.copyOf(measurementsByCode);
+        measurementsByDefinitionId = Map.copyOf(measurementsByDefinitionId);
+    }
+
+    /**
+     * Build a contract from rows already sorted by display order.
+     */
+    public static InstrumentContract of(Long instrumentId, String instrumentCode, List<ContractMeasurement> ordered) {
+        return new InstrumentContract(
+                instrumentId,
+                instrumentCode,
+                ordered,
+                ordered.stream().collect(Collectors.toMap(
+                        ContractMeasurement::code,
+                        Function.identity(),
+                        (a, b) -> a
+                )),
+                ordered.stream().collect(Collectors.toMap(
+                        ContractMeasurement::definitionId,
+                        Function.identity()
+                )),
+                SpecLimits.of(ordered)
+        );
+    }
+
+    /**
+     * Contract for an instrument with no measurement rows (nothing can be submitted).
+     */
+    public static InstrumentContract empty(Long instrumentId, String instrumentCode) {
+        return new InstrumentContract(instrumentId, instrumentCode, List.of(), Map.of(), Map.of(), SpecLimits.NONE);
+    }
+
+    public ContractMeasurement measurement(String code) {
+        return measurementsByCode.get(code);
+    }
+
+    public boolean isEmpty() {
+        return requiredMeasurements.isEmpty();
+    }
+
+    /**
+     * Every code must be in the contract and every value present and exactly representable at
+     * scale 6; throws on the first violation.
+     */
+    public void validate(Map<String, BigDecimal> measurementsByCode) {
+        toValues(measurementsByCode);
+    }
+
+    /**
+     * Validate (as {@link #validate}) and convert to compact values keyed by definition id,
+     * in submission order.
+     */
+    public MeasurementValues toValues(Map<String, BigDecimal> measurementsByCode) {
+        MeasurementValues.Builder values = MeasurementValues.builder(measurementsByCode.size());
+
+        for (Map.Entry<String, BigDecimal> entry : measurementsByCode.entrySet()) {
+            String code = entry.getKey();
+
+            ContractMeasurement measurement = measurement(code);
+            if (measurement == null) {
+                throw new IllegalArgumentException("Unknown measurement code: " + code);
+            }
+
+            // Optional: reject null values (BigDecimal should be present)
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("Measurement value is required for code: " + code);
+            }
+
+            long micros;
+            try {
+                micros = MicroUnits.toMicros(entry.getValue());
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException(
+                        "Measurement value for code " + code + " must have at most " + MicroUnits.SCALE
+                                + " decimal places and fit in the supported range: " + entry.getValue()
+                );
+            }
+            values.add(measurement.definitionId(), micros);
+        }
+        return values.build();
+    }
+
+    /**
+     * The worst spec status over already validated values ({@link #toValues}).
+     */
+    public SpecStatus specStatus(MeasurementValues values) {
+        return specLimits.evaluate(values);
+    }
+
+    /**
+     * Contract rows in display order, with the submitted value (or null) for each.
+     */
+    public List<RequiredMeasurement> toRequiredMeasurements(Map<Long, BigDecimal> submittedValuesByDefinitionId) {
+        return requiredMeasurements.stream()
+                .map(cm -> new RequiredMeasurement(
+                        cm.code(),
+                        cm.name(),
+                        cm.unit(),
+                        cm.displayOrder(),
+                        submittedValuesByDefinitionId.get(cm.definitionId())
+                ))
+                .toList();
+    }
+}
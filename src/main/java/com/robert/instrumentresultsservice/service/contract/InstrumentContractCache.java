@@ -0,0 +1,206 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.InstrumentMeasurement;
+import com.robert.instrumentresultsservice.domain.MeasurementDefinition;
+import com.robert.instrumentresultsservice.repository.InstrumentMeasurementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory cache of instrument contracts (instrument_measurement + measurement_definition).
+ *
+ * Reference data changes rarely and only through migrations / admin tooling, so the whole
+ * contract set is preloaded into an immutable snapshot and swapped atomically on refresh.
+ * Readers never lock; a lookup for an instrument missing from the snapshot is loaded from
+ * the database and added copy-on-write. Each contract carries its spec limits
+ * ({@link SpecLimits}) with the instrument's overrides already applied.
+ *
+ * Refresh happens on startup, every {@code reference-data.cache.refresh-interval-ms}, and on
+ * demand through the {@code instrumentcontracts} actuator endpoint.
+ */
+@Component
+public class InstrumentContractCache {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentContractCache.class);
+
+    private final InstrumentMeasurementRepository instrumentMeasurementRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public InstrumentContractCache(
+            InstrumentMeasurementRepository instrumentMeasurementRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.instrumentMeasurementRepository = instrumentMeasurementRepository;
+
+        this.hits = Counter.builder("instrument.contract.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("instrument.contract.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("instrument.contract.cache.size", snapshot, s -> s.get().byId().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Contract for the given instrument. Never null; empty if the instrument has no contract rows.
+     */
+    public InstrumentContract getByInstrumentId(Long instrumentId) {
+        InstrumentContract cached = snapshot.get().byId().get(instrumentId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        List<InstrumentMeasurement> rows = instrumentMeasurementRepository.findContractByInstrumentId(instrumentId);
+        if (rows.isEmpty()) {
+            // Don't cache: the contract may be configured later
+            return InstrumentContract.empty(instrumentId, null);
+        }
+        return install(toContract(rows));
+    }
+
+    /**
+     * Contract for the given instrument code. Never null; empty if the code has no contract rows.
+     */
+    public InstrumentContract getByInstrumentCode(String instrumentCode) {
+        InstrumentContract cached = snapshot.get().byCode().get(instrumentCode);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        List<InstrumentMeasurement> rows = instrumentMeasurementRepository.findContractByInstrumentCode(instrumentCode);
+        if (rows.isEmpty()) {
+            return InstrumentContract.empty(null, instrumentCode);
+        }
+        return install(toContract(rows));
+    }
+
+    /**
+     * Reload every contract from the database and swap it in atomically.
+     *
+     * @return the number of instruments in the new snapshot
+     */
+    public int refresh() {
+        Map<Long, List<InstrumentMeasurement>> rowsByInstrument = new LinkedHashMap<>();
+        for (InstrumentMeasurement im : instrumentMeasurementRepository.findAllContracts()) {
+            rowsByInstrument
+                    .computeIfAbsent(im.getInstrument().getId(), id -> new ArrayList<>())
+                    .add(im);
+        }
+
+        Map<Long, InstrumentContract> byId = new HashMap<>();
+        for (List<InstrumentMeasurement> rows : rowsByInstrument.values()) {
+            InstrumentContract contract = toContract(rows);
+            byId.put(contract.instrumentId(), contract);
+        }
+
+        Snapshot next = Snapshot.of(byId, OffsetDateTime.now());
+        snapshot.set(next);
+
+        log.info("Instrument contract cache refreshed: {} instruments", byId.size());
+        return byId.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            // Lookups fall back to the database until the next refresh succeeds
+            log.warn("Instrument contract cache preload failed", ex);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${reference-data.cache.refresh-interval-ms:300000}",
+            initialDelayString = "${reference-data.cache.refresh-interval-ms:300000}"
+    )
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Instrument contract cache refresh failed; keeping previous snapshot", ex);
+        }
+    }
+
+    public int size() {
+        return snapshot.get().byId().size();
+    }
+
+    public OffsetDateTime loadedAt() {
+        return snapshot.get().loadedAt();
+    }
+
+    private InstrumentContract install(InstrumentContract contract) {
+        // Copy-on-write; a concurrent refresh wins and the next miss reloads if needed
+        snapshot.updateAndGet(current -> current.with(contract));
+        return contract;
+    }
+
+    private static InstrumentContract toContract(List<InstrumentMeasurement> rows) {
+        InstrumentMeasurement first = rows.get(0);
+        List<ContractMeasurement> measurements = rows.stream()
+                .map(im -> {
+                    MeasurementDefinition md = im.getMeasurementDefinition();
+                    return new ContractMeasurement(
+                            md.getId(),
+                            md.getCode(),
+                            md.getName(),
+                            md.getUnit(),
+                            im.getDisplayOrder(),
+                            // Each bound: the instrument's override, else the definition's default
+                            MeasurementSpec.of(
+                                    im.getSpecLow() != null ? im.getSpecLow() : md.getSpecLow(),
+                                    im.getSpecHigh() != null ? im.getSpecHigh() : md.getSpecHigh(),
+                                    im.getWarnLow() != null ? im.getWarnLow() : md.getWarnLow(),
+                                    im.getWarnHigh() != null ? im.getWarnHigh() : md.getWarnHigh()
+                            )
+                    );
+                })
+                .toList();
+        return InstrumentContract.of(first.getInstrument().getId(), first.getInstrument().getCode(), measurements);
+    }
+
+    private record Snapshot(
+            Map<Long, InstrumentContract> byId,
+            Map<String, InstrumentContract> byCode,
+            OffsetDateTime loadedAt
+    ) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), null);
+
+        static Snapshot of(Map<Long, InstrumentContract> byId, OffsetDateTime loadedAt) {
+            Map<String, InstrumentContract> byCode = new HashMap<>();
+            byId.values().forEach(c -> byCode.put(c.instrumentCode(), c));
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byCode), loadedAt);
+        }
+
+        Snapshot with(InstrumentContract contract) {
+            Map<Long, InstrumentContract> nextById = new HashMap<>(byId);
+            nextById.put(contract.instrumentId(), contract);
+            return of(nextById, loadedAt);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Actuator endpoint to inspect and refresh the instrument contract cache
+ * (POST /actuator/instrumentcontracts after changing reference data).
+ */
+@Component
+@Endpoint(id = "instrumentcontracts")
+public class InstrumentContractCacheEndpoint {
+
+    private final InstrumentContractCache instrumentContractCache;
+
+    public InstrumentContractCacheEndpoint(InstrumentContractCache instrumentContractCache) {
+        this.instrumentContractCache = instrumentContractCache;
+    }
+
+    @ReadOperation
+    public CacheState state() {
+        return new CacheState(instrumentContractCache.size(), instrumentContractCache.loadedAt());
+    }
+
+    @WriteOperation
+    public CacheState refresh() {
+        instrumentContractCache.refresh();
+        return state();
+    }
+
+    public record CacheState(int instruments, OffsetDateTime loadedAt) {}
+}
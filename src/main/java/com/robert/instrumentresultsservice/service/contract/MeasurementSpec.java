@@ -0,0 +1,56 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+
+import java.math.BigDecimal;
+
+/**
+ * Spec limits of one contract measurement in micro-units, inclusive; Long.MIN_VALUE / Long.MAX_VALUE
+ * when a side is unbounded. Outside the spec band is out of spec; inside it but outside the
+ * (narrower) warning band is a warning.
+ */
+public record MeasurementSpec(
+        long specLowMicros,
+        long specHighMicros,
+        long warnLowMicros,
+        long warnHighMicros
+) {
+
+    public static final MeasurementSpec NONE =
+            new MeasurementSpec(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private static final BigDecimal MIN_MICROS = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_MICROS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    /**
+     * From NUMERIC(19,6) columns; null bounds are unbounded. The columns reach +/-10^13, past what
+     * micro-units can hold (about 9.22e12), so a bound beyond that range is clamped to it: values are
+     * limited to the same range, so such a bound is one no value can cross.
+     */
+    public static MeasurementSpec of(BigDecimal specLow, BigDecimal specHigh, BigDecimal warnLow, BigDecimal warnHigh) {
+        if (specLow == null && specHigh == null && warnLow == null && warnHigh == null) {
+            return NONE;
+        }
+        return new MeasurementSpec(
+                specLow == null ? Long.MIN_VALUE : toMicrosClamped(specLow),
+                specHigh == null ? Long.MAX_VALUE : toMicrosClamped(specHigh),
+                warnLow == null ? Long.MIN_VALUE : toMicrosClamped(warnLow),
+                warnHigh == null ? Long.MAX_VALUE : toMicrosClamped(warnHigh)
+        );
+    }
+
+    private static long toMicrosClamped(BigDecimal bound) {
+        BigDecimal micros = bound.scaleByPowerOfTen(MicroUnits.SCALE);
+        if (micros.compareTo(MAX_MICROS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (micros.compareTo(MIN_MICROS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return MicroUnits.toMicros(bound);
+    }
+
+    public boolean isUnbounded() {
+        return equals(NONE);
+    }
+}
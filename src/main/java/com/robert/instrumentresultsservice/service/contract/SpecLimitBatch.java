@@ -0,0 +1,106 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+
+import java.util.Arrays;
+
+/**
+ * Spec evaluation for many runs at once (bulk submissions, re-checks after a limit change).
+ *
+ * {@link #add} gathers every bounded value with its limits into flat columns; {@link #evaluate}
+ * is then one branch-free pass over primitive arrays (no lookups, no boxing, friendly to JIT
+ * unrolling and SIMD), and one pass keeping the worst severity per run. Runs may mix instruments.
+ *
+ * Not thread-safe; one batch per call.
+ */
+public final class SpecLimitBatch {
+
+    private long[] values;
+    private long[] specLow;
+    private long[] specHigh;
+    private long[] warnLow;
+    private long[] warnHigh;
+    private int[] runs;
+    private int size;
+    private int runCount;
+
+    public SpecLimitBatch(int expectedValues) {
+        int capacity = Math.max(expectedValues, 16);
+        this.values = new long[capacity];
+        this.specLow = new long[capacity];
+        this.specHigh = new long[capacity];
+        this.warnLow = new long[capacity];
+        this.warnHigh = new long[capacity];
+        this.runs = new int[capacity];
+    }
+
+    /**
+     * Add one run's values.
+     *
+     * @return the run's position in {@link #evaluate}'s result
+     */
+    public int add(SpecLimits limits, MeasurementValues runValues) {
+        int run = runCount++;
+        if (limits.isEmpty()) {
+            return run;
+        }
+        for (int i = 0; i < runValues.size(); i++) {
+            int slot = limits.indexOf(runValues.definitionId(i));
+            if (slot < 0) {
+                continue;
+            }
+            if (size == values.length) {
+                grow();
+            }
+            values[size] = runValues.micros(i);
+            specLow[size] = limits.specLow(slot);
+            specHigh[size] = limits.specHigh(slot);
+            warnLow[size] = limits.warnLow(slot);
+            warnHigh[size] = limits.warnHigh(slot);
+            runs[size] = run;
+            size++;
+        }
+        return run;
+    }
+
+    public int runCount() {
+        return runCount;
+    }
+
+    /**
+     * Status per added run, in add order.
+     */
+    public SpecStatus[] evaluate() {
+        // 1) Severity per value: straight-line compares over the columns
+        byte[] severity = new byte[size];
+        for (int i = 0; i < size; i++) {
+            severity[i] = (byte) SpecLimits.severity(values[i], specLow[i], specHigh[i], warnLow[i], warnHigh[i]);
+        }
+
+        // 2) Worst per run
+        byte[] worst = new byte[runCount];
+        for (int i = 0; i < size; i++) {
+            int run = runs[i];
+            if (severity[i] > worst[run]) {
+                worst[run] = severity[i];
+            }
+        }
+
+        SpecStatus[] statuses = new SpecStatus[runCount];
+        for (int run = 0; run < runCount; run++) {
+            statuses[run] = SpecLimits.status(worst[run]);
+        }
+        return statuses;
+    }
+
+    private void grow() {
+        int capacity = values.length * 2;
+        values = Arrays.copyOf(values, capacity);
+        specLow = Arrays.copyOf(specLow, capacity);
+        specHigh = Arrays.copyOf(specHigh, capacity);
+        warnLow = Arrays.copyOf(warnLow, capacity);
+        warnHigh = Arrays.copyOf(warnHigh, capacity);
+        runs = Arrays.copyOf(runs, capacity);
+    }
+}
@@ -0,0 +1,126 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The spec limits of one contract as parallel primitive arrays sorted by definition id: five
+ * long[] per contract instead of a map of records, so a check is a binary search and four
+ * compares with no allocation. Only measurements with at least one bound are present.
+ *
+ * Built once per contract by {@link InstrumentContract#of} and shared by every reader.
+ */
+public final class SpecLimits {
+
+    static final SpecLimits NONE = new SpecLimits(new long[0], new long[0], new long[0], new long[0], new long[0]);
+
+    private static final SpecStatus[] STATUSES = SpecStatus.values();
+
+    private final long[] definitionIds;
+    private final long[] specLow;
+    private final long[] specHigh;
+    private final long[] warnLow;
+    private final long[] warnHigh;
+
+    private SpecLimits(long[] definitionIds, long[] specLow, long[] specHigh, long[] warnLow, long[] warnHigh) {
+        this.definitionIds = definitionIds;
+        this.specLow = specLow;
+        this.specHigh = specHigh;
+        this.warnLow = warnLow;
+        this.warnHigh = warnHigh;
+    }
+
+    static SpecLimits of(List<ContractMeasurement> measurements) {
+        List<ContractMeasurement> bounded = measurements.stream()
+                .filter(m -> !m.spec().isUnbounded())
+                .sorted(Comparator.comparing(ContractMeasurement::definitionId))
+                .toList();
+        if (bounded.isEmpty()) {
+            return NONE;
+        }
+
+        int n = bounded.size();
+        long[] definitionIds = new long[n];
+        long[] specLow = new long[n];
+        long[] specHigh = new long[n];
+        long[] warnLow = new long[n];
+        long[] warnHigh = new long[n];
+        for (int i = 0; i < n; i++) {
+            ContractMeasurement measurement = bounded.get(i);
+            MeasurementSpec spec = measurement.spec();
+            definitionIds[i] = measurement.definitionId();
+            specLow[i] = spec.specLowMicros();
+            specHigh[i] = spec.specHighMicros();
+            warnLow[i] = spec.warnLowMicros();
+            warnHigh[i] = spec.warnHighMicros();
+        }
+        return new SpecLimits(definitionIds, specLow, specHigh, warnLow, warnHigh);
+    }
+
+    public boolean isEmpty() {
+        return definitionIds.length == 0;
+    }
+
+    public int size() {
+        return definitionIds.length;
+    }
+
+    /**
+     * Slot of the definition id, or -1 if it has no limits.
+     */
+    public int indexOf(long definitionId) {
+        int slot = Arrays.binarySearch(definitionIds, definitionId);
+        return slot < 0 ? -1 : slot;
+    }
+
+    public long specLow(int slot) {
+        return specLow[slot];
+    }
+
+    public long specHigh(int slot) {
+        return specHigh[slot];
+    }
+
+    public long warnLow(int slot) {
+        return warnLow[slot];
+    }
+
+    public long warnHigh(int slot) {
+        return warnHigh[slot];
+    }
+
+    /**
+     * The worst status over one run's values; values without limits are in spec.
+     */
+    public SpecStatus evaluate(MeasurementValues values) {
+        if (isEmpty()) {
+            return SpecStatus.IN_SPEC;
+        }
+        int worst = 0;
+        for (int i = 0; i < values.size(); i++) {
+            int slot = indexOf(values.definitionId(i));
+            if (slot >= 0) {
+                worst = Math.max(worst, severity(values.micros(i), specLow[slot], specHigh[slot], warnLow[slot], warnHigh[slot]));
+            }
+        }
+        return status(worst);
+    }
+
+    /**
+     * 0 in spec, 1 warning, 2 out of spec (the {@link SpecStatus} ordinals). Non-short-circuit
+     * operators keep it branch-free.
+     */
+    static int severity(long value, long specLow, long specHigh, long warnLow, long warnHigh) {
+        int out = (value < specLow | value > specHigh) ? 2 : 0;
+        int warn = (value < warnLow | value > warnHigh) ? 1 : 0;
+        return Math.max(out, warn);
+    }
+
+    static SpecStatus status(int severity) {
+        return STATUSES[severity];
+    }
+}
@@ -0,0 +1,135 @@
+package com.robert.instrumentresultsservice.service.measurement;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A run's measurement values as parallel primitive arrays: definition ids and values in micro-units
+ * ({@link MicroUnits}). Two arrays instead of a map of boxed keys and BigDecimals, so validation
+ * and processing work on longs without allocating per value.
+ *
+ * Immutable; entries keep the order they were added in.
+ */
+public final class MeasurementValues {
+
+    private static final MeasurementValues EMPTY = new MeasurementValues(new long[0], new long[0]);
+
+    private final long[] definitionIds;
+    private final long[] micros;
+
+    private MeasurementValues(long[] definitionIds, long[] micros) {
+        this.definitionIds = definitionIds;
+        this.micros = micros;
+    }
+
+    public static MeasurementValues empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return definitionIds.length;
+    }
+
+    public boolean isEmpty() {
+        return definitionIds.length == 0;
+    }
+
+    public long definitionId(int index) {
+        return definitionIds[index];
+    }
+
+    public long micros(int index) {
+        return micros[index];
+    }
+
+    /**
+     * Exact value at scale 6; for the persistence and API boundaries only.
+     */
+    public BigDecimal value(int index) {
+        return MicroUnits.toBigDecimal(micros[index]);
+    }
+
+    /**
+     * Position of the definition id, or -1. Linear: contracts hold tens of measurements, not thousands.
+     */
+    public int indexOf(long definitionId) {
+        for (int i = 0; i < definitionIds.length; i++) {
+            if (definitionIds[i] == definitionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @throws ArithmeticException on overflow
+     */
+    public long sumMicros() {
+        long sum = 0;
+        for (long value : micros) {
+            sum = Math.addExact(sum, value);
+        }
+        return sum;
+    }
+
+    public long minMicros() {
+        requireNotEmpty();
+        long min = Long.MAX_VALUE;
+        for (long value : micros) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    public long maxMicros() {
+        requireNotEmpty();
+        long max = Long.MIN_VALUE;
+        for (long value : micros) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private void requireNotEmpty() {
+        if (definitionIds.length == 0) {
+            throw new IllegalStateException("No measurement values");
+        }
+    }
+
+    public static final class Builder {
+
+        private long[] definitionIds;
+        private long[] micros;
+        private int size;
+
+        private Builder(int expectedSize) {
+            this.definitionIds = new long[Math.max(expectedSize, 1)];
+            this.micros = new long[definitionIds.length];
+        }
+
+        public Builder add(long definitionId, long valueMicros) {
+            if (size == definitionIds.length) {
+                definitionIds = Arrays.copyOf(definitionIds, size * 2);
+                micros = Arrays.copyOf(micros, size * 2);
+            }
+            definitionIds[size] = definitionId;
+            micros[size] = valueMicros;
+            size++;
+            return this;
+        }
+
+        public MeasurementValues build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            // Trim only when the size guess was off
+            return size == definitionIds.length
+                    ? new MeasurementValues(definitionIds, micros)
+                    : new MeasurementValues(Arrays.copyOf(definitionIds, size), Arrays.copyOf(micros, size));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.robert.instrumentresultsservice.service.measurement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point measurement values: a long count of micro-units (value x 10^6), the same scale as
+ * the NUMERIC(19,6) measurement.value column.
+ *
+ * Conversion is exact in both directions. Values with non-zero digits past the sixth decimal, or
+ * beyond +/-9223372036854.775807, are rejected instead of being rounded (the column would round
+ * the former silently).
+ */
+public final class MicroUnits {
+
+    public static final int SCALE = 6;
+
+    /** 1 in micro-units. */
+    public static final long ONE = 1_000_000L;
+
+    private MicroUnits() {
+    }
+
+    /**
+     * @throws ArithmeticException if the value is not exactly representable
+     */
+    public static long toMicros(BigDecimal value) {
+        // A compact BigDecimal only changes its scale here; no BigInteger is created
+        return value.scaleByPowerOfTen(SCALE).longValueExact();
+    }
+
+    /**
+     * Exact value at scale 6 (as the column stores it).
+     */
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+    /**
+     * Exact value without trailing zeros (1.23, 100), for API payloads.
+     */
+    public static BigDecimal toPlainBigDecimal(long micros) {
+        BigDecimal stripped = toBigDecimal(micros).stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+
+    /**
+     * micros x numerator / denominator, rounded half-up to the nearest micro-unit.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long scale(long micros, long numerator, long denominator) {
+        try {
+            return roundedDivide(Math.multiplyExact(micros, numerator), denominator);
+        } catch (ArithmeticException overflow) {
+            return BigDecimal.valueOf(micros)
+                    .multiply(BigDecimal.valueOf(numerator))
+                    .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+    }
+
+    /**
+     * Product of two micro-unit values, in micro-units.
+     */
+    public static long multiply(long leftMicros, long rightMicros) {
+        return scale(leftMicros, rightMicros, ONE);
+    }
+
+    /**
+     * Quotient of two micro-unit values, in micro-units.
+     *
+     * @throws ArithmeticException on division by zero or overflow
+     */
+    public static long divide(long leftMicros, long rightMicros) {
+        if (rightMicros == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return scale(leftMicros, ONE, rightMicros);
+    }
+
+    private static long roundedDivide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Half-up (away from zero); compare 2|r| >= |d| without overflowing
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
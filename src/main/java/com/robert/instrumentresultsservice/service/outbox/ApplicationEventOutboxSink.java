@@ -0,0 +1,27 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process sink: each message becomes a Spring application event ({@code @EventListener OutboxMessage}).
+ * Listeners run synchronously on the relay thread, so a failing listener makes the batch retry.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "events", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        batch.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,57 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends messages as NDJSON to a local file, one write + fsync per batch.
+ * A batch is durable in the file before the relay deletes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(
+            ObjectMapper objectMapper,
+            @Value("${outbox.file.path:build/outbox/run-events.ndjson}") String path
+    ) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(batch.size() * 128);
+        for (OutboxMessage message : batch) {
+            objectMapper.writeValue(buffer, message);
+            buffer.write('\n');
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
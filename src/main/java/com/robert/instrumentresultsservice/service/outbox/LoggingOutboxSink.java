@@ -0,0 +1,26 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stand-in for a message broker until one is wired up: logs each batch (messages at DEBUG).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "log")
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        log.info("Relayed {} run events (ids {}..{})", batch.size(), batch.getFirst().id(), batch.getLast().id());
+        if (log.isDebugEnabled()) {
+            batch.forEach(message -> log.debug("{}", message));
+        }
+    }
+}
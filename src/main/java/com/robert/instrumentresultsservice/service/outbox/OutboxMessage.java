@@ -0,0 +1,19 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One run status event as published by the outbox relay.
+ *
+ * @param id outbox sequence number; increasing per run, so consumers can drop duplicates per runId
+ */
+public record OutboxMessage(
+        long id,
+        Long runId,
+        InstrumentRunEventType eventType,
+        InstrumentRunStatus status,
+        OffsetDateTime occurredAt
+) {}
@@ -0,0 +1,174 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves run events from run_event_outbox to the configured {@link OutboxSink}.
+ *
+ * Each batch is one transaction: DELETE ... RETURNING the oldest batch-size rows, publish them,
+ * commit. If publishing fails the delete rolls back and the rows are retried (at-least-once).
+ * A transaction-scoped advisory lock keeps exactly one relay active across nodes, so batches
+ * are published in id order. A full batch is followed immediately by the next one; the relay
+ * only sleeps for poll-interval-ms once the outbox is drained.
+ *
+ * Runs on its own thread so a backlog never delays the shared scheduler.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock ("outbox" in ASCII)
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private static final String CLAIM_SQL = """
+            delete from run_event_outbox
+            where id in (
+                select id
+                from run_event_outbox
+                order by id
+                limit ?
+            )
+            returning id, instrument_run_id, event_type, status, occurred_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final long pollIntervalMs;
+
+    private final Counter published;
+    private final Timer batchTimer;
+
+    private ScheduledExecutorService relayThread;
+
+    public OutboxRelay(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            OutboxSink sink,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:5000}") int batchSize,
+            @Value("${outbox.relay.poll-interval-ms:200}") long pollIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Run events published by the outbox relay")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Claim + publish + commit of one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relayThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relayThread.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relayThread != null) {
+            relayThread.shutdownNow();
+        }
+    }
+
+    void poll() {
+        try {
+            drain();
+        } catch (Exception e) {
+            log.error("Outbox relay failed; will retry on next poll", e);
+        }
+    }
+
+    /**
+     * Publish batches until the outbox is empty (or another node holds the relay lock).
+     *
+     * @return number of messages published
+     */
+    public long drain() {
+        long total = 0;
+        while (true) {
+            int count = relayBatch();
+            total += count;
+            if (count < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> batchTimer.record(() -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "select pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY
+            );
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0; // another node is relaying
+            }
+
+            List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_SQL, OutboxRelay::toMessage, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // RETURNING does not preserve the subquery's order
+            batch.sort(Comparator.comparingLong(OutboxMessage::id));
+            try {
+                sink.publish(batch);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink failed", e);
+            }
+            return batch.size();
+        }));
+
+        int relayed = count == null ? 0 : count;
+        published.increment(relayed);
+        return relayed;
+    }
+
+    private static OutboxMessage toMessage(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxMessage(
+                rs.getLong("id"),
+                rs.getLong("instrument_run_id"),
+                InstrumentRunEventType.valueOf(rs.getString("event_type")),
+                InstrumentRunStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("occurred_at").toInstant().atOffset(ZoneOffset.UTC)
+        );
+    }
+}
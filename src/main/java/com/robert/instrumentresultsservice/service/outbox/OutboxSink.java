@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox messages; selected with {@code outbox.sink}.
+ *
+ * publish runs inside the relay transaction: if it throws, the batch stays in the outbox and is
+ * retried on the next poll (at-least-once). Batches arrive in outbox id order.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,82 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunTransitioned;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every run transition to run_event_outbox in the transaction that made it.
+ *
+ * Transitions are collected per transaction and written as one JDBC batch just before commit,
+ * so a business transaction that emits 1,000 events pays for one round trip instead of 1,000,
+ * and a rollback writes nothing. Per run, outbox ids follow commit order: transitions of one run
+ * serialize on its row lock, which is held until after the outbox insert.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = """
+            insert into run_event_outbox (instrument_run_id, event_type, status, occurred_at)
+            values (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Synchronous on purpose: runs inside the publishing transaction.
+     */
+    @EventListener
+    public void onTransition(InstrumentRunTransitioned transition) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(transition));
+            return;
+        }
+
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.transitions.add(transition);
+    }
+
+    private void write(List<InstrumentRunTransitioned> transitions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transitions, transitions.size(), (ps, t) -> {
+            ps.setLong(1, t.runId());
+            ps.setString(2, t.eventType().name());
+            ps.setString(3, t.status().name());
+            ps.setTimestamp(4, Timestamp.from(t.occurredAt().toInstant()));
+        });
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<InstrumentRunTransitioned> transitions = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!transitions.isEmpty()) {
+                write(transitions);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs pipelines on a dedicated fork-join pool sized to the CPUs (processing.compute.parallelism).
+ *
+ * Processing threads (possibly thousands of virtual threads) do their database I/O themselves and
+ * hand only the CPU-bound part here, so computation never runs wider than the cores and never
+ * holds a connection. The number of runs waiting for the pool is bounded by the queue worker's
+ * max-in-flight.
+ */
+@Component
+public class ProcessingEngine {
+
+    private final ProcessingPipelines processingPipelines;
+    private final MeterRegistry meterRegistry;
+    private final ForkJoinPool computePool;
+
+    private final Map<String, Timer> computeTimers = new ConcurrentHashMap<>();
+
+    public ProcessingEngine(
+            ProcessingPipelines processingPipelines,
+            MeterRegistry meterRegistry,
+            @Value("${processing.compute.parallelism:0}") int parallelism
+    ) {
+        this.processingPipelines = processingPipelines;
+        this.meterRegistry = meterRegistry;
+        this.computePool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("run-compute-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                true // FIFO: runs are independent tasks, not recursive work
+        );
+    }
+
+    /**
+     * Run the instrument's pipeline and wait for the result.
+     *
+     * @throws CancellationException if the compute pool is shutting down, before or during the run
+     */
+    public ProcessResult compute(RunComputation computation) throws InterruptedException {
+        ProcessingPipeline pipeline = processingPipelines.forInstrument(computation.instrumentCode());
+        Timer timer = computeTimers.computeIfAbsent(pipeline.name(), name -> Timer.builder("instrument.runs.processing.compute")
+                .description("CPU time of a run's processing pipeline")
+                .tag("pipeline", name)
+                .register(meterRegistry));
+
+        Future<ProcessResult> result;
+        try {
+            result = computePool.submit(() -> timer.record(() -> pipeline.run(computation)));
+        } catch (RejectedExecutionException e) {
+            throw new CancellationException("Compute pool is shut down");
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Pipeline " + pipeline.name() + " failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        computePool.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.ProcessingInputRow;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The I/O half of processing: one read of the run's instrument and measurements, turned into a
+ * {@link RunComputation} for the compute pool. Codes, units and spec limits come from the cached
+ * contract.
+ */
+@Component
+public class ProcessingInputLoader {
+
+    private final InstrumentRunRepository instrumentRunRepository;
+    private final InstrumentContractCache instrumentContractCache;
+
+    public ProcessingInputLoader(
+            InstrumentRunRepository instrumentRunRepository,
+            InstrumentContractCache instrumentContractCache
+    ) {
+        this.instrumentRunRepository = instrumentRunRepository;
+        this.instrumentContractCache = instrumentContractCache;
+    }
+
+    /**
+     * @return the run's inputs in contract display order, or null if the run does not exist
+     */
+    @Transactional(readOnly = true)
+    public RunComputation load(Long runId) {
+        List<ProcessingInputRow> rows = instrumentRunRepository.findProcessingInputRowsById(runId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        ProcessingInputRow first = rows.get(0);
+
+        Map<Long, BigDecimal> valuesByDefinitionId = new HashMap<>();
+        for (ProcessingInputRow row : rows) {
+            if (row.measurementDefinitionId() != null) {
+                valuesByDefinitionId.put(row.measurementDefinitionId(), row.measurementValue());
+            }
+        }
+
+        InstrumentContract contract = instrumentContractCache.getByInstrumentId(first.instrumentId());
+        RunComputation computation = new RunComputation(runId, first.instrumentCode(), valuesByDefinitionId.size());
+
+        // Values outside the contract (a row removed after submission) are not processed
+        for (ContractMeasurement measurement : contract.requiredMeasurements()) {
+            BigDecimal value = valuesByDefinitionId.get(measurement.definitionId());
+            if (value != null) {
+                // NUMERIC(19,6) always fits
+                computation.addSubmitted(
+                        measurement.code(), MicroUnits.toMicros(value), measurement.unit(), measurement.spec()
+                );
+            }
+        }
+        return computation;
+    }
+}
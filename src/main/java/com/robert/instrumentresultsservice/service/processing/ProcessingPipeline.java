@@ -0,0 +1,31 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ordered stages applied to the runs of the given instruments. Declared as beans (see
+ * ProcessingPipelineConfig) and selected by instrument code through {@link ProcessingPipelines}.
+ *
+ * @param instrumentCodes instruments this pipeline handles; empty for the default pipeline
+ */
+public record ProcessingPipeline(
+        String name,
+        Set<String> instrumentCodes,
+        List<ProcessingStage> stages
+) {
+
+    public ProcessingPipeline {
+        instrumentCodes = Set.copyOf(instrumentCodes);
+        stages = List.copyOf(stages);
+    }
+
+    public ProcessResult run(RunComputation computation) {
+        for (ProcessingStage stage : stages) {
+            stage.apply(computation);
+        }
+        return computation.toResult(name);
+    }
+}
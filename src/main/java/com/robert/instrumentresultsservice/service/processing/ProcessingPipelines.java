@@ -0,0 +1,44 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pipeline lookup by instrument code. Every {@link ProcessingPipeline} bean is registered; runs of
+ * instruments no pipeline claims use the one named "default".
+ */
+@Component
+public class ProcessingPipelines {
+
+    public static final String DEFAULT = "default";
+
+    private final Map<String, ProcessingPipeline> byInstrumentCode = new HashMap<>();
+    private final ProcessingPipeline defaultPipeline;
+
+    public ProcessingPipelines(List<ProcessingPipeline> pipelines) {
+        ProcessingPipeline fallback = null;
+        for (ProcessingPipeline pipeline : pipelines) {
+            if (DEFAULT.equals(pipeline.name())) {
+                fallback = pipeline;
+            }
+            for (String instrumentCode : pipeline.instrumentCodes()) {
+                ProcessingPipeline previous = byInstrumentCode.putIfAbsent(instrumentCode, pipeline);
+                if (previous != null) {
+                    throw new IllegalStateException("Instrument " + instrumentCode + " is claimed by pipelines "
+                            + previous.name() + " and " + pipeline.name());
+                }
+            }
+        }
+        if (fallback == null) {
+            throw new IllegalStateException("No processing pipeline named " + DEFAULT);
+        }
+        this.defaultPipeline = fallback;
+    }
+
+    public ProcessingPipeline forInstrument(String instrumentCode) {
+        return byInstrumentCode.getOrDefault(instrumentCode, defaultPipeline);
+    }
+}
@@ -0,0 +1,13 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+/**
+ * One computation step of a pipeline. Runs on the compute pool: CPU only, no I/O, no blocking.
+ *
+ * Stages are shared by every run using the pipeline, so they must be stateless (or immutable).
+ */
+public interface ProcessingStage {
+
+    String name();
+
+    void apply(RunComputation computation);
+}
@@ -0,0 +1,163 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import com.robert.instrumentresultsservice.service.contract.MeasurementSpec;
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Working state of one run while its pipeline executes: the values (submitted, then derived) as
+ * parallel arrays of code / micro-units / unit / contract spec, plus limit checks and the verdict.
+ *
+ * Built by {@link ProcessingInputLoader} from the database, then only touched by pipeline stages
+ * on the compute pool; it never goes back to the database. Not thread-safe: one run, one thread.
+ */
+public final class RunComputation {
+
+    private final Long runId;
+    private final String instrumentCode;
+
+    private String[] codes;
+    private long[] micros;
+    private String[] units;
+    private MeasurementSpec[] specs;
+    private int submittedCount;
+    private int size;
+
+    private final List<ProcessResult.LimitCheck> limitChecks = new ArrayList<>();
+    private boolean limitFailed;
+    private String verdict;
+
+    public RunComputation(Long runId, String instrumentCode, int expectedValues) {
+        this.runId = runId;
+        this.instrumentCode = instrumentCode;
+        int capacity = Math.max(expectedValues, 4);
+        this.codes = new String[capacity];
+        this.micros = new long[capacity];
+        this.units = new String[capacity];
+        this.specs = new MeasurementSpec[capacity];
+    }
+
+    public Long runId() {
+        return runId;
+    }
+
+    public String instrumentCode() {
+        return instrumentCode;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String code(int index) {
+        return codes[index];
+    }
+
+    public long micros(int index) {
+        return micros[index];
+    }
+
+    public String unit(int index) {
+        return units[index];
+    }
+
+    /**
+     * Contract spec limits of a submitted value, in its submitted unit; {@link MeasurementSpec#NONE}
+     * for derived values.
+     */
+    public MeasurementSpec spec(int index) {
+        return specs[index];
+    }
+
+    public boolean isDerived(int index) {
+        return index >= submittedCount;
+    }
+
+    /**
+     * Position of the value with this code, or -1. Linear: runs carry tens of values.
+     */
+    public int indexOf(String code) {
+        for (int i = 0; i < size; i++) {
+            if (codes[i].equals(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a submitted value; only valid before any derived value is added.
+     */
+    public void addSubmitted(String code, long valueMicros, String unit) {
+        addSubmitted(code, valueMicros, unit, MeasurementSpec.NONE);
+    }
+
+    public void addSubmitted(String code, long valueMicros, String unit, MeasurementSpec spec) {
+        if (submittedCount != size) {
+            throw new IllegalStateException("Submitted values must be added before derived values");
+        }
+        append(code, valueMicros, unit, spec);
+        submittedCount++;
+    }
+
+    public void addDerived(String code, long valueMicros, String unit) {
+        append(code, valueMicros, unit, MeasurementSpec.NONE);
+    }
+
+    public void replace(int index, long valueMicros, String unit) {
+        micros[index] = valueMicros;
+        units[index] = unit;
+    }
+
+    public void addLimitCheck(int index, long lowMicros, long highMicros) {
+        long value = micros[index];
+        boolean passed = value >= lowMicros && value <= highMicros;
+        limitFailed |= !passed;
+        limitChecks.add(new ProcessResult.LimitCheck(
+                codes[index],
+                MicroUnits.toPlainBigDecimal(value),
+                lowMicros == Long.MIN_VALUE ? null : MicroUnits.toPlainBigDecimal(lowMicros),
+                highMicros == Long.MAX_VALUE ? null : MicroUnits.toPlainBigDecimal(highMicros),
+                passed
+        ));
+    }
+
+    public boolean anyLimitFailed() {
+        return limitFailed;
+    }
+
+    public void setVerdict(String verdict) {
+        this.verdict = verdict;
+    }
+
+    ProcessResult toResult(String pipeline) {
+        List<ProcessResult.Value> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(new ProcessResult.Value(codes[i], MicroUnits.toPlainBigDecimal(micros[i]), units[i], isDerived(i)));
+        }
+        return new ProcessResult(
+                verdict != null ? verdict : (limitFailed ? ProcessResult.FAIL : ProcessResult.PASS),
+                pipeline,
+                values,
+                limitChecks
+        );
+    }
+
+    private void append(String code, long valueMicros, String unit, MeasurementSpec spec) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+            micros = Arrays.copyOf(micros, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+            specs = Arrays.copyOf(specs, size * 2);
+        }
+        codes[size] = code;
+        micros[size] = valueMicros;
+        units[size] = unit;
+        specs[size] = spec;
+        size++;
+    }
+}
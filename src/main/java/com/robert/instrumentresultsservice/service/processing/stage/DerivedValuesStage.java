@@ -0,0 +1,59 @@
+package com.robert.instrumentresultsservice.service.processing.stage;
+
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+import com.robert.instrumentresultsservice.service.processing.ProcessingStage;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
+
+import java.util.List;
+
+/**
+ * Adds values computed from other values of the run (e.g. a ratio of two measurements).
+ * Formulas are evaluated in order, so a formula may use an earlier derived value. A formula
+ * whose operand is missing, or that divides by zero, is skipped.
+ */
+public final class DerivedValuesStage implements ProcessingStage {
+
+    public enum Operator { ADD, SUBTRACT, MULTIPLY, DIVIDE }
+
+    /**
+     * code = left operator right
+     */
+    public record Formula(String code, String left, Operator operator, String right, String unit) {
+    }
+
+    private final List<Formula> formulas;
+
+    public DerivedValuesStage(List<Formula> formulas) {
+        this.formulas = List.copyOf(formulas);
+    }
+
+    @Override
+    public String name() {
+        return "derived-values";
+    }
+
+    @Override
+    public void apply(RunComputation computation) {
+        for (Formula formula : formulas) {
+            int left = computation.indexOf(formula.left());
+            int right = computation.indexOf(formula.right());
+            if (left < 0 || right < 0) {
+                continue;
+            }
+
+            long a = computation.micros(left);
+            long b = computation.micros(right);
+            if (formula.operator() == Operator.DIVIDE && b == 0) {
+                continue;
+            }
+
+            long result = switch (formula.operator()) {
+                case ADD -> Math.addExact(a, b);
+                case SUBTRACT -> Math.subtractExact(a, b);
+                case MULTIPLY -> MicroUnits.multiply(a, b);
+                case DIVIDE -> MicroUnits.divide(a, b);
+            };
+            computation.addDerived(formula.code(), result, formula.unit());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.robert.instrumentresultsservice.service.processing.stage;
+
+import com.robert.instrumentresultsservice.service.processing.ProcessingStage;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
+
+import java.util.Map;
+
+/**
+ * Checks values (submitted or derived, after unit normalization) against inclusive limits.
+ */
+public final class LimitCheckStage implements ProcessingStage {
+
+    /**
+     * Inclusive limits in micro-units; Long.MIN_VALUE / Long.MAX_VALUE when unbounded.
+     */
+    public record Limits(long lowMicros, long highMicros) {
+
+        public static Limits between(long lowMicros, long highMicros) {
+            return new Limits(lowMicros, highMicros);
+        }
+
+        public static Limits atMost(long highMicros) {
+            return new Limits(Long.MIN_VALUE, highMicros);
+        }
+
+        public static Limits atLeast(long lowMicros) {
+            return new Limits(lowMicros, Long.MAX_VALUE);
+        }
+    }
+
+    private final Map<String, Limits> limitsByCode;
+
+    public LimitCheckStage(Map<String, Limits> limitsByCode) {
+        this.limitsByCode = Map.copyOf(limitsByCode);
+    }
+
+    @Override
+    public String name() {
+        return "limit-checks";
+    }
+
+    @Override
+    public void apply(RunComputation computation) {
+        for (int i = 0; i < computation.size(); i++) {
+            Limits limits = limitsByCode.get(computation.code(i));
+            if (limits != null) {
+                computation.addLimitCheck(i, limits.lowMicros(), limits.highMicros());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.robert.instrumentresultsservice.service.processing.stage;
+
+import com.robert.instrumentresultsservice.service.contract.MeasurementSpec;
+import com.robert.instrumentresultsservice.service.processing.ProcessingStage;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
+
+/**
+ * Checks submitted values against the spec band of their contract (measurement_definition and
+ * instrument_measurement, V15). Must run before {@link UnitNormalizationStage}: contract limits
+ * are in the submitted unit. Warning bands do not fail a run; they only flag it at submission.
+ */
+public final class SpecLimitCheckStage implements ProcessingStage {
+
+    @Override
+    public String name() {
+        return "spec-limit-checks";
+    }
+
+    @Override
+    public void apply(RunComputation computation) {
+        for (int i = 0; i < computation.size(); i++) {
+            MeasurementSpec spec = computation.spec(i);
+            if (spec.specLowMicros() != Long.MIN_VALUE || spec.specHighMicros() != Long.MAX_VALUE) {
+                computation.addLimitCheck(i, spec.specLowMicros(), spec.specHighMicros());
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.robert.instrumentresultsservice.service.processing.stage;
+
+import com.robert.instrumentresultsservice.service.measurement.MicroUnits;
+import com.robert.instrumentresultsservice.service.processing.ProcessingStage;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
+
+import java.util.Map;
+
+/**
+ * Converts submitted values to canonical units (mg/dL -> mg/L, degF -> degC, ...), so limits and
+ * derived values are defined once per canonical unit. Units without a rule are left as they are.
+ *
+ * Conversions are exact ratios on micro-units, rounded half-up to the sixth decimal.
+ */
+public final class UnitNormalizationStage implements ProcessingStage {
+
+    /**
+     * canonical = (value + offset) x numerator / denominator
+     */
+    record Conversion(String canonicalUnit, long offsetMicros, long numerator, long denominator) {
+
+        static Conversion ratio(String canonicalUnit, long numerator, long denominator) {
+            return new Conversion(canonicalUnit, 0, numerator, denominator);
+        }
+
+        long apply(long micros) {
+            return MicroUnits.scale(Math.addExact(micros, offsetMicros), numerator, denominator);
+        }
+    }
+
+    static final Map<String, Conversion> CONVERSIONS = Map.ofEntries(
+            // Mass concentration -> mg/L
+            Map.entry("g/L", Conversion.ratio("mg/L", 1000, 1)),
+            Map.entry("g/dL", Conversion.ratio("mg/L", 10_000, 1)),
+            Map.entry("mg/dL", Conversion.ratio("mg/L", 10, 1)),
+            Map.entry("ug/L", Conversion.ratio("mg/L", 1, 1000)),
+            Map.entry("µg/L", Conversion.ratio("mg/L", 1, 1000)),
+            // Volume -> L
+            Map.entry("mL", Conversion.ratio("L", 1, 1000)),
+            Map.entry("uL", Conversion.ratio("L", 1, 1_000_000)),
+            Map.entry("µL", Conversion.ratio("L", 1, 1_000_000)),
+            // Pressure -> kPa
+            Map.entry("mmHg", Conversion.ratio("kPa", 133_322_387, 1_000_000_000)),
+            // Temperature -> degC
+            Map.entry("degF", new Conversion("degC", -32 * MicroUnits.ONE, 5, 9)),
+            Map.entry("°F", new Conversion("degC", -32 * MicroUnits.ONE, 5, 9)),
+            Map.entry("K", new Conversion("degC", -273_150_000, 1, 1))
+    );
+
+    @Override
+    public String name() {
+        return "normalize-units";
+    }
+
+    @Override
+    public void apply(RunComputation computation) {
+        for (int i = 0; i < computation.size(); i++) {
+            String unit = computation.unit(i);
+            Conversion conversion = unit == null ? null : CONVERSIONS.get(unit);
+            if (conversion != null) {
+                computation.replace(i, conversion.apply(computation.micros(i)), conversion.canonicalUnit());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.robert.instrumentresultsservice.service.processing.stage;
+
+import com.robert.instrumentresultsservice.service.processing.ProcessingStage;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+
+/**
+ * PASS unless a limit check failed.
+ */
+public final class VerdictStage implements ProcessingStage {
+
+    @Override
+    public String name() {
+        return "verdict";
+    }
+
+    @Override
+    public void apply(RunComputation computation) {
+        computation.setVerdict(computation.anyLimitFailed() ? ProcessResult.FAIL : ProcessResult.PASS);
+    }
+}
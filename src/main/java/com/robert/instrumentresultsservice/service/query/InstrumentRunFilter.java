@@ -0,0 +1,18 @@
+package com.robert.instrumentresultsservice.service.query;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Optional filters for listing instrument runs.
+ * Null fields are ignored; createdFrom is inclusive, createdTo is exclusive.
+ */
+public record InstrumentRunFilter(
+        InstrumentRunStatus status,
+        String instrumentCode,
+        UUID createdByClientId,
+        OffsetDateTime createdFrom,
+        OffsetDateTime createdTo
+) {}
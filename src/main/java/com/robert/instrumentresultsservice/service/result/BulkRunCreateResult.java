@@ -0,0 +1,39 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Outcome of one item in a bulk create. Either the run fields or error is set.
+ *
+ * @param index position of the item in the request
+ */
+public record BulkRunCreateResult(
+        int index,
+        Long runId,
+        String instrumentCode,
+        InstrumentRunStatus status,
+        OffsetDateTime createdAt,
+        String error
+) {
+
+    public static BulkRunCreateResult created(int index, InstrumentRunCreated created) {
+        return new BulkRunCreateResult(
+                index,
+                created.runId(),
+                created.instrumentCode(),
+                created.status(),
+                created.createdAt(),
+                null
+        );
+    }
+
+    public static BulkRunCreateResult failed(int index, String instrumentCode, String error) {
+        return new BulkRunCreateResult(index, null, instrumentCode, null, null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.robert.instrumentresultsservice.service.result;
 
 import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -15,6 +16,7 @@ public record InstrumentRunDetails(
         InstrumentRunStatus status,
         OffsetDateTime measurementsSubmittedAt,
         UUID measurementsSubmittedByClientId,
+        SpecStatus specStatus,
         OffsetDateTime processingStartedAt,
         OffsetDateTime processingCompletedAt,
         String errorCode,
@@ -0,0 +1,12 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import java.util.List;
+
+/**
+ * One page of runs (newest first) plus an opaque token for the next page.
+ * nextPageToken is null when there are no more results.
+ */
+public record InstrumentRunPage(
+        List<InstrumentRunListItem> items,
+        String nextPageToken
+) {}
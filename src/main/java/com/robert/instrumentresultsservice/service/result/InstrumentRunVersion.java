@@ -0,0 +1,79 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Version of a run's details, for conditional GETs.
+ *
+ * The run's own state is covered by (updatedAt, measurementsSubmittedAt): every status transition
+ * sets updatedAt, and measurements are written once, in the same transaction as the transition out
+ * of CREATED. Lease renewals do not touch updatedAt and so do not change the version.
+ *
+ * The rest of {@link InstrumentRunDetails} is reference data (instrument name; measurement names,
+ * units and display order from the contract) that can change under a finished run, so contractTag
+ * fingerprints it. Nodes pick up contract changes on their cache refresh, so for up to one refresh
+ * interval they may disagree; that only costs a 200 where a 304 would have done.
+ */
+public record InstrumentRunVersion(
+        Long runId,
+        InstrumentRunStatus status,
+        OffsetDateTime updatedAt,
+        OffsetDateTime measurementsSubmittedAt,
+        String contractTag
+) {
+
+    public static InstrumentRunVersion of(InstrumentRunDetails details) {
+        return new InstrumentRunVersion(
+                details.id(),
+                details.status(),
+                details.updatedAt(),
+                details.measurementsSubmittedAt(),
+                contractTag(details.instrumentName(), details.requiredMeasurements())
+        );
+    }
+
+    /**
+     * Fingerprint of the reference data a run is shown with. Submitted values are ignored; they are
+     * covered by measurementsSubmittedAt.
+     */
+    public static String contractTag(String instrumentName, List<RequiredMeasurement> requiredMeasurements) {
+        StringBuilder text = new StringBuilder().append(instrumentName);
+        for (RequiredMeasurement rm : requiredMeasurements) {
+            // Unit and record separators: cannot appear in names, so fields never run together
+            text.append('\u001e').append(rm.code())
+                    .append('\u001f').append(rm.name())
+                    .append('\u001f').append(rm.unit())
+                    .append('\u001f').append(rm.displayOrder());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text.toString().getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Opaque entity tag (unquoted); equal for equal versions, whichever way they were read.
+     */
+    public String etag() {
+        return runId + "-" + epochMicros(updatedAt) + "-" + epochMicros(measurementsSubmittedAt) + "-" + contractTag;
+    }
+
+    /**
+     * SUCCEEDED and FAILED runs never change state again, though their reference data still can.
+     * DEAD_LETTERED runs can still be re-driven.
+     */
+    public boolean isFinal() {
+        return status == InstrumentRunStatus.SUCCEEDED || status == InstrumentRunStatus.FAILED;
+    }
+
+    private static long epochMicros(OffsetDateTime timestamp) {
+        // Postgres timestamps have microsecond precision
+        return timestamp == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant());
+    }
+}
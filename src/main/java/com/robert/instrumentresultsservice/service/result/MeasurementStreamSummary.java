@@ -0,0 +1,18 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import java.util.List;
+
+/**
+ * Outcome of a streamed measurement upload.
+ *
+ * @param rejectedRuns      first rejections only (capped); rejectedRunCount has the total
+ * @param rejectionsTruncated true when more runs were rejected than are listed
+ */
+public record MeasurementStreamSummary(
+        long records,
+        int batches,
+        int acceptedRunCount,
+        int rejectedRunCount,
+        List<MeasurementSubmissionAck> rejectedRuns,
+        boolean rejectionsTruncated
+) {}
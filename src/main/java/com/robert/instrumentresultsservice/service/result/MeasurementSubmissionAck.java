@@ -0,0 +1,44 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Compact acknowledgement for one run in a bulk measurement submission.
+ * Rejected runs carry an error and were left untouched.
+ */
+public record MeasurementSubmissionAck(
+        Long runId,
+        InstrumentRunStatus status,
+        int measurementCount,
+        SpecStatus specStatus,
+        OffsetDateTime measurementsSubmittedAt,
+        String error
+) {
+
+    public static MeasurementSubmissionAck accepted(
+            Long runId,
+            int measurementCount,
+            SpecStatus specStatus,
+            OffsetDateTime submittedAt
+    ) {
+        return new MeasurementSubmissionAck(
+                runId,
+                InstrumentRunStatus.MEASUREMENTS_SUBMITTED,
+                measurementCount,
+                specStatus,
+                submittedAt,
+                null
+        );
+    }
+
+    public static MeasurementSubmissionAck rejected(Long runId, String error) {
+        return new MeasurementSubmissionAck(runId, null, 0, null, null, error);
+    }
+
+    public boolean isAccepted() {
+        return error == null;
+    }
+}
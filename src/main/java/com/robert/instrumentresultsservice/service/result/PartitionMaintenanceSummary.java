@@ -0,0 +1,16 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import java.util.List;
+
+/**
+ * Outcome of one partition maintenance pass.
+ *
+ * @param ensured  partitions that exist for the current and upcoming months (created if missing)
+ * @param expired  partitions removed by retention (detached, and dropped unless the action is detach)
+ * @param skipped  true when another node held the maintenance lock and nothing was done
+ */
+public record PartitionMaintenanceSummary(
+        List<String> ensured,
+        List<String> expired,
+        boolean skipped
+) {}
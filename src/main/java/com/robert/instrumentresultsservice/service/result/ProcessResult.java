@@ -1,5 +1,55 @@
 package com.robert.instrumentresultsservice.service.result;
 
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of a run's processing pipeline (stored as jsonb on instrument_run).
+ *
+ * @param result      PASS or FAIL (runs processed before pipelines existed hold "stub-result")
+ * @param pipeline    name of the pipeline that produced it
+ * @param values      submitted values after unit normalization, followed by derived values
+ * @param limitChecks one entry per value that has limits
+ */
 public record ProcessResult(
-        String result
-) {}
+        String result,
+        String pipeline,
+        List<Value> values,
+        List<LimitCheck> limitChecks
+) {
+
+    public static final String PASS = "PASS";
+    public static final String FAIL = "FAIL";
+
+    public ProcessResult {
+        // Older payloads only carry "result"
+        values = values == null ? List.of() : List.copyOf(values);
+        limitChecks = limitChecks == null ? List.of() : List.copyOf(limitChecks);
+    }
+
+    public ProcessResult(String result) {
+        this(result, null, List.of(), List.of());
+    }
+
+    /**
+     * @param derived true when computed by the pipeline rather than submitted
+     */
+    public record Value(
+            String code,
+            BigDecimal value,
+            String unit,
+            boolean derived
+    ) {}
+
+    /**
+     * @param low  inclusive lower limit, or null when unbounded
+     * @param high inclusive upper limit, or null when unbounded
+     */
+    public record LimitCheck(
+            String code,
+            BigDecimal value,
+            BigDecimal low,
+            BigDecimal high,
+            boolean passed
+    ) {}
+}
@@ -0,0 +1,20 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import java.util.List;
+
+/**
+ * Outcome of one sweep over PROCESSING runs whose lease expired.
+ *
+ * @param requeued   runs moved back to MEASUREMENTS_SUBMITTED for another attempt
+ * @param deadLettered  runs that had used up their attempts and were DEAD_LETTERED (LEASE_EXPIRED)
+ */
+public record ReclaimedRuns(
+        List<Long> requeued,
+        List<Long> deadLettered
+) {
+    public static final ReclaimedRuns NONE = new ReclaimedRuns(List.of(), List.of());
+
+    public int size() {
+        return requeued.size() + deadLettered.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.robert.instrumentresultsservice.service.result;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Payload of a run status push (SSE "status" event).
+ */
+public record RunStatusUpdate(
+        Long runId,
+        InstrumentRunStatus status,
+        OffsetDateTime observedAt
+) {}
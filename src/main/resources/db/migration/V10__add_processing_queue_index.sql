@@ -0,0 +1,9 @@
+-- V10: partial index backing the durable processing queue
+-- Postgres
+--
+-- Workers poll instrument_run for MEASUREMENTS_SUBMITTED rows (oldest submission first)
+-- with FOR UPDATE SKIP LOCKED. Only queued rows are indexed, so the index stays small.
+
+CREATE INDEX ix_instrument_run_processing_queue
+    ON instrument_run (measurements_submitted_at, id)
+    WHERE status = 'MEASUREMENTS_SUBMITTED';
@@ -0,0 +1,31 @@
+-- V11: switch instrument_run.id and instrument_run_event.id from IDENTITY to pooled sequences
+-- so bulk run creation can batch its inserts (same approach as V9 for measurement)
+-- Postgres
+
+-- 1) instrument_run
+ALTER TABLE instrument_run
+    ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE instrument_run_id_seq
+    INCREMENT BY 50
+    OWNED BY instrument_run.id;
+
+SELECT setval('instrument_run_id_seq', COALESCE((SELECT MAX(id) FROM instrument_run), 0) + 50, false);
+
+-- Keep a default for inserts outside Hibernate (scripts, tests). Each nextval is the top of a
+-- block Hibernate would own, so the two never hand out the same id.
+ALTER TABLE instrument_run
+    ALTER COLUMN id SET DEFAULT nextval('instrument_run_id_seq');
+
+-- 2) instrument_run_event
+ALTER TABLE instrument_run_event
+    ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE instrument_run_event_id_seq
+    INCREMENT BY 50
+    OWNED BY instrument_run_event.id;
+
+SELECT setval('instrument_run_event_id_seq', COALESCE((SELECT MAX(id) FROM instrument_run_event), 0) + 50, false);
+
+ALTER TABLE instrument_run_event
+    ALTER COLUMN id SET DEFAULT nextval('instrument_run_event_id_seq');
@@ -0,0 +1,24 @@
+-- V12: make (created_by_client_id, external_reference) an idempotency key for run creation
+-- Postgres
+
+-- 1) Existing duplicates would block the unique index: keep the oldest run per key and
+--    suffix the reference of the others with their id (still searchable, no longer a key)
+UPDATE instrument_run r
+SET external_reference = LEFT(r.external_reference, 100) || '#dup-' || r.id
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY created_by_client_id, external_reference
+               ORDER BY created_at, id
+           ) AS rn
+    FROM instrument_run
+    WHERE external_reference IS NOT NULL
+) d
+WHERE r.id = d.id
+  AND d.rn > 1;
+
+-- 2) Partial unique index: runs without a reference are never deduplicated.
+--    Also the conflict target of the insert-or-return in InstrumentRunRepository.
+CREATE UNIQUE INDEX ux_instrument_run_client_external_ref
+    ON instrument_run (created_by_client_id, external_reference)
+    WHERE external_reference IS NOT NULL;
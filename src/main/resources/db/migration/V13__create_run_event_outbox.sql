@@ -0,0 +1,14 @@
+-- V13: transactional outbox for run status events (written only when outbox.enabled=true)
+-- Postgres
+
+-- Rows live only until the relay publishes them, so the table stays small; no FK to instrument_run
+-- so the insert never waits on the run row and the relay can delete without touching runs.
+CREATE TABLE run_event_outbox
+(
+    id                BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    instrument_run_id BIGINT      NOT NULL,
+    event_type        VARCHAR(48) NOT NULL,
+    status            VARCHAR(32) NOT NULL,
+    occurred_at       TIMESTAMPTZ NOT NULL,
+    created_at        TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
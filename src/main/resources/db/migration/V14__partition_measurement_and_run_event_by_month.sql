@@ -0,0 +1,132 @@
+-- V14: range-partition measurement and instrument_run_event by month on created_at
+-- Postgres
+
+-- Partitions are named <parent>_pYYYY_MM and cover one UTC calendar month.
+-- Idempotent; also called at runtime by PartitionMaintenance to create future months.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE)
+    RETURNS TEXT
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    from_month     DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := format('%s_p%s', parent, to_char(from_month, 'YYYY_MM'));
+BEGIN
+    EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name,
+            parent,
+            from_month::TIMESTAMP AT TIME ZONE 'UTC',
+            (from_month + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC'
+            );
+    RETURN partition_name;
+END;
+$$;
+
+
+-- 1) measurement
+
+-- Keep the pooled sequence (V9) when the old table is dropped
+ALTER SEQUENCE measurement_id_seq OWNED BY NONE;
+
+ALTER TABLE measurement RENAME TO measurement_unpartitioned;
+ALTER TABLE measurement_unpartitioned RENAME CONSTRAINT measurement_pkey TO measurement_unpartitioned_pkey;
+
+-- The primary key must include the partition key. uq_measurement_run_definition is not recreated
+-- (it would have to include created_at too): a run's measurements are written once, by the
+-- submission that wins the CREATED -> MEASUREMENTS_SUBMITTED compare-and-set.
+CREATE TABLE measurement
+(
+    id                        BIGINT         NOT NULL,
+
+    instrument_run_id         BIGINT         NOT NULL,
+    measurement_definition_id BIGINT         NOT NULL,
+
+    value                     NUMERIC(19, 6) NOT NULL,
+
+    created_at                TIMESTAMPTZ    NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT measurement_pkey
+        PRIMARY KEY (id, created_at),
+
+    CONSTRAINT fk_measurement_run
+        FOREIGN KEY (instrument_run_id)
+            REFERENCES instrument_run (id),
+
+    CONSTRAINT fk_measurement_definition
+        FOREIGN KEY (measurement_definition_id)
+            REFERENCES measurement_definition (id)
+) PARTITION BY RANGE (created_at);
+
+-- Every month that has rows, through three months ahead
+SELECT create_monthly_partition('measurement', month::DATE)
+FROM generate_series(
+             date_trunc('month', LEAST(COALESCE((SELECT MIN(created_at) FROM measurement_unpartitioned), NOW()), NOW())
+                 AT TIME ZONE 'UTC'),
+             date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+             INTERVAL '1 month'
+     ) AS month;
+
+INSERT INTO measurement (id, instrument_run_id, measurement_definition_id, value, created_at)
+SELECT id, instrument_run_id, measurement_definition_id, value, created_at
+FROM measurement_unpartitioned;
+
+DROP TABLE measurement_unpartitioned;
+
+ALTER SEQUENCE measurement_id_seq OWNED BY measurement.id;
+
+-- Created on the parent, so every partition (current and future) gets its own local index
+CREATE INDEX ix_measurement_run
+    ON measurement (instrument_run_id);
+
+CREATE INDEX ix_measurement_definition
+    ON measurement (measurement_definition_id);
+
+
+-- 2) instrument_run_event
+
+ALTER SEQUENCE instrument_run_event_id_seq OWNED BY NONE;
+
+ALTER TABLE instrument_run_event RENAME TO instrument_run_event_unpartitioned;
+ALTER TABLE instrument_run_event_unpartitioned
+    RENAME CONSTRAINT instrument_run_event_pkey TO instrument_run_event_unpartitioned_pkey;
+
+CREATE TABLE instrument_run_event
+(
+    id                BIGINT      NOT NULL DEFAULT nextval('instrument_run_event_id_seq'),
+    instrument_run_id BIGINT      NOT NULL,
+    event_type        VARCHAR(48) NOT NULL,
+    details           JSONB NULL,
+    created_at        TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT instrument_run_event_pkey
+        PRIMARY KEY (id, created_at),
+
+    CONSTRAINT fk_instrument_run_event_run
+        FOREIGN KEY (instrument_run_id) REFERENCES instrument_run (id)
+) PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partition('instrument_run_event', month::DATE)
+FROM generate_series(
+             date_trunc('month', LEAST(COALESCE((SELECT MIN(created_at) FROM instrument_run_event_unpartitioned), NOW()), NOW())
+                 AT TIME ZONE 'UTC'),
+             date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+             INTERVAL '1 month'
+     ) AS month;
+
+INSERT INTO instrument_run_event (id, instrument_run_id, event_type, details, created_at)
+SELECT id, instrument_run_id, event_type, details, created_at
+FROM instrument_run_event_unpartitioned;
+
+DROP TABLE instrument_run_event_unpartitioned;
+
+ALTER SEQUENCE instrument_run_event_id_seq OWNED BY instrument_run_event.id;
+
+CREATE INDEX ix_instrument_run_event_run
+    ON instrument_run_event (instrument_run_id);
+
+CREATE INDEX ix_instrument_run_event_type
+    ON instrument_run_event (event_type);
+
+CREATE INDEX ix_instrument_run_event_created_at
+    ON instrument_run_event (created_at);
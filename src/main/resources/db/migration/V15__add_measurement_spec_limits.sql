@@ -0,0 +1,49 @@
+-- V15: specification limits per measurement, with per-instrument overrides, and the run's spec status
+-- Postgres
+
+-- Inclusive bounds in the definition's unit; NULL means unbounded on that side.
+-- spec_*: out of specification. warn_*: inside the spec but worth a look (a narrower band).
+ALTER TABLE measurement_definition
+    ADD COLUMN spec_low  NUMERIC(19, 6) NULL,
+    ADD COLUMN spec_high NUMERIC(19, 6) NULL,
+    ADD COLUMN warn_low  NUMERIC(19, 6) NULL,
+    ADD COLUMN warn_high NUMERIC(19, 6) NULL;
+
+-- Per-instrument overrides; each non-NULL column replaces the definition's bound
+ALTER TABLE instrument_measurement
+    ADD COLUMN spec_low  NUMERIC(19, 6) NULL,
+    ADD COLUMN spec_high NUMERIC(19, 6) NULL,
+    ADD COLUMN warn_low  NUMERIC(19, 6) NULL,
+    ADD COLUMN warn_high NUMERIC(19, 6) NULL;
+
+-- IN_SPEC / WARNING / OUT_OF_SPEC, set with MEASUREMENTS_SUBMITTED; NULL for runs submitted before V15
+ALTER TABLE instrument_run
+    ADD COLUMN spec_status VARCHAR(16) NULL;
+
+-- Only flagged runs are ever looked up by spec status
+CREATE INDEX ix_instrument_run_spec_status_flagged
+    ON instrument_run (spec_status, created_at)
+    WHERE spec_status IN ('WARNING', 'OUT_OF_SPEC');
+
+
+-- Demo limits
+UPDATE measurement_definition
+SET spec_low = 0, spec_high = 100, warn_low = 5, warn_high = 90
+WHERE code = 'meas_demo_a';
+
+UPDATE measurement_definition
+SET spec_low = 0, spec_high = 1000
+WHERE code = 'meas_demo_b';
+
+UPDATE measurement_definition
+SET spec_low = 0, spec_high = 500, warn_high = 400
+WHERE code = 'meas_demo_d';
+
+-- Demo Instrument 003 runs meas_demo_d on a narrower range
+UPDATE instrument_measurement im
+SET spec_high = 250, warn_high = 200
+FROM instrument i, measurement_definition d
+WHERE im.instrument_id = i.id
+  AND im.measurement_definition_id = d.id
+  AND i.code = 'INSTR_DEMO_003'
+  AND d.code = 'meas_demo_d';
@@ -0,0 +1,20 @@
+-- V16: lease-based ownership of PROCESSING runs, so runs of a dead node can be reclaimed
+-- Postgres
+
+-- lease_owner: node that claimed the run; lease_expires_at: renewed by that node's heartbeat.
+-- processing_attempts: queue claims so far, including the current one.
+ALTER TABLE instrument_run
+    ADD COLUMN lease_owner         VARCHAR(64) NULL,
+    ADD COLUMN lease_expires_at    TIMESTAMPTZ NULL,
+    ADD COLUMN processing_attempts INT         NOT NULL DEFAULT 0;
+
+-- Runs already PROCESSING have no owner that will renew them; give them one lease to finish
+UPDATE instrument_run
+SET lease_expires_at    = NOW() + INTERVAL '5 minutes',
+    processing_attempts = 1
+WHERE status = 'PROCESSING';
+
+-- The sweeper scans PROCESSING runs by lease expiry; only those rows are indexed
+CREATE INDEX ix_instrument_run_processing_lease
+    ON instrument_run (lease_expires_at, id)
+    WHERE status = 'PROCESSING';
@@ -0,0 +1,17 @@
+-- V17: retry of transient processing failures with backoff, and dead-lettering
+-- Postgres
+
+-- A run whose attempt failed with a retryable error goes back to MEASUREMENTS_SUBMITTED with
+-- next_attempt_at set; the queue does not claim it before then. NULL = claimable now.
+ALTER TABLE instrument_run
+    ADD COLUMN next_attempt_at TIMESTAMPTZ NULL;
+
+-- Per-instrument cap on processing attempts; NULL = processing.retry.max-attempts
+ALTER TABLE instrument
+    ADD COLUMN max_processing_attempts INT NULL
+        CONSTRAINT ck_instrument_max_processing_attempts CHECK (max_processing_attempts > 0);
+
+-- Dead-lettered runs are listed and re-driven by operators; only those rows are indexed
+CREATE INDEX ix_instrument_run_dead_lettered
+    ON instrument_run (updated_at, id)
+    WHERE status = 'DEAD_LETTERED';
@@ -0,0 +1,18 @@
+-- V18: priority classes and per-client fair queuing for the processing queue
+-- Postgres
+
+-- Default class of an instrument's runs; a create request may override it per run
+ALTER TABLE instrument
+    ADD COLUMN processing_priority VARCHAR(16) NOT NULL DEFAULT 'NORMAL';
+
+-- Resolved once, at create time
+ALTER TABLE instrument_run
+    ADD COLUMN priority VARCHAR(16) NOT NULL DEFAULT 'NORMAL';
+
+-- The claim ranks queued runs within each (client, class) flow by submission, so the queue index
+-- is laid out per flow instead of in global FIFO order (V10)
+DROP INDEX ix_instrument_run_processing_queue;
+
+CREATE INDEX ix_instrument_run_processing_queue
+    ON instrument_run (created_by_client_id, priority, measurements_submitted_at, id)
+    WHERE status = 'MEASUREMENTS_SUBMITTED';
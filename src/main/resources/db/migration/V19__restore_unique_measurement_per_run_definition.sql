@@ -0,0 +1,9 @@
+-- V19: restore uq_measurement_run_definition on the partitioned measurement table
+-- Postgres
+
+-- A unique index on a partitioned table must include the partition key (V14), so it covers
+-- (run, definition, created_at). All measurements of a submission are written with the same
+-- created_at (the run's measurements_submitted_at), so a definition written twice for a run
+-- in one submission is rejected. Rows from before V14 were unique on (run, definition) already.
+CREATE UNIQUE INDEX uq_measurement_run_definition
+    ON measurement (instrument_run_id, measurement_definition_id, created_at);
@@ -0,0 +1,8 @@
+-- V20: cluster-wide count of queue claims, for the admission drain rate
+-- Postgres
+
+-- Every node adds the runs it claims; ProcessingQueueMonitor reads it at each sample, so the drain
+-- rate covers all nodes, not just the one sampling. A sequence rather than a counter row: nextval
+-- takes no row lock, so claims on different nodes never wait on each other here. It is not rolled
+-- back either, which at worst counts a claim whose transaction failed.
+CREATE SEQUENCE processing_claim_count;
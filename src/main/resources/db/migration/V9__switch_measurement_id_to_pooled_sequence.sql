@@ -0,0 +1,15 @@
+-- V9: switch measurement.id from IDENTITY to a pooled sequence so Hibernate can batch inserts
+-- Postgres
+
+-- 1) Drop the identity (this also drops its implicit measurement_id_seq)
+ALTER TABLE measurement
+    ALTER COLUMN id DROP IDENTITY;
+
+-- 2) Sequence used by Hibernate's pooled optimizer (allocationSize = 50 on Measurement)
+CREATE SEQUENCE measurement_id_seq
+    INCREMENT BY 50
+    OWNED BY measurement.id;
+
+-- 3) The pooled optimizer treats each value as the top of a 50-id block,
+-- so start one full block above the current max id to never hand out existing ids.
+SELECT setval('measurement_id_seq', COALESCE((SELECT MAX(id) FROM measurement), 0) + 50, false);
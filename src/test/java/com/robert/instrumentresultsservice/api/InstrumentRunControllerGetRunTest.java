@@ -0,0 +1,127 @@
+package com.robert.instrumentresultsservice.api;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.service.InstrumentRunQueryService;
+import com.robert.instrumentresultsservice.service.InstrumentRunService;
+import com.robert.instrumentresultsservice.service.MeasurementStreamIngestionService;
+import com.robert.instrumentresultsservice.service.RunStatusNotifier;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
+import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional GET of a run: ETag, If-None-Match and Cache-Control, at the HTTP level.
+ */
+@ExtendWith(MockitoExtension.class)
+class InstrumentRunControllerGetRunTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.parse("2026-01-04T18:30:00Z");
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.parse("2026-01-04T18:35:10.123456Z");
+
+    @Mock InstrumentRunService instrumentRunService;
+    @Mock InstrumentRunQueryService instrumentRunQueryService;
+    @Mock MeasurementStreamIngestionService measurementStreamIngestionService;
+    @Mock RunStatusNotifier runStatusNotifier;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        InstrumentRunController controller = new InstrumentRunController(
+                instrumentRunService,
+                instrumentRunQueryService,
+                measurementStreamIngestionService,
+                runStatusNotifier,
+                300
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getRunById_noIfNoneMatch_returnsBodyWithEtag() throws Exception {
+        // Arrange
+        InstrumentRunDetails details = details(InstrumentRunStatus.PROCESSING, "mg");
+        String etag = InstrumentRunVersion.of(details).etag();
+        when(instrumentRunService.getRunVersion(42L)).thenReturn(InstrumentRunVersion.of(details));
+        when(instrumentRunService.getRunById(42L)).thenReturn(details);
+
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/instrument-runs/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + etag + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.id").value(42))
+                .andExpect(jsonPath("$.requiredMeasurements[0].unit").value("mg"));
+    }
+
+    @Test
+    void getRunById_matchingIfNoneMatch_returns304_withoutTheFullRead() throws Exception {
+        // Arrange
+        InstrumentRunVersion version = InstrumentRunVersion.of(details(InstrumentRunStatus.SUCCEEDED, "mg"));
+        when(instrumentRunService.getRunVersion(42L)).thenReturn(version);
+
+        // Act + Assert: final run, so it may be cached for the configured max-age
+        mockMvc.perform(get("/api/v1/instrument-runs/42")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + version.etag() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + version.etag() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300"))
+                .andExpect(content().string(""));
+        verify(instrumentRunService, never()).getRunById(anyLong());
+    }
+
+    @Test
+    void getRunById_contractChangedSinceTheCachedCopy_returnsBodyAgain() throws Exception {
+        // Arrange: the client holds the tag from before the unit of A changed
+        String staleEtag = InstrumentRunVersion.of(details(InstrumentRunStatus.SUCCEEDED, "mg")).etag();
+        InstrumentRunDetails current = details(InstrumentRunStatus.SUCCEEDED, "g");
+        when(instrumentRunService.getRunVersion(42L)).thenReturn(InstrumentRunVersion.of(current));
+        when(instrumentRunService.getRunById(42L)).thenReturn(current);
+
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/instrument-runs/42")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + staleEtag + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + InstrumentRunVersion.of(current).etag() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300"))
+                .andExpect(jsonPath("$.requiredMeasurements[0].unit").value("g"));
+    }
+
+    private static InstrumentRunDetails details(InstrumentRunStatus status, String unit) {
+        return new InstrumentRunDetails(
+                42L,
+                "INST-1",
+                "Instrument 1",
+                UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                null,
+                status,
+                CREATED_AT,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                CREATED_AT,
+                UPDATED_AT,
+                List.of(new RequiredMeasurement("A", "Alpha", unit, 1, null))
+        );
+    }
+}
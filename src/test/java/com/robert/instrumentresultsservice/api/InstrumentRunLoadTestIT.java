@@ -0,0 +1,246 @@
+package com.robert.instrumentresultsservice.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.robert.instrumentresultsservice.api.ApiConstants.CLIENT_ID_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test over HTTP: each virtual user loops create -> submit -> poll until the run is terminal.
+ * Writes p50/p99/p99.9 latency and throughput per endpoint to build/loadtest/baseline.json.
+ * Excluded from the regular test task; run with:
+ *   ./gradlew loadTest
+ *   ./gradlew loadTest -Dloadtest.concurrency=64 -Dloadtest.iterations=100
+ */
+@Tag("loadtest")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "processing.queue.enabled=true",
+                "processing.queue.poll-interval-ms=100",
+                "processing.executor.mode=virtual"
+        }
+)
+class InstrumentRunLoadTestIT {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentRunLoadTestIT.class);
+
+    private static final String INSTRUMENT_CODE = "INSTR_DEMO_001";
+    private static final String BASE_PATH = "/api/v1/instrument-runs";
+
+    @LocalServerPort int port;
+    @Autowired ObjectMapper objectMapper;
+
+    @Value("${loadtest.concurrency:32}") int concurrency;
+    @Value("${loadtest.iterations:50}") int iterationsPerUser;
+    @Value("${loadtest.poll-interval-ms:50}") long pollIntervalMs;
+    @Value("${loadtest.run-timeout-ms:60000}") long runTimeoutMs;
+    @Value("${loadtest.output:build/loadtest/baseline.json}") String outputPath;
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    @Test
+    void createSubmitPollUnderLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // Warm up: one full round trip so JIT and pools are not charged to the first users
+        runOnce(client, UUID.randomUUID());
+        recorders.clear();
+        errors.set(0);
+
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int u = 0; u < concurrency; u++) {
+                UUID clientId = UUID.randomUUID();
+                futures.add(users.submit(() -> {
+                    for (int i = 0; i < iterationsPerUser; i++) {
+                        try {
+                            runOnce(client, clientId);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, Object> report = report(seconds);
+        Path output = Path.of(outputPath);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), report);
+
+        log.info("Load test report ({}):\n{}", output, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        assertThat(errors.get()).isZero();
+    }
+
+    private void runOnce(HttpClient client, UUID clientId) throws IOException, InterruptedException {
+        // Create
+        HttpResponse<String> created = send(client, "create", post(BASE_PATH, clientId,
+                Map.of("instrumentCode", INSTRUMENT_CODE, "externalReference", "load-" + UUID.randomUUID())));
+        long runId = objectMapper.readTree(created.body()).path("id").asLong();
+
+        // Submit
+        send(client, "submit", post(BASE_PATH + "/" + runId + "/measurements", clientId,
+                Map.of("measurements", Map.of("meas_demo_a", 1.25, "meas_demo_b", 7.5))));
+
+        // Poll until terminal
+        long deadline = System.nanoTime() + Duration.ofMillis(runTimeoutMs).toNanos();
+        long submittedAt = System.nanoTime();
+        while (true) {
+            HttpResponse<String> polled = send(client, "get", HttpRequest.newBuilder(uri(BASE_PATH + "/" + runId))
+                    .GET()
+                    .build());
+            String status = objectMapper.readTree(polled.body()).path("status").asText();
+            if ("SUCCEEDED".equals(status) || "FAILED".equals(status) || "DEAD_LETTERED".equals(status)) {
+                recorder("submitToTerminal").record(System.nanoTime() - submittedAt);
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Run " + runId + " still " + status + " after " + runTimeoutMs + "ms");
+            }
+            Thread.sleep(pollIntervalMs);
+        }
+    }
+
+    private HttpResponse<String> send(HttpClient client, String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder(endpoint).record(System.nanoTime() - start);
+
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private HttpRequest post(String path, UUID clientId, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .header(CLIENT_ID_HEADER, clientId.toString())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private LatencyRecorder recorder(String endpoint) {
+        return recorders.computeIfAbsent(endpoint, e -> new LatencyRecorder());
+    }
+
+    private Map<String, Object> report(double seconds) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (String endpoint : List.of("create", "submit", "get", "submitToTerminal")) {
+            LatencyRecorder recorder = recorders.get(endpoint);
+            if (recorder != null) {
+                endpoints.put(endpoint, recorder.summary(seconds));
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", OffsetDateTime.now().toString());
+        report.put("concurrency", concurrency);
+        report.put("iterationsPerUser", iterationsPerUser);
+        report.put("elapsedSeconds", round(seconds));
+        report.put("completedRuns", recorders.containsKey("submitToTerminal")
+                ? recorders.get("submitToTerminal").count()
+                : 0);
+        report.put("errors", errors.get());
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    /**
+     * Collects raw latencies; percentiles are computed once at the end (nearest-rank).
+     */
+    private static final class LatencyRecorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", size);
+            summary.put("throughputPerSecond", round(size / seconds));
+            summary.put("p50Ms", percentileMs(sorted, 50.0));
+            summary.put("p99Ms", percentileMs(sorted, 99.0));
+            summary.put("p999Ms", percentileMs(sorted, 99.9));
+            summary.put("maxMs", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1_000_000.0));
+            return summary;
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return round(sorted[Math.max(0, rank - 1)] / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConcurrencyLimiterTest {
+
+    @Test
+    void call_neverRunsMoreThanMaxConcurrencyAtOnce() throws Exception {
+        // Arrange
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        // Act: 20 concurrent "DB calls"
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                limiter.run(() -> {
+                    int now = active.incrementAndGet();
+                    maxSeen.accumulateAndGet(now, Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    active.decrementAndGet();
+                });
+                done.countDown();
+            }));
+        }
+
+        // Assert
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxSeen.get() <= 2, "Expected at most 2 concurrent calls but saw " + maxSeen.get());
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    void call_releasesPermit_whenWorkThrows() {
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(1);
+
+        assertThrows(RuntimeException.class, () -> limiter.call(() -> {
+            throw new RuntimeException("boom");
+        }));
+
+        assertEquals(1, limiter.availablePermits());
+        assertEquals("ok", limiter.call(() -> "ok"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class DeadLetterRedriveIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired RunTransitionService runTransitionService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retryableFailures_backOff_thenDeadLetter_atTheInstrumentsCap() {
+        // Arrange: instrument allows two attempts; the run is on its first
+        Long runId = processingRun(2, 1);
+
+        // Act: first attempt fails transiently
+        OffsetDateTime now = OffsetDateTime.now();
+        assertTrue(runTransitionService.markAttemptFailed(runId, "TRANSIENT_ERROR", "lock timeout", now));
+
+        // Assert: queued again, but not claimable before the backoff has passed
+        InstrumentRun retried = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, retried.getStatus());
+        assertTrue(retried.getNextAttemptAt().isAfter(now));
+        assertNull(retried.getLeaseOwner());
+
+        // Act: second (last) attempt fails transiently too
+        moveToProcessing(runId, 2);
+        assertTrue(runTransitionService.markAttemptFailed(runId, "TRANSIENT_ERROR", "lock timeout", OffsetDateTime.now()));
+
+        // Assert
+        InstrumentRun deadLettered = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.DEAD_LETTERED, deadLettered.getStatus());
+        assertEquals("TRANSIENT_ERROR", deadLettered.getErrorCode());
+        assertEquals(
+                List.of(InstrumentRunEventType.PROCESSING_RETRY_SCHEDULED, InstrumentRunEventType.PROCESSING_DEAD_LETTERED),
+                eventTypes(runId).stream()
+                        .filter(t -> t == InstrumentRunEventType.PROCESSING_RETRY_SCHEDULED
+                                || t == InstrumentRunEventType.PROCESSING_DEAD_LETTERED)
+                        .toList()
+        );
+    }
+
+    @Test
+    void redrive_requeuesOnlyDeadLetteredRuns_withAttemptsReset() {
+        // Arrange: two dead-lettered runs and one that is still processing
+        List<Long> deadLettered = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Long runId = processingRun(1, 1);
+            assertTrue(runTransitionService.markAttemptFailed(runId, "TRANSIENT_ERROR", "boom", OffsetDateTime.now()));
+            deadLettered.add(runId);
+        }
+        Long processing = processingRun(1, 1);
+
+        List<Long> requested = new ArrayList<>(deadLettered);
+        requested.add(processing);
+        requested.add(Long.MAX_VALUE); // does not exist
+
+        // Act
+        List<Long> redriven = instrumentRunService.redriveDeadLettered(requested);
+
+        // Assert
+        assertEquals(deadLettered.stream().sorted().toList(), redriven);
+        for (Long runId : deadLettered) {
+            InstrumentRun run = instrumentRunRepository.findById(runId).orElseThrow();
+            assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, run.getStatus());
+            assertEquals(0, run.getProcessingAttempts());
+            assertNull(run.getNextAttemptAt());
+            List<InstrumentRunEventType> events = eventTypes(runId);
+            assertEquals(InstrumentRunEventType.PROCESSING_REDRIVEN, events.get(events.size() - 1));
+        }
+        assertEquals(InstrumentRunStatus.PROCESSING, instrumentRunRepository.findById(processing).orElseThrow().getStatus());
+    }
+
+    /**
+     * A PROCESSING run of a fresh instrument that allows maxAttempts attempts.
+     */
+    private Long processingRun(int maxAttempts, int attempts) {
+        Instrument instrument = new Instrument();
+        instrument.setCode("RETRY-" + UUID.randomUUID());
+        instrument.setName("Retry Instrument");
+        instrument.setMaxProcessingAttempts(maxAttempts);
+        instrumentRepository.save(instrument);
+
+        Long runId = instrumentRunService.createRun(instrument.getCode(), UUID.randomUUID(), null).runId();
+        moveToProcessing(runId, attempts);
+        return runId;
+    }
+
+    private void moveToProcessing(Long runId, int attempts) {
+        jdbcTemplate.update("""
+                update instrument_run
+                set status = 'PROCESSING',
+                    measurements_submitted_at = coalesce(measurements_submitted_at, now()),
+                    processing_started_at = now(),
+                    next_attempt_at = null,
+                    lease_owner = 'test-node',
+                    lease_expires_at = now() + interval '1 minute',
+                    processing_attempts = ?
+                where id = ?
+                """, attempts, runId);
+    }
+
+    private List<InstrumentRunEventType> eventTypes(Long runId) {
+        return instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(runId).stream()
+                .map(InstrumentRunEvent::getEventType)
+                .toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentRunCursorTest {
+
+    @Test
+    void encodeThenDecode_roundTripsCreatedAtAndId_inUtc() {
+        // Arrange
+        OffsetDateTime createdAt = OffsetDateTime.parse("2026-01-04T12:34:56.123456-06:00");
+        InstrumentRunCursor cursor = new InstrumentRunCursor(createdAt, 42L);
+
+        // Act
+        InstrumentRunCursor decoded = InstrumentRunCursor.decode(cursor.encode());
+
+        // Assert: same instant (normalized to UTC) and same id
+        assertEquals(createdAt.toInstant(), decoded.createdAt().toInstant());
+        assertEquals(ZoneOffset.UTC, decoded.createdAt().getOffset());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void encode_isUrlSafe() {
+        String token = new InstrumentRunCursor(OffsetDateTime.now(), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "Expected URL-safe token but got: " + token);
+    }
+
+    @Test
+    void decode_garbage_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> InstrumentRunCursor.decode("not-a-token!")
+        );
+        assertEquals("Invalid page token", ex.getMessage());
+    }
+
+    @Test
+    void decode_wellFormedBase64_butWrongContent_throwsIllegalArgumentException() {
+        String token = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString("hello".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> InstrumentRunCursor.decode(token));
+    }
+}
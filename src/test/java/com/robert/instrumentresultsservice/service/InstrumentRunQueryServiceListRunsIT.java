@@ -0,0 +1,133 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.service.query.InstrumentRunFilter;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunListItem;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class InstrumentRunQueryServiceListRunsIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired InstrumentRunQueryService instrumentRunQueryService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+
+    @Test
+    @Transactional
+    void listRuns_walksAllPagesNewestFirst_withoutGapsOrDuplicates() {
+        // Arrange: instrument + 5 runs for one client (client filter isolates us from other tests' data)
+        Instrument instrument = new Instrument();
+        instrument.setCode("LIST-1000");
+        instrument.setName("List Analyzer");
+        instrumentRepository.save(instrument);
+
+        UUID clientId = UUID.randomUUID();
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            createdIds.add(instrumentRunService.createRun("LIST-1000", clientId, "EXT-LIST-" + i).runId());
+        }
+
+        InstrumentRunFilter filter = new InstrumentRunFilter(null, null, clientId, null, null);
+
+        // Act: walk pages of 2
+        List<InstrumentRunListItem> seen = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            InstrumentRunPage page = instrumentRunQueryService.listRuns(filter, 2, token);
+            assertTrue(page.items().size() <= 2);
+            seen.addAll(page.items());
+            token = page.nextPageToken();
+            pages++;
+        } while (token != null);
+
+        // Assert: 3 pages, every run exactly once
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+
+        Set<Long> seenIds = new HashSet<>();
+        seen.forEach(item -> seenIds.add(item.id()));
+        assertEquals(new HashSet<>(createdIds), seenIds);
+
+        // Assert: newest first, ties broken by id desc
+        for (int i = 1; i < seen.size(); i++) {
+            InstrumentRunListItem prev = seen.get(i - 1);
+            InstrumentRunListItem cur = seen.get(i);
+            int cmp = prev.createdAt().compareTo(cur.createdAt());
+            assertTrue(cmp > 0 || (cmp == 0 && prev.id() > cur.id()), "Expected descending order at index " + i);
+        }
+    }
+
+    @Test
+    @Transactional
+    void listRuns_appliesStatusAndInstrumentFilters() {
+        // Arrange
+        Instrument instrument = new Instrument();
+        instrument.setCode("LIST-2000");
+        instrument.setName("List Analyzer 2");
+        instrumentRepository.save(instrument);
+
+        UUID clientId = UUID.randomUUID();
+        instrumentRunService.createRun("LIST-2000", clientId, "EXT-LIST-A");
+
+        // Act
+        InstrumentRunPage created = instrumentRunQueryService.listRuns(
+                new InstrumentRunFilter(InstrumentRunStatus.CREATED, "LIST-2000", clientId, null, null),
+                null,
+                null
+        );
+        InstrumentRunPage succeeded = instrumentRunQueryService.listRuns(
+                new InstrumentRunFilter(InstrumentRunStatus.SUCCEEDED, "LIST-2000", clientId, null, null),
+                null,
+                null
+        );
+
+        // Assert
+        assertEquals(1, created.items().size());
+        assertNull(created.nextPageToken());
+        assertTrue(succeeded.items().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void listRuns_unknownInstrumentCode_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> instrumentRunQueryService.listRuns(
+                        new InstrumentRunFilter(null, "DOES-NOT-EXIST", null, null, null),
+                        10,
+                        null
+                )
+        );
+        assertTrue(ex.getMessage().contains("Instrument not found: DOES-NOT-EXIST"));
+    }
+
+    @Test
+    @Transactional
+    void listRuns_invalidPageToken_throwsIllegalArgumentException() {
+        InstrumentRunFilter filter = new InstrumentRunFilter(null, null, null, null, null);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> instrumentRunQueryService.listRuns(filter, 10, "garbage!")
+        );
+    }
+}
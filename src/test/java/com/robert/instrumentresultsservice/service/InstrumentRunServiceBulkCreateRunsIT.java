@@ -0,0 +1,152 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentRun;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.command.NewInstrumentRun;
+import com.robert.instrumentresultsservice.service.result.BulkRunCreateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class InstrumentRunServiceBulkCreateRunsIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
+
+    @Test
+    @Transactional
+    void createRuns_createsValidItems_andReportsInvalidItemsIndividually() {
+        // Arrange
+        saveInstrument("BULK-A");
+        saveInstrument("BULK-B");
+        UUID clientId = UUID.randomUUID();
+
+        List<NewInstrumentRun> requests = List.of(
+                new NewInstrumentRun("BULK-A", "EXT-1"),
+                new NewInstrumentRun("DOES-NOT-EXIST", "EXT-2"),
+                new NewInstrumentRun("BULK-B", null),
+                new NewInstrumentRun(" ", "EXT-4")
+        );
+
+        // Act
+        List<BulkRunCreateResult> results = instrumentRunService.createRuns(requests, clientId);
+
+        // Assert: one result per item, in request order
+        assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+        }
+
+        BulkRunCreateResult first = results.get(0);
+        assertTrue(first.succeeded());
+        assertNotNull(first.runId());
+        assertEquals("BULK-A", first.instrumentCode());
+        assertEquals(InstrumentRunStatus.CREATED, first.status());
+        assertNotNull(first.createdAt());
+
+        assertFalse(results.get(1).succeeded());
+        assertEquals("Instrument not found: DOES-NOT-EXIST", results.get(1).error());
+        assertNull(results.get(1).runId());
+
+        assertTrue(results.get(2).succeeded());
+        assertEquals("BULK-B", results.get(2).instrumentCode());
+
+        assertFalse(results.get(3).succeeded());
+
+        // Assert: rows exist for the created items only
+        InstrumentRun run = instrumentRunRepository.findById(first.runId())
+                .orElseThrow(() -> new AssertionError("Expected run to exist in DB"));
+        assertEquals(clientId, run.getCreatedByClientId());
+        assertEquals("EXT-1", run.getExternalReference());
+        assertEquals("BULK-A", run.getInstrument().getCode());
+
+        assertEquals(2, instrumentRunRepository.count());
+        assertTrue(
+                instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(first.runId())
+                        .stream()
+                        .anyMatch(e -> e.getEventType() == InstrumentRunEventType.CREATED)
+        );
+        assertEquals(2, instrumentRunEventRepository.count());
+    }
+
+    @Test
+    @Transactional
+    void createRuns_spanningSeveralFlushChunks_createsEveryRunAndEvent() {
+        // Arrange: more items than one flush chunk, across two instruments
+        saveInstrument("BULK-A");
+        saveInstrument("BULK-B");
+
+        int count = 2_500;
+        List<NewInstrumentRun> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new NewInstrumentRun(i % 2 == 0 ? "BULK-A" : "BULK-B", "EXT-" + i));
+        }
+
+        // Act
+        List<BulkRunCreateResult> results = instrumentRunService.createRuns(requests, UUID.randomUUID());
+
+        // Assert
+        assertEquals(count, results.size());
+        assertTrue(results.stream().allMatch(BulkRunCreateResult::succeeded));
+        assertEquals(count, results.stream().map(BulkRunCreateResult::runId).distinct().count());
+        assertEquals(count, instrumentRunRepository.count());
+        assertEquals(count, instrumentRunEventRepository.count());
+    }
+
+    @Test
+    @Transactional
+    void createRuns_existingOrRepeatedExternalReference_returnsThatRun_insteadOfCreatingAnother() {
+        // Arrange: EXT-1 already exists for this client
+        saveInstrument("BULK-A");
+        saveInstrument("BULK-B");
+        UUID clientId = UUID.randomUUID();
+        Long existingRunId = instrumentRunService.createRun("BULK-A", clientId, "EXT-1").runId();
+
+        List<NewInstrumentRun> requests = List.of(
+                new NewInstrumentRun("BULK-A", "EXT-1"),
+                new NewInstrumentRun("BULK-A", "EXT-2"),
+                new NewInstrumentRun("BULK-A", "EXT-2"),
+                new NewInstrumentRun("BULK-B", "EXT-1")
+        );
+
+        // Act
+        List<BulkRunCreateResult> results = instrumentRunService.createRuns(requests, clientId);
+
+        // Assert
+        assertEquals(existingRunId, results.get(0).runId());
+        assertTrue(results.get(1).succeeded());
+        assertEquals(results.get(1).runId(), results.get(2).runId());
+        assertEquals(2, results.get(2).index());
+        assertFalse(results.get(3).succeeded());
+        assertTrue(results.get(3).error().contains("already used by run " + existingRunId));
+
+        assertEquals(2, instrumentRunRepository.count());
+        assertEquals(2, instrumentRunEventRepository.count());
+    }
+
+    private void saveInstrument(String code) {
+        Instrument instrument = new Instrument();
+        instrument.setCode(code);
+        instrument.setName("Bulk " + code);
+        instrumentRepository.save(instrument);
+    }
+}
@@ -96,4 +96,60 @@ class InstrumentRunServiceCreateRunIT {
         assertTrue(instrumentRunEventRepository.findAll().isEmpty(), "Expected no events to be created");
         assertTrue(instrumentRunRepository.findAll().isEmpty(), "Expected no runs to be created");
     }
+
+    @Test
+    @Transactional
+    void createRun_sameExternalReferenceTwice_returnsSameRun_andCreatesOneRunAndEvent() {
+        // Arrange
+        saveInstrument("CBC-1000");
+        UUID clientId = UUID.randomUUID();
+
+        // Act
+        InstrumentRunCreated first = instrumentRunService.createRun("CBC-1000", clientId, "EXT-RETRY-1");
+        InstrumentRunCreated retry = instrumentRunService.createRun("CBC-1000", clientId, "EXT-RETRY-1");
+
+        // Assert
+        assertEquals(first.runId(), retry.runId());
+        assertEquals(InstrumentRunStatus.CREATED, retry.status());
+        assertEquals(1, instrumentRunRepository.findAll().size());
+        assertEquals(1, instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(first.runId()).size());
+    }
+
+    @Test
+    @Transactional
+    void createRun_sameExternalReference_isScopedPerClient() {
+        // Arrange
+        saveInstrument("CBC-1000");
+
+        // Act
+        InstrumentRunCreated a = instrumentRunService.createRun("CBC-1000", UUID.randomUUID(), "EXT-SHARED");
+        InstrumentRunCreated b = instrumentRunService.createRun("CBC-1000", UUID.randomUUID(), "EXT-SHARED");
+
+        // Assert
+        assertNotEquals(a.runId(), b.runId());
+    }
+
+    @Test
+    @Transactional
+    void createRun_externalReferenceReusedForAnotherInstrument_throwsIllegalStateException() {
+        // Arrange
+        saveInstrument("CBC-1000");
+        saveInstrument("CBC-2000");
+        UUID clientId = UUID.randomUUID();
+        instrumentRunService.createRun("CBC-1000", clientId, "EXT-REUSED");
+
+        // Act + Assert
+        assertThrows(
+                IllegalStateException.class,
+                () -> instrumentRunService.createRun("CBC-2000", clientId, "EXT-REUSED")
+        );
+        assertEquals(1, instrumentRunRepository.findAll().size());
+    }
+
+    private void saveInstrument(String code) {
+        Instrument instrument = new Instrument();
+        instrument.setCode(code);
+        instrument.setName(code + " Analyzer");
+        instrumentRepository.save(instrument);
+    }
 }
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -79,6 +80,7 @@ class InstrumentRunServiceGetRunByIdIT {
         mA.setInstrumentRun(run);
         mA.setMeasurementDefinition(defA);
         mA.setValue(new BigDecimal("1.23"));
+        mA.setCreatedAt(OffsetDateTime.now());
         measurementRepository.save(mA);
 
         // Act
@@ -0,0 +1,131 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.*;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the getRunById read path: one SQL statement once the contract is cached,
+ * regardless of how many measurements the run has. getRunVersion (conditional GETs) is one too.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InstrumentRunServiceGetRunByIdStatementCountIT {
+
+    private static final int MEASUREMENT_COUNT = 25;
+
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired MeasurementDefinitionRepository measurementDefinitionRepository;
+    @Autowired InstrumentMeasurementRepository instrumentMeasurementRepository;
+
+    @Autowired EntityManager entityManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Transactional
+    void getRunById_usesASingleStatement() {
+        // Arrange: instrument with a 25-measurement contract and a run with every value submitted
+        Instrument instrument = new Instrument();
+        instrument.setCode("STMT-COUNT");
+        instrument.setName("Statement Count Instrument");
+        instrument = instrumentRepository.save(instrument);
+
+        Map<String, BigDecimal> measurements = new LinkedHashMap<>();
+        for (int i = 0; i < MEASUREMENT_COUNT; i++) {
+            MeasurementDefinition definition = new MeasurementDefinition();
+            definition.setCode(String.format("stmt_m_%02d", i));
+            definition.setName("Measurement " + i);
+            definition.setUnit("u");
+            definition = measurementDefinitionRepository.save(definition);
+
+            InstrumentMeasurement im = new InstrumentMeasurement();
+            im.setInstrument(instrument);
+            im.setMeasurementDefinition(definition);
+            im.setDisplayOrder(i + 1);
+            instrumentMeasurementRepository.save(im);
+
+            measurements.put(definition.getCode(), BigDecimal.valueOf(i));
+        }
+
+        UUID clientId = UUID.randomUUID();
+        Long runId = instrumentRunService.createRun("STMT-COUNT", clientId, null).runId();
+        instrumentRunService.submitMeasurements(runId, measurements, clientId);
+
+        // Write everything, start from an empty persistence context, warm the contract cache
+        entityManager.flush();
+        entityManager.clear();
+        instrumentRunService.getRunById(runId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        InstrumentRunDetails details = instrumentRunService.getRunById(runId);
+
+        // Assert
+        assertEquals(MEASUREMENT_COUNT, details.requiredMeasurements().size());
+        assertTrue(details.requiredMeasurements().stream().allMatch(rm -> rm.submittedValue() != null));
+        assertEquals(1, statistics.getPrepareStatementCount(), "getRunById should be a single SQL statement");
+        assertEquals(0, statistics.getEntityLoadCount(), "getRunById should not load entities");
+    }
+
+    @Test
+    @Transactional
+    void getRunVersion_usesASingleStatement_andMatchesTheFullRead() {
+        // Arrange: a one-measurement contract, so the cache keeps it
+        Instrument instrument = new Instrument();
+        instrument.setCode("STMT-VERSION");
+        instrument.setName("Statement Count Version Instrument");
+        instrument = instrumentRepository.save(instrument);
+
+        MeasurementDefinition definition = new MeasurementDefinition();
+        definition.setCode("stmt_version_m");
+        definition.setName("Version Measurement");
+        definition.setUnit("u");
+        definition = measurementDefinitionRepository.save(definition);
+
+        InstrumentMeasurement im = new InstrumentMeasurement();
+        im.setInstrument(instrument);
+        im.setMeasurementDefinition(definition);
+        im.setDisplayOrder(1);
+        instrumentMeasurementRepository.save(im);
+
+        Long runId = instrumentRunService.createRun("STMT-VERSION", UUID.randomUUID(), null).runId();
+
+        // Write everything, start from an empty persistence context, warm the contract cache
+        entityManager.flush();
+        entityManager.clear();
+        instrumentRunService.getRunById(runId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        InstrumentRunVersion version = instrumentRunService.getRunVersion(runId);
+
+        // Assert: one primary key lookup (contract from the cache), and the same tag the full read is served with
+        assertEquals(1, statistics.getPrepareStatementCount(), "getRunVersion should be a single SQL statement");
+        assertEquals(0, statistics.getEntityLoadCount(), "getRunVersion should not load entities");
+        assertEquals(version.etag(), InstrumentRunVersion.of(instrumentRunService.getRunById(runId)).etag());
+    }
+}
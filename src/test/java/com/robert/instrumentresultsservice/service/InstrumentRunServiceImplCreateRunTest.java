@@ -5,21 +5,31 @@ import com.robert.instrumentresultsservice.domain.InstrumentRun;
 import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
 import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
 import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
-import com.robert.instrumentresultsservice.repository.InstrumentMeasurementRepository;
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
 import com.robert.instrumentresultsservice.repository.InstrumentRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
 import com.robert.instrumentresultsservice.repository.MeasurementDefinitionRepository;
 import com.robert.instrumentresultsservice.repository.MeasurementRepository;
+import com.robert.instrumentresultsservice.repository.projection.RunKeyView;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunCreated;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,17 +45,34 @@ class InstrumentRunServiceImplCreateRunTest {
     @Mock MeasurementDefinitionRepository measurementDefinitionRepository;
     @Mock MeasurementRepository measurementRepository;
     @Mock InstrumentRunEventRepository instrumentRunEventRepository;
-    @Mock InstrumentMeasurementRepository instrumentMeasurementRepository;
-    @Mock ProcessingService processingService;
+    @Mock InstrumentContractCache instrumentContractCache;
+    @Mock RecentRunKeyCache recentRunKeyCache;
+    @Mock ProcessingQueueWorker processingQueueWorker;
+    @Mock ProcessingAdmissionControl processingAdmissionControl;
+    @Mock EntityManager entityManager;
+    @Mock RunMetrics runMetrics;
 
     @InjectMocks InstrumentRunServiceImpl service;
 
+    @BeforeEach
+    void initTxSync() {
+        // Keyed creates register an afterCommit hook; in a pure unit test we must initialize synchronization manually
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clearTxSync() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void createRun_happyPath_persistsRunAndCreatedEvent_returnsResult() {
-        // Arrange
+        // Arrange: no externalReference, so no idempotency key
         String instrumentCode = "CBC-1000";
         UUID clientId = UUID.randomUUID();
-        String externalRef = "EXT-ABC-123";
+        String externalRef = null;
         OffsetDateTime createdAt = OffsetDateTime.parse("2026-01-04T12:34:56-06:00");
 
         Instrument instrument = new Instrument();
@@ -105,4 +132,134 @@ class InstrumentRunServiceImplCreateRunTest {
         verify(instrumentRepository).findByCode(instrumentCode);
         verifyNoInteractions(instrumentRunRepository, instrumentRunEventRepository);
     }
+
+    @Test
+    void createRun_withExternalReference_insertsOnce_emitsEvent_andCachesKeyAfterCommit() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        Instrument instrument = instrument(7L, "CBC-1000");
+        Instant createdAt = Instant.parse("2026-01-04T18:34:56Z");
+        RunKeyView key = runKey(42L, 7L, createdAt, true);
+        InstrumentRun reference = new InstrumentRun();
+
+        when(recentRunKeyCache.get(clientId, "EXT-1")).thenReturn(null);
+        when(instrumentRepository.findByCode("CBC-1000")).thenReturn(Optional.of(instrument));
+        when(instrumentRunRepository.insertOrFindByExternalReference(7L, clientId, "EXT-1", "NORMAL")).thenReturn(Optional.of(key));
+        when(instrumentRunRepository.getReferenceById(42L)).thenReturn(reference);
+
+        // Act
+        InstrumentRunCreated result = service.createRun("CBC-1000", clientId, "EXT-1");
+
+        // Assert: returned domain result
+        InstrumentRunCreated expected = new InstrumentRunCreated(
+                42L, "CBC-1000", InstrumentRunStatus.CREATED, createdAt.atOffset(ZoneOffset.UTC)
+        );
+        assertEquals(expected, result);
+
+        // Assert: CREATED event for the new run; no entity save for the run itself
+        ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
+        verify(instrumentRunEventRepository).save(eventCaptor.capture());
+        assertEquals(InstrumentRunEventType.CREATED, eventCaptor.getValue().getEventType());
+        assertSame(reference, eventCaptor.getValue().getInstrumentRun());
+        verify(instrumentRunRepository, never()).save(any());
+
+        // Assert: key cached only after commit
+        verify(recentRunKeyCache, never()).put(any(), any(), any());
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, syncs.size());
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        verify(recentRunKeyCache).put(clientId, "EXT-1", expected);
+    }
+
+    @Test
+    void createRun_withExternalReference_existingRun_returnsIt_withoutEvent() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        Instrument instrument = instrument(7L, "CBC-1000");
+        Instant createdAt = Instant.parse("2026-01-04T18:34:56Z");
+        RunKeyView key = runKey(42L, 7L, createdAt, false);
+
+        when(instrumentRepository.findByCode("CBC-1000")).thenReturn(Optional.of(instrument));
+        when(instrumentRunRepository.insertOrFindByExternalReference(7L, clientId, "EXT-1", "NORMAL")).thenReturn(Optional.of(key));
+
+        // Act
+        InstrumentRunCreated result = service.createRun("CBC-1000", clientId, "EXT-1");
+
+        // Assert
+        assertEquals(42L, result.runId());
+        assertEquals(InstrumentRunStatus.CREATED, result.status());
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+
+    @Test
+    void createRun_withExternalReference_concurrentCommit_fallsBackToLookup() {
+        // Arrange: the insert conflicted with a run committed after the statement's snapshot
+        UUID clientId = UUID.randomUUID();
+        Instrument instrument = instrument(7L, "CBC-1000");
+        RunKeyView key = runKey(42L, 7L, Instant.parse("2026-01-04T18:34:56Z"), false);
+
+        when(instrumentRepository.findByCode("CBC-1000")).thenReturn(Optional.of(instrument));
+        when(instrumentRunRepository.insertOrFindByExternalReference(7L, clientId, "EXT-1", "NORMAL")).thenReturn(Optional.empty());
+        when(instrumentRunRepository.findRunKey(clientId, "EXT-1")).thenReturn(Optional.of(key));
+
+        // Act
+        InstrumentRunCreated result = service.createRun("CBC-1000", clientId, "EXT-1");
+
+        // Assert
+        assertEquals(42L, result.runId());
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+
+    @Test
+    void createRun_withExternalReference_usedForAnotherInstrument_throws() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        Instrument instrument = instrument(7L, "CBC-1000");
+        RunKeyView key = runKey(42L, 8L, Instant.parse("2026-01-04T18:34:56Z"), false);
+
+        when(instrumentRepository.findByCode("CBC-1000")).thenReturn(Optional.of(instrument));
+        when(instrumentRunRepository.insertOrFindByExternalReference(7L, clientId, "EXT-1", "NORMAL")).thenReturn(Optional.of(key));
+
+        // Act + Assert
+        IllegalStateException ex = assertThrows(
+                IllegalStateException.class,
+                () -> service.createRun("CBC-1000", clientId, "EXT-1")
+        );
+        assertTrue(ex.getMessage().contains("already used by run 42"));
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+
+    @Test
+    void createRun_recentlyCreatedKey_returnsCachedRun_withoutDatabase() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        InstrumentRunCreated cached = new InstrumentRunCreated(
+                42L, "CBC-1000", InstrumentRunStatus.CREATED, OffsetDateTime.parse("2026-01-04T18:34:56Z")
+        );
+        when(recentRunKeyCache.get(clientId, "EXT-1")).thenReturn(cached);
+
+        // Act
+        InstrumentRunCreated result = service.createRun("CBC-1000", clientId, "EXT-1");
+
+        // Assert
+        assertSame(cached, result);
+        verifyNoInteractions(instrumentRepository, instrumentRunRepository, instrumentRunEventRepository);
+    }
+
+    private static Instrument instrument(Long id, String code) {
+        Instrument instrument = mock(Instrument.class);
+        lenient().when(instrument.getId()).thenReturn(id);
+        lenient().when(instrument.getCode()).thenReturn(code);
+        lenient().when(instrument.getProcessingPriority()).thenReturn(ProcessingPriority.NORMAL);
+        return instrument;
+    }
+
+    private static RunKeyView runKey(Long id, Long instrumentId, Instant createdAt, boolean inserted) {
+        RunKeyView key = mock(RunKeyView.class);
+        lenient().when(key.getId()).thenReturn(id);
+        lenient().when(key.getInstrumentId()).thenReturn(instrumentId);
+        lenient().when(key.getCreatedAt()).thenReturn(createdAt);
+        lenient().when(key.isInserted()).thenReturn(inserted);
+        return key;
+    }
 }
@@ -2,8 +2,15 @@ package com.robert.instrumentresultsservice.service;
 
 import com.robert.instrumentresultsservice.domain.*;
 import com.robert.instrumentresultsservice.repository.*;
+import com.robert.instrumentresultsservice.repository.projection.RunDetailsRow;
+import com.robert.instrumentresultsservice.repository.projection.RunVersionRow;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunVersion;
 import com.robert.instrumentresultsservice.service.result.RequiredMeasurement;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -23,14 +30,18 @@ import static org.mockito.Mockito.*;
 class InstrumentRunServiceImplGetRunByIdTest {
 
     @Mock InstrumentRunRepository instrumentRunRepository;
-    @Mock MeasurementRepository measurementRepository;
-    @Mock InstrumentMeasurementRepository instrumentMeasurementRepository;
+    @Mock InstrumentContractCache instrumentContractCache;
+    @Mock RecentRunKeyCache recentRunKeyCache;
 
     // Other service deps (not used by getRunById) but needed for constructor/injection
+    @Mock MeasurementRepository measurementRepository;
     @Mock InstrumentRepository instrumentRepository;
     @Mock MeasurementDefinitionRepository measurementDefinitionRepository;
     @Mock InstrumentRunEventRepository instrumentRunEventRepository;
-    @Mock ProcessingService processingService;
+    @Mock ProcessingQueueWorker processingQueueWorker;
+    @Mock ProcessingAdmissionControl processingAdmissionControl;
+    @Mock EntityManager entityManager;
+    @Mock RunMetrics runMetrics;
 
     @InjectMocks
     InstrumentRunServiceImpl service;
@@ -39,56 +50,17 @@ class InstrumentRunServiceImplGetRunByIdTest {
     void getRunById_happyPath_buildsRequiredMeasurements_andInjectsSubmittedValues() {
         // Arrange
         Long runId = 123L;
-
-        Instrument instrument = mock(Instrument.class);
-        when(instrument.getId()).thenReturn(10L);
-        when(instrument.getCode()).thenReturn("INST-1");
-        when(instrument.getName()).thenReturn("Instrument 1");
-
         UUID createdBy = UUID.randomUUID();
 
-        InstrumentRun run = mock(InstrumentRun.class);
-        when(run.getId()).thenReturn(runId);
-        when(run.getInstrument()).thenReturn(instrument);
-        when(run.getCreatedByClientId()).thenReturn(createdBy);
-        when(run.getExternalReference()).thenReturn("ext-abc");
-        when(run.getStatus()).thenReturn(InstrumentRunStatus.CREATED);
-        when(run.getCreatedAt()).thenReturn(OffsetDateTime.parse("2026-01-04T12:00:00-06:00"));
-        when(run.getUpdatedAt()).thenReturn(OffsetDateTime.parse("2026-01-04T12:00:00-06:00"));
-
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
-
-        // Submitted measurements: only A submitted
-        MeasurementDefinition defA = mock(MeasurementDefinition.class);
-        when(defA.getCode()).thenReturn("A");
-
-        Measurement mA = mock(Measurement.class);
-        when(mA.getMeasurementDefinition()).thenReturn(defA);
-        when(mA.getValue()).thenReturn(new BigDecimal("1.23"));
-
-        when(measurementRepository.findByInstrumentRunId(runId)).thenReturn(List.of(mA));
-
-        // Required measurement list: A then B (service assumes repo already ordered)
-        MeasurementDefinition reqDefA = mock(MeasurementDefinition.class);
-        when(reqDefA.getCode()).thenReturn("A");
-        when(reqDefA.getName()).thenReturn("Alpha");
-        when(reqDefA.getUnit()).thenReturn("mg");
-
-        InstrumentMeasurement reqA = mock(InstrumentMeasurement.class);
-        when(reqA.getMeasurementDefinition()).thenReturn(reqDefA);
-        when(reqA.getDisplayOrder()).thenReturn(1);
-
-        MeasurementDefinition reqDefB = mock(MeasurementDefinition.class);
-        when(reqDefB.getCode()).thenReturn("B");
-        when(reqDefB.getName()).thenReturn("Beta");
-        when(reqDefB.getUnit()).thenReturn("ml");
-
-        InstrumentMeasurement reqB = mock(InstrumentMeasurement.class);
-        when(reqB.getMeasurementDefinition()).thenReturn(reqDefB);
-        when(reqB.getDisplayOrder()).thenReturn(2);
+        // Projection rows: one per submitted measurement (only A submitted, padded as NUMERIC(19,6))
+        when(instrumentRunRepository.findDetailsRowsById(runId))
+                .thenReturn(List.of(row(runId, createdBy, 1L, new BigDecimal("1.230000"))));
 
-        when(instrumentMeasurementRepository.findRequiredByInstrumentId(10L))
-                .thenReturn(List.of(reqA, reqB));
+        // Contract: A then B (cache keeps display order)
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(InstrumentContract.of(10L, "INST-1", List.of(
+                new ContractMeasurement(1L, "A", "Alpha", "mg", 1),
+                new ContractMeasurement(2L, "B", "Beta", "ml", 2)
+        )));
 
         // Act
         InstrumentRunDetails details = service.getRunById(runId);
@@ -118,20 +90,18 @@ class InstrumentRunServiceImplGetRunByIdTest {
         assertEquals(2, req.get(1).displayOrder());
         assertNull(req.get(1).submittedValue());
 
-        // Assert: repository calls
-        verify(instrumentRunRepository).findById(runId);
-        verify(measurementRepository).findByInstrumentRunId(runId);
-        verify(instrumentMeasurementRepository).findRequiredByInstrumentId(10L);
-
-        // Assert: no unrelated deps touched
-        verifyNoInteractions(instrumentRunEventRepository, processingService, measurementDefinitionRepository, instrumentRepository);
+        // Assert: one projection query + cached contract, nothing else
+        verify(instrumentRunRepository).findDetailsRowsById(runId);
+        verify(instrumentContractCache).getByInstrumentId(10L);
+        verifyNoMoreInteractions(instrumentRunRepository);
+        verifyNoInteractions(measurementRepository, instrumentRunEventRepository, processingQueueWorker, measurementDefinitionRepository, instrumentRepository);
     }
 
     @Test
-    void getRunById_runNotFound_throwsIllegalArgumentException_andDoesNotQueryMeasurementsOrRequired() {
+    void getRunById_runNotFound_throwsIllegalArgumentException_andDoesNotResolveContract() {
         // Arrange
         Long runId = 999L;
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.empty());
+        when(instrumentRunRepository.findDetailsRowsById(runId)).thenReturn(List.of());
 
         // Act + Assert
         IllegalArgumentException ex = assertThrows(
@@ -140,38 +110,80 @@ class InstrumentRunServiceImplGetRunByIdTest {
         );
         assertTrue(ex.getMessage().contains("Instrument run not found: " + runId));
 
-        verify(instrumentRunRepository).findById(runId);
-        verifyNoInteractions(measurementRepository, instrumentMeasurementRepository);
+        verify(instrumentRunRepository).findDetailsRowsById(runId);
+        verifyNoInteractions(measurementRepository, instrumentContractCache);
     }
 
     @Test
-    void getRunById_noSubmittedMeasurements_requiredMeasurementsHaveNullSubmittedValue() {
+    void getRunVersion_readsOnlyTheVersionRow_andTheCachedContract() {
         // Arrange
         Long runId = 123L;
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-01-04T18:35:10.123456Z");
+        OffsetDateTime submittedAt = OffsetDateTime.parse("2026-01-04T18:35:00Z");
+        when(instrumentRunRepository.findVersionById(runId)).thenReturn(Optional.of(
+                new RunVersionRow(runId, 10L, "Instrument 1", InstrumentRunStatus.SUCCEEDED, updatedAt, submittedAt)
+        ));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(InstrumentContract.of(10L, "INST-1", List.of(
+                new ContractMeasurement(1L, "A", "Alpha", "mg", 1)
+        )));
+
+        // Act
+        InstrumentRunVersion version = service.getRunVersion(runId);
+
+        // Assert
+        String contractTag = InstrumentRunVersion.contractTag(
+                "Instrument 1", List.of(new RequiredMeasurement("A", "Alpha", "mg", 1, null))
+        );
+        assertEquals(
+                new InstrumentRunVersion(runId, InstrumentRunStatus.SUCCEEDED, updatedAt, submittedAt, contractTag),
+                version
+        );
+        assertTrue(version.isFinal());
+        verify(instrumentRunRepository, never()).findDetailsRowsById(any());
+        verifyNoInteractions(measurementRepository);
+    }
+
+    @Test
+    void getRunVersion_contractChanged_changesTheEtag() {
+        // Arrange: same run row, the unit of A changed between the two reads
+        Long runId = 123L;
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-01-04T18:35:10.123456Z");
+        when(instrumentRunRepository.findVersionById(runId)).thenReturn(Optional.of(
+                new RunVersionRow(runId, 10L, "Instrument 1", InstrumentRunStatus.SUCCEEDED, updatedAt, updatedAt)
+        ));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(
+                InstrumentContract.of(10L, "INST-1", List.of(new ContractMeasurement(1L, "A", "Alpha", "mg", 1))),
+                InstrumentContract.of(10L, "INST-1", List.of(new ContractMeasurement(1L, "A", "Alpha", "g", 1)))
+        );
 
-        Instrument instrument = mock(Instrument.class);
-        when(instrument.getId()).thenReturn(10L);
-        when(instrument.getCode()).thenReturn("INST-1");
-        when(instrument.getName()).thenReturn("Instrument 1");
+        // Act
+        String before = service.getRunVersion(runId).etag();
+        String after = service.getRunVersion(runId).etag();
 
-        InstrumentRun run = mock(InstrumentRun.class);
-        when(run.getId()).thenReturn(runId);
-        when(run.getInstrument()).thenReturn(instrument);
+        // Assert
+        assertNotEquals(before, after);
+    }
 
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
-        when(measurementRepository.findByInstrumentRunId(runId)).thenReturn(List.of());
+    @Test
+    void getRunVersion_runNotFound_throwsIllegalArgumentException() {
+        // Arrange
+        when(instrumentRunRepository.findVersionById(999L)).thenReturn(Optional.empty());
 
-        MeasurementDefinition reqDefA = mock(MeasurementDefinition.class);
-        when(reqDefA.getCode()).thenReturn("A");
-        when(reqDefA.getName()).thenReturn("Alpha");
-        when(reqDefA.getUnit()).thenReturn("mg");
+        // Act + Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.getRunVersion(999L));
+        assertTrue(ex.getMessage().contains("Instrument run not found: 999"));
+    }
 
-        InstrumentMeasurement reqA = mock(InstrumentMeasurement.class);
-        when(reqA.getMeasurementDefinition()).thenReturn(reqDefA);
-        when(reqA.getDisplayOrder()).thenReturn(1);
+    @Test
+    void getRunById_noSubmittedMeasurements_requiredMeasurementsHaveNullSubmittedValue() {
+        // Arrange: left join with no measurements yields one row with null measurement columns
+        Long runId = 123L;
+        when(instrumentRunRepository.findDetailsRowsById(runId))
+                .thenReturn(List.of(row(runId, UUID.randomUUID(), null, null)));
 
-        when(instrumentMeasurementRepository.findRequiredByInstrumentId(10L))
-                .thenReturn(List.of(reqA));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(InstrumentContract.of(10L, "INST-1", List.of(
+                new ContractMeasurement(1L, "A", "Alpha", "mg", 1)
+        )));
 
         // Act
         InstrumentRunDetails details = service.getRunById(runId);
@@ -181,8 +193,50 @@ class InstrumentRunServiceImplGetRunByIdTest {
         assertEquals(1, details.requiredMeasurements().size());
         assertNull(details.requiredMeasurements().get(0).submittedValue());
 
-        verify(instrumentRunRepository).findById(runId);
-        verify(measurementRepository).findByInstrumentRunId(runId);
-        verify(instrumentMeasurementRepository).findRequiredByInstrumentId(10L);
+        verify(instrumentRunRepository).findDetailsRowsById(runId);
+        verify(instrumentContractCache).getByInstrumentId(10L);
+    }
+
+    @Test
+    void getRunById_normalizesWholeNumberValues_withoutExponent() {
+        // Arrange
+        Long runId = 123L;
+        when(instrumentRunRepository.findDetailsRowsById(runId))
+                .thenReturn(List.of(row(runId, UUID.randomUUID(), 1L, new BigDecimal("100.000000"))));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(InstrumentContract.of(10L, "INST-1", List.of(
+                new ContractMeasurement(1L, "A", "Alpha", "mg", 1)
+        )));
+
+        // Act
+        InstrumentRunDetails details = service.getRunById(runId);
+
+        // Assert
+        assertEquals("100", details.requiredMeasurements().get(0).submittedValue().toPlainString());
+        assertEquals(0, details.requiredMeasurements().get(0).submittedValue().scale());
+    }
+
+    private static RunDetailsRow row(Long runId, UUID createdBy, Long definitionId, BigDecimal value) {
+        OffsetDateTime ts = OffsetDateTime.parse("2026-01-04T12:00:00-06:00");
+        return new RunDetailsRow(
+                runId,
+                10L,
+                "INST-1",
+                "Instrument 1",
+                createdBy,
+                "ext-abc",
+                InstrumentRunStatus.CREATED,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                ts,
+                ts,
+                definitionId,
+                value
+        );
     }
 }
@@ -0,0 +1,147 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentRun;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.MeasurementDefinitionRepository;
+import com.robert.instrumentresultsservice.repository.MeasurementRepository;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentRunServiceImplSubmitMeasurementsForRunsTest {
+
+    @Mock InstrumentRunRepository instrumentRunRepository;
+    @Mock MeasurementDefinitionRepository measurementDefinitionRepository;
+    @Mock MeasurementRepository measurementRepository;
+    @Mock InstrumentRunEventRepository instrumentRunEventRepository;
+    @Mock InstrumentContractCache instrumentContractCache;
+    @Mock RecentRunKeyCache recentRunKeyCache;
+    @Mock ProcessingQueueWorker processingQueueWorker;
+    @Mock ProcessingAdmissionControl processingAdmissionControl;
+    @Mock EntityManager entityManager;
+    @Mock RunMetrics runMetrics;
+
+    @InjectMocks InstrumentRunServiceImpl service;
+
+    @BeforeEach
+    void initTxSync() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clearTxSync() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void submitMeasurementsForRuns_updatesAcceptedRunsInOneStatement_batchesWrites_andSignalsOnce() {
+        // Arrange
+        InstrumentRun run1 = createdRun(1L);
+        InstrumentRun run2 = createdRun(2L);
+        when(instrumentRunRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(run1, run2));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract());
+        when(instrumentRunRepository.markMeasurementsSubmitted(eq(List.of(1L, 2L)), any(), eq(SpecStatus.IN_SPEC), any(OffsetDateTime.class)))
+                .thenReturn(2);
+
+        List<RunMeasurementSubmission> submissions = List.of(
+                new RunMeasurementSubmission(1L, Map.of("A", BigDecimal.ONE)),
+                new RunMeasurementSubmission(2L, Map.of("A", BigDecimal.TEN))
+        );
+
+        // Act
+        List<MeasurementSubmissionAck> acks = service.submitMeasurementsForRuns(submissions, UUID.randomUUID());
+
+        // Assert
+        assertTrue(acks.stream().allMatch(MeasurementSubmissionAck::isAccepted));
+        verify(measurementRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(instrumentRunEventRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(instrumentRunRepository, never()).save(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(processingQueueWorker, times(1)).signal();
+    }
+
+    @Test
+    void submitMeasurementsForRuns_concurrentSubmission_throwsIllegalStateException_beforeWritingMeasurements() {
+        // Arrange: validation passes, but the guarded update only matches one of two runs
+        InstrumentRun run1 = createdRun(1L);
+        InstrumentRun run2 = createdRun(2L);
+        when(instrumentRunRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(run1, run2));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract());
+        when(instrumentRunRepository.markMeasurementsSubmitted(anyCollection(), any(), any(), any())).thenReturn(1);
+
+        List<RunMeasurementSubmission> submissions = List.of(
+                new RunMeasurementSubmission(1L, Map.of("A", BigDecimal.ONE)),
+                new RunMeasurementSubmission(2L, Map.of("A", BigDecimal.TEN))
+        );
+
+        // Act + Assert
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.submitMeasurementsForRuns(submissions, UUID.randomUUID())
+        );
+        verifyNoInteractions(measurementRepository, instrumentRunEventRepository, processingQueueWorker);
+    }
+
+    @Test
+    void submitMeasurementsForRuns_allRejected_writesNothing() {
+        // Arrange
+        when(instrumentRunRepository.findAllById(List.of(99L))).thenReturn(List.of());
+
+        // Act
+        List<MeasurementSubmissionAck> acks = service.submitMeasurementsForRuns(
+                List.of(new RunMeasurementSubmission(99L, Map.of("A", BigDecimal.ONE))),
+                UUID.randomUUID()
+        );
+
+        // Assert
+        assertEquals("Instrument run not found: 99", acks.get(0).error());
+        verify(instrumentRunRepository, never()).markMeasurementsSubmitted(any(), any(), any(), any());
+        verifyNoInteractions(measurementRepository, instrumentRunEventRepository, processingQueueWorker);
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    private static InstrumentRun createdRun(Long id) {
+        Instrument instrument = mock(Instrument.class);
+        when(instrument.getId()).thenReturn(10L);
+
+        InstrumentRun run = mock(InstrumentRun.class);
+        lenient().when(run.getId()).thenReturn(id);
+        when(run.getInstrument()).thenReturn(instrument);
+        when(run.getStatus()).thenReturn(InstrumentRunStatus.CREATED);
+        return run;
+    }
+
+    private static InstrumentContract contract() {
+        return InstrumentContract.of(10L, "INST-1", List.of(new ContractMeasurement(1L, "A", "Alpha", "mg", 1)));
+    }
+}
@@ -5,13 +5,17 @@ import com.robert.instrumentresultsservice.domain.InstrumentRun;
 import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
 import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
 import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
-import com.robert.instrumentresultsservice.domain.MeasurementDefinition;
-import com.robert.instrumentresultsservice.repository.InstrumentMeasurementRepository;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.exception.ProcessingOverloadedException;
 import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
 import com.robert.instrumentresultsservice.repository.MeasurementDefinitionRepository;
 import com.robert.instrumentresultsservice.repository.MeasurementRepository;
+import com.robert.instrumentresultsservice.service.contract.ContractMeasurement;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContract;
+import com.robert.instrumentresultsservice.service.contract.InstrumentContractCache;
 import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +26,7 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
@@ -35,8 +40,12 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
     @Mock MeasurementDefinitionRepository measurementDefinitionRepository;
     @Mock MeasurementRepository measurementRepository;
     @Mock InstrumentRunEventRepository instrumentRunEventRepository;
-    @Mock InstrumentMeasurementRepository instrumentMeasurementRepository; // not used directly here (we stub getRunById)
-    @Mock ProcessingService processingService;
+    @Mock InstrumentContractCache instrumentContractCache;
+    @Mock RecentRunKeyCache recentRunKeyCache;
+    @Mock ProcessingQueueWorker processingQueueWorker;
+    @Mock ProcessingAdmissionControl processingAdmissionControl;
+    @Mock EntityManager entityManager;
+    @Mock RunMetrics runMetrics;
 
     // We spy the service so we can stub getRunById(), keeping this test focused on submitMeasurements()
     @Spy @InjectMocks
@@ -71,33 +80,30 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
 
         when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
 
-        MeasurementDefinition defA = mock(MeasurementDefinition.class);
-        when(defA.getCode()).thenReturn("A");
-
-        MeasurementDefinition defB = mock(MeasurementDefinition.class);
-        when(defB.getCode()).thenReturn("B");
-
-        when(measurementDefinitionRepository.findByInstrumentId(10L))
-                .thenReturn(List.of(defA, defB));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract("A", "B"));
 
         Map<String, BigDecimal> measurements = new LinkedHashMap<>();
         measurements.put("A", new BigDecimal("1.23"));
         measurements.put("B", new BigDecimal("4.56"));
 
+        when(instrumentRunRepository.markMeasurementsSubmitted(eq(List.of(runId)), eq(submittedBy), eq(SpecStatus.IN_SPEC), any(OffsetDateTime.class)))
+                .thenReturn(1);
+
         InstrumentRunDetails expectedDetails = mock(InstrumentRunDetails.class);
         doReturn(expectedDetails).when(service).getRunById(runId);
 
         // Act
         InstrumentRunDetails result = service.submitMeasurements(runId, measurements, submittedBy);
 
-        // Assert: measurements persisted (count)
+        // Assert: measurements persisted (count), definitions referenced by cached id
         verify(measurementRepository, times(2)).save(any());
+        verify(measurementDefinitionRepository).getReferenceById(1L);
+        verify(measurementDefinitionRepository).getReferenceById(2L);
 
-        // Assert: run updated + saved
-        verify(run).setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED);
-        verify(run).setMeasurementsSubmittedByClientId(submittedBy);
-        verify(run).setMeasurementsSubmittedAt(any(OffsetDateTime.class));
-        verify(instrumentRunRepository).save(run);
+        // Assert: run moved with a conditional update, not a read-modify-write save
+        verify(instrumentRunRepository).markMeasurementsSubmitted(eq(List.of(runId)), eq(submittedBy), eq(SpecStatus.IN_SPEC), any(OffsetDateTime.class));
+        verify(run, never()).setStatus(any());
+        verify(instrumentRunRepository, never()).save(any());
 
         // Assert: event emitted
         ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
@@ -111,13 +117,29 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
         assertSame(expectedDetails, result);
         verify(service).getRunById(runId);
 
-        // Assert: afterCommit hook registered and triggers async processing
+        // Assert: afterCommit hook registered and wakes the processing queue worker
         List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
         assertFalse(syncs.isEmpty(), "Expected an afterCommit synchronization to be registered.");
 
         // Fire afterCommit manually (simulates successful transaction commit)
         syncs.forEach(TransactionSynchronization::afterCommit);
-        verify(processingService).processRunAsync(runId);
+        verify(processingQueueWorker).signal();
+    }
+
+    @Test
+    void submitMeasurements_processingQueueFull_throwsBeforeTouchingTheDatabase() {
+        // Arrange
+        doThrow(new ProcessingOverloadedException("Processing queue is full", Duration.ofSeconds(30), false))
+                .when(processingAdmissionControl).admit(1);
+
+        // Act + Assert
+        ProcessingOverloadedException ex = assertThrows(
+                ProcessingOverloadedException.class,
+                () -> service.submitMeasurements(123L, Map.of("A", BigDecimal.ONE), UUID.randomUUID())
+        );
+
+        assertEquals(Duration.ofSeconds(30), ex.getRetryAfter());
+        verifyNoInteractions(instrumentRunRepository, measurementRepository, instrumentRunEventRepository, processingQueueWorker);
     }
 
     @Test
@@ -134,7 +156,7 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
 
         assertTrue(ex.getMessage().contains("Instrument run not found: " + runId));
         verify(instrumentRunRepository).findById(runId);
-        verifyNoInteractions(measurementDefinitionRepository, measurementRepository, instrumentRunEventRepository, processingService);
+        verifyNoInteractions(measurementDefinitionRepository, measurementRepository, instrumentRunEventRepository, processingQueueWorker);
     }
 
     @Test
@@ -156,7 +178,36 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
         assertTrue(ex.getMessage().contains("Measurements already submitted for run: " + runId));
 
         verify(instrumentRunRepository).findById(runId);
-        verifyNoInteractions(measurementDefinitionRepository, measurementRepository, instrumentRunEventRepository, processingService);
+        verifyNoInteractions(measurementDefinitionRepository, measurementRepository, instrumentRunEventRepository, processingQueueWorker);
+    }
+
+    @Test
+    void submitMeasurements_concurrentSubmissionWon_throwsIllegalStateException_andDoesNotPersistAnything() {
+        // Arrange: the run looked CREATED when loaded, but another submission committed first
+        Long runId = 123L;
+        UUID submittedBy = UUID.randomUUID();
+
+        Instrument instrument = mock(Instrument.class);
+        when(instrument.getId()).thenReturn(10L);
+
+        InstrumentRun run = mock(InstrumentRun.class);
+        when(run.getInstrument()).thenReturn(instrument);
+        when(run.getStatus()).thenReturn(InstrumentRunStatus.CREATED);
+
+        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract("A"));
+        when(instrumentRunRepository.markMeasurementsSubmitted(eq(List.of(runId)), eq(submittedBy), eq(SpecStatus.IN_SPEC), any(OffsetDateTime.class)))
+                .thenReturn(0);
+
+        // Act + Assert
+        IllegalStateException ex = assertThrows(
+                IllegalStateException.class,
+                () -> service.submitMeasurements(runId, Map.of("A", BigDecimal.ONE), submittedBy)
+        );
+        assertTrue(ex.getMessage().contains("Measurements already submitted for run: " + runId));
+
+        verifyNoInteractions(measurementRepository, instrumentRunEventRepository, processingQueueWorker);
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
     }
 
     @Test
@@ -174,11 +225,7 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
 
         when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
 
-        MeasurementDefinition defA = mock(MeasurementDefinition.class);
-        when(defA.getCode()).thenReturn("A");
-
-        when(measurementDefinitionRepository.findByInstrumentId(10L))
-                .thenReturn(List.of(defA));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract("A"));
 
         Map<String, BigDecimal> measurements = new LinkedHashMap<>();
         measurements.put("A", BigDecimal.ONE);
@@ -198,7 +245,38 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
         verify(instrumentRunRepository, never()).save(any());
         verify(instrumentRunEventRepository, never()).save(any());
         assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
-        verifyNoInteractions(processingService);
+        verifyNoInteractions(processingQueueWorker);
+    }
+
+    @Test
+    void submitMeasurements_valueWithMoreThanSixDecimals_throwsIllegalArgumentException_andDoesNotPersist() {
+        // Arrange: the column would silently round this to 1.000000
+        Long runId = 123L;
+        UUID submittedBy = UUID.randomUUID();
+
+        Instrument instrument = mock(Instrument.class);
+        when(instrument.getId()).thenReturn(10L);
+
+        InstrumentRun run = mock(InstrumentRun.class);
+        when(run.getInstrument()).thenReturn(instrument);
+        when(run.getStatus()).thenReturn(InstrumentRunStatus.CREATED);
+
+        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
+
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract("A"));
+
+        Map<String, BigDecimal> measurements = Map.of("A", new BigDecimal("1.0000001"));
+
+        // Act + Assert
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.submitMeasurements(runId, measurements, submittedBy)
+        );
+        assertTrue(ex.getMessage().contains("at most 6 decimal places"));
+
+        verify(instrumentRunRepository, never()).markMeasurementsSubmitted(any(), any(), any(), any());
+        verify(measurementRepository, never()).save(any());
+        verifyNoInteractions(processingQueueWorker);
     }
 
 
@@ -226,7 +304,7 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
                 measurementDefinitionRepository,
                 measurementRepository,
                 instrumentRunEventRepository,
-                processingService
+                processingQueueWorker
         );
         assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
     }
@@ -246,11 +324,7 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
 
         when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
 
-        MeasurementDefinition defA = mock(MeasurementDefinition.class);
-        when(defA.getCode()).thenReturn("A");
-
-        when(measurementDefinitionRepository.findByInstrumentId(10L))
-                .thenReturn(List.of(defA));
+        when(instrumentContractCache.getByInstrumentId(10L)).thenReturn(contract("A"));
 
         Map<String, BigDecimal> measurements = new LinkedHashMap<>();
         measurements.put("A", null);
@@ -267,8 +341,14 @@ class InstrumentRunServiceImplSubmitMeasurementsTest {
         verify(instrumentRunRepository, never()).save(any());
         verify(instrumentRunEventRepository, never()).save(any());
         assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
-        verifyNoInteractions(processingService);
+        verifyNoInteractions(processingQueueWorker);
     }
 
-
+    private static InstrumentContract contract(String... codes) {
+        List<ContractMeasurement> measurements = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            measurements.add(new ContractMeasurement((long) i + 1, codes[i], codes[i], "u", i + 1));
+        }
+        return InstrumentContract.of(10L, "INST-1", measurements);
+    }
 }
@@ -0,0 +1,122 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.*;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class InstrumentRunServiceSubmitMeasurementsForRunsIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
+    @Autowired MeasurementDefinitionRepository measurementDefinitionRepository;
+    @Autowired MeasurementRepository measurementRepository;
+    @Autowired InstrumentMeasurementRepository instrumentMeasurementRepository;
+
+    @Autowired EntityManager entityManager;
+
+    @Test
+    @Transactional
+    void submitMeasurementsForRuns_acceptsValidRuns_rejectsInvalidRunsIndividually() {
+        // Arrange: instrument with contract A, B and four runs
+        seedInstrument("BULK-SUBMIT");
+        UUID clientId = UUID.randomUUID();
+
+        Long ok1 = instrumentRunService.createRun("BULK-SUBMIT", clientId, null).runId();
+        Long ok2 = instrumentRunService.createRun("BULK-SUBMIT", clientId, null).runId();
+        Long unknownCode = instrumentRunService.createRun("BULK-SUBMIT", clientId, null).runId();
+        Long alreadySubmitted = instrumentRunService.createRun("BULK-SUBMIT", clientId, null).runId();
+        instrumentRunService.submitMeasurements(alreadySubmitted, Map.of("A", BigDecimal.ONE), clientId);
+
+        UUID submittedBy = UUID.randomUUID();
+        List<RunMeasurementSubmission> submissions = List.of(
+                new RunMeasurementSubmission(ok1, Map.of("A", new BigDecimal("1.5"), "B", new BigDecimal("2.5"))),
+                new RunMeasurementSubmission(unknownCode, Map.of("A", BigDecimal.ONE, "NOPE", BigDecimal.ONE)),
+                new RunMeasurementSubmission(alreadySubmitted, Map.of("A", BigDecimal.ONE)),
+                new RunMeasurementSubmission(-1L, Map.of("A", BigDecimal.ONE)),
+                new RunMeasurementSubmission(ok2, Map.of("B", BigDecimal.TEN)),
+                new RunMeasurementSubmission(ok2, Map.of("B", BigDecimal.TEN))
+        );
+
+        // Act
+        List<MeasurementSubmissionAck> acks = instrumentRunService.submitMeasurementsForRuns(submissions, submittedBy);
+
+        // Assert: one ack per item, in request order
+        assertEquals(6, acks.size());
+
+        assertTrue(acks.get(0).isAccepted());
+        assertEquals(ok1, acks.get(0).runId());
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, acks.get(0).status());
+        assertEquals(2, acks.get(0).measurementCount());
+        assertNotNull(acks.get(0).measurementsSubmittedAt());
+
+        assertEquals("Unknown measurement code: NOPE", acks.get(1).error());
+        assertEquals("Measurements already submitted for run: " + alreadySubmitted, acks.get(2).error());
+        assertEquals("Instrument run not found: -1", acks.get(3).error());
+        assertTrue(acks.get(4).isAccepted());
+        assertEquals("Duplicate run in request: " + ok2, acks.get(5).error());
+
+        // Assert: DB state (bulk update bypasses the persistence context, so re-read)
+        entityManager.flush();
+        entityManager.clear();
+
+        InstrumentRun run1 = instrumentRunRepository.findById(ok1).orElseThrow();
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, run1.getStatus());
+        assertEquals(submittedBy, run1.getMeasurementsSubmittedByClientId());
+        assertNotNull(run1.getMeasurementsSubmittedAt());
+        assertEquals(2, measurementRepository.findByInstrumentRunId(ok1).size());
+        assertTrue(
+                instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(ok1)
+                        .stream()
+                        .anyMatch(e -> e.getEventType() == InstrumentRunEventType.MEASUREMENTS_SUBMITTED)
+        );
+
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, instrumentRunRepository.findById(ok2).orElseThrow().getStatus());
+        assertEquals(1, measurementRepository.findByInstrumentRunId(ok2).size());
+
+        // Rejected run is untouched
+        assertEquals(InstrumentRunStatus.CREATED, instrumentRunRepository.findById(unknownCode).orElseThrow().getStatus());
+        assertTrue(measurementRepository.findByInstrumentRunId(unknownCode).isEmpty());
+    }
+
+    private void seedInstrument(String code) {
+        Instrument instrument = new Instrument();
+        instrument.setCode(code);
+        instrument.setName("Bulk Submit Instrument");
+        instrument = instrumentRepository.save(instrument);
+
+        int order = 1;
+        for (String definitionCode : List.of("A", "B")) {
+            MeasurementDefinition definition = new MeasurementDefinition();
+            definition.setCode(definitionCode);
+            definition.setName(definitionCode);
+            definition.setUnit("u");
+            definition = measurementDefinitionRepository.save(definition);
+
+            InstrumentMeasurement im = new InstrumentMeasurement();
+            im.setInstrument(instrument);
+            im.setMeasurementDefinition(definition);
+            im.setDisplayOrder(order++);
+            instrumentMeasurementRepository.save(im);
+        }
+    }
+}
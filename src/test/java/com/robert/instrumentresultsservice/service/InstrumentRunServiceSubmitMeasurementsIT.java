@@ -17,6 +17,12 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -164,4 +170,81 @@ class InstrumentRunServiceSubmitMeasurementsIT {
         assertNull(run.getMeasurementsSubmittedAt());
         assertNull(run.getMeasurementsSubmittedByClientId());
     }
+
+    @Test
+    void submitMeasurements_concurrentSubmissions_exactlyOneWins_andTheOtherGetsIllegalStateException() throws Exception {
+        // Arrange: committed instrument with a one-measurement contract, and a CREATED run (no test transaction)
+        Instrument instrument = new Instrument();
+        instrument.setCode("CAS-" + UUID.randomUUID());
+        instrument.setName("CAS Analyzer");
+        instrument = instrumentRepository.save(instrument);
+
+        MeasurementDefinition def = new MeasurementDefinition();
+        def.setCode("CAS-A-" + UUID.randomUUID());
+        def.setName("Alpha");
+        def.setUnit("mg");
+        def = measurementDefinitionRepository.save(def);
+
+        InstrumentMeasurement im = new InstrumentMeasurement();
+        im.setInstrument(instrument);
+        im.setMeasurementDefinition(def);
+        im.setDisplayOrder(1);
+        instrumentMeasurementRepository.save(im);
+
+        Long runId = instrumentRunService.createRun(instrument.getCode(), UUID.randomUUID(), null).runId();
+        Map<String, BigDecimal> measurements = Map.of(def.getCode(), new BigDecimal("1.23"));
+
+        // Act: two submissions released at the same moment
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Object> submit = () -> {
+            start.await();
+            return instrumentRunService.submitMeasurements(runId, measurements, UUID.randomUUID());
+        };
+
+        int succeeded = 0;
+        int conflicts = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<Object>> futures = List.of(executor.submit(submit), executor.submit(submit));
+            start.countDown();
+
+            for (Future<Object> future : futures) {
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                    conflicts++;
+                }
+            }
+        }
+
+        // Assert: one winner, and only its measurements were written
+        assertEquals(1, succeeded);
+        assertEquals(1, conflicts);
+        assertEquals(1, measurementRepository.findByInstrumentRunId(runId).size());
+    }
+
+    @Test
+    @Transactional
+    void submitMeasurements_seededSpecLimits_flagRunWithInstrumentOverride() {
+        // Arrange: INSTR_DEMO_003 narrows meas_demo_d to 0..250 (definition default 0..500, V15)
+        Long outOfSpec = instrumentRunService.createRun("INSTR_DEMO_003", UUID.randomUUID(), null).runId();
+        Long warning = instrumentRunService.createRun("INSTR_DEMO_003", UUID.randomUUID(), null).runId();
+        Long inSpec = instrumentRunService.createRun("INSTR_DEMO_003", UUID.randomUUID(), null).runId();
+
+        // Act
+        InstrumentRunDetails outOfSpecDetails = instrumentRunService.submitMeasurements(outOfSpec,
+                Map.of("meas_demo_d", new BigDecimal("300"), "meas_demo_e", BigDecimal.ONE), UUID.randomUUID());
+        InstrumentRunDetails warningDetails = instrumentRunService.submitMeasurements(warning,
+                Map.of("meas_demo_d", new BigDecimal("200.000001"), "meas_demo_e", BigDecimal.ONE), UUID.randomUUID());
+        InstrumentRunDetails inSpecDetails = instrumentRunService.submitMeasurements(inSpec,
+                Map.of("meas_demo_d", new BigDecimal("200"), "meas_demo_e", new BigDecimal("-5")), UUID.randomUUID());
+
+        // Assert: flagged, but accepted like any other submission
+        assertEquals(SpecStatus.OUT_OF_SPEC, outOfSpecDetails.specStatus());
+        assertEquals(SpecStatus.WARNING, warningDetails.specStatus());
+        assertEquals(SpecStatus.IN_SPEC, inSpecDetails.specStatus());
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, outOfSpecDetails.status());
+        assertEquals(SpecStatus.OUT_OF_SPEC, instrumentRunRepository.findById(outOfSpec).orElseThrow().getSpecStatus());
+    }
 }
@@ -0,0 +1,222 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.exception.ProcessingOverloadedException;
+import com.robert.instrumentresultsservice.service.command.RunMeasurementSubmission;
+import com.robert.instrumentresultsservice.service.result.MeasurementStreamSummary;
+import com.robert.instrumentresultsservice.service.result.MeasurementSubmissionAck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeasurementStreamIngestionServiceImplTest {
+
+    @Mock InstrumentRunService instrumentRunService;
+
+    @Test
+    void ingest_groupsInterleavedRecordsPerRun_andSubmitsAtEndOfStream() {
+        // Arrange
+        MeasurementStreamIngestionServiceImpl service = service(10, 10, 100);
+        acceptEverything();
+
+        InputStream body = ndjson(
+                "{\"runId\":1,\"code\":\"A\",\"value\":1.5}",
+                "{\"runId\":2,\"code\":\"A\",\"value\":2}",
+                "{\"runId\":1,\"code\":\"B\",\"value\":3}"
+        );
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(body, UUID.randomUUID());
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunMeasurementSubmission>> captor = ArgumentCaptor.forClass(List.class);
+        verify(instrumentRunService).submitMeasurementsForRuns(captor.capture(), any());
+
+        List<RunMeasurementSubmission> submitted = captor.getValue();
+        assertEquals(2, submitted.size());
+        RunMeasurementSubmission run1 = submitted.stream().filter(s -> s.runId() == 1L).findFirst().orElseThrow();
+        assertEquals(Map.of("A", new BigDecimal("1.5"), "B", new BigDecimal("3")), run1.measurementsByCode());
+
+        assertEquals(3, summary.records());
+        assertEquals(1, summary.batches());
+        assertEquals(2, summary.acceptedRunCount());
+        assertEquals(0, summary.rejectedRunCount());
+    }
+
+    @Test
+    void ingest_boundsOpenRuns_andFlushesInMicroBatches() {
+        // Arrange: at most 2 open runs, 2 runs per batch
+        MeasurementStreamIngestionServiceImpl service = service(2, 2, 100);
+        acceptEverything();
+
+        String[] lines = new String[10];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "{\"runId\":" + (i + 1) + ",\"code\":\"A\",\"value\":1}";
+        }
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(ndjson(lines), UUID.randomUUID());
+
+        // Assert: 10 runs in batches of at most 2
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunMeasurementSubmission>> captor = ArgumentCaptor.forClass(List.class);
+        verify(instrumentRunService, times(5)).submitMeasurementsForRuns(captor.capture(), any());
+        assertTrue(captor.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+        assertEquals(10, summary.acceptedRunCount());
+        assertEquals(5, summary.batches());
+    }
+
+    @Test
+    void ingest_recordsForAnEvictedRunNotYetSubmitted_areMergedIntoIt() {
+        // Arrange: one open run, so run 1 is evicted when run 2 arrives, but not yet submitted
+        MeasurementStreamIngestionServiceImpl service = service(1, 10, 100);
+        acceptEverything();
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(ndjson(
+                "{\"runId\":1,\"code\":\"A\",\"value\":1}",
+                "{\"runId\":2,\"code\":\"A\",\"value\":2}",
+                "{\"runId\":1,\"code\":\"B\",\"value\":3}"
+        ), UUID.randomUUID());
+
+        // Assert: run 1 is submitted once, with both measurements
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunMeasurementSubmission>> captor = ArgumentCaptor.forClass(List.class);
+        verify(instrumentRunService).submitMeasurementsForRuns(captor.capture(), any());
+        List<RunMeasurementSubmission> run1 = captor.getValue().stream().filter(s -> s.runId() == 1L).toList();
+        assertEquals(1, run1.size());
+        assertEquals(Map.of("A", new BigDecimal("1"), "B", new BigDecimal("3")), run1.get(0).measurementsByCode());
+        assertEquals(2, summary.acceptedRunCount());
+    }
+
+    @Test
+    void ingest_recordsForARunAlreadySubmitted_areRejected_insteadOfStartingASecondSubmission() {
+        // Arrange: one open run, one run per batch, so run 1 is submitted when run 2 arrives
+        MeasurementStreamIngestionServiceImpl service = service(1, 1, 100);
+        acceptEverything();
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(ndjson(
+                "{\"runId\":1,\"code\":\"A\",\"value\":1}",
+                "{\"runId\":2,\"code\":\"A\",\"value\":2}",
+                "{\"runId\":1,\"code\":\"B\",\"value\":3}",
+                "{\"runId\":1,\"code\":\"C\",\"value\":4}"
+        ), UUID.randomUUID());
+
+        // Assert: run 1 is never submitted twice, and its late records are reported once
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunMeasurementSubmission>> captor = ArgumentCaptor.forClass(List.class);
+        verify(instrumentRunService, times(2)).submitMeasurementsForRuns(captor.capture(), any());
+        assertEquals(1, captor.getAllValues().stream().flatMap(List::stream).filter(s -> s.runId() == 1L).count());
+        assertEquals(1, summary.rejectedRunCount());
+        assertTrue(summary.rejectedRuns().get(0).error().startsWith("Records for run 1 arrived after it was submitted"));
+    }
+
+    @Test
+    void ingest_microBatchTurnedAwayAsAWhole_isReportedPerRun_andTheUploadCarriesOn() {
+        // Arrange: the first batch hits a full queue, the second is admitted
+        MeasurementStreamIngestionServiceImpl service = service(1, 1, 100);
+        when(instrumentRunService.submitMeasurementsForRuns(anyList(), any()))
+                .thenThrow(new ProcessingOverloadedException("Processing queue is full", Duration.ofSeconds(5), false))
+                .thenAnswer(inv -> {
+                    List<RunMeasurementSubmission> submissions = inv.getArgument(0);
+                    return submissions.stream()
+                            .map(sub -> MeasurementSubmissionAck.accepted(sub.runId(), 1, SpecStatus.IN_SPEC, OffsetDateTime.now()))
+                            .toList();
+                });
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(ndjson(
+                "{\"runId\":1,\"code\":\"A\",\"value\":1}",
+                "{\"runId\":2,\"code\":\"A\",\"value\":2}"
+        ), UUID.randomUUID());
+
+        // Assert
+        assertEquals(2, summary.batches());
+        assertEquals(1, summary.acceptedRunCount());
+        assertEquals(1, summary.rejectedRunCount());
+        assertEquals(1L, summary.rejectedRuns().get(0).runId());
+        assertEquals("Processing queue is full", summary.rejectedRuns().get(0).error());
+    }
+
+    @Test
+    void ingest_capsReportedRejections() {
+        // Arrange
+        MeasurementStreamIngestionServiceImpl service = service(10, 10, 1);
+        when(instrumentRunService.submitMeasurementsForRuns(anyList(), any())).thenAnswer(inv -> {
+            List<RunMeasurementSubmission> submissions = inv.getArgument(0);
+            return submissions.stream()
+                    .map(s -> MeasurementSubmissionAck.rejected(s.runId(), "Instrument run not found: " + s.runId()))
+                    .toList();
+        });
+
+        // Act
+        MeasurementStreamSummary summary = service.ingest(ndjson(
+                "{\"runId\":1,\"code\":\"A\",\"value\":1}",
+                "{\"runId\":2,\"code\":\"A\",\"value\":1}",
+                "{\"runId\":3,\"code\":\"A\",\"value\":1}"
+        ), UUID.randomUUID());
+
+        // Assert
+        assertEquals(3, summary.rejectedRunCount());
+        assertEquals(1, summary.rejectedRuns().size());
+        assertTrue(summary.rejectionsTruncated());
+    }
+
+    @Test
+    void ingest_malformedRecord_throwsIllegalArgumentException() {
+        // Arrange
+        MeasurementStreamIngestionServiceImpl service = service(10, 10, 100);
+
+        // Act + Assert
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.ingest(ndjson("{\"runId\":1,\"code\":\"A\",\"value\":1}", "{not json"), UUID.randomUUID())
+        );
+        assertTrue(ex.getMessage().startsWith("Malformed measurement record #2"));
+        verifyNoInteractions(instrumentRunService);
+    }
+
+    private MeasurementStreamIngestionServiceImpl service(int maxOpenRuns, int batchRuns, int maxReportedRejections) {
+        return new MeasurementStreamIngestionServiceImpl(
+                instrumentRunService,
+                new ObjectMapper(),
+                maxOpenRuns,
+                batchRuns,
+                1_000,
+                maxReportedRejections
+        );
+    }
+
+    private void acceptEverything() {
+        when(instrumentRunService.submitMeasurementsForRuns(anyList(), any())).thenAnswer(inv -> {
+            List<RunMeasurementSubmission> submissions = inv.getArgument(0);
+            return submissions.stream()
+                    .map(s -> MeasurementSubmissionAck.accepted(s.runId(), s.measurementsByCode().size(), SpecStatus.IN_SPEC, OffsetDateTime.now()))
+                    .toList();
+        });
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
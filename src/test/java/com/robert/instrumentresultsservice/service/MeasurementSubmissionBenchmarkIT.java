@@ -0,0 +1,135 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentMeasurement;
+import com.robert.instrumentresultsservice.domain.MeasurementDefinition;
+import com.robert.instrumentresultsservice.repository.InstrumentMeasurementRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.repository.MeasurementDefinitionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of submitMeasurements at 10, 100 and 1,000 measurements per run.
+ * Excluded from the regular test task; run with: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MeasurementSubmissionBenchmarkIT {
+
+    private static final int[] MEASUREMENT_COUNTS = {10, 100, 1_000};
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired MeasurementDefinitionRepository measurementDefinitionRepository;
+    @Autowired InstrumentMeasurementRepository instrumentMeasurementRepository;
+
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void submitMeasurements_latencyBy_measurementCount() {
+        // Arrange: one instrument whose contract has enough definitions for the largest case
+        int maxCount = Arrays.stream(MEASUREMENT_COUNTS).max().orElseThrow();
+        List<String> codes = seedInstrument("BENCH-SUBMIT", maxCount);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UUID clientId = UUID.randomUUID();
+
+        System.out.println();
+        System.out.println("measurements | mean ms | p50 ms | p95 ms | statements/submission");
+
+        for (int count : MEASUREMENT_COUNTS) {
+            Map<String, BigDecimal> measurements = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                measurements.put(codes.get(i), BigDecimal.valueOf(i, 3));
+            }
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                submit(clientId, measurements);
+            }
+
+            long[] nanos = new long[MEASURED_RUNS];
+            long statements = 0;
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                Long runId = instrumentRunService.createRun("BENCH-SUBMIT", clientId, null).runId();
+
+                statistics.clear();
+                long start = System.nanoTime();
+                instrumentRunService.submitMeasurements(runId, measurements, clientId);
+                nanos[i] = System.nanoTime() - start;
+                statements += statistics.getPrepareStatementCount();
+            }
+
+            Arrays.sort(nanos);
+            double mean = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+            System.out.printf(
+                    "%12d | %7.2f | %6.2f | %6.2f | %d%n",
+                    count,
+                    mean,
+                    nanos[nanos.length / 2] / 1_000_000.0,
+                    nanos[(int) Math.ceil(nanos.length * 0.95) - 1] / 1_000_000.0,
+                    statements / MEASURED_RUNS
+            );
+
+            // Batched inserts: statement count must not grow one-for-one with measurements
+            assertTrue(statements / MEASURED_RUNS < count, "Expected batched measurement inserts for count=" + count);
+        }
+    }
+
+    private void submit(UUID clientId, Map<String, BigDecimal> measurements) {
+        Long runId = instrumentRunService.createRun("BENCH-SUBMIT", clientId, null).runId();
+        instrumentRunService.submitMeasurements(runId, measurements, clientId);
+    }
+
+    private List<String> seedInstrument(String instrumentCode, int definitionCount) {
+        Instrument instrument = new Instrument();
+        instrument.setCode(instrumentCode);
+        instrument.setName("Benchmark Instrument");
+        instrument = instrumentRepository.save(instrument);
+
+        List<MeasurementDefinition> definitions = new ArrayList<>();
+        for (int i = 0; i < definitionCount; i++) {
+            MeasurementDefinition definition = new MeasurementDefinition();
+            definition.setCode(String.format("bench_m_%04d", i));
+            definition.setName("Benchmark Measurement " + i);
+            definition.setUnit("u");
+            definitions.add(definition);
+        }
+        definitions = measurementDefinitionRepository.saveAll(definitions);
+
+        List<InstrumentMeasurement> contract = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < definitions.size(); i++) {
+            InstrumentMeasurement im = new InstrumentMeasurement();
+            im.setInstrument(instrument);
+            im.setMeasurementDefinition(definitions.get(i));
+            im.setDisplayOrder(i + 1);
+            contract.add(im);
+            codes.add(definitions.get(i).getCode());
+        }
+        instrumentMeasurementRepository.saveAll(contract);
+
+        return codes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.service.result.InstrumentRunDetails;
+import com.robert.instrumentresultsservice.service.result.PartitionMaintenanceSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+        // The test drives maintenance itself
+        "partitions.maintenance.enabled=false",
+        "partitions.premake-months=6",
+        "partitions.retention.months=12"
+})
+class PartitionMaintenanceIT {
+
+    @Autowired PartitionMaintenance partitionMaintenance;
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void maintain_createsPartitionsForCurrentAndUpcomingMonths() {
+        // Arrange: the migration only created partitions up to three months ahead
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+
+        // Act
+        PartitionMaintenanceSummary summary = partitionMaintenance.maintain(month);
+
+        // Assert
+        assertFalse(summary.skipped());
+        for (String table : List.of("measurement", "instrument_run_event")) {
+            for (int i = 0; i <= 6; i++) {
+                String partition = partitionName(table, month.plusMonths(i));
+                assertTrue(summary.ensured().contains(partition), partition);
+                assertTrue(exists(partition), partition);
+            }
+        }
+    }
+
+    @Test
+    void maintain_removesPartitionsOlderThanRetention_andKeepsNewerOnes() {
+        // Arrange: an expired month and one inside the 12-month window
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        jdbcTemplate.queryForObject("select create_monthly_partition('measurement', '2001-01-01')", String.class);
+        String expired = partitionName("measurement", YearMonth.of(2001, 1));
+        String kept = partitionName("measurement", current.minusMonths(11));
+        jdbcTemplate.queryForObject(
+                "select create_monthly_partition('measurement', ?)",
+                String.class,
+                Date.valueOf(current.minusMonths(11).atDay(1))
+        );
+
+        // Act
+        PartitionMaintenanceSummary summary = partitionMaintenance.maintain(current);
+
+        // Assert
+        assertTrue(summary.expired().contains(expired));
+        assertFalse(exists(expired));
+        assertFalse(summary.expired().contains(kept));
+        assertTrue(exists(kept));
+        assertTrue(exists(partitionName("measurement", current)));
+    }
+
+    @Test
+    void submittedMeasurements_landInTheCurrentMonthPartition_andAreReadBack() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        Long runId = instrumentRunService.createRun("INSTR_DEMO_001", clientId, null).runId();
+
+        // Act
+        instrumentRunService.submitMeasurements(
+                runId,
+                Map.of("meas_demo_a", new BigDecimal("1.25"), "meas_demo_b", new BigDecimal("7.5")),
+                clientId
+        );
+        InstrumentRunDetails details = instrumentRunService.getRunById(runId);
+
+        // Assert: rows are in this month's partition, and the pruned lookup still finds them
+        List<String> partitions = jdbcTemplate.queryForList(
+                "select distinct tableoid::regclass::text from measurement where instrument_run_id = ?",
+                String.class,
+                runId
+        );
+        assertEquals(List.of(partitionName("measurement", YearMonth.now(ZoneOffset.UTC))), partitions);
+        assertTrue(details.requiredMeasurements().stream().allMatch(m -> m.submittedValue() != null));
+    }
+
+    @Test
+    void submittedMeasurements_shareTheSubmissionTimestamp_andADuplicateDefinitionIsRejected() {
+        // Arrange
+        UUID clientId = UUID.randomUUID();
+        Long runId = instrumentRunService.createRun("INSTR_DEMO_001", clientId, null).runId();
+        instrumentRunService.submitMeasurements(
+                runId,
+                Map.of("meas_demo_a", new BigDecimal("1.25"), "meas_demo_b", new BigDecimal("7.5")),
+                clientId
+        );
+
+        // Assert: every row carries the run's measurements_submitted_at
+        Boolean stampedWithSubmission = jdbcTemplate.queryForObject("""
+                select bool_and(m.created_at = r.measurements_submitted_at)
+                from measurement m
+                join instrument_run r on r.id = m.instrument_run_id
+                where m.instrument_run_id = ?
+                """, Boolean.class, runId);
+        assertEquals(Boolean.TRUE, stampedWithSubmission);
+
+        // Act + Assert: writing one of the definitions again for the same submission
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("""
+                insert into measurement (id, instrument_run_id, measurement_definition_id, value, created_at)
+                select nextval('measurement_id_seq'), instrument_run_id, measurement_definition_id, value, created_at
+                from measurement
+                where instrument_run_id = ?
+                limit 1
+                """, runId));
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select to_regclass(?) is not null", Boolean.class, table
+        ));
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return "%s_p%04d_%02d".formatted(table, month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,139 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.exception.ProcessingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingAdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProcessingAdmissionControl admission =
+            new ProcessingAdmissionControl(new RunMetrics(registry), true, 1_000, 0.5, 1, 120);
+
+    @Test
+    void beforeTheFirstSample_admitsEverything() {
+        assertDoesNotThrow(() -> admission.admit(5_000));
+        assertEquals(ProcessingAdmissionControl.State.ACCEPTING, admission.state());
+    }
+
+    @Test
+    void fullQueue_beforeTheDrainRateIsKnown_throttles_insteadOfReportingAStall() {
+        // Arrange: one sample only, so no drain rate yet
+        admission.recordBacklog(5_000, 0, 0);
+
+        // Act
+        ProcessingOverloadedException ex =
+                assertThrows(ProcessingOverloadedException.class, () -> admission.admit(1));
+
+        // Assert: 429 with the longest back-off, not 503
+        assertFalse(ex.isStalled());
+        assertEquals(Duration.ofSeconds(120), ex.getRetryAfter());
+        assertEquals(ProcessingAdmissionControl.State.THROTTLING, admission.state());
+        assertEquals(1.0, registry.get("instrument.runs.admission.state").tag("state", "THROTTLING").gauge().value());
+    }
+
+    @Test
+    void belowTheLimit_admits_andCommittedRunsCountTowardsTheBacklog() {
+        // Arrange
+        admission.recordBacklog(990, 0, 0);
+
+        // Act: the batch is admitted whole and commits, after which the queue is full
+        admission.admit(20);
+        admission.recordAdmitted(20);
+
+        // Assert
+        assertThrows(ProcessingOverloadedException.class, () -> admission.admit(1));
+    }
+
+    @Test
+    void admittedSubmission_thatNeverCommits_doesNotCountTowardsTheBacklog() {
+        // Arrange
+        admission.recordBacklog(990, 0, 0);
+
+        // Act: admitted, then turned away by validation (no recordAdmitted)
+        admission.admit(20);
+
+        // Assert
+        assertDoesNotThrow(() -> admission.admit(1));
+    }
+
+    @Test
+    void fullQueue_thatIsDraining_throttles_withRetryAfterFromTheDrainRate() {
+        // Arrange: 100 runs claimed cluster-wide over 10 s (none by this node), then the queue is 1 200 deep
+        admission.recordBacklog(1_200, 500, 0);
+        admission.recordBacklog(1_200, 600, 10 * SECOND);
+
+        // Act
+        ProcessingOverloadedException ex =
+                assertThrows(ProcessingOverloadedException.class, () -> admission.admit(1));
+
+        // Assert: 201 runs over the limit at 10 runs/s
+        assertFalse(ex.isStalled());
+        assertEquals(Duration.ofSeconds(21), ex.getRetryAfter());
+        assertEquals(ProcessingAdmissionControl.State.THROTTLING, admission.state());
+        assertEquals(1.0, registry.get("instrument.runs.admission.rejected").tag("state", "THROTTLING")
+                .counter().count());
+        assertEquals(10.0, registry.get("instrument.runs.queue.drain.rate").gauge().value());
+    }
+
+    @Test
+    void fullQueue_thatIsNotDraining_isStalled_withMaxRetryAfter() {
+        // Arrange: nothing claimed on any node between two samples
+        admission.recordBacklog(5_000, 500, 0);
+        admission.recordBacklog(5_000, 500, 15 * SECOND);
+
+        // Act
+        ProcessingOverloadedException ex =
+                assertThrows(ProcessingOverloadedException.class, () -> admission.admit(1));
+
+        // Assert
+        assertTrue(ex.isStalled());
+        assertEquals(Duration.ofSeconds(120), ex.getRetryAfter());
+        assertEquals(1.0, registry.get("instrument.runs.admission.state").tag("state", "STALLED").gauge().value());
+        assertEquals(0.0, registry.get("instrument.runs.admission.state").tag("state", "ACCEPTING").gauge().value());
+    }
+
+    @Test
+    void drainRate_isSmoothedAcrossSamples() {
+        // Arrange: 20 runs/s, then 0 runs/s, with smoothing 0.5
+        admission.recordBacklog(2_000, 0, 0);
+        admission.recordBacklog(2_000, 200, 10 * SECOND);
+        admission.recordBacklog(2_000, 200, 20 * SECOND);
+
+        // Act
+        ProcessingOverloadedException ex =
+                assertThrows(ProcessingOverloadedException.class, () -> admission.admit(1));
+
+        // Assert: still draining at 10 runs/s, with 1 001 runs over the limit
+        assertFalse(ex.isStalled());
+        assertEquals(Duration.ofSeconds(101), ex.getRetryAfter());
+    }
+
+    @Test
+    void claimsSinceTheLastSample_freeUpRoom() {
+        // Arrange
+        admission.recordBacklog(1_000, 0, 0);
+
+        // Act
+        admission.recordDrained(10);
+
+        // Assert
+        assertDoesNotThrow(() -> admission.admit(1));
+    }
+
+    @Test
+    void disabled_admitsEverything() {
+        ProcessingAdmissionControl disabled =
+                new ProcessingAdmissionControl(new RunMetrics(new SimpleMeterRegistry()), false, 1_000, 0.5, 1, 120);
+        disabled.recordBacklog(1_000_000, 0, 0);
+
+        assertDoesNotThrow(() -> disabled.admit(1));
+    }
+}
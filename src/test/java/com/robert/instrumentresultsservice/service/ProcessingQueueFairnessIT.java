@@ -0,0 +1,216 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class ProcessingQueueFairnessIT {
+
+    @Autowired ProcessingQueueService processingQueueService;
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void clientArrivingBehindABacklog_isServedOnTheNextClaim() {
+        // Arrange: one client backfilled 200 runs an hour ago; another submits 3 now, same class
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> backlog = queuedRuns(UUID.randomUUID(), ProcessingPriority.NORMAL, 200, now.minusHours(1));
+        List<Long> newcomer = queuedRuns(UUID.randomUUID(), ProcessingPriority.NORMAL, 3, now);
+
+        // Act
+        List<Long> claimed = processingQueueService.claimNextBatch(20);
+
+        // Assert: FIFO would hand the whole batch to the backlog; fair claiming alternates flows
+        assertTrue(claimed.containsAll(newcomer), "Expected the newcomer's runs in the first claim");
+        assertTrue(claimed.stream().filter(backlog::contains).count() < 20);
+    }
+
+    @Test
+    void interactiveRuns_overtakeAnOlderBulkBacklog() {
+        // Arrange
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> bulk = queuedRuns(UUID.randomUUID(), ProcessingPriority.BULK, 50, now.minusHours(1));
+        List<Long> interactive = queuedRuns(UUID.randomUUID(), ProcessingPriority.INTERACTIVE, 2, now);
+
+        // Act
+        List<Long> claimed = processingQueueService.claimNextBatch(10);
+
+        // Assert
+        assertTrue(claimed.containsAll(interactive), "Expected interactive runs ahead of the bulk backlog");
+        assertTrue(claimed.stream().filter(bulk::contains).count() <= 8);
+        assertEquals(
+                InstrumentRunStatus.PROCESSING,
+                instrumentRunRepository.findById(interactive.get(0)).orElseThrow().getStatus()
+        );
+    }
+
+    @Test
+    void concurrentClaims_areDisjoint_andEachIsFull() throws Exception {
+        // Arrange: enough runs for two full batches
+        OffsetDateTime now = OffsetDateTime.now();
+        queuedRuns(UUID.randomUUID(), ProcessingPriority.NORMAL, 30, now.minusMinutes(5));
+        queuedRuns(UUID.randomUUID(), ProcessingPriority.INTERACTIVE, 30, now.minusMinutes(5));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondClaimed = new CountDownLatch(1);
+        ExecutorService firstWorker = Executors.newSingleThreadExecutor();
+        try {
+            // Act: the first worker keeps its claim (and its row locks) open while the second one claims
+            Future<List<Long>> first = firstWorker.submit(() -> transaction.execute(status -> {
+                List<Long> claimed = processingQueueService.claimNextBatch(10);
+                firstClaimed.countDown();
+                awaitLatch(secondClaimed);
+                return claimed;
+            }));
+            assertTrue(firstClaimed.await(10, TimeUnit.SECONDS), "First claim did not finish");
+            List<Long> second = processingQueueService.claimNextBatch(10);
+            secondClaimed.countDown();
+
+            // Assert: locked rows were skipped while picking, not after
+            List<Long> firstIds = first.get(10, TimeUnit.SECONDS);
+            assertEquals(10, firstIds.size());
+            assertEquals(10, second.size());
+            assertTrue(Collections.disjoint(firstIds, second), "Expected no run claimed twice");
+        } finally {
+            secondClaimed.countDown();
+            firstWorker.shutdownNow();
+        }
+    }
+
+    @Test
+    void eachFlow_locksOnlyItsShareOfTheBatch() throws Exception {
+        // Arrange: two equal flows, each deep enough to fill the batch on its own
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID backlogClient = UUID.randomUUID();
+        queuedRuns(backlogClient, ProcessingPriority.NORMAL, 100, now.minusMinutes(5));
+        queuedRuns(UUID.randomUUID(), ProcessingPriority.NORMAL, 100, now.minusMinutes(5));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch counted = new CountDownLatch(1);
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            // Act: hold the claim open and see how many of the backlog's runs another transaction can still lock
+            Future<List<Long>> claim = worker.submit(() -> transaction.execute(status -> {
+                List<Long> ids = processingQueueService.claimNextBatch(10);
+                claimed.countDown();
+                awaitLatch(counted);
+                return ids;
+            }));
+            assertTrue(claimed.await(10, TimeUnit.SECONDS), "Claim did not finish");
+            Integer unlocked = transaction.execute(status -> jdbcTemplate.queryForList("""
+                    select id
+                    from instrument_run
+                    where created_by_client_id = ?
+                      and status = 'MEASUREMENTS_SUBMITTED'
+                    for update skip locked
+                    """, Long.class, backlogClient).size());
+            counted.countDown();
+
+            // Assert: a full batch, with the flow locking about half of it (ceil(10 / 2) + 1), not all ten
+            assertEquals(10, claim.get(10, TimeUnit.SECONDS).size());
+            assertTrue(100 - unlocked <= 6, "Expected at most 6 locked runs in the flow, got " + (100 - unlocked));
+        } finally {
+            counted.countDown();
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    void shortFlows_leaveTheBatchShort_andTheClaimTopsItUp() {
+        // Arrange: one deep bulk flow behind many single-run interactive flows
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> bulk = queuedRuns(UUID.randomUUID(), ProcessingPriority.BULK, 100, now.minusHours(1));
+        for (int i = 0; i < 4; i++) {
+            queuedRuns(UUID.randomUUID(), ProcessingPriority.INTERACTIVE, 1, now);
+        }
+
+        // Act
+        List<Long> claimed = processingQueueService.claimNextBatch(20);
+
+        // Assert: the bulk flow's share alone would leave the batch short; the claim is still full
+        assertEquals(20, claimed.size());
+        assertTrue(claimed.stream().anyMatch(bulk::contains));
+    }
+
+    @Test
+    void createRun_withoutPriority_takesTheInstrumentsDefault() {
+        // Arrange
+        Instrument instrument = new Instrument();
+        instrument.setCode("FAIR-" + UUID.randomUUID());
+        instrument.setName("Backfill Instrument");
+        instrument.setProcessingPriority(ProcessingPriority.BULK);
+        instrumentRepository.save(instrument);
+
+        // Act
+        Long defaulted = instrumentRunService.createRun(instrument.getCode(), UUID.randomUUID(), null).runId();
+        Long explicit = instrumentRunService
+                .createRun(instrument.getCode(), UUID.randomUUID(), "EXT-FAIR-1", ProcessingPriority.INTERACTIVE)
+                .runId();
+
+        // Assert
+        assertEquals(ProcessingPriority.BULK, instrumentRunRepository.findById(defaulted).orElseThrow().getPriority());
+        assertEquals(ProcessingPriority.INTERACTIVE, instrumentRunRepository.findById(explicit).orElseThrow().getPriority());
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the other worker");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * count runs of one client sitting in MEASUREMENTS_SUBMITTED, submitted one millisecond apart from submittedAt.
+     */
+    private List<Long> queuedRuns(UUID clientId, ProcessingPriority priority, int count, OffsetDateTime submittedAt) {
+        Instrument instrument = new Instrument();
+        instrument.setCode("FAIR-" + UUID.randomUUID());
+        instrument.setName("Fairness Instrument");
+        instrument = instrumentRepository.save(instrument);
+
+        List<InstrumentRun> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InstrumentRun run = new InstrumentRun();
+            run.setInstrument(instrument);
+            run.setCreatedByClientId(clientId);
+            run.setPriority(priority);
+            run.setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED);
+            run.setMeasurementsSubmittedAt(submittedAt.plusNanos(i * 1_000_000L));
+            runs.add(run);
+        }
+        return instrumentRunRepository.saveAll(runs).stream().map(InstrumentRun::getId).toList();
+    }
+}
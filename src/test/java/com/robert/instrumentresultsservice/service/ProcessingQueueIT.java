@@ -0,0 +1,106 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.*;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+        "processing.queue.enabled=true",
+        "processing.queue.poll-interval-ms=100"
+})
+class ProcessingQueueIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
+    @Autowired MeasurementDefinitionRepository measurementDefinitionRepository;
+    @Autowired InstrumentMeasurementRepository instrumentMeasurementRepository;
+
+    @Test
+    void submittedRun_isClaimedFromTheQueue_andProcessedExactlyOnce() {
+        // Arrange: instrument with a single required measurement
+        Instrument instrument = new Instrument();
+        instrument.setCode("QUEUE-1000");
+        instrument.setName("Queue Analyzer");
+        instrument = instrumentRepository.save(instrument);
+
+        MeasurementDefinition def = new MeasurementDefinition();
+        def.setCode("queue_a");
+        def.setName("Queue A");
+        def.setUnit("u");
+        def = measurementDefinitionRepository.save(def);
+
+        InstrumentMeasurement im = new InstrumentMeasurement();
+        im.setInstrument(instrument);
+        im.setMeasurementDefinition(def);
+        im.setDisplayOrder(1);
+        instrumentMeasurementRepository.save(im);
+
+        UUID clientId = UUID.randomUUID();
+        Long runId = instrumentRunService.createRun("QUEUE-1000", clientId, "EXT-QUEUE-1").runId();
+
+        // Act: submit (commits, then the worker picks the run up from the table)
+        instrumentRunService.submitMeasurements(runId, Map.of("queue_a", new BigDecimal("1.5")), clientId);
+
+        // Assert
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .pollInterval(Duration.ofMillis(50))
+                .untilAsserted(() -> assertEquals(
+                        InstrumentRunStatus.SUCCEEDED,
+                        instrumentRunRepository.findById(runId).orElseThrow().getStatus()
+                ));
+
+        List<InstrumentRunEvent> events = instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(runId);
+        assertEquals(1, events.stream().filter(e -> e.getEventType() == InstrumentRunEventType.PROCESSING_STARTED).count());
+        assertEquals(1, events.stream().filter(e -> e.getEventType() == InstrumentRunEventType.PROCESSING_COMPLETED).count());
+    }
+
+    @Test
+    void burstLargerThanExecutorQueue_isFullyDrained_withoutLosingRuns() {
+        // Arrange: 250 runs already sitting in MEASUREMENTS_SUBMITTED (e.g. left over from a restart)
+        Instrument instrument = new Instrument();
+        instrument.setCode("QUEUE-2000");
+        instrument.setName("Queue Burst Analyzer");
+        instrument = instrumentRepository.save(instrument);
+
+        List<InstrumentRun> runs = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            InstrumentRun run = new InstrumentRun();
+            run.setInstrument(instrument);
+            run.setCreatedByClientId(UUID.randomUUID());
+            run.setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED);
+            run.setMeasurementsSubmittedAt(OffsetDateTime.now());
+            runs.add(run);
+        }
+        List<Long> runIds = instrumentRunRepository.saveAll(runs).stream().map(InstrumentRun::getId).toList();
+
+        // Act + Assert: the poller drains all of them
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(60))
+                .pollInterval(Duration.ofMillis(250))
+                .untilAsserted(() -> assertTrue(
+                        instrumentRunRepository.findAllById(runIds).stream()
+                                .allMatch(r -> r.getStatus() == InstrumentRunStatus.SUCCEEDED),
+                        "Expected every queued run to reach SUCCEEDED"
+                ));
+    }
+}
@@ -0,0 +1,184 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessingQueueWorkerTest {
+
+    @Mock ProcessingQueueService processingQueueService;
+    @Mock ProcessingService processingService;
+    @Mock ProcessingAdmissionControl processingAdmissionControl;
+    @Mock TaskScheduler taskScheduler;
+    @Mock InstrumentRunRepository instrumentRunRepository;
+
+    ProcessingLeases processingLeases;
+
+    @Test
+    void drain_claimsBatch_dispatchesEachRun_andStopsWhenQueueIsDrained() {
+        // Arrange: batch size 10, queue returns 2 runs (fewer than asked => drained)
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        when(processingQueueService.claimNextBatch(10)).thenReturn(List.of(1L, 2L));
+        when(processingService.processClaimedRunAsync(anyLong())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        worker.drain();
+
+        // Assert
+        verify(processingQueueService, times(1)).claimNextBatch(10);
+        verify(processingService).processClaimedRunAsync(1L);
+        verify(processingService).processClaimedRunAsync(2L);
+        assertEquals(2, worker.inFlight());
+    }
+
+    @Test
+    void drain_neverClaimsMoreThanMaxInFlight() {
+        // Arrange: max in-flight 3, batch size 10; dispatched runs never complete
+        ProcessingQueueWorker worker = worker(true, 10, 3);
+        when(processingQueueService.claimNextBatch(3)).thenReturn(List.of(1L, 2L, 3L));
+        when(processingService.processClaimedRunAsync(anyLong())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        worker.drain();
+        worker.drain();
+
+        // Assert: second drain sees no capacity and does not touch the queue
+        verify(processingQueueService, times(1)).claimNextBatch(anyInt());
+        assertEquals(3, worker.inFlight());
+    }
+
+    @Test
+    void completion_releasesCapacity_andSchedulesAnotherDrain() {
+        // Arrange
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        when(processingQueueService.claimNextBatch(10)).thenReturn(List.of(1L));
+        when(processingService.processClaimedRunAsync(1L)).thenReturn(processing);
+
+        worker.drain();
+        assertEquals(1, worker.inFlight());
+
+        // Act
+        processing.complete(null);
+
+        // Assert
+        assertEquals(0, worker.inFlight());
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void dispatchedRuns_holdTheirLease_untilProcessingCompletes() {
+        // Arrange
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        when(processingQueueService.claimNextBatch(10)).thenReturn(List.of(1L));
+        when(processingService.processClaimedRunAsync(1L)).thenReturn(processing);
+
+        // Act
+        worker.drain();
+
+        // Assert: renewed by the heartbeat while in flight, dropped once done
+        assertEquals(1, processingLeases.heldCount());
+        processing.complete(null);
+        assertEquals(0, processingLeases.heldCount());
+    }
+
+    @Test
+    void rejectedDispatch_doesNotHoldTheLease_soTheSweeperCanRequeueTheRun() {
+        // Arrange
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        when(processingQueueService.claimNextBatch(10)).thenReturn(List.of(1L));
+        when(processingService.processClaimedRunAsync(1L)).thenThrow(new TaskRejectedException("full"));
+
+        // Act
+        worker.drain();
+
+        // Assert
+        assertEquals(0, processingLeases.heldCount());
+        assertEquals(0, worker.inFlight());
+    }
+
+    @Test
+    void signal_coalescesUntilTheScheduledDrainRuns() {
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+
+        worker.signal();
+        worker.signal();
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void drainRequestedWhileDraining_runsAfterTheActiveDrain_notConcurrently() {
+        // Arrange: a second drain (the poll, on another scheduler thread) fires during the first claim
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        AtomicInteger active = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        AtomicBoolean secondDrainFired = new AtomicBoolean();
+        when(processingQueueService.claimNextBatch(10)).thenAnswer(invocation -> {
+            if (active.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+            if (secondDrainFired.compareAndSet(false, true)) {
+                worker.drain();
+            }
+            active.decrementAndGet();
+            return List.of();
+        });
+
+        // Act
+        worker.drain();
+
+        // Assert: the second drain was deferred until the first finished, then run once
+        verify(processingQueueService, times(2)).claimNextBatch(10);
+        assertFalse(overlapped.get());
+    }
+
+    @Test
+    void disabled_neverClaimsOrSchedules() {
+        ProcessingQueueWorker worker = worker(false, 10, 100);
+
+        worker.signal();
+        worker.poll();
+
+        verifyNoInteractions(processingQueueService, processingService, taskScheduler);
+    }
+
+    @Test
+    void drain_claimFailure_isSwallowed_soThePollerKeepsRunning() {
+        ProcessingQueueWorker worker = worker(true, 10, 100);
+        when(processingQueueService.claimNextBatch(10)).thenThrow(new RuntimeException("db down"));
+
+        assertDoesNotThrow(worker::drain);
+        verifyNoInteractions(processingService);
+    }
+
+    private ProcessingQueueWorker worker(boolean enabled, int batchSize, int maxInFlight) {
+        processingLeases = new ProcessingLeases(instrumentRunRepository, 60_000, 20_000);
+        return new ProcessingQueueWorker(
+                processingQueueService,
+                processingService,
+                processingLeases,
+                processingAdmissionControl,
+                taskScheduler,
+                enabled,
+                batchSize,
+                maxInFlight
+        );
+    }
+}
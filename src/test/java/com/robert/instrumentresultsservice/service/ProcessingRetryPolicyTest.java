@@ -0,0 +1,60 @@
+package com.robert.instrumentresultsservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingRetryPolicyTest {
+
+    private final ProcessingRetryPolicy policy = new ProcessingRetryPolicy(5, 1_000, 10_000);
+
+    @Test
+    void transientDatabaseErrors_areRetryable_evenWhenWrapped() {
+        assertTrue(policy.isRetryable(new CannotAcquireLockException("lock timeout")));
+        assertTrue(policy.isRetryable(new QueryTimeoutException("statement timeout")));
+        assertTrue(policy.isRetryable(new CannotCreateTransactionException("pool exhausted")));
+        assertTrue(policy.isRetryable(new RuntimeException(new SQLTransientConnectionException("no connection"))));
+    }
+
+    @Test
+    void everythingElse_isNotRetryable() {
+        assertFalse(policy.isRetryable(new ArithmeticException("long overflow")));
+        assertFalse(policy.isRetryable(new IllegalStateException("bad data")));
+        assertFalse(policy.isRetryable(new DataIntegrityViolationException("constraint")));
+    }
+
+    @Test
+    void backoff_growsExponentially_withJitterInTheUpperHalf() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(policy.backoff(1), 500, 1_000);
+            assertBetween(policy.backoff(2), 1_000, 2_000);
+            assertBetween(policy.backoff(3), 2_000, 4_000);
+        }
+    }
+
+    @Test
+    void backoff_isCappedAtMaxDelay_evenForLargeAttemptCounts() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(policy.backoff(5), 5_000, 10_000);
+            assertBetween(policy.backoff(1_000), 5_000, 10_000);
+        }
+    }
+
+    @Test
+    void maxAttempts_prefersTheInstrumentSetting() {
+        assertEquals(2, policy.maxAttempts(2));
+        assertEquals(5, policy.maxAttempts(null));
+    }
+
+    private static void assertBetween(Duration actual, long minMs, long maxMs) {
+        assertTrue(actual.toMillis() >= minMs && actual.toMillis() <= maxMs,
+                () -> actual.toMillis() + "ms not in [" + minMs + ", " + maxMs + "]");
+    }
+}
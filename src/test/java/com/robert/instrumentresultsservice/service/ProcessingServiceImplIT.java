@@ -5,6 +5,7 @@ import com.robert.instrumentresultsservice.domain.*;
 import com.robert.instrumentresultsservice.repository.InstrumentRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
 import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,13 +24,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class ProcessingServiceImplIT {
 
     @Autowired ProcessingService processingService;
+    @Autowired ProcessingQueueService processingQueueService;
 
     @Autowired InstrumentRepository instrumentRepository;
     @Autowired InstrumentRunRepository instrumentRunRepository;
     @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
 
     @Test
-    void processRunAsync_happyPath_updatesRunToSucceeded_setsTimestamps_setsProcessResult_andEmitsEvents() {
+    void claimThenProcess_happyPath_updatesRunToSucceeded_setsTimestamps_setsProcessResult_andEmitsEvents() {
         // Arrange: instrument + run in DB
         Instrument instrument = new Instrument();
         instrument.setCode("CBC-1000");
@@ -39,16 +42,16 @@ class ProcessingServiceImplIT {
         run.setInstrument(instrument);
         run.setCreatedByClientId(UUID.randomUUID());
         run.setExternalReference("EXT-PROC-1");
-        run.setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED); // any non-null is fine; processing overwrites
+        run.setStatus(InstrumentRunStatus.MEASUREMENTS_SUBMITTED); // the only status the queue claims from
         run = instrumentRunRepository.save(run);
 
         Long runId = run.getId();
         assertNotNull(runId);
 
-        // Act: kick off async processing
-        processingService.processRunAsync(runId);
+        // Act: claim it from the queue and process it, as the queue worker does
+        assertTrue(claimAndProcessQueued().contains(runId), "Expected the run to be claimed");
 
-        // Wait until SUCCEEDED (test delay is 100ms, but allow slack for CI)
+        // Wait until SUCCEEDED (allow slack for CI)
         Awaitility.await()
                 .atMost(Duration.ofSeconds(5))
                 .pollInterval(Duration.ofMillis(50))
@@ -62,7 +65,9 @@ class ProcessingServiceImplIT {
                     assertNull(refreshed.getErrorCode());
                     assertNull(refreshed.getErrorMessage());
                     assertNotNull(refreshed.getProcessResult());
-                    assertEquals("stub-result", refreshed.getProcessResult().result());
+                    // No pipeline claims CBC-1000 and it has no contract: the default pipeline passes it
+                    assertEquals(ProcessResult.PASS, refreshed.getProcessResult().result());
+                    assertEquals("default", refreshed.getProcessResult().pipeline());
                 });
 
         // Assert: events exist (in order)
@@ -81,21 +86,61 @@ class ProcessingServiceImplIT {
     }
 
     @Test
-    void processRunAsync_runNotFound_doesNotCreateEvents() {
+    void processClaimedRunAsync_runNotFound_doesNotCreateEvents() {
         // Arrange: pick an ID that doesn't exist
         long missingRunId = 9_999_999L;
 
         long eventsBefore = instrumentRunEventRepository.count();
 
         // Act
-        processingService.processRunAsync(missingRunId);
+        processingService.processClaimedRunAsync(missingRunId).join();
 
-        // Assert: since it returns immediately, no need for Awaitility here
+        // Assert
         long eventsAfter = instrumentRunEventRepository.count();
         assertEquals(eventsBefore, eventsAfter, "Expected no events to be created for a missing run");
     }
 
 
+    @Test
+    void claimThenProcess_runNotSubmitted_isNeverClaimed() {
+        // Arrange: a run still in CREATED
+        Instrument instrument = new Instrument();
+        instrument.setCode("CBC-CAS-" + UUID.randomUUID());
+        instrument.setName("CBC Analyzer");
+        instrument = instrumentRepository.save(instrument);
+
+        InstrumentRun run = new InstrumentRun();
+        run.setInstrument(instrument);
+        run.setCreatedByClientId(UUID.randomUUID());
+        run.setStatus(InstrumentRunStatus.CREATED);
+        Long runId = instrumentRunRepository.save(run).getId();
+
+        // Act: drain the whole queue
+        List<Long> claimed = claimAndProcessQueued();
+
+        // Assert: only MEASUREMENTS_SUBMITTED runs are claimed
+        assertFalse(claimed.contains(runId));
+
+        InstrumentRun refreshed = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.CREATED, refreshed.getStatus());
+        assertNull(refreshed.getProcessingStartedAt());
+        assertTrue(instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(runId).isEmpty());
+    }
+
+    /**
+     * Claim and process queued runs until the queue is empty (other tests may leave runs queued),
+     * returning every claimed run ID.
+     */
+    private List<Long> claimAndProcessQueued() {
+        List<Long> claimed = new ArrayList<>();
+        List<Long> batch;
+        while (!(batch = processingQueueService.claimNextBatch(100)).isEmpty()) {
+            batch.forEach(processingService::processClaimedRunAsync);
+            claimed.addAll(batch);
+        }
+        return claimed;
+    }
+
     private static int indexOf(List<InstrumentRunEvent> events, InstrumentRunEventType type) {
         for (int i = 0; i < events.size(); i++) {
             if (events.get(i).getEventType() == type) return i;
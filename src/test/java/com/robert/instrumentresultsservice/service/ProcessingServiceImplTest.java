@@ -1,20 +1,18 @@
 package com.robert.instrumentresultsservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.robert.instrumentresultsservice.domain.InstrumentRun;
-import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
-import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
-import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
-import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
-import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.processing.ProcessingEngine;
+import com.robert.instrumentresultsservice.service.processing.ProcessingInputLoader;
+import com.robert.instrumentresultsservice.service.processing.RunComputation;
 import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
 
-import java.util.Optional;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,121 +20,90 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ProcessingServiceImplTest {
 
-    @Mock InstrumentRunRepository instrumentRunRepository;
-    @Mock InstrumentRunEventRepository instrumentRunEventRepository;
+    @Mock RunTransitionService runTransitionService;
+    @Mock ProcessingInputLoader processingInputLoader;
+    @Mock ProcessingEngine processingEngine;
 
-    @Captor ArgumentCaptor<InstrumentRunEvent> eventCaptor;
+    @Captor ArgumentCaptor<ProcessResult> resultCaptor;
 
     @Test
-    void processRunAsync_runNotFound_doesNothing() {
-        // Arrange
+    void processClaimedRunAsync_success_loadsComputesThenSucceeds_withPipelineResult() throws Exception {
+        // Arrange: the queue claim already moved the run to PROCESSING
         Long runId = 123L;
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.empty());
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        ProcessResult pipelineResult = new ProcessResult(ProcessResult.PASS);
 
-        ProcessingServiceImpl service = new ProcessingServiceImpl(
-                instrumentRunRepository,
-                instrumentRunEventRepository,
-                new ObjectMapper(),
-                1L
-        );
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenReturn(pipelineResult);
+        when(runTransitionService.markSucceeded(eq(runId), any(ProcessResult.class), any(OffsetDateTime.class)))
+                .thenReturn(true);
+
+        ProcessingServiceImpl service = service();
 
         // Act
-        service.processRunAsync(runId);
+        service.processClaimedRunAsync(runId).join();
 
-        // Assert
-        verify(instrumentRunRepository).findById(runId);
-        verifyNoMoreInteractions(instrumentRunRepository);
-        verifyNoInteractions(instrumentRunEventRepository);
+        // Assert: inputs, compute, then SUCCEEDED; never started again, never FAILED
+        InOrder inOrder = inOrder(processingInputLoader, processingEngine, runTransitionService);
+        inOrder.verify(processingInputLoader).load(runId);
+        inOrder.verify(processingEngine).compute(computation);
+        inOrder.verify(runTransitionService).markSucceeded(eq(runId), resultCaptor.capture(), any(OffsetDateTime.class));
+        verifyNoMoreInteractions(runTransitionService);
+
+        assertSame(pipelineResult, resultCaptor.getValue());
     }
 
     @Test
-    void processRunAsync_success_setsProcessingThenSucceeded_setsProcessResult_andEmitsStartedAndCompleted() {
-        // Arrange
+    void processClaimedRunAsync_runNoLongerProcessing_discardsResult_withoutFailing() throws Exception {
+        // Arrange: someone else finished (or failed) the run first
         Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenReturn(new ProcessResult(ProcessResult.PASS));
+        when(runTransitionService.markSucceeded(eq(runId), any(ProcessResult.class), any(OffsetDateTime.class)))
+                .thenReturn(false);
 
-        InstrumentRun run = new InstrumentRun();
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
-
-        ProcessingServiceImpl service = new ProcessingServiceImpl(
-                instrumentRunRepository,
-                instrumentRunEventRepository,
-                new ObjectMapper(),
-                1L // tiny delay
-        );
+        ProcessingServiceImpl service = service();
 
         // Act
-        service.processRunAsync(runId);
-
-        // Assert: final state SUCCEEDED
-        assertEquals(InstrumentRunStatus.SUCCEEDED, run.getStatus());
-        assertNotNull(run.getProcessingStartedAt());
-        assertNotNull(run.getProcessingCompletedAt());
-        assertNull(run.getErrorCode());
-        assertNull(run.getErrorMessage());
-
-        ProcessResult pr = run.getProcessResult();
-        assertNotNull(pr);
-        assertEquals("stub-result", pr.result());
-
-        // Saved at least twice: once for PROCESSING, once for SUCCEEDED
-        verify(instrumentRunRepository, atLeast(2)).save(same(run));
-
-        // Events: STARTED then COMPLETED
-        verify(instrumentRunEventRepository, times(2)).save(eventCaptor.capture());
-        InstrumentRunEvent first = eventCaptor.getAllValues().get(0);
-        InstrumentRunEvent second = eventCaptor.getAllValues().get(1);
-
-        assertEquals(InstrumentRunEventType.PROCESSING_STARTED, first.getEventType());
-        assertSame(run, first.getInstrumentRun());
-        assertNull(first.getDetails());
-
-        assertEquals(InstrumentRunEventType.PROCESSING_COMPLETED, second.getEventType());
-        assertSame(run, second.getInstrumentRun());
-        assertNull(second.getDetails());
+        service.processClaimedRunAsync(runId).join();
+
+        // Assert
+        verify(runTransitionService, never()).markFailed(anyLong(), any(), any(), any());
     }
 
     @Test
-    void processRunAsync_interrupted_marksFailed_andEmitsStartedAndFailed_withoutWaiting() {
+    void processClaimedRunAsync_runMissing_doesNotComputeOrTransition() {
         // Arrange
         Long runId = 123L;
+        when(processingInputLoader.load(runId)).thenReturn(null);
 
-        InstrumentRun run = new InstrumentRun();
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
-
-        ProcessingServiceImpl service = new ProcessingServiceImpl(
-                instrumentRunRepository,
-                instrumentRunEventRepository,
-                new ObjectMapper(),
-                10_000L // big delay; we interrupt so it doesn't wait
-        );
-
-        Thread.currentThread().interrupt();
+        ProcessingServiceImpl service = service();
 
-        try {
-            // Act
-            service.processRunAsync(runId);
+        // Act
+        service.processClaimedRunAsync(runId).join();
 
-            // Assert: final state FAILED
-            assertEquals(InstrumentRunStatus.FAILED, run.getStatus());
-            assertNotNull(run.getProcessingStartedAt());
-            assertNotNull(run.getProcessingCompletedAt());
-            assertEquals("INTERRUPTED", run.getErrorCode());
-            assertEquals("Processing thread interrupted", run.getErrorMessage());
+        // Assert
+        verifyNoInteractions(processingEngine, runTransitionService);
+    }
 
-            // Events: STARTED then FAILED
-            verify(instrumentRunEventRepository, times(2)).save(eventCaptor.capture());
-            InstrumentRunEvent first = eventCaptor.getAllValues().get(0);
-            InstrumentRunEvent second = eventCaptor.getAllValues().get(1);
+    @Test
+    void processClaimedRunAsync_interrupted_leavesRunToLeaseExpiry() throws Exception {
+        // Arrange: interrupted while waiting for the compute pool (shutdown)
+        Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenThrow(new InterruptedException());
 
-            assertEquals(InstrumentRunEventType.PROCESSING_STARTED, first.getEventType());
-            assertNull(first.getDetails());
+        ProcessingServiceImpl service = service();
 
-            assertEquals(InstrumentRunEventType.PROCESSING_FAILED, second.getEventType());
-            assertNotNull(second.getDetails());
+        try {
+            // Act
+            service.processClaimedRunAsync(runId).join();
 
-            ObjectNode details = (ObjectNode) second.getDetails();
-            assertEquals("INTERRUPTED", details.get("errorCode").asText());
-            assertEquals("Processing thread interrupted", details.get("errorMessage").asText());
+            // Assert: no transition at all, the run stays PROCESSING until its lease lapses
+            verifyNoInteractions(runTransitionService);
+            assertTrue(Thread.currentThread().isInterrupted());
         } finally {
             // Clear interrupt flag so other tests aren't affected
             Thread.interrupted();
@@ -144,50 +111,92 @@ class ProcessingServiceImplTest {
     }
 
     @Test
-    void processRunAsync_unexpectedException_marksFailed_andEmitsStartedAndFailed() {
-        // Arrange
+    void processClaimedRunAsync_pipelineCancelled_leavesRunToLeaseExpiry() throws Exception {
+        // Arrange: the compute pool was shut down under the pipeline
+        Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenThrow(new CancellationException());
+
+        ProcessingServiceImpl service = service();
+
+        // Act
+        service.processClaimedRunAsync(runId).join();
+
+        // Assert
+        verifyNoInteractions(runTransitionService);
+    }
+
+    @Test
+    void processClaimedRunAsync_pipelineThrows_marksFailed() throws Exception {
+        // Arrange: a stage blows up (e.g. arithmetic overflow)
         Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenThrow(new ArithmeticException("long overflow"));
+        when(runTransitionService.markFailed(eq(runId), any(), any(), any(OffsetDateTime.class))).thenReturn(true);
 
-        InstrumentRun run = new InstrumentRun();
-        when(instrumentRunRepository.findById(runId)).thenReturn(Optional.of(run));
+        ProcessingServiceImpl service = service();
 
-        // 1st save ok (PROCESSING), 2nd save throws (SUCCEEDED), 3rd save ok (markFailed)
-        when(instrumentRunRepository.save(same(run)))
-                .thenReturn(run)
-                .thenThrow(new RuntimeException("boom"))
-                .thenReturn(run);
+        // Act
+        service.processClaimedRunAsync(runId).join();
 
-        ProcessingServiceImpl service = new ProcessingServiceImpl(
-                instrumentRunRepository,
-                instrumentRunEventRepository,
-                new ObjectMapper(),
-                0L // no delay in unit tests
-        );
+        // Assert
+        verify(runTransitionService).markFailed(eq(runId), eq("UNEXPECTED_ERROR"), eq("long overflow"), any(OffsetDateTime.class));
+        verify(runTransitionService, never()).markSucceeded(anyLong(), any(), any());
+    }
+
+    @Test
+    void processClaimedRunAsync_transientDatabaseError_failsOnlyTheAttempt() throws Exception {
+        // Arrange: the result write times out on a row lock
+        Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenReturn(new ProcessResult(ProcessResult.PASS));
+        when(runTransitionService.markSucceeded(eq(runId), any(ProcessResult.class), any(OffsetDateTime.class)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+        when(runTransitionService.markAttemptFailed(eq(runId), any(), any(), any(OffsetDateTime.class))).thenReturn(true);
+
+        ProcessingServiceImpl service = service();
 
         // Act
-        service.processRunAsync(runId);
+        service.processClaimedRunAsync(runId).join();
 
-        // Assert: final state FAILED
-        assertEquals(InstrumentRunStatus.FAILED, run.getStatus());
-        assertNotNull(run.getProcessingStartedAt());
-        assertNotNull(run.getProcessingCompletedAt());
-        assertEquals("UNEXPECTED_ERROR", run.getErrorCode());
-        assertEquals("boom", run.getErrorMessage());
+        // Assert: retried (or dead-lettered) by the transition, never failed for good
+        verify(runTransitionService).markAttemptFailed(
+                eq(runId), eq("TRANSIENT_ERROR"), eq("lock timeout"), any(OffsetDateTime.class)
+        );
+        verify(runTransitionService, never()).markFailed(anyLong(), any(), any(), any());
+    }
 
-        // Assert: events STARTED then FAILED
-        verify(instrumentRunEventRepository, times(2)).save(eventCaptor.capture());
-        InstrumentRunEvent first = eventCaptor.getAllValues().get(0);
-        InstrumentRunEvent second = eventCaptor.getAllValues().get(1);
+    @Test
+    void processClaimedRunAsync_unexpectedException_marksFailed() throws Exception {
+        // Arrange: completing the run blows up
+        Long runId = 123L;
+        RunComputation computation = new RunComputation(runId, "INST-1", 0);
+        when(processingInputLoader.load(runId)).thenReturn(computation);
+        when(processingEngine.compute(computation)).thenReturn(new ProcessResult(ProcessResult.PASS));
+        when(runTransitionService.markSucceeded(eq(runId), any(ProcessResult.class), any(OffsetDateTime.class)))
+                .thenThrow(new RuntimeException("boom"));
+        when(runTransitionService.markFailed(eq(runId), any(), any(), any(OffsetDateTime.class))).thenReturn(true);
 
-        assertEquals(InstrumentRunEventType.PROCESSING_STARTED, first.getEventType());
-        assertNull(first.getDetails());
+        ProcessingServiceImpl service = service();
 
-        assertEquals(InstrumentRunEventType.PROCESSING_FAILED, second.getEventType());
-        assertNotNull(second.getDetails());
+        // Act
+        service.processClaimedRunAsync(runId).join();
 
-        ObjectNode details = (ObjectNode) second.getDetails();
-        assertEquals("UNEXPECTED_ERROR", details.get("errorCode").asText());
-        assertEquals("boom", details.get("errorMessage").asText());
+        // Assert
+        verify(runTransitionService).markFailed(eq(runId), eq("UNEXPECTED_ERROR"), eq("boom"), any(OffsetDateTime.class));
     }
 
+    private ProcessingServiceImpl service() {
+        return new ProcessingServiceImpl(
+                runTransitionService,
+                processingInputLoader,
+                processingEngine,
+                new DatabaseConcurrencyLimiter(1),
+                new ProcessingRetryPolicy(5, 1_000, 60_000),
+                new RunMetrics(new SimpleMeterRegistry())
+        );
+    }
 }
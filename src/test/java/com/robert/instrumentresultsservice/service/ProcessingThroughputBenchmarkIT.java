@@ -0,0 +1,100 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time to drain 10k queued runs through the processing queue.
+ * Excluded from the regular test task; compare executor modes with:
+ *   ./gradlew benchmarkTest -Dbenchmark.executor.mode=platform
+ *   ./gradlew benchmarkTest -Dbenchmark.executor.mode=virtual
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+        "processing.queue.enabled=true",
+        "processing.queue.poll-interval-ms=100",
+        "processing.queue.batch-size=500",
+        "processing.executor.mode=${benchmark.executor.mode:virtual}",
+        "processing.executor.max-concurrency=2000",
+        // platform mode can only hold max pool size + queue capacity (108) runs
+        "processing.queue.max-in-flight=${benchmark.max-in-flight:100}"
+})
+class ProcessingThroughputBenchmarkIT {
+
+    private static final int QUEUED_RUNS = 10_000;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Value("${processing.executor.mode}") String executorMode;
+    @Value("${processing.queue.max-in-flight}") int maxInFlight;
+
+    @Test
+    void drain10kQueuedRuns() {
+        // Arrange: 10k runs already in MEASUREMENTS_SUBMITTED
+        Instrument instrument = new Instrument();
+        instrument.setCode("BENCH-THROUGHPUT");
+        instrument.setName("Throughput Benchmark Instrument");
+        Long instrumentId = instrumentRepository.save(instrument).getId();
+
+        UUID clientId = UUID.randomUUID();
+        List<Object[]> rows = new ArrayList<>(QUEUED_RUNS);
+        for (int i = 0; i < QUEUED_RUNS; i++) {
+            rows.add(new Object[]{instrumentId, clientId});
+        }
+
+        long start = System.nanoTime();
+        jdbcTemplate.batchUpdate("""
+                insert into instrument_run (instrument_id, created_by_client_id, status, measurements_submitted_at)
+                values (?, ?, 'MEASUREMENTS_SUBMITTED', now())
+                """, rows);
+
+        // Act: wait for the queue to drain
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(30))
+                .pollInterval(Duration.ofMillis(500))
+                .until(() -> countInStatus(instrumentId, "MEASUREMENTS_SUBMITTED", "PROCESSING") == 0);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Assert: every run was processed successfully (none failed, retried out or dead-lettered)
+        assertEquals(QUEUED_RUNS, countInStatus(instrumentId, "SUCCEEDED"));
+
+        // Report
+        System.out.println();
+        System.out.printf(
+                "executor=%s maxInFlight=%d runs=%d elapsed=%.2fs throughput=%.1f runs/s%n",
+                executorMode,
+                maxInFlight,
+                QUEUED_RUNS,
+                seconds,
+                QUEUED_RUNS / seconds
+        );
+    }
+
+    private int countInStatus(Long instrumentId, String... statuses) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from instrument_run where instrument_id = ? and status = any(?)",
+                Integer.class,
+                instrumentId,
+                statuses
+        );
+        return count == null ? 0 : count;
+    }
+}
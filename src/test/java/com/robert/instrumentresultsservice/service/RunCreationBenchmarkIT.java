@@ -0,0 +1,88 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.service.command.NewInstrumentRun;
+import com.robert.instrumentresultsservice.service.result.BulkRunCreateResult;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time to create 10,000 runs: one createRun call per run vs. one createRuns call.
+ * Excluded from the regular test task; run with: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RunCreationBenchmarkIT {
+
+    private static final int RUN_COUNT = 10_000;
+    private static final String[] INSTRUMENT_CODES = {"BENCH-CREATE-1", "BENCH-CREATE-2", "BENCH-CREATE-3"};
+
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createRuns_bulkVsOneByOne() {
+        // Arrange
+        for (String code : INSTRUMENT_CODES) {
+            Instrument instrument = new Instrument();
+            instrument.setCode(code);
+            instrument.setName("Benchmark " + code);
+            instrumentRepository.save(instrument);
+        }
+
+        List<NewInstrumentRun> requests = new ArrayList<>(RUN_COUNT);
+        for (int i = 0; i < RUN_COUNT; i++) {
+            requests.add(new NewInstrumentRun(INSTRUMENT_CODES[i % INSTRUMENT_CODES.length], "BENCH-" + i));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UUID clientId = UUID.randomUUID();
+
+        // Warm up both paths
+        instrumentRunService.createRuns(requests.subList(0, 1_000), clientId);
+        for (int i = 0; i < 100; i++) {
+            instrumentRunService.createRun(INSTRUMENT_CODES[0], clientId, null);
+        }
+
+        // Act: one by one
+        statistics.clear();
+        long start = System.nanoTime();
+        for (NewInstrumentRun request : requests) {
+            instrumentRunService.createRun(request.instrumentCode(), clientId, request.externalReference());
+        }
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        // Act: bulk
+        statistics.clear();
+        start = System.nanoTime();
+        List<BulkRunCreateResult> results = instrumentRunService.createRuns(requests, clientId);
+        long bulkNanos = System.nanoTime() - start;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        System.out.println();
+        System.out.println("mode        | runs  | total ms | statements");
+        System.out.printf("one-by-one  | %5d | %8.1f | %d%n", RUN_COUNT, singleNanos / 1_000_000.0, singleStatements);
+        System.out.printf("bulk        | %5d | %8.1f | %d%n", RUN_COUNT, bulkNanos / 1_000_000.0, bulkStatements);
+
+        // Assert
+        assertTrue(results.stream().allMatch(BulkRunCreateResult::succeeded));
+        assertTrue(bulkStatements < RUN_COUNT / 10, "Expected batched run/event inserts");
+    }
+}
@@ -0,0 +1,78 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.InstrumentRunTransitioned;
+import com.robert.instrumentresultsservice.domain.ProcessingPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RunMetrics runMetrics = new RunMetrics(registry);
+
+    @Test
+    void onTransition_countsByResultingStatus() {
+        // Act
+        runMetrics.onTransition(new InstrumentRunTransitioned(
+                1L, InstrumentRunEventType.PROCESSING_COMPLETED, InstrumentRunStatus.SUCCEEDED, OffsetDateTime.now()));
+        runMetrics.onTransition(new InstrumentRunTransitioned(
+                2L, InstrumentRunEventType.PROCESSING_COMPLETED, InstrumentRunStatus.SUCCEEDED, OffsetDateTime.now()));
+
+        // Assert
+        assertEquals(2.0, registry.get("instrument.runs.transitions").tag("status", "SUCCEEDED").counter().count());
+        assertEquals(0.0, registry.get("instrument.runs.transitions").tag("status", "FAILED").counter().count());
+    }
+
+    @Test
+    void recordSubmit_recordsLatencyAndMeasurementCount() {
+        // Act
+        runMetrics.recordSubmit(TimeUnit.MILLISECONDS.toNanos(12), 40);
+        runMetrics.recordSubmitPhase(RunMetrics.SubmitPhase.PERSISTENCE, TimeUnit.MILLISECONDS.toNanos(9));
+
+        // Assert
+        assertEquals(1, registry.get("instrument.runs.submit").timer().count());
+        assertEquals(40.0, registry.get("instrument.runs.submit.measurements").summary().totalAmount());
+        assertEquals(9.0, registry.get("instrument.runs.submit.phase").tag("phase", "persistence").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordQueueWaitAndProcessing_ignoreMissingTimestamps() {
+        // Arrange
+        OffsetDateTime submitted = OffsetDateTime.parse("2026-01-04T12:00:00Z");
+        OffsetDateTime started = submitted.plusSeconds(2);
+        OffsetDateTime completed = started.plusSeconds(5);
+
+        // Act
+        runMetrics.recordQueueWait(ProcessingPriority.NORMAL, submitted, started);
+        runMetrics.recordQueueWait(ProcessingPriority.NORMAL, null, started);
+        runMetrics.recordProcessing(started, completed, false);
+
+        // Assert
+        assertEquals(1, registry.get("instrument.runs.queue.wait").tag("priority", "NORMAL").timer().count());
+        assertEquals(2.0, registry.get("instrument.runs.queue.wait").tag("priority", "NORMAL").timer()
+                .totalTime(TimeUnit.SECONDS));
+        assertEquals(5.0, registry.get("instrument.runs.processing").tag("outcome", "failed").timer()
+                .totalTime(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void recordQueueDepth_exposesLatestSamplePerPriority() {
+        // Act
+        runMetrics.recordQueueDepth(ProcessingPriority.BULK, 1200, Duration.ofSeconds(90));
+        runMetrics.recordQueueDepth(ProcessingPriority.BULK, 800, Duration.ofSeconds(45));
+
+        // Assert: gauges hold the last sample; untouched classes read zero
+        assertEquals(800.0, registry.get("instrument.runs.queue.depth").tag("priority", "BULK").gauge().value());
+        assertEquals(45_000.0, registry.get("instrument.runs.queue.oldest.wait").tag("priority", "BULK").gauge().value());
+        assertEquals(0.0, registry.get("instrument.runs.queue.depth").tag("priority", "INTERACTIVE").gauge().value());
+    }
+}
@@ -0,0 +1,170 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.domain.InstrumentRunTransitioned;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.exception.SubscriberLimitExceededException;
+import com.robert.instrumentresultsservice.repository.projection.RunStatusView;
+import com.robert.instrumentresultsservice.service.result.RunStatusUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RunStatusNotifierTest {
+
+    @Mock InstrumentRunRepository instrumentRunRepository;
+
+    RunStatusNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        // Run pushes inline so the test is deterministic
+        notifier = new RunStatusNotifier(instrumentRunRepository, Runnable::run, 60_000, 2);
+    }
+
+    @Test
+    void subscribe_unknownRun_throwsIllegalArgumentException() {
+        // Arrange
+        when(instrumentRunRepository.findStatusById(99L)).thenReturn(Optional.empty());
+
+        // Act + Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> notifier.subscribe(99L));
+        assertEquals("Instrument run not found: 99", ex.getMessage());
+        assertEquals(0, notifier.subscriberCount());
+    }
+
+    @Test
+    void transitionToTerminalStatus_completesStream_andDropsSubscriber() {
+        // Arrange
+        when(instrumentRunRepository.findStatusById(1L)).thenReturn(Optional.of(InstrumentRunStatus.PROCESSING));
+        notifier.subscribe(1L);
+        assertEquals(1, notifier.subscriberCount());
+
+        // Act
+        notifier.onTransition(transition(1L, InstrumentRunEventType.PROCESSING_COMPLETED));
+
+        // Assert
+        assertEquals(0, notifier.subscriberCount());
+    }
+
+    @Test
+    void subscribe_runAlreadyTerminal_completesImmediately() {
+        // Arrange
+        when(instrumentRunRepository.findStatusById(1L)).thenReturn(Optional.of(InstrumentRunStatus.SUCCEEDED));
+
+        // Act
+        notifier.subscribe(1L);
+
+        // Assert
+        assertEquals(0, notifier.subscriberCount());
+    }
+
+    @Test
+    void subscribe_beyondMaxSubscribers_throwsSubscriberLimitExceeded() {
+        // Arrange
+        when(instrumentRunRepository.findStatusById(anyLong())).thenReturn(Optional.of(InstrumentRunStatus.CREATED));
+        notifier.subscribe(1L);
+        notifier.subscribe(2L);
+
+        // Act + Assert: capacity, not a conflict with the run's state
+        assertThrows(SubscriberLimitExceededException.class, () -> notifier.subscribe(3L));
+        assertEquals(2, notifier.subscriberCount());
+    }
+
+    @Test
+    void reconcile_deliversStatusChangedOnAnotherNode_withOneSetBasedQuery() {
+        // Arrange
+        when(instrumentRunRepository.findStatusById(anyLong())).thenReturn(Optional.of(InstrumentRunStatus.PROCESSING));
+        notifier.subscribe(1L);
+        notifier.subscribe(2L);
+        when(instrumentRunRepository.findStatusesByIdIn(anyCollection())).thenReturn(List.of(
+                new RunStatusView(1L, InstrumentRunStatus.FAILED),
+                new RunStatusView(2L, InstrumentRunStatus.PROCESSING)
+        ));
+
+        // Act
+        notifier.reconcile();
+
+        // Assert: run 1 finished and was dropped, run 2 is still subscribed
+        verify(instrumentRunRepository, times(1)).findStatusesByIdIn(anyCollection());
+        assertEquals(1, notifier.subscriberCount());
+    }
+
+    @Test
+    void reconcile_readOvertakenByALocalTransition_isDropped() {
+        // Arrange: record what the stream sends
+        List<InstrumentRunStatus> sent = new ArrayList<>();
+        RunStatusNotifier recording = new RunStatusNotifier(instrumentRunRepository, Runnable::run, 60_000, 2) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        builder.build().stream()
+                                .filter(part -> part.getData() instanceof RunStatusUpdate)
+                                .forEach(part -> sent.add(((RunStatusUpdate) part.getData()).status()));
+                    }
+                };
+            }
+        };
+        when(instrumentRunRepository.findStatusById(1L)).thenReturn(Optional.of(InstrumentRunStatus.MEASUREMENTS_SUBMITTED));
+        recording.subscribe(1L);
+
+        // The reconcile read still sees MEASUREMENTS_SUBMITTED, but the run is claimed here meanwhile
+        when(instrumentRunRepository.findStatusesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            recording.onTransition(transition(1L, InstrumentRunEventType.PROCESSING_STARTED));
+            return List.of(new RunStatusView(1L, InstrumentRunStatus.MEASUREMENTS_SUBMITTED));
+        });
+
+        // Act
+        recording.reconcile();
+
+        // Assert: the stale read does not send the stream back
+        assertEquals(List.of(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, InstrumentRunStatus.PROCESSING), sent);
+    }
+
+    @Test
+    void pushesRunningOutOfOrder_stillDeliverInTransitionOrder() {
+        // Arrange: hold pushes so they can be run in reverse
+        List<Runnable> pushes = new ArrayList<>();
+        RunStatusNotifier pooled = new RunStatusNotifier(instrumentRunRepository, pushes::add, 60_000, 2);
+        when(instrumentRunRepository.findStatusById(1L)).thenReturn(Optional.of(InstrumentRunStatus.MEASUREMENTS_SUBMITTED));
+        pooled.subscribe(1L);
+        pooled.onTransition(transition(1L, InstrumentRunEventType.PROCESSING_STARTED));
+        pooled.onTransition(transition(1L, InstrumentRunEventType.PROCESSING_COMPLETED));
+
+        // Act: the later push runs first
+        pushes.get(1).run();
+
+        // Assert: it sent both, in order, so the stream completed; the earlier push finds nothing left
+        assertEquals(0, pooled.subscriberCount());
+        assertDoesNotThrow(() -> pushes.get(0).run());
+    }
+
+    @Test
+    void onTransition_withoutSubscribers_doesNothing() {
+        // Act
+        notifier.onTransition(transition(5L, InstrumentRunEventType.PROCESSING_STARTED));
+
+        // Assert
+        verifyNoInteractions(instrumentRunRepository);
+    }
+
+    private static InstrumentRunTransitioned transition(Long runId, InstrumentRunEventType type) {
+        return new InstrumentRunTransitioned(runId, type, type.resultingStatus(), OffsetDateTime.now());
+    }
+}
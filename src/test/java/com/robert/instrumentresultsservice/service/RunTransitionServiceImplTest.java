@@ -0,0 +1,175 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robert.instrumentresultsservice.domain.InstrumentRun;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEvent;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.repository.projection.RetryStateRow;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RunTransitionServiceImplTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-01-04T12:00:00Z");
+
+    @Mock InstrumentRunRepository instrumentRunRepository;
+    @Mock InstrumentRunEventRepository instrumentRunEventRepository;
+
+    String owner;
+    RunTransitionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ProcessingLeases processingLeases = new ProcessingLeases(instrumentRunRepository, 60_000, 20_000);
+        owner = processingLeases.owner();
+        service = new RunTransitionServiceImpl(
+                instrumentRunRepository,
+                instrumentRunEventRepository,
+                processingLeases,
+                new ProcessingRetryPolicy(5, 1_000, 60_000),
+                new ObjectMapper()
+        );
+    }
+
+    @Test
+    void markSucceeded_casApplied_emitsCompletedEvent_againstReferenceOnly() {
+        // Arrange
+        InstrumentRun reference = new InstrumentRun();
+        ProcessResult result = new ProcessResult(ProcessResult.PASS);
+        when(instrumentRunRepository.markSucceeded(7L, result, NOW, owner)).thenReturn(1);
+        when(instrumentRunRepository.getReferenceById(7L)).thenReturn(reference);
+
+        // Act
+        boolean succeeded = service.markSucceeded(7L, result, NOW);
+
+        // Assert
+        assertTrue(succeeded);
+        ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
+        verify(instrumentRunEventRepository).save(eventCaptor.capture());
+        assertEquals(InstrumentRunEventType.PROCESSING_COMPLETED, eventCaptor.getValue().getEventType());
+        assertSame(reference, eventCaptor.getValue().getInstrumentRun());
+        verify(instrumentRunRepository, never()).findById(any());
+    }
+
+    @Test
+    void markSucceeded_runNotProcessing_returnsFalse_andEmitsNothing() {
+        // Arrange
+        ProcessResult result = new ProcessResult(ProcessResult.PASS);
+        when(instrumentRunRepository.markSucceeded(7L, result, NOW, owner)).thenReturn(0);
+
+        // Act
+        boolean succeeded = service.markSucceeded(7L, result, NOW);
+
+        // Assert
+        assertFalse(succeeded);
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+
+    @Test
+    void markFailed_casApplied_emitsFailedEventWithErrorDetails() {
+        // Arrange
+        when(instrumentRunRepository.markFailed(7L, "UNEXPECTED_ERROR", "boom", NOW, owner)).thenReturn(1);
+        when(instrumentRunRepository.getReferenceById(7L)).thenReturn(new InstrumentRun());
+
+        // Act
+        boolean failed = service.markFailed(7L, "UNEXPECTED_ERROR", "boom", NOW);
+
+        // Assert
+        assertTrue(failed);
+        ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
+        verify(instrumentRunEventRepository).save(eventCaptor.capture());
+
+        InstrumentRunEvent event = eventCaptor.getValue();
+        assertEquals(InstrumentRunEventType.PROCESSING_FAILED, event.getEventType());
+        assertEquals("UNEXPECTED_ERROR", event.getDetails().get("errorCode").asText());
+        assertEquals("boom", event.getDetails().get("errorMessage").asText());
+    }
+
+    @Test
+    void markAttemptFailed_attemptsLeft_schedulesRetryWithinBackoff() {
+        // Arrange: second attempt of five (default cap), so the backoff ceiling is 2s
+        when(instrumentRunRepository.findRetryStateById(7L, owner)).thenReturn(Optional.of(new RetryStateRow(2, null)));
+        when(instrumentRunRepository.scheduleRetry(eq(7L), eq("TRANSIENT_ERROR"), eq("lock timeout"), any(), eq(NOW), eq(owner), eq(2)))
+                .thenReturn(1);
+        when(instrumentRunRepository.getReferenceById(7L)).thenReturn(new InstrumentRun());
+
+        // Act
+        boolean recorded = service.markAttemptFailed(7L, "TRANSIENT_ERROR", "lock timeout", NOW);
+
+        // Assert
+        assertTrue(recorded);
+        ArgumentCaptor<OffsetDateTime> nextAttemptAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(instrumentRunRepository).scheduleRetry(eq(7L), any(), any(), nextAttemptAt.capture(), eq(NOW), eq(owner), eq(2));
+        assertFalse(nextAttemptAt.getValue().isBefore(NOW.plusSeconds(1)));
+        assertFalse(nextAttemptAt.getValue().isAfter(NOW.plusSeconds(2)));
+        verify(instrumentRunRepository, never()).deadLetter(anyLong(), any(), any(), any(), any(), anyInt());
+
+        ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
+        verify(instrumentRunEventRepository).save(eventCaptor.capture());
+        assertEquals(InstrumentRunEventType.PROCESSING_RETRY_SCHEDULED, eventCaptor.getValue().getEventType());
+        assertEquals(2, eventCaptor.getValue().getDetails().get("attempt").asInt());
+    }
+
+    @Test
+    void markAttemptFailed_instrumentCapReached_deadLetters() {
+        // Arrange: the instrument allows two attempts and this was the second
+        when(instrumentRunRepository.findRetryStateById(7L, owner)).thenReturn(Optional.of(new RetryStateRow(2, 2)));
+        when(instrumentRunRepository.deadLetter(7L, "TRANSIENT_ERROR", "lock timeout", NOW, owner, 2)).thenReturn(1);
+        when(instrumentRunRepository.getReferenceById(7L)).thenReturn(new InstrumentRun());
+
+        // Act
+        boolean recorded = service.markAttemptFailed(7L, "TRANSIENT_ERROR", "lock timeout", NOW);
+
+        // Assert
+        assertTrue(recorded);
+        verify(instrumentRunRepository, never()).scheduleRetry(anyLong(), any(), any(), any(), any(), any(), anyInt());
+        ArgumentCaptor<InstrumentRunEvent> eventCaptor = ArgumentCaptor.forClass(InstrumentRunEvent.class);
+        verify(instrumentRunEventRepository).save(eventCaptor.capture());
+        assertEquals(InstrumentRunEventType.PROCESSING_DEAD_LETTERED, eventCaptor.getValue().getEventType());
+        assertEquals(2, eventCaptor.getValue().getDetails().get("maxAttempts").asInt());
+    }
+
+    @Test
+    void markAttemptFailed_runNotProcessing_returnsFalse_andWritesNothing() {
+        // Arrange
+        when(instrumentRunRepository.findRetryStateById(7L, owner)).thenReturn(Optional.empty());
+
+        // Act
+        boolean recorded = service.markAttemptFailed(7L, "TRANSIENT_ERROR", "lock timeout", NOW);
+
+        // Assert
+        assertFalse(recorded);
+        verify(instrumentRunRepository, never()).scheduleRetry(anyLong(), any(), any(), any(), any(), any(), anyInt());
+        verify(instrumentRunRepository, never()).deadLetter(anyLong(), any(), any(), any(), any(), anyInt());
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+
+    @Test
+    void markAttemptFailed_runReclaimedBeforeUpdate_returnsFalse_andEmitsNothing() {
+        // Arrange: attempt 2 was read, but the run was requeued and claimed again before the update
+        when(instrumentRunRepository.findRetryStateById(7L, owner)).thenReturn(Optional.of(new RetryStateRow(2, null)));
+        when(instrumentRunRepository.scheduleRetry(eq(7L), any(), any(), any(), eq(NOW), eq(owner), eq(2)))
+                .thenReturn(0);
+
+        // Act
+        boolean recorded = service.markAttemptFailed(7L, "TRANSIENT_ERROR", "lock timeout", NOW);
+
+        // Assert
+        assertFalse(recorded);
+        verifyNoInteractions(instrumentRunEventRepository);
+    }
+}
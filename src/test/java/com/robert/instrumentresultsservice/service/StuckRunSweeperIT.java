@@ -0,0 +1,137 @@
+package com.robert.instrumentresultsservice.service;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.*;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunEventRepository;
+import com.robert.instrumentresultsservice.repository.InstrumentRunRepository;
+import com.robert.instrumentresultsservice.service.result.ReclaimedRuns;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class StuckRunSweeperIT {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired ProcessingQueueService processingQueueService;
+
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired InstrumentRunRepository instrumentRunRepository;
+    @Autowired InstrumentRunEventRepository instrumentRunEventRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void expiredLease_isRequeued_keepingItsAttemptCount() {
+        // Arrange: a run whose node died on its first attempt
+        Long runId = processingRun("-1 minute", 1);
+
+        // Act
+        ReclaimedRuns reclaimed = processingQueueService.reclaimExpiredLeases(1000);
+
+        // Assert: back in the queue, lease cleared, attempts kept for the next claim to count on
+        assertTrue(reclaimed.requeued().contains(runId));
+        InstrumentRun run = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.MEASUREMENTS_SUBMITTED, run.getStatus());
+        assertNull(run.getLeaseOwner());
+        assertNull(run.getLeaseExpiresAt());
+        assertEquals(1, run.getProcessingAttempts());
+        assertEquals(InstrumentRunEventType.PROCESSING_REQUEUED, lastEventType(runId));
+    }
+
+    @Test
+    void expiredLease_onTheInstrumentsLastAttempt_deadLettersTheRun() {
+        // Arrange
+        Long runId = processingRun("-1 minute", MAX_ATTEMPTS);
+
+        // Act
+        ReclaimedRuns reclaimed = processingQueueService.reclaimExpiredLeases(1000);
+
+        // Assert
+        assertTrue(reclaimed.deadLettered().contains(runId));
+        InstrumentRun run = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.DEAD_LETTERED, run.getStatus());
+        assertEquals("LEASE_EXPIRED", run.getErrorCode());
+        assertNull(run.getLeaseOwner());
+        assertNotNull(run.getProcessingCompletedAt());
+        assertEquals(InstrumentRunEventType.PROCESSING_DEAD_LETTERED, lastEventType(runId));
+    }
+
+    @Test
+    void liveLease_isLeftAlone() {
+        // Arrange: still being renewed by its owner
+        Long runId = processingRun("1 minute", 1);
+
+        // Act
+        ReclaimedRuns reclaimed = processingQueueService.reclaimExpiredLeases(1000);
+
+        // Assert
+        assertFalse(reclaimed.requeued().contains(runId));
+        assertFalse(reclaimed.deadLettered().contains(runId));
+        assertEquals(InstrumentRunStatus.PROCESSING, instrumentRunRepository.findById(runId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void claim_leasesTheRunToThisNode_andCountsTheAttempt() {
+        // Arrange: a requeued run waiting for its second attempt
+        Long runId = processingRun("-1 minute", 1);
+        processingQueueService.reclaimExpiredLeases(1000);
+
+        // Act: other submitted runs may sit in the shared database, so claim until ours comes up
+        boolean claimed = false;
+        for (int i = 0; i < 100 && !claimed; i++) {
+            List<Long> batch = processingQueueService.claimNextBatch(100);
+            claimed = batch.contains(runId);
+            if (batch.isEmpty()) {
+                break;
+            }
+        }
+
+        // Assert
+        assertTrue(claimed);
+        InstrumentRun run = instrumentRunRepository.findById(runId).orElseThrow();
+        assertEquals(InstrumentRunStatus.PROCESSING, run.getStatus());
+        assertNotNull(run.getLeaseOwner());
+        assertTrue(run.getLeaseExpiresAt().isAfter(run.getProcessingStartedAt()));
+        assertEquals(2, run.getProcessingAttempts());
+    }
+
+    /**
+     * A run left in PROCESSING by another node, with its lease expiring at now() + leaseOffset.
+     */
+    private Long processingRun(String leaseOffset, int attempts) {
+        Instrument instrument = new Instrument();
+        instrument.setCode("SWEEP-" + UUID.randomUUID());
+        instrument.setName("Sweeper Instrument");
+        instrument.setMaxProcessingAttempts(MAX_ATTEMPTS);
+        instrumentRepository.save(instrument);
+
+        Long runId = instrumentRunService.createRun(instrument.getCode(), UUID.randomUUID(), null).runId();
+        jdbcTemplate.update("""
+                update instrument_run
+                set status = 'PROCESSING',
+                    measurements_submitted_at = now() - interval '10 minutes',
+                    processing_started_at = now() - interval '5 minutes',
+                    lease_owner = 'dead-node',
+                    lease_expires_at = now() + ?::interval,
+                    processing_attempts = ?
+                where id = ?
+                """, leaseOffset, attempts, runId);
+        return runId;
+    }
+
+    private InstrumentRunEventType lastEventType(Long runId) {
+        List<InstrumentRunEvent> events = instrumentRunEventRepository.findByInstrumentRunIdOrderByCreatedAtAsc(runId);
+        return events.get(events.size() - 1).getEventType();
+    }
+}
@@ -0,0 +1,151 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentMeasurement;
+import com.robert.instrumentresultsservice.domain.MeasurementDefinition;
+import com.robert.instrumentresultsservice.repository.InstrumentMeasurementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentContractCacheTest {
+
+    @Mock InstrumentMeasurementRepository instrumentMeasurementRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    InstrumentContractCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InstrumentContractCache(instrumentMeasurementRepository, meterRegistry);
+    }
+
+    @Test
+    void refresh_preloadsContracts_andLookupsDoNotQueryTheDatabase() {
+        // Arrange
+        List<InstrumentMeasurement> rows = List.of(
+                row(10L, "INST-1", 1L, "A", 1),
+                row(10L, "INST-1", 2L, "B", 2),
+                row(20L, "INST-2", 1L, "A", 1)
+        );
+        when(instrumentMeasurementRepository.findAllContracts()).thenReturn(rows);
+
+        // Act
+        int instruments = cache.refresh();
+        InstrumentContract byId = cache.getByInstrumentId(10L);
+        InstrumentContract byCode = cache.getByInstrumentCode("INST-2");
+
+        // Assert
+        assertEquals(2, instruments);
+        assertEquals(List.of("A", "B"), byId.requiredMeasurements().stream().map(ContractMeasurement::code).toList());
+        assertEquals(2L, byId.measurement("B").definitionId());
+        assertEquals(20L, byCode.instrumentId());
+
+        verify(instrumentMeasurementRepository).findAllContracts();
+        verifyNoMoreInteractions(instrumentMeasurementRepository);
+        assertEquals(2.0, requests("hit"));
+        assertEquals(0.0, requests("miss"));
+    }
+
+    @Test
+    void miss_loadsFromDatabaseOnce_thenServesFromSnapshot() {
+        // Arrange
+        List<InstrumentMeasurement> rows = List.of(row(10L, "INST-1", 1L, "A", 1));
+        when(instrumentMeasurementRepository.findContractByInstrumentId(10L)).thenReturn(rows);
+
+        // Act
+        InstrumentContract first = cache.getByInstrumentId(10L);
+        InstrumentContract second = cache.getByInstrumentId(10L);
+
+        // Assert
+        assertSame(first, second);
+        verify(instrumentMeasurementRepository, times(1)).findContractByInstrumentId(10L);
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    void miss_withNoContractRows_returnsEmptyContract_andIsNotCached() {
+        // Arrange
+        when(instrumentMeasurementRepository.findContractByInstrumentId(10L)).thenReturn(List.of());
+
+        // Act
+        InstrumentContract first = cache.getByInstrumentId(10L);
+        cache.getByInstrumentId(10L);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertNull(first.measurement("A"));
+        verify(instrumentMeasurementRepository, times(2)).findContractByInstrumentId(10L);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void refresh_replacesSnapshot() {
+        // Arrange
+        List<InstrumentMeasurement> before = List.of(row(10L, "INST-1", 1L, "A", 1));
+        List<InstrumentMeasurement> after = List.of(row(10L, "INST-1", 1L, "A", 1), row(10L, "INST-1", 2L, "B", 2));
+        when(instrumentMeasurementRepository.findAllContracts()).thenReturn(before).thenReturn(after);
+        cache.refresh();
+
+        // Act
+        cache.refresh();
+
+        // Assert
+        assertNotNull(cache.getByInstrumentId(10L).measurement("B"));
+        assertNotNull(cache.loadedAt());
+    }
+
+    @Test
+    void refresh_resolvesSpecLimits_instrumentOverrideWinsPerBound() {
+        // Arrange: definition 0..500 (warn <= 400); the instrument narrows only the high bounds
+        InstrumentMeasurement row = row(10L, "INST-1", 1L, "A", 1);
+        MeasurementDefinition definition = row.getMeasurementDefinition();
+        when(definition.getSpecLow()).thenReturn(BigDecimal.ZERO);
+        when(definition.getSpecHigh()).thenReturn(new BigDecimal("500"));
+        when(definition.getWarnHigh()).thenReturn(new BigDecimal("400"));
+        when(row.getSpecHigh()).thenReturn(new BigDecimal("250"));
+        when(row.getWarnHigh()).thenReturn(new BigDecimal("200.5"));
+        when(instrumentMeasurementRepository.findAllContracts()).thenReturn(List.of(row));
+
+        // Act
+        cache.refresh();
+        MeasurementSpec spec = cache.getByInstrumentId(10L).measurement("A").spec();
+
+        // Assert
+        assertEquals(new MeasurementSpec(0, 250_000_000L, Long.MIN_VALUE, 200_500_000L), spec);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("instrument.contract.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static InstrumentMeasurement row(Long instrumentId, String instrumentCode, Long definitionId, String code, int displayOrder) {
+        Instrument instrument = mock(Instrument.class);
+        lenient().when(instrument.getId()).thenReturn(instrumentId);
+        lenient().when(instrument.getCode()).thenReturn(instrumentCode);
+
+        MeasurementDefinition definition = mock(MeasurementDefinition.class);
+        lenient().when(definition.getId()).thenReturn(definitionId);
+        lenient().when(definition.getCode()).thenReturn(code);
+        lenient().when(definition.getName()).thenReturn(code);
+        lenient().when(definition.getUnit()).thenReturn("mg");
+
+        InstrumentMeasurement im = mock(InstrumentMeasurement.class);
+        lenient().when(im.getInstrument()).thenReturn(instrument);
+        lenient().when(im.getMeasurementDefinition()).thenReturn(definition);
+        lenient().when(im.getDisplayOrder()).thenReturn(displayOrder);
+        return im;
+    }
+}
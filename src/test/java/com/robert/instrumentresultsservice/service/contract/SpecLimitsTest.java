@@ -0,0 +1,108 @@
+package com.robert.instrumentresultsservice.service.contract;
+
+import com.robert.instrumentresultsservice.domain.SpecStatus;
+import com.robert.instrumentresultsservice.service.measurement.MeasurementValues;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.robert.instrumentresultsservice.service.measurement.MicroUnits.ONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecLimitsTest {
+
+    // A: spec 0..100, warn 5..90. B: no limits. C: spec >= 10 only.
+    private final InstrumentContract contract = InstrumentContract.of(10L, "INST-1", List.of(
+            new ContractMeasurement(3L, "A", "Alpha", "mg", 1, new MeasurementSpec(0, 100 * ONE, 5 * ONE, 90 * ONE)),
+            new ContractMeasurement(1L, "B", "Beta", "mg", 2),
+            new ContractMeasurement(2L, "C", "Gamma", "mg", 3,
+                    new MeasurementSpec(10 * ONE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE))
+    ));
+
+    @Test
+    void of_keepsOnlyBoundedMeasurements() {
+        SpecLimits limits = contract.specLimits();
+
+        assertEquals(2, limits.size());
+        assertEquals(-1, limits.indexOf(1L));
+        assertEquals(100 * ONE, limits.specHigh(limits.indexOf(3L)));
+    }
+
+    @Test
+    void measurementSpecOf_boundBeyondTheMicroUnitRange_isClampedInsteadOfThrowing() {
+        // NUMERIC(19,6) holds up to 9999999999999.999999; micro-units stop at about 9.22e12
+        MeasurementSpec spec = MeasurementSpec.of(
+                new BigDecimal("-9999999999999.999999"),
+                new BigDecimal("9999999999999.999999"),
+                new BigDecimal("-1.5"),
+                new BigDecimal("9223372036854.775807")
+        );
+
+        assertEquals(Long.MIN_VALUE, spec.specLowMicros());
+        assertEquals(Long.MAX_VALUE, spec.specHighMicros());
+        assertEquals(-1_500_000L, spec.warnLowMicros());
+        assertEquals(Long.MAX_VALUE, spec.warnHighMicros());
+    }
+
+    @Test
+    void evaluate_returnsWorstStatus_boundsInclusive() {
+        assertEquals(SpecStatus.IN_SPEC, contract.specStatus(values(3L, 90 * ONE, 2L, 10 * ONE)));
+        assertEquals(SpecStatus.WARNING, contract.specStatus(values(3L, 90 * ONE + 1, 2L, 10 * ONE)));
+        assertEquals(SpecStatus.OUT_OF_SPEC, contract.specStatus(values(3L, 50 * ONE, 2L, 10 * ONE - 1)));
+        assertEquals(SpecStatus.OUT_OF_SPEC, contract.specStatus(values(3L, -1, 2L, 10 * ONE)));
+        // No limits on B
+        assertEquals(SpecStatus.IN_SPEC, contract.specStatus(values(1L, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void emptyContract_isAlwaysInSpec() {
+        InstrumentContract empty = InstrumentContract.empty(10L, "INST-1");
+
+        assertTrue(empty.specLimits().isEmpty());
+        assertEquals(SpecStatus.IN_SPEC, empty.specStatus(values(3L, -1)));
+    }
+
+    @Test
+    void batch_matchesSingleRunEvaluation_acrossContracts() {
+        // Arrange: more values than the initial capacity, mixed with a contract without limits
+        SpecLimitBatch batch = new SpecLimitBatch(1);
+        InstrumentContract unbounded = InstrumentContract.of(20L, "INST-2", List.of(
+                new ContractMeasurement(3L, "A", "Alpha", "mg", 1)
+        ));
+        List<MeasurementValues> runs = List.of(
+                values(3L, 1 * ONE, 2L, 20 * ONE),
+                values(3L, 50 * ONE, 2L, 20 * ONE),
+                values(3L, 101 * ONE, 2L, 20 * ONE),
+                values(3L, 50 * ONE, 2L, 5 * ONE, 1L, 7 * ONE)
+        );
+        for (int i = 0; i < 20; i++) {
+            for (MeasurementValues run : runs) {
+                batch.add(contract.specLimits(), run);
+            }
+        }
+        int unboundedRun = batch.add(unbounded.specLimits(), values(3L, 101 * ONE));
+
+        // Act
+        SpecStatus[] statuses = batch.evaluate();
+
+        // Assert
+        assertEquals(81, statuses.length);
+        for (int i = 0; i < 80; i++) {
+            assertEquals(contract.specStatus(runs.get(i % runs.size())), statuses[i]);
+        }
+        assertEquals(SpecStatus.WARNING, statuses[0]);
+        assertEquals(SpecStatus.IN_SPEC, statuses[1]);
+        assertEquals(SpecStatus.OUT_OF_SPEC, statuses[2]);
+        assertEquals(SpecStatus.OUT_OF_SPEC, statuses[3]);
+        assertEquals(SpecStatus.IN_SPEC, statuses[unboundedRun]);
+    }
+
+    private static MeasurementValues values(long... definitionIdAndMicros) {
+        MeasurementValues.Builder builder = MeasurementValues.builder(definitionIdAndMicros.length / 2);
+        for (int i = 0; i < definitionIdAndMicros.length; i += 2) {
+            builder.add(definitionIdAndMicros[i], definitionIdAndMicros[i + 1]);
+        }
+        return builder.build();
+    }
+}
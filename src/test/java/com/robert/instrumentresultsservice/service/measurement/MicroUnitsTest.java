@@ -0,0 +1,64 @@
+package com.robert.instrumentresultsservice.service.measurement;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroUnitsTest {
+
+    @Test
+    void toMicros_andBack_isLossless_acrossScales() {
+        for (String value : new String[]{"0", "1.25", "-7.5", "1.230000", "0.000001", "1E+3", "9223372036854.775807"}) {
+            // Act
+            long micros = MicroUnits.toMicros(new BigDecimal(value));
+
+            // Assert: numerically equal (scale may differ)
+            assertEquals(0, new BigDecimal(value).compareTo(MicroUnits.toBigDecimal(micros)), value);
+        }
+        assertEquals(1_250_000L, MicroUnits.toMicros(new BigDecimal("1.25")));
+    }
+
+    @Test
+    void toMicros_trailingZerosPastScale_areAccepted() {
+        assertEquals(1_000_000L, MicroUnits.toMicros(new BigDecimal("1.000000000")));
+    }
+
+    @Test
+    void toMicros_notRepresentable_throws() {
+        // More than 6 significant decimals, and beyond the long range
+        assertThrows(ArithmeticException.class, () -> MicroUnits.toMicros(new BigDecimal("1.0000001")));
+        assertThrows(ArithmeticException.class, () -> MicroUnits.toMicros(new BigDecimal("9223372036854.775808")));
+    }
+
+    @Test
+    void measurementValues_builder_keepsOrder_andAggregatesOnLongs() {
+        // Arrange: more entries than the size guess
+        MeasurementValues values = MeasurementValues.builder(1)
+                .add(10L, 1_500_000L)
+                .add(20L, -250_000L)
+                .add(30L, 3_000_000L)
+                .build();
+
+        // Assert
+        assertEquals(3, values.size());
+        assertEquals(20L, values.definitionId(1));
+        assertEquals(1, values.indexOf(20L));
+        assertEquals(-1, values.indexOf(99L));
+        assertEquals(4_250_000L, values.sumMicros());
+        assertEquals(-250_000L, values.minMicros());
+        assertEquals(3_000_000L, values.maxMicros());
+        assertEquals(new BigDecimal("1.500000"), values.value(0));
+    }
+
+    @Test
+    void measurementValues_sumOverflow_throws() {
+        MeasurementValues values = MeasurementValues.builder(2)
+                .add(1L, Long.MAX_VALUE)
+                .add(2L, 1L)
+                .build();
+
+        assertThrows(ArithmeticException.class, values::sumMicros);
+    }
+}
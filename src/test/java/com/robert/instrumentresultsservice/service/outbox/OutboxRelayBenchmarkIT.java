@@ -0,0 +1,71 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Relay throughput: time to publish a 250k-event outbox backlog (target: 50k events/s).
+ * Excluded from the regular test task; run with:
+ *   ./gradlew benchmarkTest -Dbenchmark.outbox.batch-size=5000
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+        "outbox.enabled=true",
+        // Broker stand-in; keeps the sink cost out of the measurement
+        "outbox.sink=log",
+        "outbox.relay.poll-interval-ms=600000",
+        "outbox.relay.batch-size=${benchmark.outbox.batch-size:5000}"
+})
+class OutboxRelayBenchmarkIT {
+
+    private static final int EVENTS = 250_000;
+
+    @Autowired OutboxRelay outboxRelay;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Value("${outbox.relay.batch-size}") int batchSize;
+
+    @Test
+    void relay250kEvents() {
+        // Arrange: backlog written directly (the write side is covered by OutboxRelayIT)
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            rows.add(new Object[]{(long) i + 1, "CREATED", "CREATED", now});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into run_event_outbox (instrument_run_id, event_type, status, occurred_at)
+                values (?, ?, ?, ?)
+                """, rows);
+
+        // Act
+        long start = System.nanoTime();
+        long relayed = outboxRelay.drain();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Report
+        System.out.println();
+        System.out.printf(
+                "batchSize=%d events=%d elapsed=%.2fs throughput=%.0f events/s%n",
+                batchSize,
+                relayed,
+                seconds,
+                relayed / seconds
+        );
+        assertEquals(EVENTS, relayed);
+    }
+}
@@ -0,0 +1,122 @@
+package com.robert.instrumentresultsservice.service.outbox;
+
+import com.robert.instrumentresultsservice.TestcontainersConfiguration;
+import com.robert.instrumentresultsservice.domain.Instrument;
+import com.robert.instrumentresultsservice.domain.InstrumentRunEventType;
+import com.robert.instrumentresultsservice.domain.InstrumentRunStatus;
+import com.robert.instrumentresultsservice.repository.InstrumentRepository;
+import com.robert.instrumentresultsservice.service.InstrumentRunService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({TestcontainersConfiguration.class, OutboxRelayIT.CapturingListenerConfig.class})
+@SpringBootTest(properties = {
+        "outbox.enabled=true",
+        "outbox.sink=events",
+        // The test drives the relay itself
+        "outbox.relay.poll-interval-ms=600000",
+        "outbox.relay.batch-size=2"
+})
+class OutboxRelayIT {
+
+    @Autowired InstrumentRunService instrumentRunService;
+    @Autowired InstrumentRepository instrumentRepository;
+    @Autowired OutboxRelay outboxRelay;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired CapturingListener capturingListener;
+
+    @Test
+    void committedTransitions_areWrittenToTheOutbox_andRelayedInOrder() {
+        // Arrange: three committed creates
+        String instrumentCode = saveInstrument();
+        UUID clientId = UUID.randomUUID();
+        List<Long> runIds = List.of(
+                instrumentRunService.createRun(instrumentCode, clientId, null).runId(),
+                instrumentRunService.createRun(instrumentCode, clientId, null).runId(),
+                instrumentRunService.createRun(instrumentCode, clientId, null).runId()
+        );
+        assertEquals(3, outboxRowsFor(runIds));
+
+        // Act: batch size 2, so this takes two batches
+        outboxRelay.drain();
+
+        // Assert: each run's CREATED event delivered once, in outbox id order, and removed from the outbox
+        List<OutboxMessage> relayed = capturingListener.messages.stream()
+                .filter(m -> runIds.contains(m.runId()))
+                .toList();
+        assertEquals(runIds, relayed.stream().map(OutboxMessage::runId).toList());
+        assertTrue(relayed.stream().allMatch(m -> m.eventType() == InstrumentRunEventType.CREATED));
+        assertTrue(relayed.stream().allMatch(m -> m.status() == InstrumentRunStatus.CREATED));
+        for (int i = 1; i < relayed.size(); i++) {
+            assertTrue(relayed.get(i - 1).id() < relayed.get(i).id());
+        }
+        assertEquals(0, outboxRowsFor(runIds));
+    }
+
+    @Test
+    void rolledBackTransaction_writesNothingToTheOutbox() {
+        // Arrange
+        String instrumentCode = saveInstrument();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Act: create inside a transaction that rolls back
+        Long runId = tx.execute(status -> {
+            Long id = instrumentRunService.createRun(instrumentCode, UUID.randomUUID(), null).runId();
+            status.setRollbackOnly();
+            return id;
+        });
+
+        // Assert
+        assertEquals(0, outboxRowsFor(List.of(runId)));
+    }
+
+    private String saveInstrument() {
+        Instrument instrument = new Instrument();
+        instrument.setCode("OUTBOX-" + UUID.randomUUID());
+        instrument.setName("Outbox Instrument");
+        return instrumentRepository.save(instrument).getCode();
+    }
+
+    private int outboxRowsFor(List<Long> runIds) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from run_event_outbox where instrument_run_id = any(?)",
+                Integer.class,
+                (Object) runIds.toArray(new Long[0])
+        );
+        return count == null ? 0 : count;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CapturingListenerConfig {
+
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    static class CapturingListener {
+
+        final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void on(OutboxMessage message) {
+            messages.add(message);
+        }
+    }
+}
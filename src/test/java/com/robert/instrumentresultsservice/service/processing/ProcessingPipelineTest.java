@@ -0,0 +1,140 @@
+package com.robert.instrumentresultsservice.service.processing;
+
+import com.robert.instrumentresultsservice.config.ProcessingPipelineConfig;
+import com.robert.instrumentresultsservice.service.contract.MeasurementSpec;
+import com.robert.instrumentresultsservice.service.result.ProcessResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.robert.instrumentresultsservice.service.measurement.MicroUnits.ONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingPipelineTest {
+
+    private static final MeasurementSpec A_SPEC = new MeasurementSpec(0, 100 * ONE, 5 * ONE, 90 * ONE);
+    private static final MeasurementSpec B_SPEC = new MeasurementSpec(0, 1000 * ONE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final ProcessingPipelineConfig config = new ProcessingPipelineConfig();
+    private final ProcessingPipelines pipelines = new ProcessingPipelines(List.of(
+            config.defaultProcessingPipeline(),
+            config.demoInstrument001Pipeline()
+    ));
+
+    @Test
+    void forInstrument_selectsClaimingPipeline_orDefault() {
+        assertEquals("demo-001", pipelines.forInstrument("INSTR_DEMO_001").name());
+        assertEquals("default", pipelines.forInstrument("INSTR_DEMO_002").name());
+        assertEquals("default", pipelines.forInstrument("UNKNOWN").name());
+    }
+
+    @Test
+    void demoPipeline_derivesRatioAndSum_andPassesWithinLimits() {
+        // Arrange
+        RunComputation computation = new RunComputation(1L, "INSTR_DEMO_001", 2);
+        computation.addSubmitted("meas_demo_a", 1_250_000L, "unitA", A_SPEC); // 1.25
+        computation.addSubmitted("meas_demo_b", 7_500_000L, "unitB", B_SPEC); // 7.5
+
+        // Act
+        ProcessResult result = pipelines.forInstrument("INSTR_DEMO_001").run(computation);
+
+        // Assert
+        assertEquals(ProcessResult.PASS, result.result());
+        assertEquals("demo-001", result.pipeline());
+        assertEquals(4, result.values().size());
+
+        ProcessResult.Value ratio = result.values().get(2);
+        assertEquals("ratio_a_b", ratio.code());
+        assertEquals(new BigDecimal("0.166667"), ratio.value());
+        assertTrue(ratio.derived());
+
+        ProcessResult.Value sum = result.values().get(3);
+        assertEquals("sum_a_b", sum.code());
+        assertEquals(new BigDecimal("8.75"), sum.value());
+
+        assertEquals(3, result.limitChecks().size());
+        assertTrue(result.limitChecks().stream().allMatch(ProcessResult.LimitCheck::passed));
+    }
+
+    @Test
+    void demoPipeline_ratioOverLimit_fails() {
+        // Arrange: a / b = 20, limit is 10
+        RunComputation computation = new RunComputation(1L, "INSTR_DEMO_001", 2);
+        computation.addSubmitted("meas_demo_a", 40 * ONE, "unitA");
+        computation.addSubmitted("meas_demo_b", 2 * ONE, "unitB");
+
+        // Act
+        ProcessResult result = pipelines.forInstrument("INSTR_DEMO_001").run(computation);
+
+        // Assert
+        assertEquals(ProcessResult.FAIL, result.result());
+        ProcessResult.LimitCheck ratioCheck = result.limitChecks().stream()
+                .filter(check -> check.code().equals("ratio_a_b"))
+                .findFirst()
+                .orElseThrow();
+        assertFalse(ratioCheck.passed());
+        assertNull(ratioCheck.low());
+        assertEquals(new BigDecimal("10"), ratioCheck.high());
+    }
+
+    @Test
+    void demoPipeline_submittedValueOutOfSpec_fails() {
+        // Arrange: a is above its contract spec (0..100)
+        RunComputation computation = new RunComputation(1L, "INSTR_DEMO_001", 2);
+        computation.addSubmitted("meas_demo_a", 150 * ONE, "unitA", A_SPEC);
+        computation.addSubmitted("meas_demo_b", 500 * ONE, "unitB", B_SPEC);
+
+        // Act
+        ProcessResult result = pipelines.forInstrument("INSTR_DEMO_001").run(computation);
+
+        // Assert
+        assertEquals(ProcessResult.FAIL, result.result());
+        ProcessResult.LimitCheck aCheck = result.limitChecks().get(0);
+        assertEquals("meas_demo_a", aCheck.code());
+        assertEquals(new BigDecimal("0"), aCheck.low());
+        assertEquals(new BigDecimal("100"), aCheck.high());
+        assertFalse(aCheck.passed());
+    }
+
+    @Test
+    void demoPipeline_divisionByZero_skipsRatio() {
+        // Arrange
+        RunComputation computation = new RunComputation(1L, "INSTR_DEMO_001", 2);
+        computation.addSubmitted("meas_demo_a", ONE, "unitA");
+        computation.addSubmitted("meas_demo_b", 0, "unitB");
+
+        // Act
+        ProcessResult result = pipelines.forInstrument("INSTR_DEMO_001").run(computation);
+
+        // Assert: only the sum is derived
+        assertEquals(List.of("meas_demo_a", "meas_demo_b", "sum_a_b"),
+                result.values().stream().map(ProcessResult.Value::code).toList());
+        assertEquals(ProcessResult.PASS, result.result());
+    }
+
+    @Test
+    void defaultPipeline_normalizesUnits() {
+        // Arrange
+        RunComputation computation = new RunComputation(1L, "OTHER", 3);
+        computation.addSubmitted("glucose", 95 * ONE, "mg/dL");
+        computation.addSubmitted("temp", 212 * ONE, "degF");
+        computation.addSubmitted("count", 7 * ONE, "cells");
+
+        // Act
+        ProcessResult result = pipelines.forInstrument("OTHER").run(computation);
+
+        // Assert
+        assertEquals(new ProcessResult.Value("glucose", new BigDecimal("950"), "mg/L", false), result.values().get(0));
+        assertEquals(new ProcessResult.Value("temp", new BigDecimal("100"), "degC", false), result.values().get(1));
+        assertEquals(new ProcessResult.Value("count", new BigDecimal("7"), "cells", false), result.values().get(2));
+        assertEquals(ProcessResult.PASS, result.result());
+        assertTrue(result.limitChecks().isEmpty());
+    }
+
+    @Test
+    void pipelines_withoutDefault_rejected() {
+        assertThrows(IllegalStateException.class,
+                () -> new ProcessingPipelines(List.of(config.demoInstrument001Pipeline())));
+    }
+}